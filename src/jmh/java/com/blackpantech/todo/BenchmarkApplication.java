@@ -0,0 +1,61 @@
+package com.blackpantech.todo;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Starts the application for benchmarks, against an in-memory H2 database
+ */
+public final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * Starts the application with given extra properties
+     *
+     * @param properties extra properties, as "key=value"
+     *
+     * @return started application context, to be closed by the benchmark
+     */
+    public static ConfigurableApplicationContext start(final String... properties) {
+        return start(WebApplicationType.NONE, properties);
+    }
+
+    /**
+     * Starts the application with its web server on a random port, read from the local.server.port property
+     *
+     * @param properties extra properties, as "key=value"
+     *
+     * @return started application context, to be closed by the benchmark
+     */
+    public static ConfigurableApplicationContext startServer(final String... properties) {
+        return start(WebApplicationType.SERVLET, properties);
+    }
+
+    /**
+     * Starts the application as given web application with given extra properties
+     *
+     * @param webApplicationType type of web application
+     * @param properties extra properties, as "key=value"
+     *
+     * @return started application context
+     */
+    private static ConfigurableApplicationContext start(final WebApplicationType webApplicationType,
+                                                        final String... properties) {
+        return new SpringApplicationBuilder(TodoApplication.class)
+                .web(webApplicationType)
+                .logStartupInfo(false)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "cors.allowed-origins=localhost",
+                        "server.port=0"
+                )
+                .properties(properties)
+                .run();
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.blackpantech.todo.infra.cache;
+
+import com.blackpantech.todo.BenchmarkApplication;
+import com.blackpantech.todo.domain.task.Task;
+import com.blackpantech.todo.domain.task.TaskService;
+import com.blackpantech.todo.domain.task.TaskToCreate;
+import com.blackpantech.todo.domain.task.exceptions.DuplicatedTaskTitleException;
+import com.blackpantech.todo.domain.task.exceptions.TaskNotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks single task reads through the task service with and without the task cache, sampling latencies to
+ * compare their percentiles
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class CachingTaskRepositoryBenchmark {
+
+    @Param({"true", "false"})
+    boolean cacheEnabled;
+
+    @Param({"10000"})
+    int tableSize;
+
+    ConfigurableApplicationContext context;
+
+    TaskService taskService;
+
+    long[] ids;
+
+    @Setup
+    public void setUp() throws DuplicatedTaskTitleException {
+        context = BenchmarkApplication.start("todo.cache.enabled=" + cacheEnabled);
+        taskService = context.getBean(TaskService.class);
+
+        final List<TaskToCreate> tasksToCreate = new ArrayList<>(tableSize);
+        for (int i = 0; i < tableSize; i++) {
+            tasksToCreate.add(new TaskToCreate("title " + i, null));
+        }
+        ids = taskService.createTasks(tasksToCreate).stream().mapToLong(Task::id).toArray();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Task getTask() throws TaskNotFoundException {
+        return taskService.getTask(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+}
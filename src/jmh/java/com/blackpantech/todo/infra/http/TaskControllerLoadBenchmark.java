@@ -0,0 +1,120 @@
+package com.blackpantech.todo.infra.http;
+
+import com.blackpantech.todo.BenchmarkApplication;
+import com.blackpantech.todo.domain.task.Task;
+import com.blackpantech.todo.domain.task.TaskService;
+import com.blackpantech.todo.domain.task.TaskToCreate;
+import com.blackpantech.todo.domain.task.exceptions.DuplicatedTaskTitleException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of GET /tasks/{id} served on platform threads (default profile) or on virtual threads ('virtual'
+ * profile). Each invocation sends a burst of concurrent requests and waits for all responses; the task cache is
+ * disabled so that every request reaches the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TaskControllerLoadBenchmark {
+
+    @Param({"default", "virtual"})
+    String profile;
+
+    @Param({"1000", "5000"})
+    int concurrency;
+
+    @Param({"10000"})
+    int tableSize;
+
+    ConfigurableApplicationContext context;
+
+    ExecutorService clientExecutor;
+
+    HttpClient httpClient;
+
+    List<HttpRequest> requests;
+
+    @Setup
+    public void setUp() throws DuplicatedTaskTitleException {
+        context = BenchmarkApplication.startServer(
+                "spring.profiles.active=" + profile,
+                "todo.cache.enabled=false"
+        );
+
+        final List<TaskToCreate> tasksToCreate = new ArrayList<>(tableSize);
+        for (int i = 0; i < tableSize; i++) {
+            tasksToCreate.add(new TaskToCreate("title " + i, null));
+        }
+        final List<Task> tasks = context.getBean(TaskService.class).createTasks(tasksToCreate);
+
+        final String baseUri = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        requests = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            requests.add(HttpRequest.newBuilder(URI.create(baseUri + "/tasks/" + tasks.get(i % tableSize).id()))
+                    .GET()
+                    .build());
+        }
+
+        // The client always uses virtual threads, so that only the server threading differs between profiles
+        clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        httpClient = HttpClient.newBuilder()
+                .executor(clientExecutor)
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        httpClient.close();
+        clientExecutor.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int getTasksConcurrently() {
+        final List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(concurrency);
+        for (final HttpRequest request : requests) {
+            responses.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+
+        int succeeded = 0;
+        for (final CompletableFuture<HttpResponse<Void>> response : responses) {
+            if (response.join().statusCode() == 200) {
+                succeeded++;
+            }
+        }
+
+        if (succeeded != concurrency) {
+            throw new IllegalStateException((concurrency - succeeded) + " requests failed");
+        }
+
+        return succeeded;
+    }
+
+}
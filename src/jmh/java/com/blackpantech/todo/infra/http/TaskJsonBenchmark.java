@@ -0,0 +1,59 @@
+package com.blackpantech.todo.infra.http;
+
+import com.blackpantech.todo.domain.task.Task;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the JSON serialisation of the task list returned by GET /tasks
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskJsonBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    int tableSize;
+
+    List<Task> tasks;
+
+    ObjectWriter objectWriter;
+
+    @Setup
+    public void setUp() {
+        final LocalDateTime dueDate = LocalDateTime.parse("2025-08-23T22:00:00");
+        tasks = new ArrayList<>(tableSize);
+        for (int i = 0; i < tableSize; i++) {
+            tasks.add(new Task(i, "title " + i, i % 2 == 0, i, i % 3 == 0 ? null : dueDate, 0L));
+        }
+
+        // Same defaults as the object mapper used by the controller message converters
+        objectWriter = Jackson2ObjectMapperBuilder.json().build().writerFor(List.class);
+    }
+
+    @Benchmark
+    public byte[] writeAllTasks() throws JsonProcessingException {
+        return objectWriter.writeValueAsBytes(tasks);
+    }
+
+}
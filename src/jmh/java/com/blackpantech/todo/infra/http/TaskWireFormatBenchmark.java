@@ -0,0 +1,127 @@
+package com.blackpantech.todo.infra.http;
+
+import com.blackpantech.todo.domain.task.Task;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the encoding and decoding of the task list by the message converters of each negotiated format, with
+ * the encoded bytes per task reported next to the decoding times
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskWireFormatBenchmark {
+
+    private static final Type TASKS_TYPE = new ParameterizedTypeReference<List<Task>>() { }.getType();
+
+    @Param({"json", "cbor", "smile", "protobuf"})
+    String format;
+
+    @Param({"100", "10000"})
+    int tableSize;
+
+    List<Task> tasks;
+
+    AbstractJackson2HttpMessageConverter converter;
+
+    MediaType mediaType;
+
+    byte[] encodedTasks;
+
+    /**
+     * Size of the encoded task list, reported as an extra result of the decoding benchmark
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedSize {
+
+        public long bytesPerTask;
+
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        final LocalDateTime dueDate = LocalDateTime.parse("2025-08-23T22:00:00");
+        tasks = new ArrayList<>(tableSize);
+        for (int i = 0; i < tableSize; i++) {
+            tasks.add(new Task(i, "title " + i, i % 2 == 0, i * 1024L, i % 3 == 0 ? null : dueDate, i % 5));
+        }
+
+        // Same converters as the controller negotiates, on object mappers set up as Spring Boot does
+        converter = switch (format) {
+            case "json" -> new MappingJackson2HttpMessageConverter(objectMapper(new JsonFactory()));
+            case "cbor" -> new MappingJackson2CborHttpMessageConverter(objectMapper(new CBORFactory()));
+            case "smile" -> new MappingJackson2SmileHttpMessageConverter(objectMapper(new SmileFactory()));
+            case "protobuf" -> new ProtobufJackson2HttpMessageConverter(objectMapper(new ProtobufFactory()));
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        };
+        mediaType = converter.getSupportedMediaTypes().getFirst();
+        encodedTasks = encodeTasks();
+    }
+
+    @Benchmark
+    public byte[] encodeTasks() throws IOException {
+        final MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+        converter.write(tasks, TASKS_TYPE, mediaType, outputMessage);
+
+        return outputMessage.getBodyAsBytes();
+    }
+
+    @Benchmark
+    public Object decodeTasks(final EncodedSize encodedSize) throws IOException {
+        encodedSize.bytesPerTask = encodedTasks.length / tableSize;
+
+        return converter.read(TASKS_TYPE, null, new MockHttpInputMessage(encodedTasks));
+    }
+
+    /**
+     * Builds an object mapper on a format factory, writing dates as ISO strings as Spring Boot does
+     *
+     * @param jsonFactory factory of the format
+     *
+     * @return object mapper of the format
+     */
+    private static ObjectMapper objectMapper(final JsonFactory jsonFactory) {
+        return Jackson2ObjectMapperBuilder.json()
+                .factory(jsonFactory)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+}
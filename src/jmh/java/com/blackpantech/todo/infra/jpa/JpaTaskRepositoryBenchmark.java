@@ -0,0 +1,100 @@
+package com.blackpantech.todo.infra.jpa;
+
+import com.blackpantech.todo.BenchmarkApplication;
+import com.blackpantech.todo.domain.task.Task;
+import com.blackpantech.todo.domain.task.TaskToCreate;
+import com.blackpantech.todo.domain.task.exceptions.DuplicatedTaskTitleException;
+import com.blackpantech.todo.domain.task.exceptions.TaskNotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the JPA task repository against H2, bypassing the task cache. Created tasks are kept, so the table
+ * grows by the number of createTask invocations during a trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JpaTaskRepositoryBenchmark {
+
+    /**
+     * Number of tasks created per batch when filling the table
+     */
+    private static final int BATCH_SIZE = 10_000;
+
+    @Param({"1000", "10000", "100000"})
+    int tableSize;
+
+    ConfigurableApplicationContext context;
+
+    JpaTaskRepository jpaTaskRepository;
+
+    List<Task> tasks;
+
+    int createdTasks;
+
+    int editedTasks;
+
+    int readTasks;
+
+    @Setup
+    public void setUp() throws DuplicatedTaskTitleException {
+        context = BenchmarkApplication.start("todo.cache.enabled=false");
+        jpaTaskRepository = context.getBean(JpaTaskRepository.class);
+
+        tasks = new ArrayList<>(tableSize);
+        for (int from = 0; from < tableSize; from += BATCH_SIZE) {
+            final List<TaskToCreate> tasksToCreate = new ArrayList<>(BATCH_SIZE);
+            for (int i = from; i < Math.min(from + BATCH_SIZE, tableSize); i++) {
+                tasksToCreate.add(new TaskToCreate("title " + i, null));
+            }
+            tasks.addAll(jpaTaskRepository.createTasks(tasksToCreate));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Task getTask() throws TaskNotFoundException {
+        return jpaTaskRepository.getTask(tasks.get(readTasks++ % tasks.size()).id());
+    }
+
+    @Benchmark
+    public List<Task> getAllTasks() {
+        return jpaTaskRepository.getAllTasks();
+    }
+
+    @Benchmark
+    public Task createTask() throws DuplicatedTaskTitleException {
+        return jpaTaskRepository.createTask("created title " + createdTasks++, null);
+    }
+
+    @Benchmark
+    public Task editTask() throws DuplicatedTaskTitleException, TaskNotFoundException {
+        final Task task = tasks.get(editedTasks++ % tasks.size());
+
+        return jpaTaskRepository.editTask(task.id(), task.title(), editedTasks % 2 == 0, task.order(), task.dueDate());
+    }
+
+}
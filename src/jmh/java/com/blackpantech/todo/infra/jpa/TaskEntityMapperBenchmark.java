@@ -0,0 +1,53 @@
+package com.blackpantech.todo.infra.jpa;
+
+import com.blackpantech.todo.domain.task.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the mapping of JPA tasks to domain tasks
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskEntityMapperBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    int tableSize;
+
+    final TaskEntityMapper taskEntityMapper = new TaskEntityMapperImpl();
+
+    List<TaskEntity> taskEntities;
+
+    @Setup
+    public void setUp() {
+        final LocalDateTime dueDate = LocalDateTime.parse("2025-08-23T22:00:00");
+        taskEntities = new ArrayList<>(tableSize);
+        for (int i = 0; i < tableSize; i++) {
+            taskEntities.add(new TaskEntity("title " + i, i % 2 == 0, i, i % 3 == 0 ? null : dueDate));
+        }
+    }
+
+    @Benchmark
+    public List<Task> taskEntitiesToTasks() {
+        return taskEntityMapper.TaskEntitiesToTasks(taskEntities);
+    }
+
+}
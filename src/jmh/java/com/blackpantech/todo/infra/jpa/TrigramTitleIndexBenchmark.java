@@ -0,0 +1,94 @@
+package com.blackpantech.todo.infra.jpa;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks title searches in the trigram index against a scan of the same titles, at up to a million titles.
+ * Queries are either selective, matching a handful of titles, or common, matching a fifth of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class TrigramTitleIndexBenchmark {
+
+    private static final String[] WORDS =
+            {"buy", "milk", "walk", "dog", "call", "mum", "pay", "bills", "book", "flight"};
+
+    private static final int LIMIT = 20;
+
+    @Param({"100000", "1000000"})
+    int titleCount;
+
+    TrigramTitleIndex titleIndex;
+
+    String[] titles;
+
+    String selectiveQuery;
+
+    int updatedTitles;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42L);
+        titleIndex = new TrigramTitleIndex(null, null, null, Duration.ZERO);
+        titles = new String[titleCount];
+
+        for (int i = 0; i < titleCount; i++) {
+            titles[i] = WORDS[random.nextInt(WORDS.length)] + " " + Integer.toString(random.nextInt(), 36) + " "
+                    + WORDS[random.nextInt(WORDS.length)];
+            titleIndex.put(i, titles[i]);
+        }
+
+        // The random part of a title in the middle of the index
+        selectiveQuery = titles[titleCount / 2].split(" ")[1];
+    }
+
+    @Benchmark
+    public List<Long> searchSelective() {
+        return titleIndex.search(selectiveQuery, LIMIT);
+    }
+
+    @Benchmark
+    public List<Long> searchCommon() {
+        return titleIndex.search("milk", LIMIT);
+    }
+
+    @Benchmark
+    public long scanSelective() {
+        // The baseline of LIKE '%q%': every title is read
+        long matches = 0;
+        for (final String title : titles) {
+            if (title.contains(selectiveQuery)) {
+                matches++;
+            }
+        }
+
+        return matches;
+    }
+
+    @Benchmark
+    public void updateTitle() {
+        final int id = updatedTitles++ % titleCount;
+
+        titleIndex.put(id, titles[id]);
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.blackpantech.todo.infra.memory;
+
+import com.blackpantech.todo.domain.task.Task;
+import com.blackpantech.todo.domain.task.TaskToCreate;
+import com.blackpantech.todo.domain.task.exceptions.DuplicatedTaskTitleException;
+import com.blackpantech.todo.domain.task.exceptions.TaskNotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the in-memory task repository with the same operations and table sizes as the JPA benchmark, giving the
+ * latency floor of the domain layer without a database
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InMemoryTaskRepositoryBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int tableSize;
+
+    InMemoryTaskRepository inMemoryTaskRepository;
+
+    List<Task> tasks;
+
+    int createdTasks;
+
+    int editedTasks;
+
+    int readTasks;
+
+    @Setup
+    public void setUp() throws DuplicatedTaskTitleException {
+        inMemoryTaskRepository = new InMemoryTaskRepository();
+
+        final List<TaskToCreate> tasksToCreate = new ArrayList<>(tableSize);
+        for (int i = 0; i < tableSize; i++) {
+            tasksToCreate.add(new TaskToCreate("title " + i, null));
+        }
+        tasks = inMemoryTaskRepository.createTasks(tasksToCreate);
+    }
+
+    @Benchmark
+    public Task getTask() throws TaskNotFoundException {
+        return inMemoryTaskRepository.getTask(tasks.get(readTasks++ % tasks.size()).id());
+    }
+
+    @Benchmark
+    public List<Task> getAllTasks() {
+        return inMemoryTaskRepository.getAllTasks();
+    }
+
+    @Benchmark
+    public Task createTask() throws DuplicatedTaskTitleException {
+        return inMemoryTaskRepository.createTask("created title " + createdTasks++, null);
+    }
+
+    @Benchmark
+    public Task editTask() throws DuplicatedTaskTitleException, TaskNotFoundException {
+        final Task task = tasks.get(editedTasks++ % tasks.size());
+
+        return inMemoryTaskRepository.editTask(
+                task.id(),
+                task.title(),
+                editedTasks % 2 == 0,
+                task.order(),
+                task.dueDate()
+        );
+    }
+
+}
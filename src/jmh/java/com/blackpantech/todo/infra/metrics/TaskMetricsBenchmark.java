@@ -0,0 +1,89 @@
+package com.blackpantech.todo.infra.metrics;
+
+import com.blackpantech.todo.domain.task.Task;
+import com.blackpantech.todo.domain.task.TaskService;
+import com.blackpantech.todo.domain.task.TaskToCreate;
+import com.blackpantech.todo.domain.task.exceptions.DuplicatedTaskTitleException;
+import com.blackpantech.todo.domain.task.exceptions.TaskNotFoundException;
+import com.blackpantech.todo.infra.memory.InMemoryTaskRepository;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead of the task metrics on the fastest path there is, getting a task from the in-memory
+ * repository, with and without the metrics aspect around the service and the repository
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskMetricsBenchmark {
+
+    @Param({"false", "true"})
+    boolean metricsEnabled;
+
+    TaskService taskService;
+
+    List<Task> tasks;
+
+    int readTasks;
+
+    @Setup
+    public void setUp() throws DuplicatedTaskTitleException {
+        final InMemoryTaskRepository inMemoryTaskRepository = new InMemoryTaskRepository();
+        final List<TaskToCreate> tasksToCreate = new ArrayList<>(1000);
+        for (int i = 0; i < 1000; i++) {
+            tasksToCreate.add(new TaskToCreate("title " + i, null));
+        }
+        tasks = inMemoryTaskRepository.createTasks(tasksToCreate);
+
+        if (metricsEnabled) {
+            final TaskMetricsAspect taskMetricsAspect =
+                    new TaskMetricsAspect(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT));
+            taskService = proxy(new TaskService(proxy(inMemoryTaskRepository, taskMetricsAspect)), taskMetricsAspect);
+        } else {
+            taskService = new TaskService(inMemoryTaskRepository);
+        }
+    }
+
+    @Benchmark
+    public Task getTask() throws TaskNotFoundException {
+        return taskService.getTask(tasks.get(readTasks++ % tasks.size()).id());
+    }
+
+    /**
+     * Proxies a target with the task metrics aspect, as Spring does for beans
+     *
+     * @param target object to proxy
+     * @param taskMetricsAspect task metrics aspect
+     * @param <T> type of the target
+     *
+     * @return proxy of the target
+     */
+    private static <T> T proxy(final T target, final TaskMetricsAspect taskMetricsAspect) {
+        final AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(taskMetricsAspect);
+
+        return proxyFactory.getProxy();
+    }
+
+}
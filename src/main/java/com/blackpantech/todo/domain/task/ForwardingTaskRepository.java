@@ -0,0 +1,146 @@
+package com.blackpantech.todo.domain.task;
+
+import com.blackpantech.todo.domain.task.exceptions.DuplicatedTaskTitleException;
+import com.blackpantech.todo.domain.task.exceptions.OrderGapExhaustedException;
+import com.blackpantech.todo.domain.task.exceptions.TaskNotFoundException;
+import com.blackpantech.todo.domain.task.exceptions.TaskVersionMismatchException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Base class for task repository decorators, forwarding every call to a delegate repository
+ */
+public abstract class ForwardingTaskRepository implements TaskRepository {
+
+    protected final TaskRepository delegate;
+
+    protected ForwardingTaskRepository(final TaskRepository delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Task getTask(final long id) throws TaskNotFoundException {
+        return delegate.getTask(id);
+    }
+
+    @Override
+    public Task createTask(final String title, final LocalDateTime dueDate) throws DuplicatedTaskTitleException {
+        return delegate.createTask(title, dueDate);
+    }
+
+    @Override
+    public List<Task> createTasks(final List<TaskToCreate> tasksToCreate) throws DuplicatedTaskTitleException {
+        return delegate.createTasks(tasksToCreate);
+    }
+
+    @Override
+    public Task editTask(final long id,
+                         final String title,
+                         final boolean completed,
+                         final long order,
+                         final LocalDateTime dueDate)
+            throws DuplicatedTaskTitleException, TaskNotFoundException {
+        return delegate.editTask(id, title, completed, order, dueDate);
+    }
+
+    @Override
+    public void patchTask(final long id, final TaskPatch taskPatch)
+            throws DuplicatedTaskTitleException, TaskNotFoundException {
+        delegate.patchTask(id, taskPatch);
+    }
+
+    @Override
+    public void patchTask(final long id, final TaskPatch taskPatch, final long expectedVersion)
+            throws DuplicatedTaskTitleException, TaskNotFoundException, TaskVersionMismatchException {
+        delegate.patchTask(id, taskPatch, expectedVersion);
+    }
+
+    @Override
+    public long updateTasks(final TaskFilter taskFilter, final TaskBulkUpdate taskBulkUpdate) {
+        return delegate.updateTasks(taskFilter, taskBulkUpdate);
+    }
+
+    @Override
+    public List<Long> saveTaskEdits(final List<TaskEdit> taskEdits) {
+        return delegate.saveTaskEdits(taskEdits);
+    }
+
+    @Override
+    public void moveTask(final long id, final long anchorId, final MovePosition position)
+            throws OrderGapExhaustedException, TaskNotFoundException, TaskVersionMismatchException {
+        delegate.moveTask(id, anchorId, position);
+    }
+
+    @Override
+    public void rebalanceTaskOrders() {
+        delegate.rebalanceTaskOrders();
+    }
+
+    @Override
+    public void deleteTask(final long id) throws TaskNotFoundException {
+        delegate.deleteTask(id);
+    }
+
+    @Override
+    public List<Task> getAllTasks() {
+        return delegate.getAllTasks();
+    }
+
+    @Override
+    public List<Task> findTasks(final TaskFilter taskFilter, final TaskSort taskSort) {
+        return delegate.findTasks(taskFilter, taskSort);
+    }
+
+    @Override
+    public List<Task> searchTasks(final String query, final int limit) {
+        return delegate.searchTasks(query, limit);
+    }
+
+    @Override
+    public TaskPage getTasksPage(final TaskCursor after, final int limit) {
+        return delegate.getTasksPage(after, limit);
+    }
+
+    @Override
+    public void forEachTask(final Consumer<Task> consumer) {
+        delegate.forEachTask(consumer);
+    }
+
+    @Override
+    public TaskChanges getTaskChanges(final long since) {
+        return delegate.getTaskChanges(since);
+    }
+
+    @Override
+    public long getTasksVersion() {
+        return delegate.getTasksVersion();
+    }
+
+    @Override
+    public long getTaskVersion(final long id) throws TaskNotFoundException {
+        return delegate.getTaskVersion(id);
+    }
+
+    @Override
+    public long countTasks() {
+        return delegate.countTasks();
+    }
+
+    @Override
+    public long countCompletedTasks() {
+        return delegate.countCompletedTasks();
+    }
+
+    @Override
+    public void deleteAllTasks() {
+        delegate.deleteAllTasks();
+    }
+
+    @Override
+    public void deleteAllCompletedTasks() {
+        delegate.deleteAllCompletedTasks();
+    }
+
+}
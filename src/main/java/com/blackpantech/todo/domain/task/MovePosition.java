@@ -0,0 +1,18 @@
+package com.blackpantech.todo.domain.task;
+
+/**
+ * Side of another task a task is moved to
+ */
+public enum MovePosition {
+
+    /**
+     * Right before the other task
+     */
+    BEFORE,
+
+    /**
+     * Right after the other task
+     */
+    AFTER
+
+}
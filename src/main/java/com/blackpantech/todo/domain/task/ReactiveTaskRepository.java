@@ -0,0 +1,39 @@
+package com.blackpantech.todo.domain.task;
+
+import com.blackpantech.todo.domain.task.exceptions.TaskNotFoundException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking, read-only task repository, signalling the exceptions of {@link TaskRepository} as errors. Tasks are
+ * written through {@link TaskRepository} only, which keeps the change versions, positions and title indexes.
+ */
+public interface ReactiveTaskRepository {
+
+    /**
+     * Gets task with given ID
+     *
+     * @param id ID to look for
+     *
+     * @return task with given ID, or a {@link TaskNotFoundException} error if no task was found
+     */
+    Mono<Task> getTask(final long id);
+
+    /**
+     * Gets all tasks sorted by position in list, emitted as they are read
+     *
+     * @return all tasks
+     */
+    Flux<Task> getAllTasks();
+
+    /**
+     * Gets a page of tasks sorted by position in list, then by ID
+     *
+     * @param after cursor of the last task of the previous page, or null for the first page
+     * @param limit maximum number of tasks in the page
+     *
+     * @return page of tasks
+     */
+    Mono<TaskPage> getTasksPage(final TaskCursor after, final int limit);
+
+}
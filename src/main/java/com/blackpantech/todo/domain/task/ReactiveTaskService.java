@@ -0,0 +1,212 @@
+package com.blackpantech.todo.domain.task;
+
+import com.blackpantech.todo.domain.task.exceptions.DuplicatedTaskTitleException;
+import com.blackpantech.todo.domain.task.exceptions.TaskMoveConflictException;
+import com.blackpantech.todo.domain.task.exceptions.TaskNotFoundException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Non-blocking domain service to get, create, edit and delete tasks. Tasks and pages are read without blocking, while
+ * writes, searches and changes are delegated to the blocking {@link TaskService} on threads meant for blocking calls,
+ * so that they keep the same change versions, positions, title indexes and reminders as in the other profiles.
+ */
+public class ReactiveTaskService {
+
+    private final ReactiveTaskRepository reactiveTaskRepository;
+
+    private final TaskService taskService;
+
+    public ReactiveTaskService(final ReactiveTaskRepository reactiveTaskRepository, final TaskService taskService) {
+        this.reactiveTaskRepository = reactiveTaskRepository;
+        this.taskService = taskService;
+    }
+
+    /**
+     * Gets task with given ID
+     *
+     * @param id ID to look for
+     *
+     * @return task with given ID, or a {@link TaskNotFoundException} error if no task was found
+     */
+    public Mono<Task> getTask(final long id) {
+        return reactiveTaskRepository.getTask(id);
+    }
+
+    /**
+     * Creates new task with given title and due date
+     *
+     * @param title title of the new task
+     * @param dueDate due date of the new task
+     *
+     * @return created task, or a {@link DuplicatedTaskTitleException} error if the title is already taken
+     */
+    public Mono<Task> createTask(final String title, final LocalDateTime dueDate) {
+        return blocking(() -> taskService.createTask(title, dueDate));
+    }
+
+    /**
+     * Creates all given tasks at once, or none of them
+     *
+     * @param tasksToCreate titles and due dates of the new tasks
+     *
+     * @return created tasks, in the same order as given, or a {@link DuplicatedTaskTitleException} error if a title is
+     * already taken or given twice
+     */
+    public Flux<Task> createTasks(final List<TaskToCreate> tasksToCreate) {
+        return blocking(() -> taskService.createTasks(tasksToCreate)).flatMapIterable(tasks -> tasks);
+    }
+
+    /**
+     * Edits task with given ID and new properties
+     *
+     * @param id ID to look for
+     * @param title edited title
+     * @param completed edited completion of the task
+     * @param order edited position of the task in the list
+     * @param dueDate edited due date
+     *
+     * @return edited task, or a {@link DuplicatedTaskTitleException} error if the title is already taken or a
+     * {@link TaskNotFoundException} error if no task was found
+     */
+    public Mono<Task> editTask(final long id,
+                               final String title,
+                               final boolean completed,
+                               final long order,
+                               final LocalDateTime dueDate) {
+        return blocking(() -> taskService.editTask(id, title, completed, order, dueDate));
+    }
+
+    /**
+     * Edits only the properties of the task with given ID that are given in the patch
+     *
+     * @param id ID to look for
+     * @param taskPatch properties to edit
+     *
+     * @return completion, or a {@link DuplicatedTaskTitleException} error if the title is already taken or a
+     * {@link TaskNotFoundException} error if no task was found
+     */
+    public Mono<Void> patchTask(final long id, final TaskPatch taskPatch) {
+        return blocking(() -> {
+            taskService.patchTask(id, taskPatch);
+            return null;
+        });
+    }
+
+    /**
+     * Moves the task with given ID right before or after another task
+     *
+     * @param id ID of the task to move
+     * @param anchorId ID of the task to move it next to
+     * @param position side of the other task to move it to
+     *
+     * @return completion, a {@link TaskNotFoundException} error if no task with either ID was found, or a
+     * {@link TaskMoveConflictException} error if the task kept being written or renumbered while it was moved
+     */
+    public Mono<Void> moveTask(final long id, final long anchorId, final MovePosition position) {
+        return blocking(() -> {
+            taskService.moveTask(id, anchorId, position);
+            return null;
+        });
+    }
+
+    /**
+     * Deletes task with given ID
+     *
+     * @param id ID to look for
+     *
+     * @return completion, or a {@link TaskNotFoundException} error if no task was found
+     */
+    public Mono<Void> deleteTask(final long id) {
+        return blocking(() -> {
+            taskService.deleteTask(id);
+            return null;
+        });
+    }
+
+    /**
+     * Gets all tasks sorted by position in list, emitted as they are read
+     *
+     * @return all tasks
+     */
+    public Flux<Task> getAllTasks() {
+        return reactiveTaskRepository.getAllTasks();
+    }
+
+    /**
+     * Gets a page of tasks sorted by position in list, with at most {@link TaskService#MAX_PAGE_SIZE} tasks
+     *
+     * @param after cursor of the last task of the previous page, or null for the first page
+     * @param limit requested maximum number of tasks in the page
+     *
+     * @return page of tasks
+     */
+    public Mono<TaskPage> getTasksPage(final TaskCursor after, final int limit) {
+        return reactiveTaskRepository.getTasksPage(after, Math.clamp(limit, 1, TaskService.MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Searches the tasks whose title contains a query, ignoring case, best matches first
+     *
+     * @param query text to look for in titles
+     * @param limit maximum number of tasks to get, capped to {@link TaskService#MAX_PAGE_SIZE}
+     *
+     * @return best matching tasks
+     */
+    public Flux<Task> searchTasks(final String query, final int limit) {
+        return blocking(() -> taskService.searchTasks(query, limit)).flatMapIterable(tasks -> tasks);
+    }
+
+    /**
+     * Gets the tasks created or changed and the IDs of the tasks deleted since a change version
+     *
+     * @param since change version returned with the previous changes, or 0 to get all tasks
+     *
+     * @return changes since the version, with the version to get the next ones from
+     */
+    public Mono<TaskChanges> getTaskChanges(final long since) {
+        return blocking(() -> taskService.getTaskChanges(since));
+    }
+
+    /**
+     * Deletes all tasks
+     *
+     * @return completion
+     */
+    public Mono<Void> deleteAllTasks() {
+        return blocking(() -> {
+            taskService.deleteAllTasks();
+            return null;
+        });
+    }
+
+    /**
+     * Deletes all completed tasks
+     *
+     * @return completion
+     */
+    public Mono<Void> deleteAllCompletedTasks() {
+        return blocking(() -> {
+            taskService.deleteAllCompletedTasks();
+            return null;
+        });
+    }
+
+    /**
+     * Calls the blocking service on a thread meant for blocking calls, never on the event loop
+     *
+     * @param call call to the blocking service, returning null to complete empty
+     * @param <T> type of the result
+     *
+     * @return result of the call, or its exception as an error
+     */
+    private static <T> Mono<T> blocking(final Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+
+}
@@ -10,7 +10,8 @@ import java.time.LocalDateTime;
  * @param completed completion of the task
  * @param order task position in list
  * @param dueDate task due date
+ * @param version task version, changed by every edit
  */
-public record Task(long id, String title, boolean completed, long order, LocalDateTime dueDate) {
+public record Task(long id, String title, boolean completed, long order, LocalDateTime dueDate, long version) {
 
 }
@@ -0,0 +1,22 @@
+package com.blackpantech.todo.domain.task;
+
+import java.time.Duration;
+
+/**
+ * Domain record for a change applied to many tasks at once
+ *
+ * @param completed completion to set, or null to keep the completion of each task
+ * @param dueDateShift duration to move due dates by, or null to keep them. Tasks without a due date keep none.
+ */
+public record TaskBulkUpdate(Boolean completed, Duration dueDateShift) {
+
+    /**
+     * Tells whether the update changes nothing
+     *
+     * @return true if no property is changed
+     */
+    public boolean isEmpty() {
+        return completed == null && (dueDateShift == null || dueDateShift.isZero());
+    }
+
+}
@@ -0,0 +1,178 @@
+package com.blackpantech.todo.domain.task;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Change versions of tasks, from which clients get the changes since their last sync. Versions come from a source
+ * shared by all nodes, such as a database sequence, so that they increase in the order they are given whichever node
+ * gives them. A change may commit after a later version is read though, so reads resume from the last version given
+ * at least an overlap before, by which all changes at or below it are committed.
+ * <p>
+ * Tombstones of deleted tasks are kept for a retention period, after which they are compacted and clients reading
+ * from before them have to read all tasks again.
+ */
+public class TaskChangeVersions {
+
+    /**
+     * Minimum time between two compactions of tombstones
+     */
+    private static final long COMPACTION_INTERVAL_MILLIS = 60_000L;
+
+    private final Duration overlap;
+
+    private final Duration tombstoneRetention;
+
+    private final LongSupplier versionSource;
+
+    private final Clock clock;
+
+    /**
+     * Versions given by this node by the millisecond they were given at, back to the last one given before the overlap
+     */
+    private final NavigableMap<Long, Long> givenVersions = new ConcurrentSkipListMap<>();
+
+    private final AtomicLong nextCompactionMillis = new AtomicLong();
+
+    /**
+     * Builds change versions counted in memory, for a single node
+     *
+     * @param overlap time before a read from which the next read starts again
+     * @param tombstoneRetention time for which deleted tasks are kept as tombstones
+     */
+    public TaskChangeVersions(final Duration overlap, final Duration tombstoneRetention) {
+        this(overlap, tombstoneRetention, new AtomicLong()::incrementAndGet);
+    }
+
+    /**
+     * Builds change versions taken from a source shared by all nodes
+     *
+     * @param overlap time before a read from which the next read starts again
+     * @param tombstoneRetention time for which deleted tasks are kept as tombstones
+     * @param versionSource source of increasing versions, such as a database sequence
+     */
+    public TaskChangeVersions(final Duration overlap,
+                              final Duration tombstoneRetention,
+                              final LongSupplier versionSource) {
+        this(overlap, tombstoneRetention, versionSource, Clock.systemUTC());
+    }
+
+    TaskChangeVersions(final Duration overlap,
+                       final Duration tombstoneRetention,
+                       final LongSupplier versionSource,
+                       final Clock clock) {
+        this.overlap = overlap;
+        this.tombstoneRetention = tombstoneRetention;
+        this.versionSource = versionSource;
+        this.clock = clock;
+    }
+
+    /**
+     * Gives the version of a change, or the current version before a read
+     *
+     * @return version, greater than all versions given before on any node
+     */
+    public long next() {
+        return record(versionSource.getAsLong());
+    }
+
+    /**
+     * Takes the latest version stored before a read as the current version, without giving a new one, so that reads
+     * do not use up versions
+     *
+     * @param latestVersion latest version stored by any node, read just before the read
+     *
+     * @return the given latest version
+     */
+    public long current(final long latestVersion) {
+        return record(latestVersion);
+    }
+
+    /**
+     * Gets the version from which a client reads the next changes, once it read the changes since a version up to
+     * another one
+     *
+     * @param since version the changes were read from
+     * @param upTo version up to which the changes were read
+     *
+     * @return version of the next read, no greater than the last version given before the overlap
+     */
+    public long resumeVersion(final long since, final long upTo) {
+        final Map.Entry<Long, Long> settled = givenVersions.floorEntry(clock.millis() - overlap.toMillis());
+        final long settledVersion = settled != null ? settled.getValue() : since;
+
+        return Math.max(since, Math.min(upTo, settledVersion));
+    }
+
+    /**
+     * Checks whether a client reading the changes since a version has to read all tasks instead, since it never read
+     * them, tombstones of tasks deleted after that version were compacted, or the version was not given yet
+     *
+     * @param since version to read the changes from
+     * @param horizon version up to which tombstones were compacted
+     * @param current version given just before the read
+     *
+     * @return true if all tasks have to be read
+     */
+    public boolean needsReset(final long since, final long horizon, final long current) {
+        return since <= 0L || since < horizon || since > current;
+    }
+
+    /**
+     * Records a version given or read now, from which reads resume once the overlap has passed
+     *
+     * @param version version given or read
+     *
+     * @return the given version
+     */
+    private long record(final long version) {
+        final long nowMillis = clock.millis();
+
+        givenVersions.merge(nowMillis, version, Math::max);
+        final Long settledMillis = givenVersions.floorKey(nowMillis - overlap.toMillis());
+        if (settledMillis != null) {
+            givenVersions.headMap(settledMillis).clear();
+        }
+
+        return version;
+    }
+
+    /**
+     * Gets the current time, stamped on tombstones
+     *
+     * @return current UTC date and time
+     */
+    public LocalDateTime now() {
+        return LocalDateTime.ofInstant(clock.instant(), ZoneOffset.UTC);
+    }
+
+    /**
+     * Gets the time before which tombstones are compacted
+     *
+     * @return UTC date and time of the retention horizon
+     */
+    public LocalDateTime tombstoneCutoff() {
+        return LocalDateTime.ofInstant(clock.instant().minus(tombstoneRetention), ZoneOffset.UTC);
+    }
+
+    /**
+     * Tells whether tombstones should be compacted now, at most once per minute across callers
+     *
+     * @return true for a single caller once per minute
+     */
+    public boolean compactionDue() {
+        final long nowMillis = clock.millis();
+        final long dueMillis = nextCompactionMillis.get();
+
+        return nowMillis >= dueMillis
+                && nextCompactionMillis.compareAndSet(dueMillis, nowMillis + COMPACTION_INTERVAL_MILLIS);
+    }
+
+}
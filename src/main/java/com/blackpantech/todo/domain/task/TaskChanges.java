@@ -0,0 +1,16 @@
+package com.blackpantech.todo.domain.task;
+
+import java.util.List;
+
+/**
+ * Domain record for the changes of tasks since a change version
+ *
+ * @param tasks tasks created or changed since the version, or all tasks on a reset
+ * @param deletedIds IDs of the tasks deleted since the version, to apply after the tasks
+ * @param version change version to get the next changes from
+ * @param reset true if the changes since the version are no longer known, and the tasks replace all tasks
+ * @param more true if the changes were cut at a limit, and the next changes can be read right away
+ */
+public record TaskChanges(List<Task> tasks, List<Long> deletedIds, long version, boolean reset, boolean more) {
+
+}
@@ -0,0 +1,11 @@
+package com.blackpantech.todo.domain.task;
+
+/**
+ * Domain record for the position of a task in the ordered list, used to resume paging after it
+ *
+ * @param order task position in list
+ * @param id task id, breaking ties between tasks with the same position
+ */
+public record TaskCursor(long order, long id) {
+
+}
@@ -0,0 +1,16 @@
+package com.blackpantech.todo.domain.task;
+
+import java.time.LocalDateTime;
+
+/**
+ * Domain record for the latest state of a task after edits which kept its title, written at once on their behalf
+ *
+ * @param id ID of the edited task
+ * @param completed edited completion of the task
+ * @param order edited position of the task in the list
+ * @param dueDate edited due date
+ * @param fromVersion version of the task the first edit was made on
+ * @param version version of the task after the last edit
+ */
+public record TaskEdit(long id, boolean completed, long order, LocalDateTime dueDate, long fromVersion, long version) {
+}
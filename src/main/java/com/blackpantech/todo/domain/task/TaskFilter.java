@@ -0,0 +1,41 @@
+package com.blackpantech.todo.domain.task;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Domain record for a filter on tasks. Tasks match when they match every given criterion, and a filter with no
+ * criterion matches all tasks.
+ *
+ * @param ids IDs of the matching tasks, or null for any ID
+ * @param completed completion of the matching tasks, or null for any completion
+ * @param dueFrom inclusive lower bound of the due date of the matching tasks, or null for no lower bound
+ * @param dueBefore exclusive upper bound of the due date of the matching tasks, or null for no upper bound
+ */
+public record TaskFilter(List<Long> ids, Boolean completed, LocalDateTime dueFrom, LocalDateTime dueBefore) {
+
+    /**
+     * Tells whether a task matches the filter. Tasks without a due date never match a due date range.
+     *
+     * @param task task to test
+     *
+     * @return true if the task matches every criterion of the filter
+     */
+    public boolean matches(final Task task) {
+        if (ids != null && !ids.contains(task.id())) {
+            return false;
+        }
+        if (completed != null && completed != task.completed()) {
+            return false;
+        }
+        if ((dueFrom != null || dueBefore != null) && task.dueDate() == null) {
+            return false;
+        }
+        if (dueFrom != null && task.dueDate().isBefore(dueFrom)) {
+            return false;
+        }
+
+        return dueBefore == null || task.dueDate().isBefore(dueBefore);
+    }
+
+}
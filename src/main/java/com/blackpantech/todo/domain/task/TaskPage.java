@@ -0,0 +1,13 @@
+package com.blackpantech.todo.domain.task;
+
+import java.util.List;
+
+/**
+ * Domain record for a page of tasks
+ *
+ * @param tasks tasks of the page, sorted by position in list
+ * @param next cursor to fetch the next page, or null if this is the last page
+ */
+public record TaskPage(List<Task> tasks, TaskCursor next) {
+
+}
@@ -0,0 +1,25 @@
+package com.blackpantech.todo.domain.task;
+
+import java.time.LocalDateTime;
+
+/**
+ * Domain record for a partial edit of a task, where only the given properties change
+ *
+ * @param title edited title, or null to keep the current one
+ * @param completed edited completion of the task, or null to keep the current one
+ * @param order edited position of the task in the list, or null to keep the current one
+ * @param dueDate edited due date, which may be null to remove it
+ * @param dueDatePatched whether the due date is edited, since a null due date is a valid edit
+ */
+public record TaskPatch(String title, Boolean completed, Long order, LocalDateTime dueDate, boolean dueDatePatched) {
+
+    /**
+     * Tells whether the patch edits nothing
+     *
+     * @return true if no property is edited
+     */
+    public boolean isEmpty() {
+        return title == null && completed == null && order == null && !dueDatePatched;
+    }
+
+}
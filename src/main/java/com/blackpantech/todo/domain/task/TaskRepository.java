@@ -1,10 +1,13 @@
 package com.blackpantech.todo.domain.task;
 
 import com.blackpantech.todo.domain.task.exceptions.DuplicatedTaskTitleException;
+import com.blackpantech.todo.domain.task.exceptions.OrderGapExhaustedException;
 import com.blackpantech.todo.domain.task.exceptions.TaskNotFoundException;
+import com.blackpantech.todo.domain.task.exceptions.TaskVersionMismatchException;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Domain repository to interact with application repository
@@ -34,6 +37,17 @@ public interface TaskRepository {
      */
     Task createTask(final String title, final LocalDateTime dueDate) throws DuplicatedTaskTitleException;
 
+    /**
+     * Creates all given tasks at once, or none of them
+     *
+     * @param tasksToCreate titles and due dates of the new tasks
+     *
+     * @return created tasks, in the same order as given
+     *
+     * @throws DuplicatedTaskTitleException if a given title is already taken or given twice
+     */
+    List<Task> createTasks(final List<TaskToCreate> tasksToCreate) throws DuplicatedTaskTitleException;
+
     /**
      * Edits task with given ID with new properties
      *
@@ -55,6 +69,74 @@ public interface TaskRepository {
                   final LocalDateTime dueDate)
             throws DuplicatedTaskTitleException, TaskNotFoundException;
 
+    /**
+     * Edits only the properties of the task with given ID that are given in the patch, without loading the task
+     *
+     * @param id ID to look for
+     * @param taskPatch properties to edit
+     *
+     * @throws DuplicatedTaskTitleException if the given title is already taken
+     * @throws TaskNotFoundException if no task with given ID was found
+     */
+    void patchTask(final long id, final TaskPatch taskPatch) throws DuplicatedTaskTitleException, TaskNotFoundException;
+
+    /**
+     * Edits only the properties of the task with given ID that are given in the patch, if the task is still at the
+     * expected version, without loading the task. The patched task is at the next version.
+     *
+     * @param id ID to look for
+     * @param taskPatch properties to edit
+     * @param expectedVersion version the task must be at
+     *
+     * @throws DuplicatedTaskTitleException if the given title is already taken
+     * @throws TaskNotFoundException if no task with given ID was found
+     * @throws TaskVersionMismatchException if the task is at another version
+     */
+    void patchTask(final long id, final TaskPatch taskPatch, final long expectedVersion)
+            throws DuplicatedTaskTitleException, TaskNotFoundException, TaskVersionMismatchException;
+
+    /**
+     * Applies the same change to all tasks matching a filter at once
+     *
+     * @param taskFilter filter of the tasks to update
+     * @param taskBulkUpdate change to apply
+     *
+     * @return number of updated tasks
+     */
+    long updateTasks(final TaskFilter taskFilter, final TaskBulkUpdate taskBulkUpdate);
+
+    /**
+     * Writes the edits of several tasks at once, each one only if its task is still at the version it was edited
+     * from. Written tasks take the version of their edit.
+     *
+     * @param taskEdits edits to write
+     *
+     * @return IDs of the tasks which were not written, since they were deleted or changed meanwhile
+     */
+    List<Long> saveTaskEdits(final List<TaskEdit> taskEdits);
+
+    /**
+     * Moves the task with given ID right before or after another task, by giving it a free position between that
+     * task and its neighbour. Only the moved task is written.
+     *
+     * @param id ID of the task to move
+     * @param anchorId ID of the task to move it next to
+     * @param position side of the other task to move it to
+     *
+     * @throws OrderGapExhaustedException if there is no free position left between the two tasks
+     * @throws TaskNotFoundException if no task with either ID was found
+     * @throws TaskVersionMismatchException if the task to move was written or renumbered while its new position was
+     * computed
+     */
+    void moveTask(final long id, final long anchorId, final MovePosition position)
+            throws OrderGapExhaustedException, TaskNotFoundException, TaskVersionMismatchException;
+
+    /**
+     * Spreads the positions of all tasks evenly, keeping their order, so that there are free positions between any
+     * two neighbouring tasks again
+     */
+    void rebalanceTaskOrders();
+
     /**
      * Deletes a tasks with given ID
      *
@@ -71,6 +153,86 @@ public interface TaskRepository {
      */
     List<Task> getAllTasks();
 
+    /**
+     * Gets the tasks matching a filter, sorted in a given order
+     *
+     * @param taskFilter filter on the tasks to get
+     * @param taskSort sort order of the tasks
+     *
+     * @return list of matching tasks
+     */
+    List<Task> findTasks(final TaskFilter taskFilter, final TaskSort taskSort);
+
+    /**
+     * Searches the tasks whose title contains a query, ignoring case. Titles starting with the query come first, then
+     * shorter titles, then older tasks.
+     *
+     * @param query text to look for in titles
+     * @param limit maximum number of tasks to get
+     *
+     * @return list of the best matching tasks, best first
+     */
+    List<Task> searchTasks(final String query, final int limit);
+
+    /**
+     * Gets a page of tasks sorted by position in list
+     *
+     * @param after cursor of the last task of the previous page, or null for the first page
+     * @param limit maximum number of tasks in the page
+     *
+     * @return page of tasks
+     */
+    TaskPage getTasksPage(final TaskCursor after, final int limit);
+
+    /**
+     * Streams all the tasks sorted by position in list to the given consumer, one at a time
+     *
+     * @param consumer consumer of the tasks
+     */
+    void forEachTask(final Consumer<Task> consumer);
+
+    /**
+     * Gets the tasks created or changed and the IDs of the tasks deleted since a change version, or all tasks if the
+     * changes since that version are no longer known
+     *
+     * @param since change version returned with the previous changes, or 0 to get all tasks
+     *
+     * @return changes since the version, with the version to get the next ones from
+     */
+    TaskChanges getTaskChanges(final long since);
+
+    /**
+     * Gets the version of the whole task list, which changes whenever a task is created, edited or deleted
+     *
+     * @return current version of the task list
+     */
+    long getTasksVersion();
+
+    /**
+     * Gets the version of the task with given ID, without loading the task
+     *
+     * @param id ID to look for
+     *
+     * @return current version of the task
+     *
+     * @throws TaskNotFoundException if no task with given ID was found
+     */
+    long getTaskVersion(final long id) throws TaskNotFoundException;
+
+    /**
+     * Counts all tasks
+     *
+     * @return number of tasks
+     */
+    long countTasks();
+
+    /**
+     * Counts completed tasks
+     *
+     * @return number of completed tasks
+     */
+    long countCompletedTasks();
+
     /**
      * Deletes all tasks
      */
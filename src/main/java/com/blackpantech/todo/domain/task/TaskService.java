@@ -1,16 +1,41 @@
 package com.blackpantech.todo.domain.task;
 
 import com.blackpantech.todo.domain.task.exceptions.DuplicatedTaskTitleException;
+import com.blackpantech.todo.domain.task.exceptions.OrderGapExhaustedException;
+import com.blackpantech.todo.domain.task.exceptions.TaskMoveConflictException;
 import com.blackpantech.todo.domain.task.exceptions.TaskNotFoundException;
+import com.blackpantech.todo.domain.task.exceptions.TaskVersionMismatchException;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Domain service to get, create, edit and delete tasks
  */
 public class TaskService {
 
+    /**
+     * Maximum number of tasks returned in a single page
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * Length of the shortest query tasks are searched for, shorter ones matching too many titles to be worth it
+     */
+    public static final int MIN_SEARCH_LENGTH = 3;
+
+    /**
+     * Highest position a client can give a task: the highest integer that any client reads exactly from a JSON number,
+     * far enough from the highest long for positions computed next to it not to overflow
+     */
+    public static final long MAX_ORDER = 9_007_199_254_740_991L;
+
+    /**
+     * Number of times a move is tried before giving up when the task keeps being written or renumbered meanwhile
+     */
+    public static final int MAX_MOVE_ATTEMPTS = 3;
+
     private final TaskRepository taskRepository;
 
     public TaskService(final TaskRepository taskRepository) {
@@ -44,6 +69,19 @@ public class TaskService {
         return taskRepository.createTask(title, dueDate);
     }
 
+    /**
+     * Creates all given tasks at once, or none of them
+     *
+     * @param tasksToCreate titles and due dates of the new tasks
+     *
+     * @return created tasks, in the same order as given
+     *
+     * @throws DuplicatedTaskTitleException if a given title is already taken or given twice
+     */
+    public List<Task> createTasks(final List<TaskToCreate> tasksToCreate) throws DuplicatedTaskTitleException {
+        return taskRepository.createTasks(tasksToCreate);
+    }
+
     /**
      * Edits task with given ID and new properties
      *
@@ -67,6 +105,131 @@ public class TaskService {
         return taskRepository.editTask(id, title, completed, order, dueDate);
     }
 
+    /**
+     * Edits task with given ID and new properties, if it is still at the expected version. The task is not read:
+     * the edited task is the given properties at the next version.
+     *
+     * @param id ID to look for
+     * @param title edited title
+     * @param completed edited completion of the task
+     * @param order edited position of the task in the list
+     * @param dueDate edited due date
+     * @param expectedVersion version the task must be at
+     *
+     * @return edited task
+     *
+     * @throws DuplicatedTaskTitleException if the given title is already taken
+     * @throws TaskNotFoundException if no task with given ID was found
+     * @throws TaskVersionMismatchException if the task is at another version
+     */
+    public Task editTask(final long id,
+                         final String title,
+                         final boolean completed,
+                         final long order,
+                         final LocalDateTime dueDate,
+                         final long expectedVersion)
+            throws TaskNotFoundException, DuplicatedTaskTitleException, TaskVersionMismatchException {
+        taskRepository.patchTask(id, new TaskPatch(title, completed, order, dueDate, true), expectedVersion);
+
+        return new Task(id, title, completed, order, dueDate, expectedVersion + 1);
+    }
+
+    /**
+     * Edits only the properties of the task with given ID that are given in the patch. An empty patch only checks
+     * that the task exists.
+     *
+     * @param id ID to look for
+     * @param taskPatch properties to edit
+     *
+     * @throws DuplicatedTaskTitleException if the given title is already taken
+     * @throws TaskNotFoundException if no task with given ID was found
+     */
+    public void patchTask(final long id, final TaskPatch taskPatch)
+            throws DuplicatedTaskTitleException, TaskNotFoundException {
+        if (taskPatch.isEmpty()) {
+            taskRepository.getTaskVersion(id);
+            return;
+        }
+
+        taskRepository.patchTask(id, taskPatch);
+    }
+
+    /**
+     * Edits only the properties of the task with given ID that are given in the patch, if it is still at the expected
+     * version. An empty patch only checks the version of the task.
+     *
+     * @param id ID to look for
+     * @param taskPatch properties to edit
+     * @param expectedVersion version the task must be at
+     *
+     * @return version of the task once patched
+     *
+     * @throws DuplicatedTaskTitleException if the given title is already taken
+     * @throws TaskNotFoundException if no task with given ID was found
+     * @throws TaskVersionMismatchException if the task is at another version
+     */
+    public long patchTask(final long id, final TaskPatch taskPatch, final long expectedVersion)
+            throws DuplicatedTaskTitleException, TaskNotFoundException, TaskVersionMismatchException {
+        if (taskPatch.isEmpty()) {
+            if (taskRepository.getTaskVersion(id) != expectedVersion) {
+                throw new TaskVersionMismatchException(id, expectedVersion);
+            }
+            return expectedVersion;
+        }
+
+        taskRepository.patchTask(id, taskPatch, expectedVersion);
+
+        return expectedVersion + 1;
+    }
+
+    /**
+     * Applies the same change to all tasks matching a filter at once. An empty change updates no task.
+     *
+     * @param taskFilter filter of the tasks to update
+     * @param taskBulkUpdate change to apply
+     *
+     * @return number of updated tasks
+     */
+    public long updateTasks(final TaskFilter taskFilter, final TaskBulkUpdate taskBulkUpdate) {
+        if (taskBulkUpdate.isEmpty() || (taskFilter.ids() != null && taskFilter.ids().isEmpty())) {
+            return 0L;
+        }
+
+        return taskRepository.updateTasks(taskFilter, taskBulkUpdate);
+    }
+
+    /**
+     * Moves the task with given ID right before or after another task. The move is tried again, up to
+     * {@link #MAX_MOVE_ATTEMPTS} times, after rebalancing positions when there is no free position left between the
+     * two tasks, or when the task was written or renumbered while its new position was computed.
+     *
+     * @param id ID of the task to move
+     * @param anchorId ID of the task to move it next to
+     * @param position side of the other task to move it to
+     *
+     * @throws TaskNotFoundException if no task with either ID was found
+     * @throws TaskMoveConflictException if no attempt succeeded
+     */
+    public void moveTask(final long id, final long anchorId, final MovePosition position)
+            throws TaskNotFoundException, TaskMoveConflictException {
+        if (id == anchorId) {
+            taskRepository.getTaskVersion(id);
+            return;
+        }
+
+        for (int attempt = 0; attempt < MAX_MOVE_ATTEMPTS; attempt++) {
+            try {
+                taskRepository.moveTask(id, anchorId, position);
+                return;
+            } catch (final OrderGapExhaustedException exception) {
+                taskRepository.rebalanceTaskOrders();
+            } catch (final TaskVersionMismatchException exception) {
+                // A concurrent write or rebalance changed the task, its position is computed again from fresh reads
+            }
+        }
+        throw new TaskMoveConflictException(id, MAX_MOVE_ATTEMPTS);
+    }
+
     /**
      * Deletes a tasks with given ID
      *
@@ -87,6 +250,108 @@ public class TaskService {
         return taskRepository.getAllTasks();
     }
 
+    /**
+     * Gets the tasks matching a filter, sorted in a given order
+     *
+     * @param taskFilter filter on the tasks to get
+     * @param taskSort sort order of the tasks
+     *
+     * @return list of matching tasks
+     */
+    public List<Task> findTasks(final TaskFilter taskFilter, final TaskSort taskSort) {
+        return taskRepository.findTasks(taskFilter, taskSort);
+    }
+
+    /**
+     * Searches the tasks whose title contains a query, ignoring case, best matches first
+     *
+     * @param query text to look for in titles
+     * @param limit maximum number of tasks to get, capped to {@link #MAX_PAGE_SIZE}
+     *
+     * @return list of the best matching tasks, or no task if the query is blank or shorter than
+     * {@link #MIN_SEARCH_LENGTH}
+     */
+    public List<Task> searchTasks(final String query, final int limit) {
+        if (query.isBlank() || query.length() < MIN_SEARCH_LENGTH) {
+            return List.of();
+        }
+
+        return taskRepository.searchTasks(query, Math.clamp(limit, 1, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Gets a page of tasks sorted by position in list
+     *
+     * @param after cursor of the last task of the previous page, or null for the first page
+     * @param limit maximum number of tasks in the page, capped to {@link #MAX_PAGE_SIZE}
+     *
+     * @return page of tasks
+     */
+    public TaskPage getTasksPage(final TaskCursor after, final int limit) {
+        return taskRepository.getTasksPage(after, Math.clamp(limit, 1, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Streams all tasks sorted by position in list to the given consumer, without loading them all in memory
+     *
+     * @param consumer consumer of the tasks
+     */
+    public void forEachTask(final Consumer<Task> consumer) {
+        taskRepository.forEachTask(consumer);
+    }
+
+    /**
+     * Gets the tasks created or changed and the IDs of the tasks deleted since a change version, or all tasks if the
+     * changes since that version are no longer known
+     *
+     * @param since change version returned with the previous changes, or 0 to get all tasks
+     *
+     * @return changes since the version, with the version to get the next ones from
+     */
+    public TaskChanges getTaskChanges(final long since) {
+        return taskRepository.getTaskChanges(since);
+    }
+
+    /**
+     * Gets the version of the whole task list, which changes whenever a task is created, edited or deleted
+     *
+     * @return current version of the task list
+     */
+    public long getTasksVersion() {
+        return taskRepository.getTasksVersion();
+    }
+
+    /**
+     * Gets the version of the task with given ID, without loading the task
+     *
+     * @param id ID to look for
+     *
+     * @return current version of the task
+     *
+     * @throws TaskNotFoundException if no task with given ID was found
+     */
+    public long getTaskVersion(final long id) throws TaskNotFoundException {
+        return taskRepository.getTaskVersion(id);
+    }
+
+    /**
+     * Counts all tasks
+     *
+     * @return number of tasks
+     */
+    public long countTasks() {
+        return taskRepository.countTasks();
+    }
+
+    /**
+     * Counts completed tasks
+     *
+     * @return number of completed tasks
+     */
+    public long countCompletedTasks() {
+        return taskRepository.countCompletedTasks();
+    }
+
     /**
      * Deletes all tasks
      */
@@ -0,0 +1,41 @@
+package com.blackpantech.todo.domain.task;
+
+import java.util.Comparator;
+
+/**
+ * Sort order of a list of tasks. Ties are broken by ID, so that the order is stable.
+ */
+public enum TaskSort {
+
+    /**
+     * By position in list
+     */
+    ORDER(Comparator.comparingLong(Task::order).thenComparingLong(Task::id)),
+
+    /**
+     * By due date, tasks without due date last
+     */
+    DUE_DATE(Comparator.comparing(Task::dueDate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparingLong(Task::id)),
+
+    /**
+     * By title, which is unique
+     */
+    TITLE(Comparator.comparing(Task::title));
+
+    private final Comparator<Task> comparator;
+
+    TaskSort(final Comparator<Task> comparator) {
+        this.comparator = comparator;
+    }
+
+    /**
+     * Gets the comparator sorting tasks in this order
+     *
+     * @return task comparator
+     */
+    public Comparator<Task> comparator() {
+        return comparator;
+    }
+
+}
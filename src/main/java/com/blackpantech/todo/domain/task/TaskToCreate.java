@@ -0,0 +1,13 @@
+package com.blackpantech.todo.domain.task;
+
+import java.time.LocalDateTime;
+
+/**
+ * Domain record for a task to create
+ *
+ * @param title title of the new task
+ * @param dueDate due date of the new task
+ */
+public record TaskToCreate(String title, LocalDateTime dueDate) {
+
+}
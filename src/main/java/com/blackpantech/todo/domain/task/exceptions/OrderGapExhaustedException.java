@@ -0,0 +1,12 @@
+package com.blackpantech.todo.domain.task.exceptions;
+
+/**
+ * Checked exception in case there is no free position in list between two neighbouring tasks
+ */
+public class OrderGapExhaustedException extends Exception {
+
+    public OrderGapExhaustedException(final long lowerPosition, final long upperPosition) {
+        super(String.format("No free position between positions %d and %d", lowerPosition, upperPosition));
+    }
+
+}
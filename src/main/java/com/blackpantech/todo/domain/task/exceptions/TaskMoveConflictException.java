@@ -0,0 +1,13 @@
+package com.blackpantech.todo.domain.task.exceptions;
+
+/**
+ * Checked exception in case a task could not be moved within a few attempts, as it or its neighbours kept being
+ * written or renumbered meanwhile
+ */
+public class TaskMoveConflictException extends Exception {
+
+    public TaskMoveConflictException(final long id, final int attempts) {
+        super(String.format("Task with id %d could not be moved in %d attempts", id, attempts));
+    }
+
+}
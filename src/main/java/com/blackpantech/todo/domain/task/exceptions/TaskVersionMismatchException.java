@@ -0,0 +1,16 @@
+package com.blackpantech.todo.domain.task.exceptions;
+
+/**
+ * Checked exception in case a task is not at the version a conditional edit expects, having changed since it was read
+ */
+public class TaskVersionMismatchException extends Exception {
+
+    public TaskVersionMismatchException(final long id, final long expectedVersion) {
+        super(String.format("Task with id %d is not at version %d", id, expectedVersion));
+    }
+
+    public TaskVersionMismatchException(final long id) {
+        super(String.format("Task with id %d is not at the expected version", id));
+    }
+
+}
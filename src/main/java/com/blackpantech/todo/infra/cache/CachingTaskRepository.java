@@ -0,0 +1,153 @@
+package com.blackpantech.todo.infra.cache;
+
+import com.blackpantech.todo.domain.task.ForwardingTaskRepository;
+import com.blackpantech.todo.domain.task.MovePosition;
+import com.blackpantech.todo.domain.task.Task;
+import com.blackpantech.todo.domain.task.TaskBulkUpdate;
+import com.blackpantech.todo.domain.task.TaskEdit;
+import com.blackpantech.todo.domain.task.TaskFilter;
+import com.blackpantech.todo.domain.task.TaskPatch;
+import com.blackpantech.todo.domain.task.TaskRepository;
+import com.blackpantech.todo.domain.task.exceptions.DuplicatedTaskTitleException;
+import com.blackpantech.todo.domain.task.exceptions.OrderGapExhaustedException;
+import com.blackpantech.todo.domain.task.exceptions.TaskNotFoundException;
+import com.blackpantech.todo.domain.task.exceptions.TaskVersionMismatchException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Task repository decorator reading single tasks through a cache. Writes go to the delegate repository and then
+ * invalidate the tasks they may have changed, so that a cached task is never older than the last completed write.
+ */
+public class CachingTaskRepository extends ForwardingTaskRepository {
+
+    private final TaskCache taskCache;
+
+    public CachingTaskRepository(final TaskRepository delegate, final TaskCache taskCache) {
+        super(delegate);
+        this.taskCache = taskCache;
+    }
+
+    @Override
+    public Task getTask(final long id) throws TaskNotFoundException {
+        final Task cachedTask = taskCache.get(id);
+
+        if (cachedTask != null) {
+            return cachedTask;
+        }
+
+        final long stamp = taskCache.stamp(id);
+        final Task task = delegate.getTask(id);
+        taskCache.put(id, task, stamp);
+
+        return task;
+    }
+
+    @Override
+    public long getTaskVersion(final long id) throws TaskNotFoundException {
+        final Task cachedTask = taskCache.get(id);
+
+        return cachedTask != null ? cachedTask.version() : delegate.getTaskVersion(id);
+    }
+
+    @Override
+    public Task editTask(final long id,
+                         final String title,
+                         final boolean completed,
+                         final long order,
+                         final LocalDateTime dueDate)
+            throws DuplicatedTaskTitleException, TaskNotFoundException {
+        try {
+            return delegate.editTask(id, title, completed, order, dueDate);
+        } finally {
+            taskCache.invalidate(id);
+        }
+    }
+
+    @Override
+    public void patchTask(final long id, final TaskPatch taskPatch)
+            throws DuplicatedTaskTitleException, TaskNotFoundException {
+        try {
+            delegate.patchTask(id, taskPatch);
+        } finally {
+            taskCache.invalidate(id);
+        }
+    }
+
+    @Override
+    public void patchTask(final long id, final TaskPatch taskPatch, final long expectedVersion)
+            throws DuplicatedTaskTitleException, TaskNotFoundException, TaskVersionMismatchException {
+        try {
+            delegate.patchTask(id, taskPatch, expectedVersion);
+        } finally {
+            taskCache.invalidate(id);
+        }
+    }
+
+    @Override
+    public long updateTasks(final TaskFilter taskFilter, final TaskBulkUpdate taskBulkUpdate) {
+        try {
+            return delegate.updateTasks(taskFilter, taskBulkUpdate);
+        } finally {
+            // Cached tasks are the current ones, so the filter matches the same tasks as in the repository
+            taskCache.invalidateIf(taskFilter::matches);
+        }
+    }
+
+    @Override
+    public List<Long> saveTaskEdits(final List<TaskEdit> taskEdits) {
+        try {
+            return delegate.saveTaskEdits(taskEdits);
+        } finally {
+            taskEdits.forEach(taskEdit -> taskCache.invalidate(taskEdit.id()));
+        }
+    }
+
+    @Override
+    public void moveTask(final long id, final long anchorId, final MovePosition position)
+            throws OrderGapExhaustedException, TaskNotFoundException, TaskVersionMismatchException {
+        try {
+            delegate.moveTask(id, anchorId, position);
+        } finally {
+            taskCache.invalidate(id);
+        }
+    }
+
+    @Override
+    public void rebalanceTaskOrders() {
+        try {
+            delegate.rebalanceTaskOrders();
+        } finally {
+            taskCache.clear();
+        }
+    }
+
+    @Override
+    public void deleteTask(final long id) throws TaskNotFoundException {
+        try {
+            delegate.deleteTask(id);
+        } finally {
+            taskCache.invalidate(id);
+        }
+    }
+
+    @Override
+    public void deleteAllTasks() {
+        try {
+            delegate.deleteAllTasks();
+        } finally {
+            taskCache.clear();
+        }
+    }
+
+    @Override
+    public void deleteAllCompletedTasks() {
+        try {
+            delegate.deleteAllCompletedTasks();
+        } finally {
+            taskCache.invalidateIf(Task::completed);
+        }
+    }
+
+}
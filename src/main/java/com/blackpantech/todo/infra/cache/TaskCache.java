@@ -0,0 +1,270 @@
+package com.blackpantech.todo.infra.cache;
+
+import com.blackpantech.todo.domain.task.Task;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Bounded cache of tasks keyed by primitive task ID, evicting by size and by time to live.
+ * <p>
+ * The cache is set-associative: an ID maps to a single set of {@value #WAYS} slots, which is also the unit of
+ * locking, and a full set evicts its least recently used slot. Each set counts its invalidations so that a value
+ * loaded before an invalidation cannot be stored after it.
+ */
+public class TaskCache {
+
+    static final int WAYS = 4;
+
+    private final CacheSet[] sets;
+
+    private final int setMask;
+
+    private final long ttlNanos;
+
+    private final LongSupplier nanoClock;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    public TaskCache(final int maxSize, final Duration ttl) {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    TaskCache(final int maxSize, final Duration ttl, final LongSupplier nanoClock) {
+        final int setCount = Math.max(1, Integer.highestOneBit(Math.max(1, maxSize / WAYS)));
+        this.sets = new CacheSet[setCount];
+        for (int i = 0; i < setCount; i++) {
+            sets[i] = new CacheSet();
+        }
+        this.setMask = setCount - 1;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Gets a cached task
+     *
+     * @param id task ID
+     *
+     * @return cached task, or null if absent or expired
+     */
+    public Task get(final long id) {
+        final CacheSet set = setFor(id);
+        final long now = nanoClock.getAsLong();
+
+        synchronized (set) {
+            for (int way = 0; way < WAYS; way++) {
+                if (set.values[way] != null && set.keys[way] == id) {
+                    if (now - set.expiresAt[way] >= 0) {
+                        set.values[way] = null;
+                        evictions.increment();
+                        break;
+                    }
+                    set.lastAccess[way] = ++set.clock;
+                    hits.increment();
+                    return set.values[way];
+                }
+            }
+        }
+
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Gets the invalidation stamp of an ID, to read before loading a task from the repository
+     *
+     * @param id task ID
+     *
+     * @return invalidation stamp to give to {@link #put(long, Task, long)}
+     */
+    public long stamp(final long id) {
+        final CacheSet set = setFor(id);
+
+        synchronized (set) {
+            return set.invalidations;
+        }
+    }
+
+    /**
+     * Caches a task unless its ID has been invalidated since the given stamp was read
+     *
+     * @param id task ID
+     * @param task task to cache
+     * @param stamp invalidation stamp read before loading the task
+     */
+    public void put(final long id, final Task task, final long stamp) {
+        final CacheSet set = setFor(id);
+        final long now = nanoClock.getAsLong();
+
+        synchronized (set) {
+            if (set.invalidations != stamp) {
+                return;
+            }
+
+            final int way = wayToWrite(set, id, now);
+            set.keys[way] = id;
+            set.values[way] = task;
+            set.expiresAt[way] = now + ttlNanos;
+            set.lastAccess[way] = ++set.clock;
+        }
+    }
+
+    /**
+     * Removes a task
+     *
+     * @param id task ID
+     */
+    public void invalidate(final long id) {
+        final CacheSet set = setFor(id);
+
+        synchronized (set) {
+            for (int way = 0; way < WAYS; way++) {
+                if (set.values[way] != null && set.keys[way] == id) {
+                    set.values[way] = null;
+                }
+            }
+            set.invalidations++;
+        }
+    }
+
+    /**
+     * Removes all tasks matching a predicate
+     *
+     * @param predicate predicate on cached tasks
+     */
+    public void invalidateIf(final Predicate<Task> predicate) {
+        for (final CacheSet set : sets) {
+            synchronized (set) {
+                for (int way = 0; way < WAYS; way++) {
+                    if (set.values[way] != null && predicate.test(set.values[way])) {
+                        set.values[way] = null;
+                    }
+                }
+                set.invalidations++;
+            }
+        }
+    }
+
+    /**
+     * Removes all tasks
+     */
+    public void clear() {
+        invalidateIf(task -> true);
+    }
+
+    /**
+     * Gets the number of slots, which bounds the number of cached tasks
+     *
+     * @return cache capacity
+     */
+    public int capacity() {
+        return sets.length * WAYS;
+    }
+
+    /**
+     * Gets the number of lookups that found a task
+     *
+     * @return hit count
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that found no task
+     *
+     * @return miss count
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the number of tasks evicted for lack of room or because they expired
+     *
+     * @return eviction count
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Gets the slot to write an ID to: its current slot, a free slot, an expired slot or the least recently used one
+     *
+     * @param set set of the ID, locked by the caller
+     * @param id task ID
+     * @param now current time in nanoseconds
+     *
+     * @return slot index in the set
+     */
+    private int wayToWrite(final CacheSet set, final long id, final long now) {
+        int freeWay = -1;
+        int leastRecentlyUsedWay = 0;
+
+        for (int way = 0; way < WAYS; way++) {
+            if (set.values[way] == null) {
+                if (freeWay < 0) {
+                    freeWay = way;
+                }
+            } else if (set.keys[way] == id) {
+                return way;
+            } else if (set.lastAccess[way] < set.lastAccess[leastRecentlyUsedWay]) {
+                leastRecentlyUsedWay = way;
+            }
+        }
+
+        if (freeWay >= 0) {
+            return freeWay;
+        }
+
+        for (int way = 0; way < WAYS; way++) {
+            if (now - set.expiresAt[way] >= 0) {
+                evictions.increment();
+                return way;
+            }
+        }
+
+        evictions.increment();
+        return leastRecentlyUsedWay;
+    }
+
+    /**
+     * Gets the set an ID maps to
+     *
+     * @param id task ID
+     *
+     * @return set of the ID
+     */
+    private CacheSet setFor(final long id) {
+        final long hash = id * 0x9E3779B97F4A7C15L;
+
+        return sets[(int) (hash ^ (hash >>> 32)) & setMask];
+    }
+
+    /**
+     * Slots of a set, guarded by the set monitor
+     */
+    private static final class CacheSet {
+
+        private final long[] keys = new long[WAYS];
+
+        private final Task[] values = new Task[WAYS];
+
+        private final long[] expiresAt = new long[WAYS];
+
+        private final long[] lastAccess = new long[WAYS];
+
+        private long clock;
+
+        private long invalidations;
+
+    }
+
+}
@@ -0,0 +1,268 @@
+package com.blackpantech.todo.infra.concurrency;
+
+import com.blackpantech.todo.domain.task.ForwardingTaskRepository;
+import com.blackpantech.todo.domain.task.MovePosition;
+import com.blackpantech.todo.domain.task.Task;
+import com.blackpantech.todo.domain.task.TaskBulkUpdate;
+import com.blackpantech.todo.domain.task.TaskChanges;
+import com.blackpantech.todo.domain.task.TaskCursor;
+import com.blackpantech.todo.domain.task.TaskEdit;
+import com.blackpantech.todo.domain.task.TaskFilter;
+import com.blackpantech.todo.domain.task.TaskPage;
+import com.blackpantech.todo.domain.task.TaskPatch;
+import com.blackpantech.todo.domain.task.TaskRepository;
+import com.blackpantech.todo.domain.task.TaskSort;
+import com.blackpantech.todo.domain.task.TaskToCreate;
+import com.blackpantech.todo.domain.task.exceptions.DuplicatedTaskTitleException;
+import com.blackpantech.todo.domain.task.exceptions.OrderGapExhaustedException;
+import com.blackpantech.todo.domain.task.exceptions.TaskNotFoundException;
+import com.blackpantech.todo.domain.task.exceptions.TaskVersionMismatchException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Task repository decorator letting a limited number of threads into the delegate repository at once. Calls that
+ * do not reach the database, such as getting the version of all tasks, are not limited.
+ */
+public class ConcurrencyLimitingTaskRepository extends ForwardingTaskRepository {
+
+    private final DatabaseAccessLimiter databaseAccessLimiter;
+
+    public ConcurrencyLimitingTaskRepository(final TaskRepository delegate,
+                                             final DatabaseAccessLimiter databaseAccessLimiter) {
+        super(delegate);
+        this.databaseAccessLimiter = databaseAccessLimiter;
+    }
+
+    @Override
+    public Task getTask(final long id) throws TaskNotFoundException {
+        databaseAccessLimiter.acquire();
+        try {
+            return delegate.getTask(id);
+        } finally {
+            databaseAccessLimiter.release();
+        }
+    }
+
+    @Override
+    public Task createTask(final String title, final LocalDateTime dueDate) throws DuplicatedTaskTitleException {
+        databaseAccessLimiter.acquire();
+        try {
+            return delegate.createTask(title, dueDate);
+        } finally {
+            databaseAccessLimiter.release();
+        }
+    }
+
+    @Override
+    public List<Task> createTasks(final List<TaskToCreate> tasksToCreate) throws DuplicatedTaskTitleException {
+        databaseAccessLimiter.acquire();
+        try {
+            return delegate.createTasks(tasksToCreate);
+        } finally {
+            databaseAccessLimiter.release();
+        }
+    }
+
+    @Override
+    public Task editTask(final long id,
+                         final String title,
+                         final boolean completed,
+                         final long order,
+                         final LocalDateTime dueDate)
+            throws DuplicatedTaskTitleException, TaskNotFoundException {
+        databaseAccessLimiter.acquire();
+        try {
+            return delegate.editTask(id, title, completed, order, dueDate);
+        } finally {
+            databaseAccessLimiter.release();
+        }
+    }
+
+    @Override
+    public void patchTask(final long id, final TaskPatch taskPatch)
+            throws DuplicatedTaskTitleException, TaskNotFoundException {
+        databaseAccessLimiter.acquire();
+        try {
+            delegate.patchTask(id, taskPatch);
+        } finally {
+            databaseAccessLimiter.release();
+        }
+    }
+
+    @Override
+    public void patchTask(final long id, final TaskPatch taskPatch, final long expectedVersion)
+            throws DuplicatedTaskTitleException, TaskNotFoundException, TaskVersionMismatchException {
+        databaseAccessLimiter.acquire();
+        try {
+            delegate.patchTask(id, taskPatch, expectedVersion);
+        } finally {
+            databaseAccessLimiter.release();
+        }
+    }
+
+    @Override
+    public long updateTasks(final TaskFilter taskFilter, final TaskBulkUpdate taskBulkUpdate) {
+        databaseAccessLimiter.acquire();
+        try {
+            return delegate.updateTasks(taskFilter, taskBulkUpdate);
+        } finally {
+            databaseAccessLimiter.release();
+        }
+    }
+
+    @Override
+    public List<Long> saveTaskEdits(final List<TaskEdit> taskEdits) {
+        databaseAccessLimiter.acquire();
+        try {
+            return delegate.saveTaskEdits(taskEdits);
+        } finally {
+            databaseAccessLimiter.release();
+        }
+    }
+
+    @Override
+    public void moveTask(final long id, final long anchorId, final MovePosition position)
+            throws OrderGapExhaustedException, TaskNotFoundException, TaskVersionMismatchException {
+        databaseAccessLimiter.acquire();
+        try {
+            delegate.moveTask(id, anchorId, position);
+        } finally {
+            databaseAccessLimiter.release();
+        }
+    }
+
+    @Override
+    public void rebalanceTaskOrders() {
+        databaseAccessLimiter.acquire();
+        try {
+            delegate.rebalanceTaskOrders();
+        } finally {
+            databaseAccessLimiter.release();
+        }
+    }
+
+    @Override
+    public void deleteTask(final long id) throws TaskNotFoundException {
+        databaseAccessLimiter.acquire();
+        try {
+            delegate.deleteTask(id);
+        } finally {
+            databaseAccessLimiter.release();
+        }
+    }
+
+    @Override
+    public List<Task> getAllTasks() {
+        databaseAccessLimiter.acquire();
+        try {
+            return delegate.getAllTasks();
+        } finally {
+            databaseAccessLimiter.release();
+        }
+    }
+
+    @Override
+    public List<Task> findTasks(final TaskFilter taskFilter, final TaskSort taskSort) {
+        databaseAccessLimiter.acquire();
+        try {
+            return delegate.findTasks(taskFilter, taskSort);
+        } finally {
+            databaseAccessLimiter.release();
+        }
+    }
+
+    @Override
+    public List<Task> searchTasks(final String query, final int limit) {
+        databaseAccessLimiter.acquire();
+        try {
+            return delegate.searchTasks(query, limit);
+        } finally {
+            databaseAccessLimiter.release();
+        }
+    }
+
+    @Override
+    public TaskPage getTasksPage(final TaskCursor after, final int limit) {
+        databaseAccessLimiter.acquire();
+        try {
+            return delegate.getTasksPage(after, limit);
+        } finally {
+            databaseAccessLimiter.release();
+        }
+    }
+
+    @Override
+    public void forEachTask(final Consumer<Task> consumer) {
+        // The connection is held while the consumer writes the response, so the permit is too
+        databaseAccessLimiter.acquire();
+        try {
+            delegate.forEachTask(consumer);
+        } finally {
+            databaseAccessLimiter.release();
+        }
+    }
+
+    @Override
+    public TaskChanges getTaskChanges(final long since) {
+        databaseAccessLimiter.acquire();
+        try {
+            return delegate.getTaskChanges(since);
+        } finally {
+            databaseAccessLimiter.release();
+        }
+    }
+
+    @Override
+    public long getTaskVersion(final long id) throws TaskNotFoundException {
+        databaseAccessLimiter.acquire();
+        try {
+            return delegate.getTaskVersion(id);
+        } finally {
+            databaseAccessLimiter.release();
+        }
+    }
+
+    @Override
+    public long countTasks() {
+        databaseAccessLimiter.acquire();
+        try {
+            return delegate.countTasks();
+        } finally {
+            databaseAccessLimiter.release();
+        }
+    }
+
+    @Override
+    public long countCompletedTasks() {
+        databaseAccessLimiter.acquire();
+        try {
+            return delegate.countCompletedTasks();
+        } finally {
+            databaseAccessLimiter.release();
+        }
+    }
+
+    @Override
+    public void deleteAllTasks() {
+        databaseAccessLimiter.acquire();
+        try {
+            delegate.deleteAllTasks();
+        } finally {
+            databaseAccessLimiter.release();
+        }
+    }
+
+    @Override
+    public void deleteAllCompletedTasks() {
+        databaseAccessLimiter.acquire();
+        try {
+            delegate.deleteAllCompletedTasks();
+        } finally {
+            databaseAccessLimiter.release();
+        }
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.blackpantech.todo.infra.concurrency;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Limits the number of threads accessing the database at once, so that any number of request threads can wait
+ * cheaply on a fair semaphore rather than on the connection pool, which times out and, with virtual threads, may pin
+ * carrier threads in blocking JDBC code
+ */
+public final class DatabaseAccessLimiter {
+
+    private final Semaphore permits;
+
+    private final int maxConcurrency;
+
+    /**
+     * Creates a limiter
+     *
+     * @param maxConcurrency maximum number of threads accessing the database at once, usually the connection pool size
+     */
+    public DatabaseAccessLimiter(final int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Maximum database access concurrency must be positive");
+        }
+
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Waits for the right to access the database. Interrupts are kept for the caller, which cannot give up a call
+     * already started.
+     */
+    public void acquire() {
+        permits.acquireUninterruptibly();
+    }
+
+    /**
+     * Gives back the right to access the database, to be called once per acquire
+     */
+    public void release() {
+        permits.release();
+    }
+
+    /**
+     * Gets the maximum number of threads accessing the database at once
+     *
+     * @return maximum concurrency
+     */
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Gets the number of threads currently accessing the database
+     *
+     * @return active threads
+     */
+    public int activeCount() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    /**
+     * Gets an estimate of the number of threads waiting to access the database
+     *
+     * @return waiting threads
+     */
+    public int waitingCount() {
+        return permits.getQueueLength();
+    }
+
+}
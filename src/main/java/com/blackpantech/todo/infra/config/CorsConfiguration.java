@@ -2,6 +2,7 @@ package com.blackpantech.todo.infra.config;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpHeaders;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -10,6 +11,7 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
  * Configuration class for CORS configuration
  */
 @Configuration
+@Profile("!reactive")
 public class CorsConfiguration implements WebMvcConfigurer {
 
     @Value("${cors.allowed-origins}")
@@ -21,8 +23,10 @@ public class CorsConfiguration implements WebMvcConfigurer {
                 .allowedOrigins(allowedOrigins)
                 .allowedHeaders(
                         HttpHeaders.ACCEPT,
-                        HttpHeaders.CONTENT_TYPE
-                );
+                        HttpHeaders.CONTENT_TYPE,
+                        HttpHeaders.IF_NONE_MATCH
+                )
+                .exposedHeaders(HttpHeaders.ETAG);
     }
 
 }
@@ -0,0 +1,53 @@
+package com.blackpantech.todo.infra.config;
+
+import com.blackpantech.todo.infra.concurrency.DatabaseAccessLimiter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class for the database access limiter, enabled when todo.database-access.limit-enabled is true, as in
+ * the 'virtual' profile
+ */
+@Configuration
+@ConditionalOnProperty(name = "todo.database-access.limit-enabled", havingValue = "true")
+public class DatabaseAccessConfiguration {
+
+    /**
+     * Bean factory for the database access limiter
+     *
+     * @param maxConcurrency maximum number of threads accessing the database at once, the connection pool size by
+     *                       default
+     *
+     * @return database access limiter bean
+     */
+    @Bean
+    public DatabaseAccessLimiter databaseAccessLimiter(
+            @Value("${todo.database-access.max-concurrency:${spring.datasource.hikari.maximum-pool-size:10}}")
+            final int maxConcurrency) {
+        return new DatabaseAccessLimiter(maxConcurrency);
+    }
+
+    /**
+     * Bean factory for the database access limiter metrics
+     *
+     * @param databaseAccessLimiter database access limiter
+     *
+     * @return binder of the active and waiting threads gauges
+     */
+    @Bean
+    public MeterBinder databaseAccessMetrics(final DatabaseAccessLimiter databaseAccessLimiter) {
+        return meterRegistry -> {
+            Gauge.builder("tasks.database.access.active", databaseAccessLimiter, DatabaseAccessLimiter::activeCount)
+                    .description("Threads accessing the database")
+                    .register(meterRegistry);
+            Gauge.builder("tasks.database.access.waiting", databaseAccessLimiter, DatabaseAccessLimiter::waitingCount)
+                    .description("Threads waiting to access the database")
+                    .register(meterRegistry);
+        };
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.blackpantech.todo.infra.config;
+
+import com.blackpantech.todo.domain.task.TaskService;
+import com.blackpantech.todo.infra.idempotency.IdempotencyStore;
+import com.blackpantech.todo.infra.idempotency.IdempotentTaskCreator;
+import com.blackpantech.todo.infra.idempotency.InMemoryIdempotencyStore;
+import com.blackpantech.todo.infra.idempotency.JdbcIdempotencyStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+/**
+ * Configuration class for the idempotency keys of task creations. Keys are stored in the store chosen with
+ * todo.idempotency.store: memory (default), on this node only, or database, shared by all nodes.
+ */
+@Configuration
+@Profile("!reactive")
+public class IdempotencyConfiguration {
+
+    /**
+     * Bean factory for the idempotent task creator
+     *
+     * @param taskService task service
+     * @param idempotencyStore idempotency store
+     * @param maxWait maximum time a request waits for the task of a key being created by another request
+     *
+     * @return idempotent task creator bean
+     */
+    @Bean
+    public IdempotentTaskCreator idempotentTaskCreator(final TaskService taskService,
+                                                       final IdempotencyStore idempotencyStore,
+                                                       @Value("${todo.idempotency.max-wait:5s}")
+                                                       final Duration maxWait) {
+        return new IdempotentTaskCreator(taskService, idempotencyStore, maxWait);
+    }
+
+    /**
+     * Bean factory for the in-memory idempotency store
+     *
+     * @param maxSize maximum number of stored keys
+     * @param ttl time to live of stored keys
+     * @param reservationTtl time after which a key reserved by a creation that never completed can be reserved again
+     *
+     * @return in-memory idempotency store bean
+     */
+    @Bean
+    @ConditionalOnProperty(name = "todo.idempotency.store", havingValue = "memory", matchIfMissing = true)
+    public IdempotencyStore inMemoryIdempotencyStore(@Value("${todo.idempotency.max-size:10000}") final int maxSize,
+                                                     @Value("${todo.idempotency.ttl:24h}") final Duration ttl,
+                                                     @Value("${todo.idempotency.reservation-ttl:30s}")
+                                                     final Duration reservationTtl) {
+        return new InMemoryIdempotencyStore(maxSize, ttl, reservationTtl);
+    }
+
+    /**
+     * Bean factory for the idempotency store in database
+     *
+     * @param jdbcTemplate JDBC template on the task database
+     * @param ttl time to live of stored keys
+     * @param reservationTtl time after which a key reserved by a creation that never completed can be reserved again
+     *
+     * @return database idempotency store bean
+     */
+    @Bean
+    @ConditionalOnProperty(name = "todo.idempotency.store", havingValue = "database")
+    public IdempotencyStore jdbcIdempotencyStore(final JdbcTemplate jdbcTemplate,
+                                                 @Value("${todo.idempotency.ttl:24h}") final Duration ttl,
+                                                 @Value("${todo.idempotency.reservation-ttl:30s}")
+                                                 final Duration reservationTtl) {
+        return new JdbcIdempotencyStore(jdbcTemplate, ttl, reservationTtl);
+    }
+
+}
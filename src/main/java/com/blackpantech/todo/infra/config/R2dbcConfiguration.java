@@ -0,0 +1,71 @@
+package com.blackpantech.todo.infra.config;
+
+import com.blackpantech.todo.domain.task.ReactiveTaskService;
+import com.blackpantech.todo.domain.task.TaskService;
+import com.blackpantech.todo.infra.r2dbc.R2dbcTaskRepository;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * Configuration class for the non-blocking task service of the 'reactive' profile. The R2DBC auto-configuration is
+ * excluded so that its transaction manager does not replace the JPA one, which still backs the blocking beans and
+ * all task writes. The schema is migrated by Flyway on the JDBC data source.
+ */
+@Configuration
+@Profile("reactive")
+public class R2dbcConfiguration {
+
+    /**
+     * Bean factory for the R2DBC connection factory, pooled when the URL starts with r2dbc:pool:
+     *
+     * @param url R2DBC URL of the database
+     * @param username database user, unless given in the URL
+     * @param password database password, unless given in the URL
+     *
+     * @return connection factory bean
+     */
+    @Bean
+    public ConnectionFactory connectionFactory(@Value("${spring.r2dbc.url}") final String url,
+                                               @Value("${spring.r2dbc.username:}") final String username,
+                                               @Value("${spring.r2dbc.password:}") final String password) {
+        ConnectionFactoryBuilder connectionFactoryBuilder = ConnectionFactoryBuilder.withUrl(url);
+
+        if (!username.isEmpty()) {
+            connectionFactoryBuilder = connectionFactoryBuilder.username(username).password(password);
+        }
+
+        return connectionFactoryBuilder.build();
+    }
+
+    /**
+     * Bean factory for the R2DBC client
+     *
+     * @param connectionFactory R2DBC connection factory
+     *
+     * @return database client bean
+     */
+    @Bean
+    public DatabaseClient databaseClient(final ConnectionFactory connectionFactory) {
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    /**
+     * Bean factory for the non-blocking domain service, reading tasks through R2DBC and writing them through the
+     * blocking domain service
+     *
+     * @param databaseClient R2DBC client
+     * @param taskService blocking domain service
+     *
+     * @return non-blocking task service bean
+     */
+    @Bean
+    public ReactiveTaskService reactiveTaskService(final DatabaseClient databaseClient, final TaskService taskService) {
+        return new ReactiveTaskService(new R2dbcTaskRepository(databaseClient), taskService);
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.blackpantech.todo.infra.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.config.CorsRegistry;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+/**
+ * Configuration class for CORS configuration of the 'reactive' profile
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveCorsConfiguration implements WebFluxConfigurer {
+
+    @Value("${cors.allowed-origins}")
+    private String[] allowedOrigins;
+
+    @Override
+    public void addCorsMappings(final CorsRegistry corsRegistry) {
+        corsRegistry.addMapping("/tasks/**")
+                .allowedOrigins(allowedOrigins)
+                .allowedHeaders(
+                        HttpHeaders.ACCEPT,
+                        HttpHeaders.CONTENT_TYPE
+                );
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.blackpantech.todo.infra.config;
+
+import com.blackpantech.todo.infra.cache.TaskCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration class for the task cache, enabled when todo.cache.enabled is true. The cache is only invalidated by
+ * the writes of its own node, so it is off by default.
+ */
+@Configuration
+@ConditionalOnProperty(name = "todo.cache.enabled", havingValue = "true")
+public class TaskCacheConfiguration {
+
+    /**
+     * Bean factory for the task cache
+     *
+     * @param maxSize maximum number of cached tasks
+     * @param ttl time to live of cached tasks
+     *
+     * @return task cache bean
+     */
+    @Bean
+    public TaskCache taskCache(@Value("${todo.cache.max-size:10000}") final int maxSize,
+                               @Value("${todo.cache.ttl:5m}") final Duration ttl) {
+        return new TaskCache(maxSize, ttl);
+    }
+
+    /**
+     * Bean factory for the task cache metrics
+     *
+     * @param taskCache task cache
+     *
+     * @return binder of the hit, miss and eviction counters
+     */
+    @Bean
+    public MeterBinder taskCacheMetrics(final TaskCache taskCache) {
+        return meterRegistry -> {
+            FunctionCounter.builder("tasks.cache.hits", taskCache, TaskCache::hitCount)
+                    .description("Task lookups served from the cache")
+                    .register(meterRegistry);
+            FunctionCounter.builder("tasks.cache.misses", taskCache, TaskCache::missCount)
+                    .description("Task lookups sent to the repository")
+                    .register(meterRegistry);
+            FunctionCounter.builder("tasks.cache.evictions", taskCache, TaskCache::evictionCount)
+                    .description("Tasks evicted from the cache for lack of room or because they expired")
+                    .register(meterRegistry);
+            Gauge.builder("tasks.cache.capacity", taskCache, TaskCache::capacity)
+                    .description("Maximum number of cached tasks")
+                    .register(meterRegistry);
+        };
+    }
+
+}
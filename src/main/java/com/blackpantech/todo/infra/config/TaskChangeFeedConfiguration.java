@@ -0,0 +1,41 @@
+package com.blackpantech.todo.infra.config;
+
+import com.blackpantech.todo.infra.feed.SlowConsumerPolicy;
+import com.blackpantech.todo.infra.feed.TaskChangeFeed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.time.Duration;
+
+/**
+ * Configuration class for the task change feed streamed at /tasks/stream, enabled unless todo.feed.enabled is false.
+ * Subscribers whose buffer is full are handled by todo.feed.slow-consumers: resync (default) or disconnect.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "todo.feed.enabled", havingValue = "true", matchIfMissing = true)
+public class TaskChangeFeedConfiguration {
+
+    /**
+     * Bean factory for the task change feed, which closes all subscriptions on shutdown
+     *
+     * @param historySize number of latest events from which reconnecting subscribers resume
+     * @param subscriberBufferSize number of events buffered for each subscriber
+     * @param heartbeat time without events after which a heartbeat is sent
+     * @param slowConsumerPolicy what happens to subscribers whose buffer is full
+     *
+     * @return task change feed bean
+     */
+    @Bean
+    public TaskChangeFeed taskChangeFeed(
+            @Value("${todo.feed.history-size:1024}") final int historySize,
+            @Value("${todo.feed.subscriber-buffer-size:256}") final int subscriberBufferSize,
+            @Value("${todo.feed.heartbeat:15s}") final Duration heartbeat,
+            @Value("${todo.feed.slow-consumers:resync}") final SlowConsumerPolicy slowConsumerPolicy) {
+        return new TaskChangeFeed(historySize, subscriberBufferSize, heartbeat, slowConsumerPolicy);
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.blackpantech.todo.infra.config;
+
+import com.blackpantech.todo.domain.task.TaskService;
+import com.blackpantech.todo.infra.metrics.CachedCount;
+import com.blackpantech.todo.infra.metrics.TaskMetricsAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration class for the task metrics, enabled unless todo.metrics.enabled is false
+ */
+@Configuration
+@ConditionalOnProperty(name = "todo.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class TaskMetricsConfiguration {
+
+    /**
+     * Bean factory for the aspect timing the task controller, service and repository
+     *
+     * @param meterRegistry meter registry
+     *
+     * @return task metrics aspect bean
+     */
+    @Bean
+    public TaskMetricsAspect taskMetricsAspect(final MeterRegistry meterRegistry) {
+        return new TaskMetricsAspect(meterRegistry);
+    }
+
+    /**
+     * Bean factory for the task count metrics, counted again at most once per time to live rather than on each scrape
+     *
+     * @param taskService task service
+     * @param countTtl time for which a count is reused by the following scrapes
+     *
+     * @return binder of the task and completed task gauges
+     */
+    @Bean
+    public MeterBinder taskCountMetrics(final TaskService taskService,
+                                       @Value("${todo.metrics.count-ttl:30s}") final Duration countTtl) {
+        final CachedCount taskCount = new CachedCount(taskService::countTasks, countTtl);
+        final CachedCount completedTaskCount = new CachedCount(taskService::countCompletedTasks, countTtl);
+
+        return meterRegistry -> {
+            Gauge.builder("tasks.count", taskCount, CachedCount::get)
+                    .description("Number of tasks")
+                    .register(meterRegistry);
+            Gauge.builder("tasks.completed.count", completedTaskCount, CachedCount::get)
+                    .description("Number of completed tasks")
+                    .register(meterRegistry);
+        };
+    }
+
+}
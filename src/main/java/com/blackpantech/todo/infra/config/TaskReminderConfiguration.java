@@ -0,0 +1,119 @@
+package com.blackpantech.todo.infra.config;
+
+import com.blackpantech.todo.domain.task.TaskRepository;
+import com.blackpantech.todo.infra.reminder.ApplicationEventTaskDueSink;
+import com.blackpantech.todo.infra.reminder.JdbcReminderClaims;
+import com.blackpantech.todo.infra.reminder.LoggingTaskDueSink;
+import com.blackpantech.todo.infra.reminder.ReminderClaims;
+import com.blackpantech.todo.infra.reminder.SingleNodeReminderClaims;
+import com.blackpantech.todo.infra.reminder.TaskDueSink;
+import com.blackpantech.todo.infra.reminder.TaskReminderScheduler;
+import com.blackpantech.todo.infra.reminder.WebhookTaskDueSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Configuration class for the due date reminders, enabled when todo.reminders.enabled is true. Due tasks go to the
+ * sink chosen with todo.reminders.sink: log (default), event or webhook. With a database, each reminder is claimed in
+ * the tasks table, so that a single node sends it.
+ */
+@Configuration
+@ConditionalOnProperty(name = "todo.reminders.enabled", havingValue = "true")
+public class TaskReminderConfiguration {
+
+    /**
+     * Bean factory for the reminder scheduler
+     *
+     * @param taskRepository task repository, read directly to load the window and check due tasks
+     * @param taskDueSink sink of due tasks
+     * @param reminderClaims claims of the sent reminders
+     * @param tick resolution of reminders
+     * @param window duration ahead of which reminders are loaded
+     * @param catchUp duration before the start from which overdue reminders are still sent
+     *
+     * @return reminder scheduler bean
+     */
+    @Bean
+    public TaskReminderScheduler taskReminderScheduler(final TaskRepository taskRepository,
+                                                       final TaskDueSink taskDueSink,
+                                                       final ReminderClaims reminderClaims,
+                                                       @Value("${todo.reminders.tick:1s}") final Duration tick,
+                                                       @Value("${todo.reminders.window:1h}") final Duration window,
+                                                       @Value("${todo.reminders.catch-up:1h}") final Duration catchUp) {
+        return new TaskReminderScheduler(taskRepository, taskDueSink, reminderClaims, tick, window, catchUp);
+    }
+
+    /**
+     * Bean factory for the reminder claims in database, shared by all nodes
+     *
+     * @param jdbcTemplate JDBC template on the task database
+     *
+     * @return database reminder claims bean
+     */
+    @Bean
+    @Profile("!memory")
+    public ReminderClaims jdbcReminderClaims(final JdbcTemplate jdbcTemplate) {
+        return new JdbcReminderClaims(jdbcTemplate);
+    }
+
+    /**
+     * Bean factory for the reminder claims of a single node holding its tasks in memory
+     *
+     * @return single node reminder claims bean
+     */
+    @Bean
+    @Profile("memory")
+    public ReminderClaims singleNodeReminderClaims() {
+        return new SingleNodeReminderClaims();
+    }
+
+    /**
+     * Bean factory for the sink logging due tasks
+     *
+     * @return logging sink bean
+     */
+    @Bean
+    @ConditionalOnProperty(name = "todo.reminders.sink", havingValue = "log", matchIfMissing = true)
+    public TaskDueSink loggingTaskDueSink() {
+        return new LoggingTaskDueSink();
+    }
+
+    /**
+     * Bean factory for the sink publishing due tasks to in-process listeners
+     *
+     * @param applicationEventPublisher application event publisher
+     *
+     * @return application event sink bean
+     */
+    @Bean
+    @ConditionalOnProperty(name = "todo.reminders.sink", havingValue = "event")
+    public TaskDueSink applicationEventTaskDueSink(final ApplicationEventPublisher applicationEventPublisher) {
+        return new ApplicationEventTaskDueSink(applicationEventPublisher);
+    }
+
+    /**
+     * Bean factory for the sink posting due tasks to a webhook
+     *
+     * @param objectMapper JSON object mapper
+     * @param url webhook URL
+     *
+     * @return webhook sink bean
+     */
+    @Bean
+    @ConditionalOnProperty(name = "todo.reminders.sink", havingValue = "webhook")
+    public TaskDueSink webhookTaskDueSink(final ObjectMapper objectMapper,
+                                          @Value("${todo.reminders.webhook-url}") final URI url) {
+        return new WebhookTaskDueSink(HttpClient.newHttpClient(), objectMapper, url);
+    }
+
+}
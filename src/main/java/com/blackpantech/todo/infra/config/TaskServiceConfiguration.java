@@ -1,9 +1,27 @@
 package com.blackpantech.todo.infra.config;
 
+import com.blackpantech.todo.domain.task.TaskChangeVersions;
 import com.blackpantech.todo.domain.task.TaskRepository;
 import com.blackpantech.todo.domain.task.TaskService;
+import com.blackpantech.todo.infra.cache.CachingTaskRepository;
+import com.blackpantech.todo.infra.cache.TaskCache;
+import com.blackpantech.todo.infra.concurrency.ConcurrencyLimitingTaskRepository;
+import com.blackpantech.todo.infra.concurrency.DatabaseAccessLimiter;
+import com.blackpantech.todo.infra.feed.TaskChangeFeed;
+import com.blackpantech.todo.infra.feed.TaskChangePublishingTaskRepository;
+import com.blackpantech.todo.infra.jpa.TaskChangeVersionSequence;
+import com.blackpantech.todo.infra.memory.InMemoryTaskRepository;
+import com.blackpantech.todo.infra.reminder.ReminderSchedulingTaskRepository;
+import com.blackpantech.todo.infra.reminder.TaskReminderScheduler;
+import com.blackpantech.todo.infra.writebehind.TaskEditBuffer;
+import com.blackpantech.todo.infra.writebehind.WriteBehindTaskRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.time.Duration;
 
 /**
  * Configuration class for bean factories
@@ -11,16 +29,100 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class TaskServiceConfiguration {
 
+    /**
+     * Bean factory for the change versions of tasks, from which clients get the changes since their last sync
+     *
+     * @param overlap time before a read from which the next read starts again, so that late changes are not missed
+     * @param tombstoneRetention time for which deleted tasks are kept as tombstones
+     * @param taskChangeVersionSequence database sequence of change versions, or none to count them in memory
+     *
+     * @return task change versions bean
+     */
+    @Bean
+    public TaskChangeVersions taskChangeVersions(
+            @Value("${todo.changes.overlap:5s}") final Duration overlap,
+            @Value("${todo.changes.tombstone-retention:30d}") final Duration tombstoneRetention,
+            final ObjectProvider<TaskChangeVersionSequence> taskChangeVersionSequence) {
+        final TaskChangeVersionSequence sequence = taskChangeVersionSequence.getIfAvailable();
+
+        return sequence != null
+                ? new TaskChangeVersions(overlap, tombstoneRetention, sequence)
+                : new TaskChangeVersions(overlap, tombstoneRetention);
+    }
+
+    /**
+     * Bean factory for the in-memory task repository of the 'memory' profile, which replaces the JPA one
+     *
+     * @param orderGap gap between the positions of consecutive new tasks
+     * @param taskChangeVersions change versions of tasks
+     *
+     * @return in-memory task repository bean
+     */
+    @Bean
+    @Profile("memory")
+    public TaskRepository inMemoryTaskRepository(@Value("${todo.order.gap:1024}") final long orderGap,
+                                                 final TaskChangeVersions taskChangeVersions) {
+        return new InMemoryTaskRepository(orderGap, taskChangeVersions);
+    }
+
     /**
      * Bean factory for domain service
      *
      * @param taskRepository task repository
+     * @param taskCache task cache, if enabled
+     * @param databaseAccessLimiter database access limiter, if enabled
+     * @param taskEditBuffer buffer of pending task edits, if enabled
+     * @param taskReminderScheduler due date reminder scheduler, if enabled
+     * @param taskChangeFeed task change feed, if enabled
      *
      * @return task service bean
      */
     @Bean
-    public TaskService taskService(final TaskRepository taskRepository) {
-        return new TaskService(taskRepository);
+    public TaskService taskService(final TaskRepository taskRepository,
+                                   final ObjectProvider<TaskCache> taskCache,
+                                   final ObjectProvider<DatabaseAccessLimiter> databaseAccessLimiter,
+                                   final ObjectProvider<TaskEditBuffer> taskEditBuffer,
+                                   final ObjectProvider<TaskReminderScheduler> taskReminderScheduler,
+                                   final ObjectProvider<TaskChangeFeed> taskChangeFeed) {
+        TaskRepository decoratedTaskRepository = taskRepository;
+
+        // Innermost, so that cache hits do not wait for database access
+        final DatabaseAccessLimiter limiter = databaseAccessLimiter.getIfAvailable();
+        if (limiter != null) {
+            decoratedTaskRepository = new ConcurrencyLimitingTaskRepository(decoratedTaskRepository, limiter);
+        }
+
+        // Under the cache, which then reads edited tasks from the buffer
+        final TaskEditBuffer editBuffer = taskEditBuffer.getIfAvailable();
+        if (editBuffer != null) {
+            decoratedTaskRepository = new WriteBehindTaskRepository(decoratedTaskRepository, editBuffer);
+        }
+
+        final TaskCache cache = taskCache.getIfAvailable();
+        if (cache != null) {
+            decoratedTaskRepository = new CachingTaskRepository(decoratedTaskRepository, cache);
+        }
+
+        // Above the cache, so that reminders follow writes once the cache is invalidated
+        final TaskReminderScheduler scheduler = taskReminderScheduler.getIfAvailable();
+        if (scheduler != null) {
+            decoratedTaskRepository = new ReminderSchedulingTaskRepository(decoratedTaskRepository, scheduler);
+        }
+
+        // Outermost, so that subscribers reading tasks on a change read them as published
+        final TaskChangeFeed feed = taskChangeFeed.getIfAvailable();
+        if (feed != null) {
+            decoratedTaskRepository = editBuffer != null
+                    ? new TaskChangePublishingTaskRepository(decoratedTaskRepository, feed, editBuffer::isPending)
+                    : new TaskChangePublishingTaskRepository(decoratedTaskRepository, feed);
+        }
+
+        // Pending edits are written through all decorators, so that the cache and the feed follow them
+        if (editBuffer != null) {
+            editBuffer.writeTo(decoratedTaskRepository);
+        }
+
+        return new TaskService(decoratedTaskRepository);
     }
 
 }
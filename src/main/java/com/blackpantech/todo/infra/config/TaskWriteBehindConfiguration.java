@@ -0,0 +1,34 @@
+package com.blackpantech.todo.infra.config;
+
+import com.blackpantech.todo.infra.writebehind.TaskEditBuffer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration class for the write-behind of task edits, enabled when todo.write-behind.enabled is true
+ */
+@Configuration
+@ConditionalOnProperty(name = "todo.write-behind.enabled", havingValue = "true")
+public class TaskWriteBehindConfiguration {
+
+    /**
+     * Bean factory for the buffer of pending task edits, which writes them on shutdown. The repository it writes to is
+     * set once the task repository decorators are built.
+     *
+     * @param flushInterval time between two writes of the pending edits
+     * @param maxPendingTasks number of tasks with pending edits from which they are written at once
+     *
+     * @return task edit buffer bean
+     */
+    @Bean
+    public TaskEditBuffer taskEditBuffer(
+            @Value("${todo.write-behind.flush-interval:100ms}") final Duration flushInterval,
+            @Value("${todo.write-behind.max-pending-tasks:500}") final int maxPendingTasks) {
+        return new TaskEditBuffer(flushInterval, maxPendingTasks);
+    }
+
+}
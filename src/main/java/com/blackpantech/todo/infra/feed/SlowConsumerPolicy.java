@@ -0,0 +1,18 @@
+package com.blackpantech.todo.infra.feed;
+
+/**
+ * What happens to a subscriber whose buffer is full
+ */
+public enum SlowConsumerPolicy {
+
+    /**
+     * Drops the buffered events and tells the subscriber to read the task list again
+     */
+    RESYNC,
+
+    /**
+     * Closes the connection, so that the subscriber reconnects and resumes from its last event
+     */
+    DISCONNECT
+
+}
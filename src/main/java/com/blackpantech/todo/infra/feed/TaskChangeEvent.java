@@ -0,0 +1,14 @@
+package com.blackpantech.todo.infra.feed;
+
+import com.blackpantech.todo.domain.task.Task;
+
+/**
+ * Change of a task, numbered in the order changes were published
+ *
+ * @param id event ID, which a client sends back to resume the feed after it
+ * @param type kind of change
+ * @param taskId ID of the changed task, or 0 for a resync
+ * @param task state of the task after the change, or null if deleted or for a resync
+ */
+public record TaskChangeEvent(long id, TaskChangeType type, long taskId, Task task) {
+}
@@ -0,0 +1,202 @@
+package com.blackpantech.todo.infra.feed;
+
+import com.blackpantech.todo.domain.task.Task;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Feed of task changes, fanned out to subscribers as they are published. Publishers only number the events in turn,
+ * then offer them to the buffer of each subscriber without locking nor waiting, so that a slow subscriber never holds
+ * back a write nor the other subscribers, and subscribers send them in the order of their IDs. A subscriber whose
+ * buffer is full is resynced or disconnected, depending on the slow consumer policy.
+ * <p>
+ * The latest events are kept in a ring, from which a reconnecting subscriber resumes after the last event it got.
+ * Event IDs start from the clock, so that IDs from before a restart are told apart and get a resync.
+ */
+public class TaskChangeFeed implements AutoCloseable {
+
+    private final int subscriberBufferSize;
+
+    private final Duration heartbeat;
+
+    private final SlowConsumerPolicy slowConsumerPolicy;
+
+    /**
+     * Subscribers, whose snapshot is taken on each publication since they change far less often
+     */
+    private final List<TaskChangeSubscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    /**
+     * Numbers events, fills the ring and snapshots the subscribers at once, so that a subscriber added meanwhile gets
+     * each event exactly once, either replayed from the ring or offered by its publisher
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Latest events, the one with ID n at index n modulo the length
+     */
+    private final TaskChangeEvent[] history;
+
+    /**
+     * ID of the first event, from which the ring fills up
+     */
+    private final long firstEventId;
+
+    private volatile long lastEventId;
+
+    public TaskChangeFeed(final int historySize,
+                          final int subscriberBufferSize,
+                          final Duration heartbeat,
+                          final SlowConsumerPolicy slowConsumerPolicy) {
+        this(historySize, subscriberBufferSize, heartbeat, slowConsumerPolicy, System.currentTimeMillis() * 1000);
+    }
+
+    TaskChangeFeed(final int historySize,
+                   final int subscriberBufferSize,
+                   final Duration heartbeat,
+                   final SlowConsumerPolicy slowConsumerPolicy,
+                   final long lastEventId) {
+        this.history = new TaskChangeEvent[historySize];
+        this.subscriberBufferSize = subscriberBufferSize;
+        this.heartbeat = heartbeat;
+        this.slowConsumerPolicy = slowConsumerPolicy;
+        this.firstEventId = lastEventId + 1;
+        this.lastEventId = lastEventId;
+    }
+
+    /**
+     * Publishes a change to all subscribers
+     *
+     * @param type kind of change
+     * @param taskId ID of the changed task, or 0 for a resync
+     * @param task state of the task after the change, or null if deleted or for a resync
+     */
+    public void publish(final TaskChangeType type, final long taskId, final Task task) {
+        final TaskChangeEvent event;
+        final Iterator<TaskChangeSubscription> recipients;
+
+        lock.lock();
+        try {
+            event = new TaskChangeEvent(lastEventId + 1, type, taskId, task);
+            history[index(event.id())] = event;
+            lastEventId = event.id();
+            recipients = subscriptions.iterator();
+        } finally {
+            lock.unlock();
+        }
+
+        recipients.forEachRemaining(subscription -> {
+            if (!subscription.offer(event)) {
+                slowConsumer(subscription);
+            }
+        });
+    }
+
+    /**
+     * Subscribes to the changes published from now on, and starts sending them
+     *
+     * @param lastEventId ID of the last event the subscriber got before reconnecting, if any
+     * @param taskChangeSink connection of the subscriber
+     *
+     * @return subscription, to close once the connection is closed
+     */
+    public TaskChangeSubscription subscribe(final Long lastEventId, final TaskChangeSink taskChangeSink) {
+        final TaskChangeSubscription subscription =
+                new TaskChangeSubscription(this, taskChangeSink, subscriberBufferSize, heartbeat);
+
+        // Replayed and added at once, so that no event is missed nor sent twice in between
+        lock.lock();
+        try {
+            if (lastEventId != null && lastEventId <= this.lastEventId && lastEventId >= oldestEventId() - 1) {
+                subscription.resumeAfter(lastEventId);
+                for (long id = lastEventId + 1; id <= this.lastEventId; id++) {
+                    subscription.replay(history[index(id)]);
+                }
+            } else {
+                subscription.resumeAfter(this.lastEventId);
+                if (lastEventId != null) {
+                    subscription.resync();
+                }
+            }
+            subscriptions.add(subscription);
+        } finally {
+            lock.unlock();
+        }
+
+        subscription.start();
+
+        return subscription;
+    }
+
+    /**
+     * Closes all subscriptions
+     */
+    @Override
+    public void close() {
+        subscriptions.forEach(TaskChangeSubscription::close);
+    }
+
+    /**
+     * Gets the ID of the last published event
+     *
+     * @return ID of the last event
+     */
+    long lastEventId() {
+        return lastEventId;
+    }
+
+    /**
+     * Gets the number of subscribers
+     *
+     * @return number of open subscriptions
+     */
+    int subscribers() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Removes a closed subscription
+     *
+     * @param subscription closed subscription
+     */
+    void unsubscribe(final TaskChangeSubscription subscription) {
+        subscriptions.remove(subscription);
+    }
+
+    /**
+     * Applies the slow consumer policy to a subscriber whose buffer is full
+     *
+     * @param subscription subscription of the slow subscriber
+     */
+    private void slowConsumer(final TaskChangeSubscription subscription) {
+        switch (slowConsumerPolicy) {
+            case RESYNC -> subscription.resync();
+            case DISCONNECT -> subscription.close();
+        }
+    }
+
+    /**
+     * Gets the ID of the oldest event still in the ring
+     *
+     * @return ID of the oldest event
+     */
+    private long oldestEventId() {
+        return Math.max(firstEventId, lastEventId - history.length + 1);
+    }
+
+    /**
+     * Gets the index of an event in the ring
+     *
+     * @param id event ID
+     *
+     * @return index in the ring
+     */
+    private int index(final long id) {
+        return Math.floorMod(id, history.length);
+    }
+
+}
@@ -0,0 +1,160 @@
+package com.blackpantech.todo.infra.feed;
+
+import com.blackpantech.todo.domain.task.ForwardingTaskRepository;
+import com.blackpantech.todo.domain.task.MovePosition;
+import com.blackpantech.todo.domain.task.Task;
+import com.blackpantech.todo.domain.task.TaskBulkUpdate;
+import com.blackpantech.todo.domain.task.TaskEdit;
+import com.blackpantech.todo.domain.task.TaskFilter;
+import com.blackpantech.todo.domain.task.TaskPatch;
+import com.blackpantech.todo.domain.task.TaskRepository;
+import com.blackpantech.todo.domain.task.TaskToCreate;
+import com.blackpantech.todo.domain.task.exceptions.DuplicatedTaskTitleException;
+import com.blackpantech.todo.domain.task.exceptions.OrderGapExhaustedException;
+import com.blackpantech.todo.domain.task.exceptions.TaskNotFoundException;
+import com.blackpantech.todo.domain.task.exceptions.TaskVersionMismatchException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+/**
+ * Task repository decorator publishing the writes that went through to the task change feed. Writes changing tasks
+ * that are not known one by one publish a resync instead. Edits held back by a write-behind buffer are published once
+ * they are written, rather than when they are acknowledged.
+ */
+public class TaskChangePublishingTaskRepository extends ForwardingTaskRepository {
+
+    private final TaskChangeFeed taskChangeFeed;
+
+    /**
+     * Tells whether a task has edits which are not written yet
+     */
+    private final LongPredicate pendingEdits;
+
+    public TaskChangePublishingTaskRepository(final TaskRepository delegate, final TaskChangeFeed taskChangeFeed) {
+        this(delegate, taskChangeFeed, id -> false);
+    }
+
+    public TaskChangePublishingTaskRepository(final TaskRepository delegate,
+                                              final TaskChangeFeed taskChangeFeed,
+                                              final LongPredicate pendingEdits) {
+        super(delegate);
+        this.taskChangeFeed = taskChangeFeed;
+        this.pendingEdits = pendingEdits;
+    }
+
+    @Override
+    public Task createTask(final String title, final LocalDateTime dueDate) throws DuplicatedTaskTitleException {
+        final Task createdTask = delegate.createTask(title, dueDate);
+        taskChangeFeed.publish(TaskChangeType.CREATED, createdTask.id(), createdTask);
+
+        return createdTask;
+    }
+
+    @Override
+    public List<Task> createTasks(final List<TaskToCreate> tasksToCreate) throws DuplicatedTaskTitleException {
+        final List<Task> createdTasks = delegate.createTasks(tasksToCreate);
+        createdTasks.forEach(createdTask ->
+                taskChangeFeed.publish(TaskChangeType.CREATED, createdTask.id(), createdTask));
+
+        return createdTasks;
+    }
+
+    @Override
+    public Task editTask(final long id,
+                         final String title,
+                         final boolean completed,
+                         final long order,
+                         final LocalDateTime dueDate)
+            throws DuplicatedTaskTitleException, TaskNotFoundException {
+        final Task editedTask = delegate.editTask(id, title, completed, order, dueDate);
+        // Published by saveTaskEdits once written
+        if (!pendingEdits.test(id)) {
+            taskChangeFeed.publish(TaskChangeType.EDITED, id, editedTask);
+        }
+
+        return editedTask;
+    }
+
+    @Override
+    public void patchTask(final long id, final TaskPatch taskPatch)
+            throws DuplicatedTaskTitleException, TaskNotFoundException {
+        delegate.patchTask(id, taskPatch);
+        changed(id);
+    }
+
+    @Override
+    public void patchTask(final long id, final TaskPatch taskPatch, final long expectedVersion)
+            throws DuplicatedTaskTitleException, TaskNotFoundException, TaskVersionMismatchException {
+        delegate.patchTask(id, taskPatch, expectedVersion);
+        changed(id);
+    }
+
+    @Override
+    public long updateTasks(final TaskFilter taskFilter, final TaskBulkUpdate taskBulkUpdate) {
+        final long updatedTasks = delegate.updateTasks(taskFilter, taskBulkUpdate);
+
+        if (updatedTasks > 0) {
+            taskChangeFeed.publish(TaskChangeType.RESYNC, 0L, null);
+        }
+
+        return updatedTasks;
+    }
+
+    @Override
+    public List<Long> saveTaskEdits(final List<TaskEdit> taskEdits) {
+        final List<Long> unsavedIds = delegate.saveTaskEdits(taskEdits);
+        taskEdits.stream()
+                .map(TaskEdit::id)
+                .filter(id -> !unsavedIds.contains(id))
+                .forEach(this::changed);
+
+        return unsavedIds;
+    }
+
+    @Override
+    public void moveTask(final long id, final long anchorId, final MovePosition position)
+            throws OrderGapExhaustedException, TaskNotFoundException, TaskVersionMismatchException {
+        delegate.moveTask(id, anchorId, position);
+        changed(id);
+    }
+
+    @Override
+    public void rebalanceTaskOrders() {
+        delegate.rebalanceTaskOrders();
+        taskChangeFeed.publish(TaskChangeType.RESYNC, 0L, null);
+    }
+
+    @Override
+    public void deleteTask(final long id) throws TaskNotFoundException {
+        delegate.deleteTask(id);
+        taskChangeFeed.publish(TaskChangeType.DELETED, id, null);
+    }
+
+    @Override
+    public void deleteAllTasks() {
+        delegate.deleteAllTasks();
+        taskChangeFeed.publish(TaskChangeType.RESYNC, 0L, null);
+    }
+
+    @Override
+    public void deleteAllCompletedTasks() {
+        delegate.deleteAllCompletedTasks();
+        taskChangeFeed.publish(TaskChangeType.RESYNC, 0L, null);
+    }
+
+    /**
+     * Publishes a task changed by a write that does not return it, reading it again
+     *
+     * @param id ID of the changed task
+     */
+    private void changed(final long id) {
+        try {
+            taskChangeFeed.publish(TaskChangeType.EDITED, id, delegate.getTask(id));
+        } catch (final TaskNotFoundException exception) {
+            taskChangeFeed.publish(TaskChangeType.DELETED, id, null);
+        }
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.blackpantech.todo.infra.feed;
+
+import java.io.IOException;
+
+/**
+ * Connection of a subscriber, to which its events are sent one at a time
+ */
+public interface TaskChangeSink {
+
+    /**
+     * Sends an event
+     *
+     * @param event event to send
+     *
+     * @throws IOException if the subscriber is gone
+     */
+    void send(final TaskChangeEvent event) throws IOException;
+
+    /**
+     * Sends a heartbeat, so that idle connections are kept open and dead ones are detected
+     *
+     * @throws IOException if the subscriber is gone
+     */
+    void heartbeat() throws IOException;
+
+    /**
+     * Closes the connection, once no more events will be sent
+     */
+    void complete();
+
+}
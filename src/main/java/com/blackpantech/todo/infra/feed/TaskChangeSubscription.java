@@ -0,0 +1,230 @@
+package com.blackpantech.todo.infra.feed;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Subscriber of the task change feed, with its own bounded buffer of events. Events are offered by publishers
+ * without locking nor waiting, possibly out of order, and sent to the sink in the order of their IDs by a virtual
+ * thread of the subscriber, so that a slow connection only holds back its own events. Once the buffer is full, the
+ * buffered events are dropped and a resync event is sent instead.
+ */
+public class TaskChangeSubscription {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskChangeSubscription.class);
+
+    private final TaskChangeFeed taskChangeFeed;
+
+    private final TaskChangeSink taskChangeSink;
+
+    private final int bufferSize;
+
+    private final long heartbeatNanos;
+
+    private final Queue<TaskChangeEvent> events = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Events taken from the buffer that cannot be sent yet, as an event before them is still being offered. Only
+     * used by the thread of the subscriber.
+     */
+    private final PriorityQueue<TaskChangeEvent> pendingEvents =
+            new PriorityQueue<>(Comparator.comparingLong(TaskChangeEvent::id));
+
+    /**
+     * Number of buffered and pending events, counted apart since the size of a concurrent queue is not constant-time
+     */
+    private final AtomicInteger bufferedEvents = new AtomicInteger();
+
+    private final AtomicBoolean resyncNeeded = new AtomicBoolean();
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private volatile Thread thread;
+
+    /**
+     * ID of the next event to send, after the last event sent. Only used by the thread of the subscriber once started.
+     */
+    private long nextEventId;
+
+    TaskChangeSubscription(final TaskChangeFeed taskChangeFeed,
+                           final TaskChangeSink taskChangeSink,
+                           final int bufferSize,
+                           final Duration heartbeat) {
+        this.taskChangeFeed = taskChangeFeed;
+        this.taskChangeSink = taskChangeSink;
+        this.bufferSize = bufferSize;
+        this.heartbeatNanos = heartbeat.toNanos();
+    }
+
+    /**
+     * Stops sending events, and removes the subscription from the feed. Called when the connection is closed by the
+     * client, or when the subscriber is too slow to keep up.
+     */
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            taskChangeFeed.unsubscribe(this);
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Checks whether the subscription is closed
+     *
+     * @return true if no more events will be sent
+     */
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    /**
+     * Offers an event published to the feed
+     *
+     * @param event published event
+     *
+     * @return false if the buffer is full, in which case the event is dropped
+     */
+    boolean offer(final TaskChangeEvent event) {
+        if (bufferedEvents.incrementAndGet() > bufferSize) {
+            bufferedEvents.decrementAndGet();
+            return false;
+        }
+
+        events.offer(event);
+        LockSupport.unpark(thread);
+        return true;
+    }
+
+    /**
+     * Sets the last event the subscriber got, before starting, so that events are sent from the next one
+     *
+     * @param eventId ID of the last event the subscriber got
+     */
+    void resumeAfter(final long eventId) {
+        nextEventId = eventId + 1;
+    }
+
+    /**
+     * Buffers an event replayed from the history of the feed, beyond the bound of the buffer since the history is
+     * itself bounded
+     *
+     * @param event replayed event
+     */
+    void replay(final TaskChangeEvent event) {
+        bufferedEvents.incrementAndGet();
+        events.offer(event);
+    }
+
+    /**
+     * Drops the buffered events and sends a resync event instead, once the subscriber missed events
+     */
+    void resync() {
+        resyncNeeded.set(true);
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Gets the number of buffered events
+     *
+     * @return number of events not sent yet
+     */
+    int bufferedEvents() {
+        return bufferedEvents.get();
+    }
+
+    /**
+     * Starts sending events, on a virtual thread
+     */
+    void start() {
+        // Assigned before running, so that no event offered meanwhile misses the thread to wake up
+        thread = Thread.ofVirtual().name("task-feed-subscriber").unstarted(this::run);
+        thread.start();
+    }
+
+    /**
+     * Sends events as they are buffered, and a heartbeat once nothing was sent for the heartbeat interval, until the
+     * subscription is closed or the connection fails
+     */
+    private void run() {
+        long lastSentNanos = System.nanoTime();
+
+        try {
+            while (!closed.get()) {
+                if (resyncNeeded.getAndSet(false)) {
+                    // Captured before dropping, so that a reconnection resumes after the last event actually sent
+                    final long lastSentEventId = nextEventId - 1;
+                    dropBufferedEvents();
+                    // Events up to now are covered by the resync, and skipped once offered
+                    nextEventId = taskChangeFeed.lastEventId() + 1;
+                    taskChangeSink.send(new TaskChangeEvent(lastSentEventId, TaskChangeType.RESYNC, 0L, null));
+                    lastSentNanos = System.nanoTime();
+                    continue;
+                }
+
+                final TaskChangeEvent event = nextEvent();
+                if (event != null) {
+                    taskChangeSink.send(event);
+                    nextEventId = event.id() + 1;
+                    lastSentNanos = System.nanoTime();
+                    continue;
+                }
+
+                // Nothing to send, or the next event is still being offered, which wakes this thread up
+                final long idleNanos = System.nanoTime() - lastSentNanos;
+                if (idleNanos >= heartbeatNanos) {
+                    taskChangeSink.heartbeat();
+                    lastSentNanos = System.nanoTime();
+                } else {
+                    LockSupport.parkNanos(this, heartbeatNanos - idleNanos);
+                }
+            }
+        } catch (final IOException | RuntimeException exception) {
+            LOGGER.debug("Task change subscriber is gone", exception);
+        } finally {
+            close();
+            taskChangeSink.complete();
+        }
+    }
+
+    /**
+     * Takes the next event to send out of the buffer, skipping the events already covered by a resync
+     *
+     * @return next event, or null if it was not offered yet
+     */
+    private TaskChangeEvent nextEvent() {
+        for (TaskChangeEvent event = events.poll(); event != null; event = events.poll()) {
+            pendingEvents.add(event);
+        }
+
+        while (!pendingEvents.isEmpty() && pendingEvents.peek().id() <= nextEventId) {
+            final TaskChangeEvent event = pendingEvents.poll();
+            bufferedEvents.decrementAndGet();
+            if (event.id() == nextEventId) {
+                return event;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Drops all buffered and pending events
+     */
+    private void dropBufferedEvents() {
+        while (events.poll() != null) {
+            bufferedEvents.decrementAndGet();
+        }
+        bufferedEvents.addAndGet(-pendingEvents.size());
+        pendingEvents.clear();
+    }
+
+}
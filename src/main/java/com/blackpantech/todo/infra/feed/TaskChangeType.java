@@ -0,0 +1,39 @@
+package com.blackpantech.todo.infra.feed;
+
+import java.util.Locale;
+
+/**
+ * Kind of change in a task change event
+ */
+public enum TaskChangeType {
+
+    /**
+     * A task was created
+     */
+    CREATED,
+
+    /**
+     * A task was edited, patched or moved
+     */
+    EDITED,
+
+    /**
+     * A task was deleted
+     */
+    DELETED,
+
+    /**
+     * Changes were missed or made in bulk, so that the task list must be read again
+     */
+    RESYNC;
+
+    /**
+     * Gets the name of the event sent to clients
+     *
+     * @return event name
+     */
+    public String eventName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+}
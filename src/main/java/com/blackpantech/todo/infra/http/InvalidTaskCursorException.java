@@ -0,0 +1,12 @@
+package com.blackpantech.todo.infra.http;
+
+/**
+ * Checked exception in case a page cursor sent by a client cannot be decoded
+ */
+public class InvalidTaskCursorException extends Exception {
+
+    public InvalidTaskCursorException(final String cursor) {
+        super(String.format("Task cursor %s is invalid", cursor));
+    }
+
+}
@@ -0,0 +1,12 @@
+package com.blackpantech.todo.infra.http;
+
+/**
+ * Checked exception in case a merge patch sent by a client does not describe a valid task edit
+ */
+public class InvalidTaskPatchException extends Exception {
+
+    public InvalidTaskPatchException(final String property) {
+        super(String.format("Task patch property %s is invalid", property));
+    }
+
+}
@@ -0,0 +1,173 @@
+package com.blackpantech.todo.infra.http;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schemagen.ProtobufSchemaGenerator;
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConversionException;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * HTTP message converter reading and writing Protocol Buffers messages with Jackson, on schemas generated from the
+ * Java types, so that the same request and response records serve both JSON and Protocol Buffers. Lists are sent as a
+ * message holding a single repeated field, since a Protocol Buffers message cannot be a list itself.
+ */
+public class ProtobufJackson2HttpMessageConverter extends AbstractJackson2HttpMessageConverter {
+
+    /**
+     * Media type of Protocol Buffers messages
+     */
+    public static final MediaType APPLICATION_PROTOBUF = new MediaType("application", "x-protobuf");
+
+    /**
+     * Schemas generated for each type, as generation walks through all properties
+     */
+    private final Map<JavaType, ProtobufSchema> schemas = new ConcurrentHashMap<>();
+
+    /**
+     * Builds a converter on an object mapper made with a ProtobufFactory
+     *
+     * @param objectMapper object mapper reading and writing Protocol Buffers
+     */
+    public ProtobufJackson2HttpMessageConverter(final ObjectMapper objectMapper) {
+        super(objectMapper, APPLICATION_PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(final Class<?> clazz) {
+        // Scalars and maps have no Protocol Buffers message to be written as
+        return !BeanUtils.isSimpleValueType(clazz) && !Map.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canWrite(final Class<?> clazz, final MediaType mediaType) {
+        return supports(clazz) && super.canWrite(clazz, mediaType);
+    }
+
+    @Override
+    public boolean canRead(final Type type, final Class<?> contextClass, final MediaType mediaType) {
+        return supports(ResolvableType.forType(type).toClass()) && super.canRead(type, contextClass, mediaType);
+    }
+
+    @Override
+    public Object read(final Type type, final Class<?> contextClass, final HttpInputMessage inputMessage)
+            throws IOException, HttpMessageNotReadableException {
+        final JavaType javaType = getJavaType(type, contextClass);
+
+        if (javaType.isCollectionLikeType()) {
+            final JavaType repeatedMessageType = repeatedMessageType(javaType);
+            final RepeatedMessage<?> repeatedMessage;
+            try {
+                repeatedMessage = getObjectMapper().readerFor(repeatedMessageType)
+                        .with(schema(repeatedMessageType))
+                        .readValue(inputMessage.getBody());
+            } catch (final JsonProcessingException exception) {
+                throw new HttpMessageNotReadableException(
+                        "Could not read Protocol Buffers message: " + exception.getMessage(), exception, inputMessage
+                );
+            }
+
+            return repeatedMessage.items() != null ? repeatedMessage.items() : List.of();
+        }
+
+        return super.read(type, contextClass, inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(final Object object, final Type type, final HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        if (object instanceof Collection<?> collection) {
+            // Written directly, as the converter only passes on declared types assignable from the written object
+            final JavaType repeatedMessageType = repeatedMessageType(
+                    getJavaType(type != null ? type : collection.getClass(), null)
+            );
+            try {
+                getObjectMapper().writerFor(repeatedMessageType)
+                        .with(schema(repeatedMessageType))
+                        .writeValue(StreamUtils.nonClosing(outputMessage.getBody()),
+                                new RepeatedMessage<>(List.copyOf(collection)));
+            } catch (final JsonProcessingException exception) {
+                throw new HttpMessageNotWritableException(
+                        "Could not write Protocol Buffers message: " + exception.getMessage(), exception
+                );
+            }
+            return;
+        }
+
+        super.writeInternal(object, type, outputMessage);
+    }
+
+    @Override
+    protected ObjectReader customizeReader(final ObjectReader reader, final JavaType javaType) {
+        return reader.with(schema(javaType));
+    }
+
+    @Override
+    protected ObjectWriter customizeWriter(final ObjectWriter writer,
+                                           final JavaType javaType,
+                                           final MediaType mediaType) {
+        return writer.with(schema(javaType));
+    }
+
+    /**
+     * Gets the type of the message holding the items of a collection type
+     *
+     * @param collectionType collection type
+     *
+     * @return repeated message type of the items of the collection
+     */
+    private JavaType repeatedMessageType(final JavaType collectionType) {
+        return getObjectMapper().getTypeFactory()
+                .constructParametricType(RepeatedMessage.class, collectionType.getContentType());
+    }
+
+    /**
+     * Gets the schema of a type, generated on first use
+     *
+     * @param javaType type of the message
+     *
+     * @return Protocol Buffers schema of the type
+     */
+    private ProtobufSchema schema(final JavaType javaType) {
+        return schemas.computeIfAbsent(javaType, type -> {
+            final ProtobufSchemaGenerator schemaGenerator = new ProtobufSchemaGenerator();
+            try {
+                getObjectMapper().acceptJsonFormatVisitor(type, schemaGenerator);
+
+                return schemaGenerator.getGeneratedSchema();
+            } catch (final JsonMappingException exception) {
+                throw new HttpMessageConversionException("No Protocol Buffers schema for " + type, exception);
+            }
+        });
+    }
+
+    /**
+     * Message holding a list, as the root of a Protocol Buffers message has to be an object
+     *
+     * @param items listed items, as a repeated field
+     * @param <T> type of the items
+     */
+    record RepeatedMessage<T>(List<T> items) {
+
+    }
+
+}
@@ -0,0 +1,347 @@
+package com.blackpantech.todo.infra.http;
+
+import com.blackpantech.todo.domain.task.ReactiveTaskService;
+import com.blackpantech.todo.domain.task.Task;
+import com.blackpantech.todo.domain.task.TaskCursor;
+import com.blackpantech.todo.domain.task.TaskService;
+import com.blackpantech.todo.domain.task.TaskToCreate;
+import com.blackpantech.todo.domain.task.exceptions.DuplicatedTaskTitleException;
+import com.blackpantech.todo.domain.task.exceptions.TaskMoveConflictException;
+import com.blackpantech.todo.domain.task.exceptions.TaskNotFoundException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+/**
+ * HTTP handlers to interact with tasks without blocking, mirroring {@link TaskController} in the 'reactive' profile.
+ * Conditional requests, idempotency keys, bulk updates, exports and change streams are not served in this profile.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveTaskHandler {
+
+    /**
+     * Maximum number of tasks created in a single batch
+     */
+    private static final int MAX_BATCH_SIZE = 10_000;
+
+    private final ReactiveTaskService reactiveTaskService;
+
+    private final Validator validator;
+
+    private final ObjectMapper objectMapper;
+
+    public ReactiveTaskHandler(final ReactiveTaskService reactiveTaskService,
+                               final Validator validator,
+                               final ObjectMapper objectMapper) {
+        this.reactiveTaskService = reactiveTaskService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Gets task with given ID
+     *
+     * @param request request with the ID to look for
+     *
+     * @return task with given ID, or 404 Not Found status
+     */
+    public Mono<ServerResponse> getTask(final ServerRequest request) {
+        return withErrorStatuses(
+                getId(request)
+                        .flatMap(reactiveTaskService::getTask)
+                        .flatMap(task -> ServerResponse.ok().bodyValue(task))
+        );
+    }
+
+    /**
+     * Creates new task with given title and due date
+     *
+     * @param request request with the new task properties
+     *
+     * @return created task, or 409 Conflict status if the title is already taken
+     */
+    public Mono<ServerResponse> createTask(final ServerRequest request) {
+        return withErrorStatuses(
+                request.bodyToMono(TaskToCreateRequest.class)
+                        .switchIfEmpty(Mono.error(() -> new ServerWebInputException("Missing task")))
+                        .flatMap(this::validate)
+                        .flatMap(taskToCreate ->
+                                reactiveTaskService.createTask(taskToCreate.title(), taskToCreate.dueDate()))
+                        .flatMap(task -> ServerResponse.status(HttpStatus.CREATED).bodyValue(task))
+        );
+    }
+
+    /**
+     * Creates all given tasks in a single transaction
+     *
+     * @param request request with the new tasks properties
+     *
+     * @return created tasks, in the same order as given, or 409 Conflict status if a title is already taken or given
+     * twice
+     */
+    public Mono<ServerResponse> createTasks(final ServerRequest request) {
+        return withErrorStatuses(
+                request.bodyToFlux(TaskToCreateRequest.class)
+                        .concatMap(this::validate)
+                        .map(taskToCreate -> new TaskToCreate(taskToCreate.title(), taskToCreate.dueDate()))
+                        .take(MAX_BATCH_SIZE + 1L)
+                        .collectList()
+                        .filter(tasksToCreate -> !tasksToCreate.isEmpty() && tasksToCreate.size() <= MAX_BATCH_SIZE)
+                        .switchIfEmpty(Mono.error(() -> new ServerWebInputException(
+                                "Between 1 and " + MAX_BATCH_SIZE + " tasks must be given"
+                        )))
+                        .flatMap(tasksToCreate -> reactiveTaskService.createTasks(tasksToCreate).collectList())
+                        .flatMap(tasks -> ServerResponse.status(HttpStatus.CREATED).bodyValue(tasks))
+        );
+    }
+
+    /**
+     * Edits task with given ID and new properties
+     *
+     * @param request request with the ID to look for and the edited task properties
+     *
+     * @return edited task, or 409 Conflict status if the title is already taken, or 404 Not Found status
+     */
+    public Mono<ServerResponse> editTask(final ServerRequest request) {
+        return withErrorStatuses(
+                getId(request)
+                        .zipWith(
+                                request.bodyToMono(TaskToEditRequest.class)
+                                        .switchIfEmpty(Mono.error(() -> new ServerWebInputException("Missing task")))
+                                        .flatMap(this::validate)
+                        )
+                        .flatMap(idAndTask -> reactiveTaskService.editTask(
+                                idAndTask.getT1(),
+                                idAndTask.getT2().title(),
+                                idAndTask.getT2().completed(),
+                                idAndTask.getT2().order(),
+                                idAndTask.getT2().dueDate()
+                        ))
+                        .flatMap(task -> ServerResponse.ok().bodyValue(task))
+        );
+    }
+
+    /**
+     * Edits only the properties of the task with given ID that are given in a JSON Merge Patch
+     *
+     * @param request request with the ID to look for and the properties to edit, where null removes the due date
+     *
+     * @return 204 No Content status, or 400 Bad Request status if the merge patch is not a valid task edit, or 409
+     * Conflict status if the title is already taken, or 404 Not Found status
+     */
+    public Mono<ServerResponse> patchTask(final ServerRequest request) {
+        return withErrorStatuses(
+                getId(request)
+                        .zipWith(
+                                request.bodyToMono(JsonNode.class)
+                                        .switchIfEmpty(Mono.error(() -> new ServerWebInputException("Missing patch")))
+                                        .flatMap(mergePatch -> Mono.fromCallable(
+                                                () -> TaskMergePatchReader.read(mergePatch, objectMapper)
+                                        ))
+                        )
+                        .flatMap(idAndPatch -> reactiveTaskService.patchTask(idAndPatch.getT1(), idAndPatch.getT2()))
+                        .then(ServerResponse.noContent().build())
+        );
+    }
+
+    /**
+     * Moves task with given ID right before or right after another task
+     *
+     * @param request request with the ID of the task to move, and the anchor task and side to move it to
+     *
+     * @return 204 No Content status, or 404 Not Found status if either task was not found
+     */
+    public Mono<ServerResponse> moveTask(final ServerRequest request) {
+        return withErrorStatuses(
+                getId(request)
+                        .zipWith(
+                                request.bodyToMono(TaskMoveRequest.class)
+                                        .switchIfEmpty(Mono.error(() -> new ServerWebInputException("Missing move")))
+                                        .flatMap(this::validate)
+                        )
+                        .flatMap(idAndMove -> reactiveTaskService.moveTask(
+                                idAndMove.getT1(),
+                                idAndMove.getT2().anchorId(),
+                                idAndMove.getT2().position()
+                        ))
+                        .then(ServerResponse.noContent().build())
+        );
+    }
+
+    /**
+     * Deletes task with given ID
+     *
+     * @param request request with the ID to look for
+     *
+     * @return 204 No Content status, or 404 Not Found status
+     */
+    public Mono<ServerResponse> deleteTask(final ServerRequest request) {
+        return withErrorStatuses(
+                getId(request)
+                        .flatMap(reactiveTaskService::deleteTask)
+                        .then(ServerResponse.noContent().build())
+        );
+    }
+
+    /**
+     * Gets all tasks sorted by position in list, streamed as they are read from the database, as a JSON array or as
+     * newline-delimited JSON if accepted
+     *
+     * @param request request
+     *
+     * @return streamed tasks
+     */
+    public Mono<ServerResponse> getAllTasks(final ServerRequest request) {
+        final MediaType contentType = request.headers().accept().contains(MediaType.APPLICATION_NDJSON)
+                ? MediaType.APPLICATION_NDJSON
+                : MediaType.APPLICATION_JSON;
+
+        return ServerResponse.ok()
+                .contentType(contentType)
+                .body(reactiveTaskService.getAllTasks(), Task.class);
+    }
+
+    /**
+     * Gets a page of tasks sorted by position in list
+     *
+     * @param request request with the maximum number of tasks and the optional cursor of the previous page
+     *
+     * @return page of tasks with the cursor of the next page, or 400 Bad Request status if the cursor or the limit is
+     * invalid
+     */
+    public Mono<ServerResponse> getTasksPage(final ServerRequest request) {
+        final TaskCursor after;
+        final int limit;
+        try {
+            after = TaskCursorCodec.decode(request.queryParam("after").orElse(null));
+            limit = Integer.parseInt(request.queryParam("limit").orElseThrow());
+        } catch (final InvalidTaskCursorException | NumberFormatException exception) {
+            return ServerResponse.badRequest().build();
+        }
+
+        return reactiveTaskService.getTasksPage(after, limit)
+                .flatMap(taskPage -> ServerResponse.ok().bodyValue(
+                        new TaskPageResponse(taskPage.tasks(), TaskCursorCodec.encode(taskPage.next()))
+                ));
+    }
+
+    /**
+     * Searches the tasks whose title contains a query, ignoring case, titles starting with it first
+     *
+     * @param request request with the text to look for and the optional maximum number of tasks, 20 by default
+     *
+     * @return best matching tasks, best first, or 400 Bad Request status if the query is missing or too short, or the
+     * limit is invalid
+     */
+    public Mono<ServerResponse> searchTasks(final ServerRequest request) {
+        final String query;
+        final int limit;
+        try {
+            query = request.queryParam("q")
+                    .filter(text -> text.length() >= TaskService.MIN_SEARCH_LENGTH)
+                    .orElseThrow(() -> new ServerWebInputException("Missing or too short query"));
+            limit = Integer.parseInt(request.queryParam("limit").orElse("20"));
+        } catch (final ServerWebInputException | NumberFormatException exception) {
+            return ServerResponse.badRequest().build();
+        }
+
+        return reactiveTaskService.searchTasks(query, limit)
+                .collectList()
+                .flatMap(tasks -> ServerResponse.ok().bodyValue(tasks));
+    }
+
+    /**
+     * Gets the tasks changed and the IDs of the tasks deleted since a change version, for clients to sync their copy
+     *
+     * @param request request with the change version returned by the previous call, 0 by default to get all tasks
+     *
+     * @return changes since the version, with the version to send next time, or 400 Bad Request status if the version
+     * is not a number
+     */
+    public Mono<ServerResponse> getTaskChanges(final ServerRequest request) {
+        final long since;
+        try {
+            since = Long.parseLong(request.queryParam("since").orElse("0"));
+        } catch (final NumberFormatException exception) {
+            return ServerResponse.badRequest().build();
+        }
+
+        return reactiveTaskService.getTaskChanges(since)
+                .flatMap(taskChanges -> ServerResponse.ok().bodyValue(taskChanges));
+    }
+
+    /**
+     * Deletes all tasks or all completed tasks
+     *
+     * @param request request with the optional parameter to select completed tasks
+     *
+     * @return 204 No Content status
+     */
+    public Mono<ServerResponse> deleteAllTasks(final ServerRequest request) {
+        final boolean completed = request.queryParam("completed").map(Boolean::parseBoolean).orElse(false);
+
+        return (completed ? reactiveTaskService.deleteAllCompletedTasks() : reactiveTaskService.deleteAllTasks())
+                .then(ServerResponse.noContent().build());
+    }
+
+    /**
+     * Gets the task ID path variable
+     *
+     * @param request request with the ID
+     *
+     * @return task ID, or a NumberFormatException error if it is not a number
+     */
+    private Mono<Long> getId(final ServerRequest request) {
+        return Mono.fromCallable(() -> Long.parseLong(request.pathVariable("id")));
+    }
+
+    /**
+     * Validates a request body against its constraints
+     *
+     * @param body request body
+     * @param <T> type of the body
+     *
+     * @return given body, or a ServerWebInputException error if a constraint is violated
+     */
+    private <T> Mono<T> validate(final T body) {
+        if (!validator.validate(body).isEmpty()) {
+            return Mono.error(new ServerWebInputException("Invalid task"));
+        }
+
+        return Mono.just(body);
+    }
+
+    /**
+     * Maps errors to the statuses returned by {@link TaskController}
+     *
+     * @param response response
+     *
+     * @return response, or error response
+     */
+    private Mono<ServerResponse> withErrorStatuses(final Mono<ServerResponse> response) {
+        return response
+                .onErrorResume(
+                        exception -> exception instanceof DuplicatedTaskTitleException
+                                || exception instanceof TaskMoveConflictException,
+                        exception -> ServerResponse.status(HttpStatus.CONFLICT).build()
+                )
+                .onErrorResume(TaskNotFoundException.class, exception ->
+                        ServerResponse.notFound().build())
+                .onErrorResume(
+                        exception -> exception instanceof ServerWebInputException
+                                || exception instanceof InvalidTaskPatchException
+                                || exception instanceof NumberFormatException,
+                        exception -> ServerResponse.badRequest().build()
+                );
+    }
+
+}
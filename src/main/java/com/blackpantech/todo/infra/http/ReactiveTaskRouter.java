@@ -0,0 +1,43 @@
+package com.blackpantech.todo.infra.http;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * HTTP routes to the non-blocking task handlers, with the same paths as {@link TaskController}
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveTaskRouter {
+
+    /**
+     * Bean factory for the task routes
+     *
+     * @param handler non-blocking task handlers
+     *
+     * @return router function bean
+     */
+    @Bean
+    public RouterFunction<ServerResponse> taskRoutes(final ReactiveTaskHandler handler) {
+        return RouterFunctions.route()
+                .GET("/tasks/search", handler::searchTasks)
+                .GET("/tasks/changes", handler::getTaskChanges)
+                .GET("/tasks/{id}", handler::getTask)
+                .PUT("/tasks/{id}", handler::editTask)
+                .PATCH("/tasks/{id}", handler::patchTask)
+                .DELETE("/tasks/{id}", handler::deleteTask)
+                .POST("/tasks/batch", handler::createTasks)
+                .POST("/tasks/{id}/move", handler::moveTask)
+                .GET("/tasks", RequestPredicates.queryParam("limit", limit -> true), handler::getTasksPage)
+                .GET("/tasks", handler::getAllTasks)
+                .POST("/tasks", handler::createTask)
+                .DELETE("/tasks", handler::deleteAllTasks)
+                .build();
+    }
+
+}
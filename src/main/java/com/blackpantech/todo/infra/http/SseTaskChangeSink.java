@@ -0,0 +1,47 @@
+package com.blackpantech.todo.infra.http;
+
+import com.blackpantech.todo.infra.feed.TaskChangeEvent;
+import com.blackpantech.todo.infra.feed.TaskChangeSink;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Sends task change events as Server-Sent Events: the task for created and edited tasks, the task ID for deleted
+ * ones, and nothing for a resync. Heartbeats are comments, ignored by clients.
+ */
+class SseTaskChangeSink implements TaskChangeSink {
+
+    private final SseEmitter sseEmitter;
+
+    SseTaskChangeSink(final SseEmitter sseEmitter) {
+        this.sseEmitter = sseEmitter;
+    }
+
+    @Override
+    public void send(final TaskChangeEvent event) throws IOException {
+        final Object data = switch (event.type()) {
+            case CREATED, EDITED -> event.task();
+            case DELETED -> Map.of("id", event.taskId());
+            case RESYNC -> Map.of();
+        };
+
+        sseEmitter.send(SseEmitter.event()
+                .id(Long.toString(event.id()))
+                .name(event.type().eventName())
+                .data(data, MediaType.APPLICATION_JSON));
+    }
+
+    @Override
+    public void heartbeat() throws IOException {
+        sseEmitter.send(SseEmitter.event().comment("heartbeat"));
+    }
+
+    @Override
+    public void complete() {
+        sseEmitter.complete();
+    }
+
+}
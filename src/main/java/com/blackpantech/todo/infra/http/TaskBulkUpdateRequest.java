@@ -0,0 +1,30 @@
+package com.blackpantech.todo.infra.http;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.Duration;
+
+/**
+ * Record to map a bulk update request
+ *
+ * @param filter filter of the tasks to update
+ * @param completed completion to set
+ * @param dueDateShift duration to move due dates by, e.g. P1D
+ */
+public record TaskBulkUpdateRequest(@NotNull @Valid TaskFilterRequest filter,
+                                    Boolean completed,
+                                    Duration dueDateShift) {
+
+    /**
+     * Tells whether the request changes anything
+     *
+     * @return true if at least one property is changed
+     */
+    @AssertTrue
+    public boolean isChangingTasks() {
+        return completed != null || dueDateShift != null;
+    }
+
+}
@@ -0,0 +1,10 @@
+package com.blackpantech.todo.infra.http;
+
+/**
+ * Record to map the outcome of a bulk update in responses
+ *
+ * @param updated number of updated tasks
+ */
+public record TaskBulkUpdateResponse(long updated) {
+
+}
@@ -0,0 +1,56 @@
+package com.blackpantech.todo.infra.http;
+
+import com.blackpantech.todo.infra.feed.TaskChangeFeed;
+import com.blackpantech.todo.infra.feed.TaskChangeSubscription;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * HTTP controller streaming task changes as Server-Sent Events, enabled unless todo.feed.enabled is false
+ */
+@RestController
+@Profile("!reactive")
+@ConditionalOnProperty(name = "todo.feed.enabled", havingValue = "true", matchIfMissing = true)
+@RequestMapping("/tasks")
+public class TaskChangeStreamController {
+
+    /**
+     * Header of the ID of the last event a reconnecting client got
+     */
+    static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    private final TaskChangeFeed taskChangeFeed;
+
+    public TaskChangeStreamController(final TaskChangeFeed taskChangeFeed) {
+        this.taskChangeFeed = taskChangeFeed;
+    }
+
+    /**
+     * Streams created, edited and deleted tasks as they are written, resuming after the last event of a reconnecting
+     * client
+     *
+     * @param lastEventId optional ID of the last event the client got before reconnecting
+     *
+     * @return open stream of task change events, never timing out
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTaskChanges(
+            @RequestHeader(name = LAST_EVENT_ID, required = false) final Long lastEventId) {
+        final SseEmitter sseEmitter = new SseEmitter(0L);
+        final TaskChangeSubscription subscription =
+                taskChangeFeed.subscribe(lastEventId, new SseTaskChangeSink(sseEmitter));
+
+        sseEmitter.onCompletion(subscription::close);
+        sseEmitter.onTimeout(subscription::close);
+        sseEmitter.onError(error -> subscription.close());
+
+        return sseEmitter;
+    }
+
+}
@@ -1,100 +1,294 @@
 package com.blackpantech.todo.infra.http;
 
 import com.blackpantech.todo.domain.task.Task;
+import com.blackpantech.todo.domain.task.TaskBulkUpdate;
+import com.blackpantech.todo.domain.task.TaskChanges;
+import com.blackpantech.todo.domain.task.TaskCursor;
+import com.blackpantech.todo.domain.task.TaskFilter;
+import com.blackpantech.todo.domain.task.TaskPage;
+import com.blackpantech.todo.domain.task.TaskPatch;
 import com.blackpantech.todo.domain.task.TaskService;
+import com.blackpantech.todo.domain.task.TaskSort;
+import com.blackpantech.todo.domain.task.TaskToCreate;
 import com.blackpantech.todo.domain.task.exceptions.DuplicatedTaskTitleException;
+import com.blackpantech.todo.domain.task.exceptions.TaskMoveConflictException;
 import com.blackpantech.todo.domain.task.exceptions.TaskNotFoundException;
+import com.blackpantech.todo.domain.task.exceptions.TaskVersionMismatchException;
+import com.blackpantech.todo.infra.idempotency.IdempotencyKeyReusedException;
+import com.blackpantech.todo.infra.idempotency.IdempotentCreationPendingException;
+import com.blackpantech.todo.infra.idempotency.IdempotentTaskCreator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
  * HTTP REST controller to interact with tasks
  */
 @RestController
+@Profile("!reactive")
 @RequestMapping("/tasks")
 public class TaskController {
 
+    /**
+     * Media type of JSON Merge Patch documents
+     */
+    static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
+    /**
+     * Header of the key under which a client may retry a task creation
+     */
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final TaskService taskService;
 
-    public TaskController(final TaskService taskService) {
+    private final IdempotentTaskCreator idempotentTaskCreator;
+
+    private final ObjectMapper objectMapper;
+
+    public TaskController(final TaskService taskService,
+                          final IdempotentTaskCreator idempotentTaskCreator,
+                          final ObjectMapper objectMapper) {
         this.taskService = taskService;
+        this.idempotentTaskCreator = idempotentTaskCreator;
+        this.objectMapper = objectMapper;
     }
 
     /**
-     * Gets task with given ID
+     * Gets task with given ID, or nothing if the task did not change since the version given in If-None-Match
      *
      * @param id ID to look for
+     * @param request current request, to check its If-None-Match header
      *
-     * @return task with given ID
+     * @return task with given ID and its ETag, or null once a 304 Not Modified status is set
      *
      * @throws TaskNotFoundException if no task with given ID was found
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Task> getTask(@PathVariable("id") final long id) throws TaskNotFoundException {
+    public ResponseEntity<Task> getTask(@PathVariable("id") final long id, final WebRequest request)
+            throws TaskNotFoundException {
+        final String eTag = taskETag(taskService.getTaskVersion(id));
+        final String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && ifNoneMatch.strip().equals("*")) {
+            // Any existing task matches "*", which Spring only checks for unsafe methods
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+
+        final Task task = taskService.getTask(id);
+
         return ResponseEntity
                 .status(HttpStatus.OK)
-                .body(taskService.getTask(id));
+                .eTag(taskETag(task.version()))
+                .body(task);
     }
 
     /**
-     * Creates new task with given title and due date
+     * Creates new task with given title and due date, only once per Idempotency-Key if given
      *
+     * @param idempotencyKey optional key of the creation, to send again when retrying it
      * @param taskToCreate new task properties
      *
-     * @return created task
+     * @return created task, or the task already created under the given key
      *
      * @throws DuplicatedTaskTitleException if the given title is already taken
+     * @throws IdempotencyKeyReusedException if the given key was used to create another task
+     * @throws IdempotentCreationPendingException if the task of the given key was still being created by another
+     * request after the maximum wait
      */
     @PostMapping
-    public ResponseEntity<Task> createTask(@RequestBody @Valid final TaskToCreateRequest taskToCreate)
+    public ResponseEntity<Task> createTask(
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) @Size(min = 1, max = 255)
+            final String idempotencyKey,
+            @RequestBody @Valid final TaskToCreateRequest taskToCreate)
+            throws DuplicatedTaskTitleException, IdempotencyKeyReusedException, IdempotentCreationPendingException {
+        final Task createdTask = idempotencyKey == null
+                ? taskService.createTask(taskToCreate.title(), taskToCreate.dueDate())
+                : idempotentTaskCreator.createTask(idempotencyKey, taskToCreate.title(), taskToCreate.dueDate());
+
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(createdTask);
+    }
+
+    /**
+     * Creates all given tasks in a single transaction
+     *
+     * @param tasksToCreate new tasks properties
+     *
+     * @return created tasks, in the same order as given
+     *
+     * @throws DuplicatedTaskTitleException if a given title is already taken or given twice
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<Task>> createTasks(
+            @RequestBody @NotEmpty @Size(max = 10_000) final List<@Valid TaskToCreateRequest> tasksToCreate)
             throws DuplicatedTaskTitleException {
         return ResponseEntity
                 .status(HttpStatus.CREATED)
-                .body(taskService.createTask(taskToCreate.title(), taskToCreate.dueDate()));
+                .body(
+                        taskService.createTasks(
+                                tasksToCreate.stream()
+                                        .map(taskToCreate -> new TaskToCreate(taskToCreate.title(), taskToCreate.dueDate()))
+                                        .toList()
+                        )
+                );
     }
 
     /**
-     * Edits task with given ID and new properties
+     * Edits task with given ID and new properties, only if it did not change since the version given in If-Match
      *
      * @param id ID to look for
+     * @param ifMatch optional ETag of the task version to edit
      * @param taskToEdit edited task properties
      *
-     * @return edited task
+     * @return edited task and its ETag
      *
      * @throws DuplicatedTaskTitleException if the given title is already taken
      * @throws TaskNotFoundException if no task with given ID was found
+     * @throws TaskVersionMismatchException if the task is not at the version given in If-Match
      */
     @PutMapping("/{id}")
     public ResponseEntity<Task> editTask(@PathVariable("id") final long id,
+                                         @RequestHeader(name = HttpHeaders.IF_MATCH, required = false)
+                                         final String ifMatch,
                                          @RequestBody @Valid final TaskToEditRequest taskToEdit)
-            throws TaskNotFoundException, DuplicatedTaskTitleException {
+            throws TaskNotFoundException, DuplicatedTaskTitleException, TaskVersionMismatchException {
+        final Long expectedVersion = expectedVersion(id, ifMatch);
+
+        final Task editedTask = expectedVersion == null
+                ? taskService.editTask(
+                        id,
+                        taskToEdit.title(),
+                        taskToEdit.completed(),
+                        taskToEdit.order(),
+                        taskToEdit.dueDate()
+                )
+                : taskService.editTask(
+                        id,
+                        taskToEdit.title(),
+                        taskToEdit.completed(),
+                        taskToEdit.order(),
+                        taskToEdit.dueDate(),
+                        expectedVersion
+                );
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .eTag(taskETag(editedTask.version()))
+                .body(editedTask);
+    }
+
+    /**
+     * Edits only the properties of the task with given ID that are given in a JSON Merge Patch, without sending the
+     * edited task back, only if it did not change since the version given in If-Match
+     *
+     * @param id ID to look for
+     * @param ifMatch optional ETag of the task version to edit
+     * @param mergePatch properties to edit, where null removes the due date
+     *
+     * @return no content, with the ETag of the patched task when If-Match is given
+     *
+     * @throws DuplicatedTaskTitleException if the given title is already taken
+     * @throws InvalidTaskPatchException if the merge patch is not a valid task edit
+     * @throws TaskNotFoundException if no task with given ID was found
+     * @throws TaskVersionMismatchException if the task is not at the version given in If-Match
+     */
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Void> patchTask(@PathVariable("id") final long id,
+                                          @RequestHeader(name = HttpHeaders.IF_MATCH, required = false)
+                                          final String ifMatch,
+                                          @RequestBody final JsonNode mergePatch)
+            throws TaskNotFoundException, DuplicatedTaskTitleException, InvalidTaskPatchException,
+            TaskVersionMismatchException {
+        final TaskPatch taskPatch = TaskMergePatchReader.read(mergePatch, objectMapper);
+        final Long expectedVersion = expectedVersion(id, ifMatch);
+
+        if (expectedVersion == null) {
+            taskService.patchTask(id, taskPatch);
+
+            return ResponseEntity.noContent().build();
+        }
+
+        return ResponseEntity
+                .noContent()
+                .eTag(taskETag(taskService.patchTask(id, taskPatch, expectedVersion)))
+                .build();
+    }
+
+    /**
+     * Applies the same change to all tasks matching a filter at once
+     *
+     * @param taskBulkUpdate filter of the tasks to update and change to apply
+     *
+     * @return number of updated tasks
+     */
+    @PatchMapping
+    public ResponseEntity<TaskBulkUpdateResponse> updateTasks(
+            @RequestBody @Valid final TaskBulkUpdateRequest taskBulkUpdate) {
+        final TaskFilterRequest filter = taskBulkUpdate.filter();
+
         return ResponseEntity
                 .status(HttpStatus.OK)
                 .body(
-                        taskService.editTask(
-                                id,
-                                taskToEdit.title(),
-                                taskToEdit.completed(),
-                                taskToEdit.order(),
-                                taskToEdit.dueDate()
+                        new TaskBulkUpdateResponse(
+                                taskService.updateTasks(
+                                        new TaskFilter(filter.ids(), filter.completed(), filter.dueFrom(), filter.dueBefore()),
+                                        new TaskBulkUpdate(taskBulkUpdate.completed(), taskBulkUpdate.dueDateShift())
+                                )
                         )
                 );
     }
 
+    /**
+     * Moves task with given ID right before or right after another task, by changing its own position only
+     *
+     * @param id ID of the task to move
+     * @param taskMove anchor task and side to move the task to
+     *
+     * @throws TaskNotFoundException if no task with given ID or anchor ID was found
+     * @throws TaskMoveConflictException if the task kept being written or renumbered while it was moved
+     */
+    @PostMapping("/{id}/move")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void moveTask(@PathVariable("id") final long id, @RequestBody @Valid final TaskMoveRequest taskMove)
+            throws TaskNotFoundException, TaskMoveConflictException {
+        taskService.moveTask(id, taskMove.anchorId(), taskMove.position());
+    }
+
     /**
      * Deletes a tasks with given ID
      *
@@ -109,14 +303,134 @@ public class TaskController {
     }
 
     /**
-     * Gets all tasks
+     * Gets all tasks, or only the tasks matching the given filters in the given order, or nothing if no task changed
+     * since the version given in If-None-Match
+     *
+     * @param completed optional completion of the tasks to get
+     * @param dueAfter optional inclusive lower bound of the due date of the tasks to get
+     * @param dueBefore optional exclusive upper bound of the due date of the tasks to get
+     * @param sort optional sort order, by position in list if not given
+     * @param request current request, to check its If-None-Match header
+     * @param response current response, to tell caches the list varies with its media type
      *
-     * @return list of all tasks
+     * @return list of tasks and its ETag, or null once a 304 Not Modified status is set
      */
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public List<Task> getAllTasks() {
-        return taskService.getAllTasks();
+    public ResponseEntity<List<Task>> getAllTasks(
+            @RequestParam(name = "completed", required = false) final Boolean completed,
+            @RequestParam(name = "dueAfter", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime dueAfter,
+            @RequestParam(name = "dueBefore", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime dueBefore,
+            @RequestParam(name = "sort", required = false) final TaskSort sort,
+            final WebRequest request,
+            final HttpServletResponse response) {
+        // The version is read before the tasks, so that a concurrent write can only make the ETag older
+        final String eTag = tasksETag(
+                taskService.getTasksVersion(),
+                "completed=" + completed + "&dueAfter=" + dueAfter + "&dueBefore=" + dueBefore + "&sort=" + sort,
+                request,
+                response
+        );
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+
+        final List<Task> tasks = completed == null && dueAfter == null && dueBefore == null && sort == null
+                ? taskService.getAllTasks()
+                : taskService.findTasks(
+                        new TaskFilter(null, completed, dueAfter, dueBefore),
+                        sort != null ? sort : TaskSort.ORDER
+                );
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .eTag(eTag)
+                .body(tasks);
+    }
+
+    /**
+     * Gets a page of tasks sorted by position in list, or nothing if no task changed since the version given in
+     * If-None-Match
+     *
+     * @param limit maximum number of tasks in the page
+     * @param after optional cursor returned with the previous page
+     * @param request current request, to check its If-None-Match header
+     * @param response current response, to tell caches the page varies with its media type
+     *
+     * @return page of tasks with the cursor of the next page and its ETag, or null once a 304 Not Modified status
+     * is set
+     *
+     * @throws InvalidTaskCursorException if the given cursor is invalid
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<TaskPageResponse> getTasksPage(@RequestParam("limit") final int limit,
+                                                         @RequestParam(name = "after", required = false) final String after,
+                                                         final WebRequest request,
+                                                         final HttpServletResponse response)
+            throws InvalidTaskCursorException {
+        final TaskCursor cursor = TaskCursorCodec.decode(after);
+
+        final String eTag =
+                tasksETag(taskService.getTasksVersion(), "limit=" + limit + "&after=" + after, request, response);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+
+        final TaskPage taskPage = taskService.getTasksPage(cursor, limit);
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .eTag(eTag)
+                .body(new TaskPageResponse(taskPage.tasks(), TaskCursorCodec.encode(taskPage.next())));
+    }
+
+    /**
+     * Searches the tasks whose title contains a query, ignoring case, titles starting with it first
+     *
+     * @param query text to look for in titles, at least {@link TaskService#MIN_SEARCH_LENGTH} characters long
+     * @param limit maximum number of tasks to get, 20 by default
+     *
+     * @return list of the best matching tasks, best first, or 400 Bad Request status if the query is too short
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<Task>> searchTasks(
+            @RequestParam("q") @Size(min = TaskService.MIN_SEARCH_LENGTH) final String query,
+            @RequestParam(name = "limit", defaultValue = "20") final int limit) {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(taskService.searchTasks(query, limit));
+    }
+
+    /**
+     * Gets the tasks changed and the IDs of the tasks deleted since a change version, for clients to sync their copy
+     *
+     * @param since change version returned by the previous call, 0 by default to get all tasks
+     *
+     * @return changes since the version, with the version to send next time
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<TaskChanges> getTaskChanges(
+            @RequestParam(name = "since", defaultValue = "0") final long since) {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(taskService.getTaskChanges(since));
+    }
+
+    /**
+     * Exports all tasks as newline-delimited JSON, streamed from the database to the response
+     *
+     * @return streamed tasks, one JSON object per line
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTasks() {
+        final StreamingResponseBody body = outputStream ->
+                taskService.forEachTask(task -> writeNdjsonLine(outputStream, task));
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     /**
@@ -134,6 +448,84 @@ public class TaskController {
         }
     }
 
+    /**
+     * Gets the strong ETag of a task
+     *
+     * @param version task version
+     *
+     * @return quoted ETag
+     */
+    private static String taskETag(final long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Gets the task version a conditional edit expects from an If-Match header holding a single task ETag
+     *
+     * @param id ID of the task to edit
+     * @param ifMatch If-Match header, if any
+     *
+     * @return expected version, or null if the edit is unconditional, that is without If-Match or with "*"
+     *
+     * @throws TaskVersionMismatchException if the header holds anything but a strong task ETag, which no version
+     * matches
+     */
+    private static Long expectedVersion(final long id, final String ifMatch) throws TaskVersionMismatchException {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.strip().equals("*")) {
+            return null;
+        }
+
+        final String eTag = ifMatch.strip();
+        if (eTag.length() > 2 && eTag.startsWith("\"") && eTag.endsWith("\"")) {
+            try {
+                return Long.parseLong(eTag.substring(1, eTag.length() - 1));
+            } catch (final NumberFormatException exception) {
+                // Not a task ETag
+            }
+        }
+
+        throw new TaskVersionMismatchException(id);
+    }
+
+    /**
+     * Gets the strong ETag of a list of tasks, distinct from task ETags. It holds a hash of the query and of the
+     * accepted media types, so that lists read with other parameters or in another format never match, and the
+     * response is marked to vary with Accept, whether it is full or 304 Not Modified.
+     *
+     * @param version task list version
+     * @param query parameters selecting the tasks of the list
+     * @param request current request, to read its Accept header
+     * @param response current response, to set its Vary header
+     *
+     * @return quoted ETag
+     */
+    private static String tasksETag(final long version,
+                                    final String query,
+                                    final WebRequest request,
+                                    final HttpServletResponse response) {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+
+        final String representation = query + "|" + request.getHeader(HttpHeaders.ACCEPT);
+        final String hash = DigestUtils.md5DigestAsHex(representation.getBytes(StandardCharsets.UTF_8));
+
+        return "\"tasks-" + version + "-" + hash.substring(0, 16) + "\"";
+    }
+
+    /**
+     * Writes a task as a single JSON line
+     *
+     * @param outputStream response output stream
+     * @param task task to write
+     */
+    private void writeNdjsonLine(final OutputStream outputStream, final Task task) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(task));
+            outputStream.write('\n');
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
     /**
      * Exception handler for DuplicatedTaskTitleException
      *
@@ -146,6 +538,81 @@ public class TaskController {
                 .build();
     }
 
+    /**
+     * Exception handler for IdempotencyKeyReusedException
+     *
+     * @return 422 Unprocessable Entity status
+     */
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    ResponseEntity<?> handleIdempotencyKeyReusedException() {
+        return ResponseEntity
+                .status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .build();
+    }
+
+    /**
+     * Exception handler for IdempotentCreationPendingException
+     *
+     * @param exception exception telling when to retry
+     *
+     * @return 409 Conflict status, with the time to wait before retrying in Retry-After
+     */
+    @ExceptionHandler(IdempotentCreationPendingException.class)
+    ResponseEntity<?> handleIdempotentCreationPendingException(final IdempotentCreationPendingException exception) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1L, exception.getRetryAfter().toSeconds())))
+                .build();
+    }
+
+    /**
+     * Exception handler for InvalidTaskCursorException
+     *
+     * @return 400 Bad Request status
+     */
+    @ExceptionHandler(InvalidTaskCursorException.class)
+    ResponseEntity<?> handleInvalidTaskCursorException() {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .build();
+    }
+
+    /**
+     * Exception handler for InvalidTaskPatchException
+     *
+     * @return 400 Bad Request status
+     */
+    @ExceptionHandler(InvalidTaskPatchException.class)
+    ResponseEntity<?> handleInvalidTaskPatchException() {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .build();
+    }
+
+    /**
+     * Exception handler for TaskMoveConflictException
+     *
+     * @return 409 Conflict status
+     */
+    @ExceptionHandler(TaskMoveConflictException.class)
+    ResponseEntity<?> handleTaskMoveConflictException() {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .build();
+    }
+
+    /**
+     * Exception handler for TaskVersionMismatchException
+     *
+     * @return 412 Precondition Failed status
+     */
+    @ExceptionHandler(TaskVersionMismatchException.class)
+    ResponseEntity<?> handleTaskVersionMismatchException() {
+        return ResponseEntity
+                .status(HttpStatus.PRECONDITION_FAILED)
+                .build();
+    }
+
     /**
      * Exception handler for TaskNotFoundException
      *
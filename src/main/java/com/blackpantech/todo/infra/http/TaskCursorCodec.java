@@ -0,0 +1,63 @@
+package com.blackpantech.todo.infra.http;
+
+import com.blackpantech.todo.domain.task.TaskCursor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes task cursors to opaque URL-safe strings and back
+ */
+final class TaskCursorCodec {
+
+    private static final char SEPARATOR = ':';
+
+    private TaskCursorCodec() {
+        // Utility class
+    }
+
+    /**
+     * Encodes a task cursor
+     *
+     * @param cursor cursor to encode, may be null
+     *
+     * @return opaque cursor, or null if given cursor is null
+     */
+    static String encode(final TaskCursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+
+        final String value = String.valueOf(cursor.order()) + SEPARATOR + cursor.id();
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Decodes an opaque cursor
+     *
+     * @param cursor opaque cursor, may be null
+     *
+     * @return decoded task cursor, or null if given cursor is null
+     *
+     * @throws InvalidTaskCursorException if given cursor was not produced by {@link #encode(TaskCursor)}
+     */
+    static TaskCursor decode(final String cursor) throws InvalidTaskCursorException {
+        if (cursor == null) {
+            return null;
+        }
+
+        try {
+            final String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            final int separatorIndex = value.indexOf(SEPARATOR);
+
+            return new TaskCursor(
+                    Long.parseLong(value.substring(0, separatorIndex)),
+                    Long.parseLong(value.substring(separatorIndex + 1))
+            );
+        } catch (final IllegalArgumentException | IndexOutOfBoundsException exception) {
+            throw new InvalidTaskCursorException(cursor);
+        }
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.blackpantech.todo.infra.http;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Record to map a filter on tasks in requests, where absent criteria match all tasks
+ *
+ * @param ids IDs of the matching tasks
+ * @param completed completion of the matching tasks
+ * @param dueFrom inclusive lower bound of the due date of the matching tasks
+ * @param dueBefore exclusive upper bound of the due date of the matching tasks
+ */
+public record TaskFilterRequest(@Size(max = 10_000) List<@NotNull Long> ids,
+                                Boolean completed,
+                                LocalDateTime dueFrom,
+                                LocalDateTime dueBefore) {
+
+    /**
+     * Tells whether the due date range is valid
+     *
+     * @return true if the range has at most one bound, or a lower bound before the upper bound
+     */
+    @AssertTrue
+    public boolean isDueDateRangeValid() {
+        return dueFrom == null || dueBefore == null || dueFrom.isBefore(dueBefore);
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.blackpantech.todo.infra.http;
+
+import com.blackpantech.todo.domain.task.TaskPatch;
+import com.blackpantech.todo.domain.task.TaskService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+
+/**
+ * Reads JSON Merge Patch documents (RFC 7396) of tasks, where absent properties are kept and null removes a property
+ */
+final class TaskMergePatchReader {
+
+    private TaskMergePatchReader() {
+        // Utility class
+    }
+
+    /**
+     * Reads a merge patch of a task. Only the due date can be removed, with null, since the other properties are
+     * required.
+     *
+     * @param mergePatch merge patch document
+     * @param objectMapper object mapper, to read dates the same way as in other requests
+     *
+     * @return task patch
+     *
+     * @throws InvalidTaskPatchException if the document is not an object, has an unknown property, or a property
+     * with an invalid value
+     */
+    static TaskPatch read(final JsonNode mergePatch, final ObjectMapper objectMapper) throws InvalidTaskPatchException {
+        if (mergePatch == null || !mergePatch.isObject()) {
+            throw new InvalidTaskPatchException("document");
+        }
+
+        String title = null;
+        Boolean completed = null;
+        Long order = null;
+        LocalDateTime dueDate = null;
+        boolean dueDatePatched = false;
+
+        final Iterator<String> properties = mergePatch.fieldNames();
+        while (properties.hasNext()) {
+            final String property = properties.next();
+            final JsonNode value = mergePatch.get(property);
+
+            switch (property) {
+                case "title" -> {
+                    if (!value.isTextual() || value.textValue().isBlank()) {
+                        throw new InvalidTaskPatchException(property);
+                    }
+                    title = value.textValue();
+                }
+                case "completed" -> {
+                    if (!value.isBoolean()) {
+                        throw new InvalidTaskPatchException(property);
+                    }
+                    completed = value.booleanValue();
+                }
+                case "order" -> {
+                    if (!value.canConvertToExactIntegral() || !value.canConvertToLong()
+                            || value.longValue() < 1 || value.longValue() > TaskService.MAX_ORDER) {
+                        throw new InvalidTaskPatchException(property);
+                    }
+                    order = value.longValue();
+                }
+                case "dueDate" -> {
+                    dueDate = readDueDate(value, objectMapper);
+                    dueDatePatched = true;
+                }
+                default -> throw new InvalidTaskPatchException(property);
+            }
+        }
+
+        return new TaskPatch(title, completed, order, dueDate, dueDatePatched);
+    }
+
+    /**
+     * Reads the due date of a merge patch
+     *
+     * @param value due date value, null to remove the due date
+     * @param objectMapper object mapper to read the date with
+     *
+     * @return due date, or null to remove it
+     *
+     * @throws InvalidTaskPatchException if the value is not a date
+     */
+    private static LocalDateTime readDueDate(final JsonNode value, final ObjectMapper objectMapper)
+            throws InvalidTaskPatchException {
+        if (value.isNull()) {
+            return null;
+        }
+
+        try {
+            return objectMapper.treeToValue(value, LocalDateTime.class);
+        } catch (final JsonProcessingException | IllegalArgumentException exception) {
+            throw new InvalidTaskPatchException("dueDate");
+        }
+    }
+
+}
@@ -0,0 +1,15 @@
+package com.blackpantech.todo.infra.http;
+
+import com.blackpantech.todo.domain.task.MovePosition;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Record to map task move request
+ *
+ * @param anchorId ID of the task to move the task next to
+ * @param position side of the anchor task to move the task to
+ */
+public record TaskMoveRequest(@NotNull Long anchorId,
+                              @NotNull MovePosition position) {
+
+}
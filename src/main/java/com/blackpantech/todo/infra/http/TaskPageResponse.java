@@ -0,0 +1,15 @@
+package com.blackpantech.todo.infra.http;
+
+import com.blackpantech.todo.domain.task.Task;
+
+import java.util.List;
+
+/**
+ * Record to map a page of tasks in responses
+ *
+ * @param tasks tasks of the page
+ * @param next opaque cursor to fetch the next page, or null if this is the last page
+ */
+public record TaskPageResponse(List<Task> tasks, String next) {
+
+}
@@ -0,0 +1,24 @@
+package com.blackpantech.todo.infra.http;
+
+import com.blackpantech.todo.domain.task.TaskSort;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Converts the sort request parameter, named after task properties, to a task sort order. Unknown values fail the
+ * conversion, which is answered with a 400 Bad Request status.
+ */
+@Component
+public class TaskSortConverter implements Converter<String, TaskSort> {
+
+    @Override
+    public TaskSort convert(final String sort) {
+        return switch (sort) {
+            case "order" -> TaskSort.ORDER;
+            case "dueDate" -> TaskSort.DUE_DATE;
+            case "title" -> TaskSort.TITLE;
+            default -> throw new IllegalArgumentException("Unknown task sort: " + sort);
+        };
+    }
+
+}
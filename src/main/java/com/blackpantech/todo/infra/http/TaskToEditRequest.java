@@ -1,5 +1,7 @@
 package com.blackpantech.todo.infra.http;
 
+import com.blackpantech.todo.domain.task.TaskService;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -16,7 +18,7 @@ import java.time.LocalDateTime;
  */
 public record TaskToEditRequest(@NotBlank String title,
                                 @NotNull boolean completed,
-                                @Min(1) long order,
+                                @Min(1) @Max(TaskService.MAX_ORDER) long order,
                                 LocalDateTime dueDate) {
 
 }
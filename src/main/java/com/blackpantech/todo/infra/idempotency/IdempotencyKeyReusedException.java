@@ -0,0 +1,12 @@
+package com.blackpantech.todo.infra.idempotency;
+
+/**
+ * Checked exception in case an idempotency key is sent again with another task to create
+ */
+public class IdempotencyKeyReusedException extends Exception {
+
+    public IdempotencyKeyReusedException(final String key) {
+        super(String.format("Idempotency key %s was used for another task", key));
+    }
+
+}
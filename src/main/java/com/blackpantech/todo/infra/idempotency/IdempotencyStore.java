@@ -0,0 +1,51 @@
+package com.blackpantech.todo.infra.idempotency;
+
+import com.blackpantech.todo.domain.task.Task;
+
+import java.time.LocalDateTime;
+
+/**
+ * Store of the tasks created under an idempotency key, kept for a bounded time so that retries get the same task.
+ * A key is reserved before its task is created, so that a single request creates it. Reservations expire sooner than
+ * created tasks, so that a key reserved by a request which never completes can be reserved again.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Reserves a key for a creation, unless the key is already reserved or holds a created task
+     *
+     * @param key idempotency key
+     * @param title requested title
+     * @param dueDate requested due date
+     *
+     * @return true if the key was reserved by this call
+     */
+    boolean reserve(final String key, final String title, final LocalDateTime dueDate);
+
+    /**
+     * Finds the creation under a key
+     *
+     * @param key idempotency key
+     *
+     * @return pending or completed creation under the key, or null if none or expired
+     */
+    IdempotentCreation find(final String key);
+
+    /**
+     * Saves the task created under a reserved key
+     *
+     * @param key idempotency key
+     * @param task created task
+     *
+     * @return true if the task was saved, false if the reservation expired or was released meanwhile
+     */
+    boolean complete(final String key, final Task task);
+
+    /**
+     * Releases a reserved key whose creation failed, so that it can be reserved again
+     *
+     * @param key idempotency key
+     */
+    void release(final String key);
+
+}
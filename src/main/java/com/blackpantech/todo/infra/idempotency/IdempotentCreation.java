@@ -0,0 +1,25 @@
+package com.blackpantech.todo.infra.idempotency;
+
+import com.blackpantech.todo.domain.task.Task;
+
+import java.time.LocalDateTime;
+
+/**
+ * Creation of a task under an idempotency key, pending until the task is created
+ *
+ * @param title requested title
+ * @param dueDate requested due date
+ * @param task created task, or null while the creation is pending
+ */
+public record IdempotentCreation(String title, LocalDateTime dueDate, Task task) {
+
+    /**
+     * Tells whether the task is still being created
+     *
+     * @return true until the created task is saved
+     */
+    public boolean pending() {
+        return task == null;
+    }
+
+}
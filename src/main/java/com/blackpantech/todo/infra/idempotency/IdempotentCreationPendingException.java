@@ -0,0 +1,27 @@
+package com.blackpantech.todo.infra.idempotency;
+
+import java.time.Duration;
+
+/**
+ * Checked exception in case the task of an idempotency key is still being created by another request, after waiting
+ * for it as long as allowed
+ */
+public class IdempotentCreationPendingException extends Exception {
+
+    private final Duration retryAfter;
+
+    public IdempotentCreationPendingException(final String key, final Duration retryAfter) {
+        super(String.format("Task under idempotency key %s is still being created", key));
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Gets the time after which the client should send the creation again
+     *
+     * @return time to wait before retrying
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+}
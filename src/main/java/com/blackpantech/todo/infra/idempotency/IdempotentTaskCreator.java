@@ -0,0 +1,134 @@
+package com.blackpantech.todo.infra.idempotency;
+
+import com.blackpantech.todo.domain.task.Task;
+import com.blackpantech.todo.domain.task.TaskService;
+import com.blackpantech.todo.domain.task.exceptions.DuplicatedTaskTitleException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Creates a task at most once per idempotency key, so that clients can retry a creation which timed out. The key is
+ * reserved in the store before the task is created, so that a single request creates it on any node. Requests
+ * finding the key reserved poll the store until the task is saved under it, then get the same task, or give up after
+ * a maximum wait and tell the client to retry later.
+ * <p>
+ * Only successful creations are stored: a failed one releases its key, so that it can be retried.
+ */
+public class IdempotentTaskCreator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IdempotentTaskCreator.class);
+
+    /**
+     * Time between two reads of a key reserved by another request
+     */
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(50);
+
+    /**
+     * Time after which a client given up on is told to send the creation again
+     */
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final TaskService taskService;
+
+    private final IdempotencyStore idempotencyStore;
+
+    private final Duration maxWait;
+
+    public IdempotentTaskCreator(final TaskService taskService,
+                                 final IdempotencyStore idempotencyStore,
+                                 final Duration maxWait) {
+        this.taskService = taskService;
+        this.idempotencyStore = idempotencyStore;
+        this.maxWait = maxWait;
+    }
+
+    /**
+     * Creates new task with given title and due date, unless a task was already created under the given key
+     *
+     * @param key idempotency key sent by the client
+     * @param title title of the new task
+     * @param dueDate due date of the new task
+     *
+     * @return task created under the key, by this call or another one
+     *
+     * @throws DuplicatedTaskTitleException if the given title is already taken by a task created under another key
+     * @throws IdempotencyKeyReusedException if the key was used to create a task with another title or due date
+     * @throws IdempotentCreationPendingException if the task of the key was still being created by another request
+     * after the maximum wait
+     */
+    public Task createTask(final String key, final String title, final LocalDateTime dueDate)
+            throws DuplicatedTaskTitleException, IdempotencyKeyReusedException, IdempotentCreationPendingException {
+        final long deadline = System.nanoTime() + maxWait.toNanos();
+
+        while (true) {
+            if (idempotencyStore.reserve(key, title, dueDate)) {
+                return create(key, title, dueDate);
+            }
+
+            // Null once released by a failed creation, or expired, so that the key is reserved again
+            final IdempotentCreation creation = idempotencyStore.find(key);
+            if (creation != null) {
+                if (!creation.title().equals(title) || !Objects.equals(creation.dueDate(), dueDate)) {
+                    throw new IdempotencyKeyReusedException(key);
+                }
+                if (!creation.pending()) {
+                    return creation.task();
+                }
+                if (System.nanoTime() - deadline >= 0) {
+                    throw new IdempotentCreationPendingException(key, RETRY_AFTER);
+                }
+
+                awaitCreation(key);
+            }
+        }
+    }
+
+    /**
+     * Creates a task under a reserved key, and saves it under the key or releases the key on failure
+     *
+     * @param key reserved idempotency key
+     * @param title title of the new task
+     * @param dueDate due date of the new task
+     *
+     * @return created task
+     *
+     * @throws DuplicatedTaskTitleException if the given title is already taken by a task created under another key
+     */
+    private Task create(final String key, final String title, final LocalDateTime dueDate)
+            throws DuplicatedTaskTitleException {
+        final Task createdTask;
+        try {
+            createdTask = taskService.createTask(title, dueDate);
+        } catch (final DuplicatedTaskTitleException | RuntimeException exception) {
+            idempotencyStore.release(key);
+            throw exception;
+        }
+
+        if (!idempotencyStore.complete(key, createdTask)) {
+            // The task is created all the same: failing would only make the client create it again
+            LOGGER.warn("Task {} created under idempotency key {} was not saved under it, as the reservation expired "
+                    + "meanwhile: a retry with the key may create the task again", createdTask.id(), key);
+        }
+
+        return createdTask;
+    }
+
+    /**
+     * Waits before reading a key reserved by another request again
+     *
+     * @param key reserved idempotency key
+     */
+    private static void awaitCreation(final String key) {
+        try {
+            Thread.sleep(POLL_INTERVAL);
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the task created under key " + key);
+        }
+    }
+
+}
@@ -0,0 +1,173 @@
+package com.blackpantech.todo.infra.idempotency;
+
+import com.blackpantech.todo.domain.task.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Idempotency store of a single node, bounded in size and evicting keys after their time to live.
+ * <p>
+ * Keys are moved to the tail of the map whenever their expiry is set, so that the map is mostly in expiry order:
+ * expired keys are evicted from the head of the map on each reservation, and the oldest key makes room once the store
+ * is full. A reservation expiring behind a created task further down is ignored when read until then.
+ */
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final int maxSize;
+
+    private final long ttlNanos;
+
+    private final long reservationTtlNanos;
+
+    private final LongSupplier nanoClock;
+
+    /**
+     * Guards the entries and their order, as a reservation checks and replaces the entry of a key at once
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    public InMemoryIdempotencyStore(final int maxSize, final Duration ttl, final Duration reservationTtl) {
+        this(maxSize, ttl, reservationTtl, System::nanoTime);
+    }
+
+    InMemoryIdempotencyStore(final int maxSize,
+                             final Duration ttl,
+                             final Duration reservationTtl,
+                             final LongSupplier nanoClock) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.reservationTtlNanos = reservationTtl.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public boolean reserve(final String key, final String title, final LocalDateTime dueDate) {
+        final long now = nanoClock.getAsLong();
+
+        lock.lock();
+        try {
+            evictExpired(now);
+            final Entry entry = entries.get(key);
+            if (entry != null && now - entry.expiresAt() < 0) {
+                return false;
+            }
+
+            put(key, new Entry(new IdempotentCreation(title, dueDate, null), now + reservationTtlNanos));
+
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public IdempotentCreation find(final String key) {
+        final long now = nanoClock.getAsLong();
+
+        lock.lock();
+        try {
+            final Entry entry = entries.get(key);
+
+            return entry != null && now - entry.expiresAt() < 0 ? entry.creation() : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean complete(final String key, final Task task) {
+        final long now = nanoClock.getAsLong();
+
+        lock.lock();
+        try {
+            final Entry entry = entries.get(key);
+            if (entry == null || !entry.creation().pending() || now - entry.expiresAt() >= 0) {
+                return false;
+            }
+
+            final IdempotentCreation creation = entry.creation();
+            final IdempotentCreation completedCreation =
+                    new IdempotentCreation(creation.title(), creation.dueDate(), task);
+            put(key, new Entry(completedCreation, now + ttlNanos));
+
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void release(final String key) {
+        lock.lock();
+        try {
+            final Entry entry = entries.get(key);
+            if (entry != null && entry.creation().pending()) {
+                entries.remove(key);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of stored keys, expired ones included until the next reservation
+     *
+     * @return number of keys
+     */
+    int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Puts the entry of a key at the tail of the map, evicting the oldest key if the store is full
+     *
+     * @param key idempotency key
+     * @param entry entry of the key
+     */
+    private void put(final String key, final Entry entry) {
+        entries.remove(key);
+        entries.put(key, entry);
+
+        if (entries.size() > maxSize) {
+            final Iterator<Entry> oldestEntry = entries.values().iterator();
+            oldestEntry.next();
+            oldestEntry.remove();
+        }
+    }
+
+    /**
+     * Evicts the expired keys at the head of the map
+     *
+     * @param now current time in nanoseconds
+     */
+    private void evictExpired(final long now) {
+        final Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+
+        while (iterator.hasNext() && now - iterator.next().getValue().expiresAt() >= 0) {
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Creation under a key, until it expires
+     *
+     * @param creation pending or completed creation
+     * @param expiresAt expiry time in nanoseconds
+     */
+    private record Entry(IdempotentCreation creation, long expiresAt) {
+    }
+
+}
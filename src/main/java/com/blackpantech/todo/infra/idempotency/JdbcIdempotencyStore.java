@@ -0,0 +1,148 @@
+package com.blackpantech.todo.infra.idempotency;
+
+import com.blackpantech.todo.domain.task.Task;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Idempotency store in the IDEMPOTENCY_KEYS table, shared by all nodes of the database. Keys are reserved by
+ * inserting their row, which the primary key lets a single node do. Keys are evicted after their time to live:
+ * expired keys are ignored when read, replaced when reserved again, and deleted on the expiry index at most once per
+ * purge interval.
+ */
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private static final Duration PURGE_INTERVAL = Duration.ofMinutes(1);
+
+    private static final String COLUMNS = "TASK_ID, TITLE, COMPLETED, ORDER_POSITION, DUE_DATE, VERSION";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Duration ttl;
+
+    private final Duration reservationTtl;
+
+    private final Clock clock;
+
+    private final AtomicLong nextPurgeMillis = new AtomicLong();
+
+    public JdbcIdempotencyStore(final JdbcTemplate jdbcTemplate, final Duration ttl, final Duration reservationTtl) {
+        this(jdbcTemplate, ttl, reservationTtl, Clock.systemUTC());
+    }
+
+    JdbcIdempotencyStore(final JdbcTemplate jdbcTemplate,
+                         final Duration ttl,
+                         final Duration reservationTtl,
+                         final Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttl = ttl;
+        this.reservationTtl = reservationTtl;
+        this.clock = clock;
+    }
+
+    @Override
+    public boolean reserve(final String key, final String title, final LocalDateTime dueDate) {
+        final Instant now = clock.instant();
+        purgeExpired(now);
+
+        final Timestamp requestedDueDate = dueDate != null ? Timestamp.valueOf(dueDate) : null;
+        final Timestamp expiresAt = Timestamp.from(now.plus(reservationTtl));
+
+        try {
+            jdbcTemplate.update(
+                    "insert into IDEMPOTENCY_KEYS (IDEMPOTENCY_KEY, TITLE, DUE_DATE, EXPIRES_AT) values (?, ?, ?, ?)",
+                    key, title, requestedDueDate, expiresAt
+            );
+
+            return true;
+        } catch (final DuplicateKeyException exception) {
+            // Reserved by another request, which is kept, or expired but not purged yet, which is replaced
+            return jdbcTemplate.update(
+                    "update IDEMPOTENCY_KEYS set TASK_ID = null, TITLE = ?, COMPLETED = null, ORDER_POSITION = null,"
+                            + " DUE_DATE = ?, VERSION = null, EXPIRES_AT = ?"
+                            + " where IDEMPOTENCY_KEY = ? and EXPIRES_AT <= ?",
+                    title, requestedDueDate, expiresAt, key, Timestamp.from(now)
+            ) > 0;
+        }
+    }
+
+    @Override
+    public IdempotentCreation find(final String key) {
+        return jdbcTemplate.query(
+                "select " + COLUMNS + " from IDEMPOTENCY_KEYS where IDEMPOTENCY_KEY = ? and EXPIRES_AT > ?",
+                (resultSet, rowNumber) -> toCreation(resultSet),
+                key,
+                Timestamp.from(clock.instant())
+        ).stream().findFirst().orElse(null);
+    }
+
+    @Override
+    public boolean complete(final String key, final Task task) {
+        final Instant now = clock.instant();
+
+        return jdbcTemplate.update(
+                "update IDEMPOTENCY_KEYS set TASK_ID = ?, COMPLETED = ?, ORDER_POSITION = ?, VERSION = ?,"
+                        + " EXPIRES_AT = ? where IDEMPOTENCY_KEY = ? and TASK_ID is null and EXPIRES_AT > ?",
+                task.id(), task.completed(), task.order(), task.version(), Timestamp.from(now.plus(ttl)),
+                key, Timestamp.from(now)
+        ) > 0;
+    }
+
+    @Override
+    public void release(final String key) {
+        jdbcTemplate.update("delete from IDEMPOTENCY_KEYS where IDEMPOTENCY_KEY = ? and TASK_ID is null", key);
+    }
+
+    /**
+     * Deletes the expired keys, unless this node already did within the purge interval
+     *
+     * @param now current time
+     */
+    private void purgeExpired(final Instant now) {
+        final long purgeMillis = nextPurgeMillis.get();
+
+        if (now.toEpochMilli() >= purgeMillis
+                && nextPurgeMillis.compareAndSet(purgeMillis, now.plus(PURGE_INTERVAL).toEpochMilli())) {
+            jdbcTemplate.update("delete from IDEMPOTENCY_KEYS where EXPIRES_AT <= ?", Timestamp.from(now));
+        }
+    }
+
+    /**
+     * Reads the creation saved in a row, with the task once created
+     *
+     * @param resultSet result set on the row
+     *
+     * @return saved creation
+     *
+     * @throws SQLException if a column cannot be read
+     */
+    private static IdempotentCreation toCreation(final ResultSet resultSet) throws SQLException {
+        final String title = resultSet.getString("TITLE");
+        final Timestamp timestamp = resultSet.getTimestamp("DUE_DATE");
+        final LocalDateTime dueDate = timestamp != null ? timestamp.toLocalDateTime() : null;
+
+        final long taskId = resultSet.getLong("TASK_ID");
+        if (resultSet.wasNull()) {
+            return new IdempotentCreation(title, dueDate, null);
+        }
+
+        return new IdempotentCreation(title, dueDate, new Task(
+                taskId,
+                title,
+                resultSet.getBoolean("COMPLETED"),
+                resultSet.getLong("ORDER_POSITION"),
+                dueDate,
+                resultSet.getLong("VERSION")
+        ));
+    }
+
+}
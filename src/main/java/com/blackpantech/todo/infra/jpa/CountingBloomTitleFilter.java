@@ -0,0 +1,162 @@
+package com.blackpantech.todo.infra.jpa;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.stream.Stream;
+
+/**
+ * Counting Bloom filter of task titles, with one saturating 8-bit counter per slot so that titles can be removed.
+ * It is rebuilt from database at startup. Until then, and whenever it misses an update (e.g. a rolled back
+ * transaction), it may answer that a taken title is new: the unique index on titles still rejects the duplicate.
+ */
+@Component
+@Profile("!memory")
+@ConditionalOnProperty(name = "todo.title-filter.enabled", havingValue = "true", matchIfMissing = true)
+public class CountingBloomTitleFilter implements TitleFilter {
+
+    private static final VarHandle COUNTERS = MethodHandles.arrayElementVarHandle(byte[].class);
+
+    private static final int MAX_COUNTER = 0xFF;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final TaskJpaRepository taskJpaRepository;
+
+    private final int hashFunctions;
+
+    private final int mask;
+
+    private volatile byte[] counters;
+
+    public CountingBloomTitleFilter(final TaskJpaRepository taskJpaRepository,
+                                    @Value("${todo.title-filter.expected-titles:100000}") final int expectedTitles,
+                                    @Value("${todo.title-filter.false-positive-rate:0.01}")
+                                    final double falsePositiveRate) {
+        this.taskJpaRepository = taskJpaRepository;
+
+        final double optimalSize = -expectedTitles * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        final int size = Integer.highestOneBit((int) Math.min(Math.max(optimalSize, 64), 1 << 30) - 1) << 1;
+        this.mask = size - 1;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) size / expectedTitles * Math.log(2)));
+        this.counters = new byte[size];
+    }
+
+    /**
+     * Rebuilds the filter from the titles stored in database
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        final byte[] rebuiltCounters = new byte[counters.length];
+
+        try (final Stream<String> titles = taskJpaRepository.streamAllTitles()) {
+            titles.forEach(title -> increment(rebuiltCounters, title));
+        }
+
+        counters = rebuiltCounters;
+    }
+
+    @Override
+    public boolean mightContain(final String title) {
+        final byte[] currentCounters = counters;
+        final long hash = hash(title);
+
+        for (int i = 0; i < hashFunctions; i++) {
+            if ((byte) COUNTERS.getVolatile(currentCounters, index(hash, i)) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public void add(final String title) {
+        increment(counters, title);
+    }
+
+    @Override
+    public void remove(final String title) {
+        final byte[] currentCounters = counters;
+        final long hash = hash(title);
+
+        for (int i = 0; i < hashFunctions; i++) {
+            final int index = index(hash, i);
+            int counter;
+            do {
+                counter = Byte.toUnsignedInt((byte) COUNTERS.getVolatile(currentCounters, index));
+                // Saturated counters have lost track of their count and must stay set
+                if (counter == 0 || counter == MAX_COUNTER) {
+                    break;
+                }
+            } while (!COUNTERS.compareAndSet(currentCounters, index, (byte) counter, (byte) (counter - 1)));
+        }
+    }
+
+    @Override
+    public void clear() {
+        counters = new byte[counters.length];
+    }
+
+    /**
+     * Increments the counters of a title
+     *
+     * @param targetCounters counters to update
+     * @param title title to add
+     */
+    private void increment(final byte[] targetCounters, final String title) {
+        final long hash = hash(title);
+
+        for (int i = 0; i < hashFunctions; i++) {
+            final int index = index(hash, i);
+            int counter;
+            do {
+                counter = Byte.toUnsignedInt((byte) COUNTERS.getVolatile(targetCounters, index));
+                if (counter == MAX_COUNTER) {
+                    break;
+                }
+            } while (!COUNTERS.compareAndSet(targetCounters, index, (byte) counter, (byte) (counter + 1)));
+        }
+    }
+
+    /**
+     * Gets the counter index of the i-th hash function, derived from two halves of a single hash
+     *
+     * @param hash 64-bit hash of a title
+     * @param i index of the hash function
+     *
+     * @return counter index
+     */
+    private int index(final long hash, final int i) {
+        return ((int) hash + i * (int) (hash >>> 32)) & mask;
+    }
+
+    /**
+     * Hashes a title with 64-bit FNV-1a over its characters
+     *
+     * @param title title to hash
+     *
+     * @return 64-bit hash
+     */
+    private static long hash(final String title) {
+        long hash = FNV_OFFSET_BASIS;
+
+        for (int i = 0; i < title.length(); i++) {
+            hash ^= title.charAt(i);
+            hash *= FNV_PRIME;
+        }
+
+        return hash;
+    }
+
+}
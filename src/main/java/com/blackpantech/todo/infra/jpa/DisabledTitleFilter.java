@@ -0,0 +1,33 @@
+package com.blackpantech.todo.infra.jpa;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Title filter used when filtering is disabled, so that every title is checked in database
+ */
+@Component
+@ConditionalOnProperty(name = "todo.title-filter.enabled", havingValue = "false")
+public class DisabledTitleFilter implements TitleFilter {
+
+    @Override
+    public boolean mightContain(final String title) {
+        return true;
+    }
+
+    @Override
+    public void add(final String title) {
+        // Does nothing
+    }
+
+    @Override
+    public void remove(final String title) {
+        // Does nothing
+    }
+
+    @Override
+    public void clear() {
+        // Does nothing
+    }
+
+}
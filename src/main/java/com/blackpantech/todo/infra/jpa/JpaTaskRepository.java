@@ -1,28 +1,126 @@
 package com.blackpantech.todo.infra.jpa;
 
+import com.blackpantech.todo.domain.task.MovePosition;
 import com.blackpantech.todo.domain.task.Task;
+import com.blackpantech.todo.domain.task.TaskBulkUpdate;
+import com.blackpantech.todo.domain.task.TaskChangeVersions;
+import com.blackpantech.todo.domain.task.TaskChanges;
+import com.blackpantech.todo.domain.task.TaskCursor;
+import com.blackpantech.todo.domain.task.TaskEdit;
+import com.blackpantech.todo.domain.task.TaskFilter;
+import com.blackpantech.todo.domain.task.TaskPage;
+import com.blackpantech.todo.domain.task.TaskPatch;
 import com.blackpantech.todo.domain.task.TaskRepository;
+import com.blackpantech.todo.domain.task.TaskSort;
+import com.blackpantech.todo.domain.task.TaskToCreate;
 import com.blackpantech.todo.domain.task.exceptions.DuplicatedTaskTitleException;
+import com.blackpantech.todo.domain.task.exceptions.OrderGapExhaustedException;
 import com.blackpantech.todo.domain.task.exceptions.TaskNotFoundException;
+import com.blackpantech.todo.domain.task.exceptions.TaskVersionMismatchException;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * JPA implementation of the task repository
  */
 @Repository
+@Profile("!memory")
 public class JpaTaskRepository implements TaskRepository {
 
+    /**
+     * Maximum number of titles bound in a single IN clause when checking a batch of titles
+     */
+    private static final int TITLES_CHUNK_SIZE = 1000;
+
+    /**
+     * Maximum number of IDs bound in a single IN clause when updating tasks by ID
+     */
+    private static final int IDS_CHUNK_SIZE = 1000;
+
+    /**
+     * Maximum number of changed tasks read at once, before tasks sharing the change version of the last one
+     */
+    private static final int CHANGES_LIMIT = 1000;
+
+    /**
+     * Number of attempts to delete all completed tasks, retried on serialization failures
+     */
+    private static final int MAX_DELETE_ATTEMPTS = 3;
+
+    /**
+     * Writes an edit of a task, only if the task is still at the version it was edited from
+     */
+    private static final String SAVE_TASK_EDIT_SQL = "update TASKS set COMPLETED = ?, ORDER_POSITION = ?, "
+            + "DUE_DATE = ?, VERSION = ?, CHANGE_VERSION = ? where ID = ? and VERSION = ?";
+
     private final TaskJpaRepository taskJpaRepository;
 
     private final TaskEntityMapper taskEntityMapper;
 
-    public JpaTaskRepository(final TaskJpaRepository taskJpaRepository, final TaskEntityMapper taskEntityMapper) {
+    private final EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final OrderPositionAllocator orderPositionAllocator;
+
+    private final TaskTitlePatcher taskTitlePatcher;
+
+    private final TitleFilter titleFilter;
+
+    private final TrigramTitleIndex titleIndex;
+
+    private final TaskChangeVersions taskChangeVersions;
+
+    /**
+     * Maximum number of IDs covered by each delete statement when deleting all tasks, or 0 to delete them with a
+     * single statement
+     */
+    private final int purgeChunkSize;
+
+    public JpaTaskRepository(final TaskJpaRepository taskJpaRepository,
+                             final TaskEntityMapper taskEntityMapper,
+                             final EntityManager entityManager,
+                             final JdbcTemplate jdbcTemplate,
+                             final OrderPositionAllocator orderPositionAllocator,
+                             final TaskTitlePatcher taskTitlePatcher,
+                             final TitleFilter titleFilter,
+                             final TrigramTitleIndex titleIndex,
+                             final TaskChangeVersions taskChangeVersions,
+                             @Value("${todo.purge.chunk-size:0}") final int purgeChunkSize) {
         this.taskJpaRepository = taskJpaRepository;
         this.taskEntityMapper = taskEntityMapper;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.orderPositionAllocator = orderPositionAllocator;
+        this.taskTitlePatcher = taskTitlePatcher;
+        this.titleFilter = titleFilter;
+        this.titleIndex = titleIndex;
+        this.taskChangeVersions = taskChangeVersions;
+        this.purgeChunkSize = purgeChunkSize;
     }
 
     @Override
@@ -33,15 +131,53 @@ public class JpaTaskRepository implements TaskRepository {
     }
 
     @Override
+    @Transactional(rollbackFor = DuplicatedTaskTitleException.class)
     public Task createTask(final String title, final LocalDateTime dueDate) throws DuplicatedTaskTitleException {
         final TaskEntity taskToCreate = getNewTaskWithUniqueTitle(title, dueDate);
+        taskToCreate.setChangeVersion(taskChangeVersions.next());
 
-        final TaskEntity createdTask = taskJpaRepository.save(taskToCreate);
+        final TaskEntity createdTask = saveWithUniqueTitle(taskToCreate);
+        titleFilter.add(createdTask.getTitle());
+        indexTitle(createdTask.getId(), createdTask.getTitle());
 
         return taskEntityMapper.TaskEntityToTask(createdTask);
     }
 
     @Override
+    @Transactional(rollbackFor = DuplicatedTaskTitleException.class)
+    public List<Task> createTasks(final List<TaskToCreate> tasksToCreate) throws DuplicatedTaskTitleException {
+        checkUniqueTitles(tasksToCreate.stream().map(TaskToCreate::title).toList());
+
+        final long[] orders = orderPositionAllocator.reserve(tasksToCreate.size());
+        final long changeVersion = taskChangeVersions.next();
+        final List<TaskEntity> tasksToSave = new ArrayList<>(tasksToCreate.size());
+        for (int index = 0; index < tasksToCreate.size(); index++) {
+            final TaskToCreate taskToCreate = tasksToCreate.get(index);
+            final TaskEntity taskToSave =
+                    new TaskEntity(taskToCreate.title(), false, orders[index], taskToCreate.dueDate());
+            taskToSave.setChangeVersion(changeVersion);
+            tasksToSave.add(taskToSave);
+        }
+
+        final List<TaskEntity> createdTasks = taskJpaRepository.saveAll(tasksToSave);
+        try {
+            taskJpaRepository.flush();
+        } catch (final DataIntegrityViolationException exception) {
+            // Another transaction took one of the titles since they were checked
+            throw new DuplicatedTaskTitleException(
+                    String.join(", ", tasksToCreate.stream().map(TaskToCreate::title).toList())
+            );
+        }
+        createdTasks.forEach(createdTask -> {
+            titleFilter.add(createdTask.getTitle());
+            indexTitle(createdTask.getId(), createdTask.getTitle());
+        });
+
+        return taskEntityMapper.TaskEntitiesToTasks(createdTasks);
+    }
+
+    @Override
+    @Transactional(rollbackFor = DuplicatedTaskTitleException.class)
     public Task editTask(final long id,
                          final String title,
                          final boolean completed,
@@ -49,17 +185,201 @@ public class JpaTaskRepository implements TaskRepository {
                          final LocalDateTime dueDate)
             throws DuplicatedTaskTitleException, TaskNotFoundException {
         final TaskEntity taskToEdit = getTaskById(id);
+        final String previousTitle = taskToEdit.getTitle();
 
-        final TaskEntity editedTaskToSave = getEditedTaskWithUniqueTitle(taskToEdit, title, completed, order, dueDate);
+        final TaskEntity editedTaskToSave =
+                getEditedTaskWithUniqueTitle(taskToEdit, title, completed, order, dueDate);
+        editedTaskToSave.setChangeVersion(taskChangeVersions.next());
 
-        final TaskEntity editedTask = taskJpaRepository.save(editedTaskToSave);
+        final TaskEntity editedTask = saveWithUniqueTitle(editedTaskToSave);
+        if (!previousTitle.equals(editedTask.getTitle())) {
+            titleFilter.add(editedTask.getTitle());
+            unfilterTitle(previousTitle);
+            indexTitle(editedTask.getId(), editedTask.getTitle());
+        }
 
         return taskEntityMapper.TaskEntityToTask(editedTask);
     }
 
     @Override
+    @Transactional(rollbackFor = DuplicatedTaskTitleException.class)
+    public void patchTask(final long id, final TaskPatch taskPatch)
+            throws DuplicatedTaskTitleException, TaskNotFoundException {
+        // A single UPDATE, relying on the unique index on titles instead of checking the title beforehand
+        if (taskPatch.title() == null) {
+            final int patchedTasks = taskJpaRepository.patchTask(
+                    id,
+                    null,
+                    taskPatch.completed(),
+                    taskPatch.order(),
+                    taskPatch.dueDatePatched(),
+                    taskPatch.dueDate(),
+                    taskChangeVersions.next()
+            );
+
+            if (patchedTasks == 0) {
+                throw new TaskNotFoundException(id);
+            }
+            return;
+        }
+
+        // Giving back the previous title, which the title filter forgets, instead of reading it beforehand
+        final Optional<String> previousTitle;
+        try {
+            previousTitle = taskTitlePatcher.patch(id, taskPatch, taskChangeVersions.next());
+        } catch (final DataIntegrityViolationException exception) {
+            throw new DuplicatedTaskTitleException(taskPatch.title());
+        }
+
+        patched(id, taskPatch, previousTitle.orElseThrow(() -> new TaskNotFoundException(id)));
+    }
+
+    @Override
+    @Transactional(rollbackFor = DuplicatedTaskTitleException.class)
+    public void patchTask(final long id, final TaskPatch taskPatch, final long expectedVersion)
+            throws DuplicatedTaskTitleException, TaskNotFoundException, TaskVersionMismatchException {
+        // A single UPDATE checking the version, giving back the previous title instead of reading it beforehand
+        String previousTitle = null;
+        final boolean patched;
+        try {
+            if (taskPatch.title() == null) {
+                patched = taskJpaRepository.patchTaskIfVersion(
+                        id,
+                        expectedVersion,
+                        null,
+                        taskPatch.completed(),
+                        taskPatch.order(),
+                        taskPatch.dueDatePatched(),
+                        taskPatch.dueDate(),
+                        taskChangeVersions.next()
+                ) > 0;
+            } else {
+                previousTitle = taskTitlePatcher
+                        .patchIfVersion(id, expectedVersion, taskPatch, taskChangeVersions.next())
+                        .orElse(null);
+                patched = previousTitle != null;
+            }
+        } catch (final DataIntegrityViolationException exception) {
+            throw new DuplicatedTaskTitleException(taskPatch.title());
+        }
+
+        if (!patched) {
+            // Only a failed update reads the task, to tell a missing task from a changed one
+            if (taskJpaRepository.findVersionById(id).isEmpty()) {
+                throw new TaskNotFoundException(id);
+            }
+            throw new TaskVersionMismatchException(id, expectedVersion);
+        }
+
+        patched(id, taskPatch, previousTitle);
+    }
+
+    @Override
+    @Transactional
+    public long updateTasks(final TaskFilter taskFilter, final TaskBulkUpdate taskBulkUpdate) {
+        final long dueDateShiftSeconds =
+                taskBulkUpdate.dueDateShift() != null ? taskBulkUpdate.dueDateShift().toSeconds() : 0L;
+
+        final long changeVersion = taskChangeVersions.next();
+
+        long updatedTasks = 0L;
+        if (taskFilter.ids() == null) {
+            updatedTasks = taskJpaRepository.updateTasksMatching(
+                    taskFilter.completed(),
+                    taskFilter.dueFrom(),
+                    taskFilter.dueBefore(),
+                    taskBulkUpdate.completed(),
+                    dueDateShiftSeconds,
+                    changeVersion
+            );
+        } else {
+            final List<Long> ids = taskFilter.ids();
+            for (int from = 0; from < ids.size(); from += IDS_CHUNK_SIZE) {
+                updatedTasks += taskJpaRepository.updateTasksByIds(
+                        ids.subList(from, Math.min(from + IDS_CHUNK_SIZE, ids.size())),
+                        taskFilter.completed(),
+                        taskFilter.dueFrom(),
+                        taskFilter.dueBefore(),
+                        taskBulkUpdate.completed(),
+                        dueDateShiftSeconds,
+                        changeVersion
+                );
+            }
+        }
+
+        return updatedTasks;
+    }
+
+    @Override
+    @Transactional
+    public List<Long> saveTaskEdits(final List<TaskEdit> taskEdits) {
+        // A single JDBC batch, instead of loading and saving each task
+        final long changeVersion = taskChangeVersions.next();
+        final int[] savedRows = jdbcTemplate.batchUpdate(
+                SAVE_TASK_EDIT_SQL,
+                taskEdits.stream()
+                        .map(taskEdit -> new Object[]{
+                                taskEdit.completed(),
+                                taskEdit.order(),
+                                taskEdit.dueDate(),
+                                taskEdit.version(),
+                                changeVersion,
+                                taskEdit.id(),
+                                taskEdit.fromVersion()
+                        })
+                        .toList()
+        );
+
+        final List<Long> unsavedIds = new ArrayList<>();
+        for (int index = 0; index < taskEdits.size(); index++) {
+            // Some drivers only tell that a statement of the batch succeeded, not how many rows it updated
+            if (savedRows[index] == 0) {
+                unsavedIds.add(taskEdits.get(index).id());
+            }
+        }
+
+        return unsavedIds;
+    }
+
+    @Override
+    @Transactional
+    public void moveTask(final long id, final long anchorId, final MovePosition position)
+            throws OrderGapExhaustedException, TaskNotFoundException, TaskVersionMismatchException {
+        // Read before the positions, so that a rebalance committed after any of the reads fails the move
+        final long version = getTaskVersion(id);
+        final TaskEntity anchorTask = getTaskById(anchorId);
+        final long orderPosition = position == MovePosition.BEFORE
+                ? getFreePositionBefore(anchorTask, id)
+                : getFreePositionAfter(anchorTask, id);
+
+        final int movedTasks = taskJpaRepository.patchTaskIfVersion(
+                id, version, null, null, orderPosition, false, null, taskChangeVersions.next()
+        );
+        if (movedTasks == 0) {
+            if (taskJpaRepository.findVersionById(id).isEmpty()) {
+                throw new TaskNotFoundException(id);
+            }
+            throw new TaskVersionMismatchException(id, version);
+        }
+    }
+
+    @Override
+    public void rebalanceTaskOrders() {
+        orderPositionAllocator.rebalance(taskChangeVersions.next());
+    }
+
+    @Override
+    @Transactional
     public void deleteTask(final long id) throws TaskNotFoundException {
-        taskJpaRepository.delete(getTaskById(id));
+        // Locked, so that the title removed from the filter is not renamed meanwhile
+        final String title = getTaskForUpdate(id).getTitle();
+        if (taskJpaRepository.deleteTaskById(id, taskChangeVersions) == 0) {
+            throw new TaskNotFoundException(id);
+        }
+
+        unfilterTitle(title);
+        unindexTitle(id);
+        compactTombstones();
     }
 
     @Override
@@ -67,14 +387,344 @@ public class JpaTaskRepository implements TaskRepository {
         return taskEntityMapper.TaskEntitiesToTasks(taskJpaRepository.findAll());
     }
 
+    @Override
+    public List<Task> findTasks(final TaskFilter taskFilter, final TaskSort taskSort) {
+        final List<TaskEntity> taskEntities = taskJpaRepository.findAll(
+                TaskSpecifications.matching(taskFilter).and(TaskSpecifications.sortedBy(taskSort))
+        );
+
+        return taskEntityMapper.TaskEntitiesToTasks(taskEntities);
+    }
+
+    @Override
+    public List<Task> searchTasks(final String query, final int limit) {
+        final String lowerCaseQuery = query.toLowerCase(Locale.ROOT);
+        final Map<Long, TaskEntity> liveTasksById = new HashMap<>();
+
+        // Searches again after dropping stale entries, until the index only finds live tasks
+        while (true) {
+            final List<Long> ids = titleIndex.search(query, limit);
+            final List<Long> unreadIds = ids.stream().filter(id -> !liveTasksById.containsKey(id)).toList();
+
+            boolean stale = false;
+            if (!unreadIds.isEmpty()) {
+                final Map<Long, TaskEntity> taskEntitiesById = taskJpaRepository.findAllById(unreadIds).stream()
+                        .collect(Collectors.toMap(TaskEntity::getId, Function.identity()));
+                for (final long id : unreadIds) {
+                    final TaskEntity taskEntity = taskEntitiesById.get(id);
+                    if (taskEntity == null) {
+                        // Deleted without the index knowing, e.g. along with all completed tasks
+                        titleIndex.remove(id);
+                        stale = true;
+                    } else if (!taskEntity.getTitle().toLowerCase(Locale.ROOT).contains(lowerCaseQuery)) {
+                        // Renamed without the index knowing, e.g. by a rolled back transaction
+                        titleIndex.put(id, taskEntity.getTitle());
+                        stale = true;
+                    } else {
+                        liveTasksById.put(id, taskEntity);
+                    }
+                }
+            }
+
+            if (!stale) {
+                return ids.stream().map(liveTasksById::get).map(taskEntityMapper::TaskEntityToTask).toList();
+            }
+        }
+    }
+
+    @Override
+    public TaskPage getTasksPage(final TaskCursor after, final int limit) {
+        // Fetches one extra row to know whether there is a next page without counting
+        final Pageable pageable = PageRequest.ofSize(limit + 1);
+
+        final List<TaskEntity> taskEntities = after == null
+                ? taskJpaRepository.findAllByOrderByOrderPositionAscIdAsc(pageable)
+                : taskJpaRepository.findAllAfter(after.order(), after.id(), pageable);
+
+        if (taskEntities.size() <= limit) {
+            return new TaskPage(taskEntityMapper.TaskEntitiesToTasks(taskEntities), null);
+        }
+
+        final List<Task> tasks = taskEntityMapper.TaskEntitiesToTasks(taskEntities.subList(0, limit));
+        final Task lastTask = tasks.getLast();
+
+        return new TaskPage(tasks, new TaskCursor(lastTask.order(), lastTask.id()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachTask(final Consumer<Task> consumer) {
+        try (final Stream<TaskEntity> taskEntities = taskJpaRepository.streamAllSortedByOrderPosition()) {
+            taskEntities.forEach(taskEntity -> {
+                consumer.accept(taskEntityMapper.TaskEntityToTask(taskEntity));
+                // Keeps the persistence context from growing with the table
+                entityManager.detach(taskEntity);
+            });
+        }
+    }
+
+    @Override
+    public TaskChanges getTaskChanges(final long since) {
+        // Taken before reading, so that changes written during the read are read again from the next version
+        final long current = taskChangeVersions.current(taskJpaRepository.findTasksVersion());
+
+        if (taskChangeVersions.needsReset(since, taskJpaRepository.findChangeHorizon(), current)) {
+            return new TaskChanges(
+                    getAllTasks(), List.of(), taskChangeVersions.resumeVersion(0L, current), true, false
+            );
+        }
+
+        List<TaskEntity> changedTasks =
+                taskJpaRepository.findAllChangedSince(since, PageRequest.ofSize(CHANGES_LIMIT + 1));
+        long upTo = current;
+        final boolean cut = changedTasks.size() > CHANGES_LIMIT;
+        if (cut) {
+            // Cut before the version of the first task left out, so that tasks of a same version are read together
+            final long cutVersion = changedTasks.get(CHANGES_LIMIT).getChangeVersion();
+            final List<TaskEntity> tasksBeforeCut =
+                    changedTasks.stream().filter(task -> task.getChangeVersion() < cutVersion).toList();
+            if (tasksBeforeCut.isEmpty()) {
+                changedTasks = taskJpaRepository.findAllByChangeVersionOrderById(cutVersion);
+                upTo = cutVersion;
+            } else {
+                changedTasks = tasksBeforeCut;
+                upTo = cutVersion - 1;
+            }
+        }
+        final List<Long> deletedIds = taskJpaRepository.findIdsDeletedBetween(since, upTo);
+        compactTombstones();
+
+        final long version = taskChangeVersions.resumeVersion(since, upTo);
+        // Only tells to read on right away once the read moves forward, which it does not until the overlap passes
+        return new TaskChanges(
+                taskEntityMapper.TaskEntitiesToTasks(changedTasks), deletedIds, version, false, cut && version > since
+        );
+    }
+
+    @Override
+    public long getTasksVersion() {
+        return taskJpaRepository.findTasksVersion();
+    }
+
+    @Override
+    public long getTaskVersion(final long id) throws TaskNotFoundException {
+        final Optional<Long> optionalVersion = taskJpaRepository.findVersionById(id);
+
+        if (optionalVersion.isEmpty()) {
+            throw new TaskNotFoundException(id);
+        }
+
+        return optionalVersion.get();
+    }
+
+    @Override
+    public long countTasks() {
+        return taskJpaRepository.count();
+    }
+
+    @Override
+    public long countCompletedTasks() {
+        return taskJpaRepository.countByCompletedTrue();
+    }
+
     @Override
     public void deleteAllTasks() {
-        taskJpaRepository.deleteAll();
+        if (purgeChunkSize > 0) {
+            purgeAllTasks();
+        } else {
+            taskJpaRepository.deleteAllTasks(taskChangeVersions);
+        }
+        titleFilter.clear();
+        titleIndex.clear();
+        compactTombstones();
     }
 
     @Override
     public void deleteAllCompletedTasks() {
-        taskJpaRepository.deleteAllCompletedTasks();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                taskJpaRepository.deleteAllCompletedTasks(taskChangeVersions);
+                break;
+            } catch (final PessimisticLockingFailureException exception) {
+                // Postgres fails the repeatable read transaction on a task written since its snapshot
+                if (attempt == MAX_DELETE_ATTEMPTS) {
+                    throw exception;
+                }
+            }
+        }
+        compactTombstones();
+    }
+
+    /**
+     * Compacts the tombstones past the retention, at most once per minute
+     */
+    private void compactTombstones() {
+        if (taskChangeVersions.compactionDue()) {
+            taskJpaRepository.compactTombstones(taskChangeVersions.tombstoneCutoff());
+        }
+    }
+
+    /**
+     * Keeps the title filter and title index up to date once a task is patched
+     *
+     * @param id ID of the patched task
+     * @param taskPatch applied patch
+     * @param previousTitle title of the task before the patch, or null if the patch keeps the title
+     */
+    private void patched(final long id, final TaskPatch taskPatch, final String previousTitle) {
+        if (taskPatch.title() != null && !taskPatch.title().equals(previousTitle)) {
+            titleFilter.add(taskPatch.title());
+            unfilterTitle(previousTitle);
+            indexTitle(id, taskPatch.title());
+        }
+    }
+
+    /**
+     * Indexes the title of a task once the current write is visible to other readers, that is after the surrounding
+     * transaction commits if there is one. Indexing before would let a search drop the task as deleted, or index a
+     * title which is rolled back.
+     *
+     * @param id ID of the written task
+     * @param title title of the written task
+     */
+    private void indexTitle(final long id, final String title) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    titleIndex.put(id, title);
+                }
+            });
+        } else {
+            titleIndex.put(id, title);
+        }
+    }
+
+    /**
+     * Removes the title of a deleted task from the title index once the current write is committed if there is a
+     * transaction, as removing it before would let a search miss the task if the deletion is rolled back
+     *
+     * @param id ID of the deleted task
+     */
+    private void unindexTitle(final long id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    titleIndex.remove(id);
+                }
+            });
+        } else {
+            titleIndex.remove(id);
+        }
+    }
+
+    /**
+     * Removes a title from the title filter once the current write is committed if there is a transaction, as
+     * removing a title which is still taken would let a duplicate title through the filter
+     *
+     * @param title title of a deleted or renamed task
+     */
+    private void unfilterTitle(final String title) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    titleFilter.remove(title);
+                }
+            });
+        } else {
+            titleFilter.remove(title);
+        }
+    }
+
+    /**
+     * Deletes all tasks by chunks of consecutive IDs, each chunk in its own short transaction, so that purging a huge
+     * table neither holds locks on all of its rows nor writes them all to the log of a single transaction. Chunks are
+     * found from the last deleted ID, so that gaps in IDs do not make empty chunks. Tasks created while purging are
+     * kept. No tombstones are left, the change horizon is raised past the purge instead.
+     */
+    private void purgeAllTasks() {
+        // Raised first too, so that the version of the task list never goes back while the latest tasks are deleted
+        taskJpaRepository.raiseChangeHorizon(taskChangeVersions.next());
+        final long maxId = taskJpaRepository.findMaxId();
+
+        long lastId = 0L;
+        while (lastId < maxId) {
+            final List<Long> chunkIds =
+                    taskJpaRepository.findIdsAfter(lastId, maxId, PageRequest.ofSize(purgeChunkSize));
+            if (chunkIds.isEmpty()) {
+                break;
+            }
+
+            taskJpaRepository.deleteAllByIdRange(lastId, chunkIds.getLast());
+            lastId = chunkIds.getLast();
+        }
+        taskJpaRepository.raiseChangeHorizon(taskChangeVersions.next());
+    }
+
+    /**
+     * Gets a free position between a task and the task before it, ignoring the task to move
+     *
+     * @param anchorTask task to move another task before
+     * @param movedId ID of the task to move
+     *
+     * @return free position right before the given task
+     *
+     * @throws OrderGapExhaustedException if there is no free position before the given task
+     */
+    private long getFreePositionBefore(final TaskEntity anchorTask, final long movedId)
+            throws OrderGapExhaustedException {
+        final List<Long> previousPositions = taskJpaRepository.findOrderPositionsBefore(
+                anchorTask.getOrderPosition(), anchorTask.getId(), movedId, PageRequest.ofSize(1)
+        );
+
+        // Positions start at 1, so the first task leaves room down to 0
+        final long previousPosition = previousPositions.isEmpty() ? 0L : previousPositions.getFirst();
+
+        return getFreePositionBetween(previousPosition, anchorTask.getOrderPosition());
+    }
+
+    /**
+     * Gets a free position between a task and the task after it, ignoring the task to move
+     *
+     * @param anchorTask task to move another task after
+     * @param movedId ID of the task to move
+     *
+     * @return free position right after the given task
+     *
+     * @throws OrderGapExhaustedException if there is no free position after the given task
+     */
+    private long getFreePositionAfter(final TaskEntity anchorTask, final long movedId)
+            throws OrderGapExhaustedException {
+        final List<Long> nextPositions = taskJpaRepository.findOrderPositionsAfter(
+                anchorTask.getOrderPosition(), anchorTask.getId(), movedId, PageRequest.ofSize(1)
+        );
+
+        if (nextPositions.isEmpty()) {
+            return anchorTask.getOrderPosition() + orderPositionAllocator.gap();
+        }
+
+        return getFreePositionBetween(anchorTask.getOrderPosition(), nextPositions.getFirst());
+    }
+
+    /**
+     * Gets the position halfway between two positions, so that the gaps left on both sides are even
+     *
+     * @param lowerPosition lower position, excluded
+     * @param upperPosition upper position, excluded
+     *
+     * @return free position between the given positions
+     *
+     * @throws OrderGapExhaustedException if there is no position between the given positions
+     */
+    private static long getFreePositionBetween(final long lowerPosition, final long upperPosition)
+            throws OrderGapExhaustedException {
+        if (upperPosition - lowerPosition < 2) {
+            throw new OrderGapExhaustedException(lowerPosition, upperPosition);
+        }
+
+        return lowerPosition + (upperPosition - lowerPosition) / 2;
     }
 
     /**
@@ -96,6 +746,25 @@ public class JpaTaskRepository implements TaskRepository {
         return optionalTaskEntity.get();
     }
 
+    /**
+     * Gets a task by ID, locking its row until the end of the surrounding transaction
+     *
+     * @param id task ID
+     *
+     * @return locked task
+     *
+     * @throws TaskNotFoundException if task is not found
+     */
+    private TaskEntity getTaskForUpdate(final long id) throws TaskNotFoundException {
+        final Optional<TaskEntity> optionalTaskEntity = taskJpaRepository.findByIdForUpdate(id);
+
+        if (optionalTaskEntity.isEmpty()) {
+            throw new TaskNotFoundException(id);
+        }
+
+        return optionalTaskEntity.get();
+    }
+
     /**
      * Gets a new task with a unique title
      *
@@ -110,7 +779,7 @@ public class JpaTaskRepository implements TaskRepository {
             throws DuplicatedTaskTitleException {
         final String uniqueTitle = getUniqueTitle(title);
 
-        final long order = taskJpaRepository.count() + 1;
+        final long order = orderPositionAllocator.next();
 
         return new TaskEntity(uniqueTitle, false, order, dueDate);
     }
@@ -166,7 +835,36 @@ public class JpaTaskRepository implements TaskRepository {
     }
 
     /**
-     * Gets unique title or throws exception if given title is not unique
+     * Checks that the given titles are distinct and not already taken, with one query per chunk of titles
+     *
+     * @param titles titles to check
+     *
+     * @throws DuplicatedTaskTitleException if a title is given twice or is already taken
+     */
+    private void checkUniqueTitles(final List<String> titles) throws DuplicatedTaskTitleException {
+        final Set<String> distinctTitles = new HashSet<>(titles.size());
+        for (final String title : titles) {
+            if (!distinctTitles.add(title)) {
+                throw new DuplicatedTaskTitleException(title);
+            }
+        }
+
+        final List<String> titlesToCheck = titles.stream().filter(titleFilter::mightContain).toList();
+
+        for (int from = 0; from < titlesToCheck.size(); from += TITLES_CHUNK_SIZE) {
+            final List<String> takenTitles = taskJpaRepository.findTitlesIn(
+                    titlesToCheck.subList(from, Math.min(from + TITLES_CHUNK_SIZE, titlesToCheck.size()))
+            );
+
+            if (!takenTitles.isEmpty()) {
+                throw new DuplicatedTaskTitleException(takenTitles.getFirst());
+            }
+        }
+    }
+
+    /**
+     * Gets unique title or throws exception if given title is not unique. The query is skipped when the title
+     * filter tells the title is definitely new.
      *
      * @param title given title
      *
@@ -175,6 +873,10 @@ public class JpaTaskRepository implements TaskRepository {
      * @throws DuplicatedTaskTitleException if given title is not unique
      */
     private String getUniqueTitle(final String title) throws DuplicatedTaskTitleException {
+        if (!titleFilter.mightContain(title)) {
+            return title;
+        }
+
         final Optional<TaskEntity> optionalTaskEntity = taskJpaRepository.findByTitle(title);
 
         if (optionalTaskEntity.isPresent()) {
@@ -184,4 +886,21 @@ public class JpaTaskRepository implements TaskRepository {
         return title;
     }
 
+    /**
+     * Saves a task and flushes it, so that a title taken concurrently is reported by the unique index on titles
+     *
+     * @param taskToSave task to save
+     *
+     * @return saved task
+     *
+     * @throws DuplicatedTaskTitleException if the title of the task is already taken
+     */
+    private TaskEntity saveWithUniqueTitle(final TaskEntity taskToSave) throws DuplicatedTaskTitleException {
+        try {
+            return taskJpaRepository.saveAndFlush(taskToSave);
+        } catch (final DataIntegrityViolationException exception) {
+            throw new DuplicatedTaskTitleException(taskToSave.getTitle());
+        }
+    }
+
 }
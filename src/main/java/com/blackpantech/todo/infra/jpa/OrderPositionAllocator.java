@@ -0,0 +1,202 @@
+package com.blackpantech.todo.infra.jpa;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Allocates unique positions in list to new tasks from slots reserved by blocks in a database sequence, so that no two
+ * nodes give the same position. A position is its slot times the gap, after a base position above the positions of
+ * the tasks stored before slots were used. Positions increase on each node; across nodes, they increase by block,
+ * as IDs of tasks do.
+ * <p>
+ * Positions are spaced by a gap, so that a task can be moved between two others by writing its own position only.
+ * Once moves use up the gap between two tasks, all positions are spread evenly again. Nothing is locked beyond the
+ * renumbered rows: each task is renumbered only at the version read at the start of the rebalance, which is rolled
+ * back and tried again if a task was written meanwhile, and moves fail the same way on tasks renumbered meanwhile.
+ */
+@Component
+@Profile("!memory")
+public class OrderPositionAllocator {
+
+    /**
+     * Number of tasks renumbered in a single JDBC batch when rebalancing positions
+     */
+    private static final int REBALANCE_CHUNK_SIZE = 500;
+
+    /**
+     * Number of attempts to rebalance positions, tried again when tasks are written meanwhile
+     */
+    private static final int MAX_REBALANCE_ATTEMPTS = 3;
+
+    /**
+     * Reads the IDs and versions of all tasks, sorted by position in list
+     */
+    private static final String SELECT_TASK_VERSIONS_SQL = "select ID, VERSION from TASKS order by ORDER_POSITION, ID";
+
+    /**
+     * Renumbers a task, only if it is still at the version read at the start of the rebalance. The version and change
+     * version are set, so that clients holding the previous state of the task see it changed, and moves computed from
+     * the previous positions fail.
+     */
+    private static final String RENUMBER_TASK_SQL = "update TASKS set ORDER_POSITION = ?, VERSION = VERSION + 1, "
+            + "CHANGE_VERSION = ? where ID = ? and VERSION = ?";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OrderPositionAllocator.class);
+
+    private final TaskJpaRepository taskJpaRepository;
+
+    private final TaskOrderSequence taskOrderSequence;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final long gap;
+
+    /**
+     * Guards the block of slots reserved by this node, and the first read of the base position
+     */
+    private final ReentrantLock reservationLock = new ReentrantLock();
+
+    private boolean initialised;
+
+    private long basePosition;
+
+    /**
+     * Next free slot of the reserved block, past the last slot once the block is used up
+     */
+    private long nextSlot = 1L;
+
+    private long lastSlot;
+
+    public OrderPositionAllocator(final TaskJpaRepository taskJpaRepository,
+                                  final TaskOrderSequence taskOrderSequence,
+                                  final JdbcTemplate jdbcTemplate,
+                                  final PlatformTransactionManager transactionManager,
+                                  @Value("${todo.order.gap:1024}") final long gap) {
+        this.taskJpaRepository = taskJpaRepository;
+        this.taskOrderSequence = taskOrderSequence;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.gap = gap;
+    }
+
+    /**
+     * Allocates a single position
+     *
+     * @return allocated position
+     */
+    public long next() {
+        return reserve(1)[0];
+    }
+
+    /**
+     * Reserves positions, spaced by at least the gap, reading a new block of slots from the sequence each time the
+     * reserved one is used up
+     *
+     * @param count number of positions to reserve
+     *
+     * @return reserved positions, in increasing order
+     */
+    public long[] reserve(final int count) {
+        final long[] positions = new long[count];
+
+        reservationLock.lock();
+        try {
+            if (!initialised) {
+                basePosition = taskJpaRepository.findOrderPositionBase();
+                initialised = true;
+            }
+            for (int index = 0; index < count; index++) {
+                if (nextSlot > lastSlot) {
+                    lastSlot = taskOrderSequence.getAsLong();
+                    nextSlot = lastSlot - TaskOrderSequence.SLOTS_PER_BLOCK + 1;
+                }
+                positions[index] = basePosition + nextSlot++ * gap;
+            }
+        } finally {
+            reservationLock.unlock();
+        }
+
+        return positions;
+    }
+
+    /**
+     * Gets the gap between consecutive allocated positions
+     *
+     * @return gap between positions
+     */
+    public long gap() {
+        return gap;
+    }
+
+    /**
+     * Spreads the positions of all tasks by the gap, keeping their order, in a single transaction. The rebalance is
+     * rolled back and tried again, a few times at most, when a task is written while it runs.
+     *
+     * @param changeVersion change version of the renumbered tasks
+     */
+    public void rebalance(final long changeVersion) {
+        for (int attempt = 1; attempt <= MAX_REBALANCE_ATTEMPTS; attempt++) {
+            final Boolean renumbered = transactionTemplate.execute(status -> {
+                if (renumberAllTasks(changeVersion)) {
+                    return true;
+                }
+                status.setRollbackOnly();
+                return false;
+            });
+
+            if (Boolean.TRUE.equals(renumbered)) {
+                return;
+            }
+        }
+
+        LOGGER.warn("Gave up rebalancing task positions after {} attempts, tasks kept being written meanwhile",
+                MAX_REBALANCE_ATTEMPTS);
+    }
+
+    /**
+     * Gives all tasks newly reserved positions, in JDBC batches of plain updates so that no entity is loaded. The
+     * positions come from the sequence too, so that tasks created later on any node still come after them.
+     *
+     * @param changeVersion change version of the renumbered tasks
+     *
+     * @return whether all tasks were renumbered, false if one of them was written or deleted meanwhile
+     */
+    private boolean renumberAllTasks(final long changeVersion) {
+        final List<long[]> idsAndVersions = jdbcTemplate.query(
+                SELECT_TASK_VERSIONS_SQL,
+                (resultSet, rowNumber) -> new long[]{resultSet.getLong(1), resultSet.getLong(2)}
+        );
+        final long[] reservedPositions = reserve(idsAndVersions.size());
+
+        for (int from = 0; from < idsAndVersions.size(); from += REBALANCE_CHUNK_SIZE) {
+            final int to = Math.min(from + REBALANCE_CHUNK_SIZE, idsAndVersions.size());
+            final List<Object[]> positions = new ArrayList<>(to - from);
+            for (int index = from; index < to; index++) {
+                final long[] idAndVersion = idsAndVersions.get(index);
+                positions.add(new Object[]{reservedPositions[index], changeVersion, idAndVersion[0], idAndVersion[1]});
+            }
+
+            for (final int renumberedRows : jdbcTemplate.batchUpdate(RENUMBER_TASK_SQL, positions)) {
+                // Some drivers only tell that a statement of the batch succeeded, not how many rows it updated
+                if (renumberedRows == 0) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.blackpantech.todo.infra.jpa;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Source of task change versions reading the database sequence shared by all nodes. The sequence is read on the
+ * connection of the surrounding transaction if there is one, so that the version is taken as late as possible before
+ * the change commits.
+ */
+@Component
+@Profile("!memory")
+public class TaskChangeVersionSequence implements LongSupplier {
+
+    private static final String SEQUENCE_NAME = "task_change_version_seq";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Query reading the next value of the sequence, in the SQL dialect of the database
+     */
+    private final String nextValueQuery;
+
+    public TaskChangeVersionSequence(final JdbcTemplate jdbcTemplate, final EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.nextValueQuery = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect()
+                .getSequenceSupport()
+                .getSequenceNextValString(SEQUENCE_NAME);
+    }
+
+    @Override
+    public long getAsLong() {
+        return jdbcTemplate.queryForObject(nextValueQuery, Long.class);
+    }
+
+}
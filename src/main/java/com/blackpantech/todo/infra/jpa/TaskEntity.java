@@ -3,17 +3,32 @@ package com.blackpantech.todo.infra.jpa;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "TASKS")
+@Table(
+        name = "TASKS",
+        uniqueConstraints = @UniqueConstraint(name = "UK_TASKS_TITLE", columnNames = "TITLE"),
+        indexes = {
+                @Index(name = "IDX_TASKS_ORDER_POSITION_ID", columnList = "ORDER_POSITION, ID"),
+                @Index(name = "IDX_TASKS_COMPLETED_ORDER_POSITION", columnList = "COMPLETED, ORDER_POSITION, ID"),
+                @Index(name = "IDX_TASKS_DUE_DATE_ID", columnList = "DUE_DATE, ID"),
+                @Index(name = "IDX_TASKS_CHANGE_VERSION", columnList = "CHANGE_VERSION")
+        }
+)
 public class TaskEntity {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "TASKS_ID_GENERATOR")
+    @SequenceGenerator(name = "TASKS_ID_GENERATOR", sequenceName = "task_entity_seq", allocationSize = 50)
     private long id;
 
     @Column(name = "TITLE")
@@ -28,6 +43,13 @@ public class TaskEntity {
     @Column(name = "DUE_DATE")
     private LocalDateTime dueDate;
 
+    @Version
+    @Column(name = "VERSION")
+    private long version;
+
+    @Column(name = "CHANGE_VERSION")
+    private long changeVersion;
+
     public TaskEntity(String title, boolean completed, long orderPosition, LocalDateTime dueDate) {
         this.title = title;
         this.completed = completed;
@@ -75,4 +97,16 @@ public class TaskEntity {
         return id;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public long getChangeVersion() {
+        return changeVersion;
+    }
+
+    public void setChangeVersion(long changeVersion) {
+        this.changeVersion = changeVersion;
+    }
+
 }
@@ -1,20 +1,334 @@
 package com.blackpantech.todo.infra.jpa;
 
+import com.blackpantech.todo.domain.task.TaskChangeVersions;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Transactional(readOnly = true)
-public interface TaskJpaRepository extends JpaRepository<TaskEntity, Long> {
+public interface TaskJpaRepository extends JpaRepository<TaskEntity, Long>, JpaSpecificationExecutor<TaskEntity> {
 
     Optional<TaskEntity> findByTitle(final String title);
 
+    @Query("select task.title from TaskEntity task where task.title in :titles")
+    List<String> findTitlesIn(@Param("titles") final Collection<String> titles);
+
+    @Query("select task.version from TaskEntity task where task.id = :id")
+    Optional<Long> findVersionById(@Param("id") final long id);
+
+    long countByCompletedTrue();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select task.title from TaskEntity task")
+    Stream<String> streamAllTitles();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.blackpantech.todo.infra.jpa.TaskTitle(task.id, task.title) from TaskEntity task")
+    Stream<TaskTitle> streamAllIdsAndTitles();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            select new com.blackpantech.todo.infra.jpa.TaskTitle(task.id, task.title) from TaskEntity task
+            where task.changeVersion > :since and task.changeVersion <= :upTo
+            """)
+    Stream<TaskTitle> streamTitlesChangedBetween(@Param("since") final long since, @Param("upTo") final long upTo);
+
+    @Query(value = "select POSITION from TASK_ORDER_BASE where ID = 1", nativeQuery = true)
+    long findOrderPositionBase();
+
+    @Query("select coalesce(max(task.id), 0) from TaskEntity task")
+    long findMaxId();
+
+    @Query("""
+            select task.id from TaskEntity task
+            where task.id > :afterId and task.id <= :maxId
+            order by task.id
+            """)
+    List<Long> findIdsAfter(@Param("afterId") final long afterId,
+                            @Param("maxId") final long maxId,
+                            final Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select task from TaskEntity task where task.id = :id")
+    Optional<TaskEntity> findByIdForUpdate(@Param("id") final long id);
+
+    List<TaskEntity> findAllByOrderByOrderPositionAscIdAsc(final Pageable pageable);
+
+    @Query("""
+            select task from TaskEntity task
+            where task.orderPosition >= :orderPosition
+              and (task.orderPosition > :orderPosition or task.id > :id)
+            order by task.orderPosition, task.id
+            """)
+    List<TaskEntity> findAllAfter(@Param("orderPosition") final long orderPosition,
+                                  @Param("id") final long id,
+                                  final Pageable pageable);
+
+    @Query("""
+            select task.orderPosition from TaskEntity task
+            where task.orderPosition <= :orderPosition
+              and (task.orderPosition < :orderPosition or task.id < :id)
+              and task.id <> :movedId
+            order by task.orderPosition desc, task.id desc
+            """)
+    List<Long> findOrderPositionsBefore(@Param("orderPosition") final long orderPosition,
+                                        @Param("id") final long id,
+                                        @Param("movedId") final long movedId,
+                                        final Pageable pageable);
+
+    @Query("""
+            select task.orderPosition from TaskEntity task
+            where task.orderPosition >= :orderPosition
+              and (task.orderPosition > :orderPosition or task.id > :id)
+              and task.id <> :movedId
+            order by task.orderPosition, task.id
+            """)
+    List<Long> findOrderPositionsAfter(@Param("orderPosition") final long orderPosition,
+                                       @Param("id") final long id,
+                                       @Param("movedId") final long movedId,
+                                       final Pageable pageable);
+
+    @Query("""
+            select task from TaskEntity task
+            where task.changeVersion > :since
+            order by task.changeVersion, task.id
+            """)
+    List<TaskEntity> findAllChangedSince(@Param("since") final long since, final Pageable pageable);
+
+    List<TaskEntity> findAllByChangeVersionOrderById(final long changeVersion);
+
+    @Query(value = """
+            select distinct TASK_ID from TASK_TOMBSTONES
+            where CHANGE_VERSION > :since and CHANGE_VERSION <= :upTo
+            """, nativeQuery = true)
+    List<Long> findIdsDeletedBetween(@Param("since") final long since, @Param("upTo") final long upTo);
+
+    @Query(value = "select VERSION from TASK_CHANGE_HORIZON where ID = 1", nativeQuery = true)
+    long findChangeHorizon();
+
+    @Query(value = """
+            select greatest(
+                (select coalesce(max(CHANGE_VERSION), 0) from TASKS),
+                (select coalesce(max(CHANGE_VERSION), 0) from TASK_TOMBSTONES),
+                (select VERSION from TASK_CHANGE_HORIZON where ID = 1)
+            )
+            """, nativeQuery = true)
+    long findTasksVersion();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select task from TaskEntity task order by task.orderPosition, task.id")
+    Stream<TaskEntity> streamAllSortedByOrderPosition();
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update TaskEntity task
+            set task.title = coalesce(:title, task.title),
+                task.completed = coalesce(:completed, task.completed),
+                task.orderPosition = coalesce(:orderPosition, task.orderPosition),
+                task.dueDate = case when :dueDatePatched = true then :dueDate else task.dueDate end,
+                task.version = task.version + 1,
+                task.changeVersion = :changeVersion
+            where task.id = :id
+            """)
+    int patchTask(@Param("id") final long id,
+                  @Param("title") final String title,
+                  @Param("completed") final Boolean completed,
+                  @Param("orderPosition") final Long orderPosition,
+                  @Param("dueDatePatched") final boolean dueDatePatched,
+                  @Param("dueDate") final LocalDateTime dueDate,
+                  @Param("changeVersion") final long changeVersion);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update TaskEntity task
+            set task.title = coalesce(:title, task.title),
+                task.completed = coalesce(:completed, task.completed),
+                task.orderPosition = coalesce(:orderPosition, task.orderPosition),
+                task.dueDate = case when :dueDatePatched = true then :dueDate else task.dueDate end,
+                task.version = task.version + 1,
+                task.changeVersion = :changeVersion
+            where task.id = :id
+              and task.version = :expectedVersion
+            """)
+    int patchTaskIfVersion(@Param("id") final long id,
+                           @Param("expectedVersion") final long expectedVersion,
+                           @Param("title") final String title,
+                           @Param("completed") final Boolean completed,
+                           @Param("orderPosition") final Long orderPosition,
+                           @Param("dueDatePatched") final boolean dueDatePatched,
+                           @Param("dueDate") final LocalDateTime dueDate,
+                           @Param("changeVersion") final long changeVersion);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update TaskEntity task
+            set task.completed = coalesce(:completed, task.completed),
+                task.dueDate = task.dueDate + (:dueDateShiftSeconds) second,
+                task.version = task.version + 1,
+                task.changeVersion = :changeVersion
+            where task.id in :ids
+              and (:completedFilter is null or task.completed = :completedFilter)
+              and (:dueFrom is null or task.dueDate >= :dueFrom)
+              and (:dueBefore is null or task.dueDate < :dueBefore)
+            """)
+    int updateTasksByIds(@Param("ids") final Collection<Long> ids,
+                         @Param("completedFilter") final Boolean completedFilter,
+                         @Param("dueFrom") final LocalDateTime dueFrom,
+                         @Param("dueBefore") final LocalDateTime dueBefore,
+                         @Param("completed") final Boolean completed,
+                         @Param("dueDateShiftSeconds") final long dueDateShiftSeconds,
+                         @Param("changeVersion") final long changeVersion);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update TaskEntity task
+            set task.completed = coalesce(:completed, task.completed),
+                task.dueDate = task.dueDate + (:dueDateShiftSeconds) second,
+                task.version = task.version + 1,
+                task.changeVersion = :changeVersion
+            where (:completedFilter is null or task.completed = :completedFilter)
+              and (:dueFrom is null or task.dueDate >= :dueFrom)
+              and (:dueBefore is null or task.dueDate < :dueBefore)
+            """)
+    int updateTasksMatching(@Param("completedFilter") final Boolean completedFilter,
+                            @Param("dueFrom") final LocalDateTime dueFrom,
+                            @Param("dueBefore") final LocalDateTime dueBefore,
+                            @Param("completed") final Boolean completed,
+                            @Param("dueDateShiftSeconds") final long dueDateShiftSeconds,
+                            @Param("changeVersion") final long changeVersion);
+
     @Transactional
     @Modifying(flushAutomatically = true)
     @Query("delete from TaskEntity task where task.completed = true")
     void deleteAllCompletedTasks();
 
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from TaskEntity task where task.id = :id")
+    int deleteTaskById(@Param("id") final long id);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from TaskEntity task where task.id > :afterId and task.id <= :toId")
+    int deleteAllByIdRange(@Param("afterId") final long afterId, @Param("toId") final long toId);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            insert into TASK_TOMBSTONES (CHANGE_VERSION, TASK_ID, DELETED_AT)
+            values (:changeVersion, :id, :deletedAt)
+            """, nativeQuery = true)
+    void insertTombstone(@Param("id") final long id,
+                         @Param("changeVersion") final long changeVersion,
+                         @Param("deletedAt") final LocalDateTime deletedAt);
+
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            insert into TASK_TOMBSTONES (CHANGE_VERSION, TASK_ID, DELETED_AT)
+            select :changeVersion, ID, :deletedAt from TASKS where COMPLETED = true
+            """, nativeQuery = true)
+    void insertTombstonesOfCompletedTasks(@Param("changeVersion") final long changeVersion,
+                                          @Param("deletedAt") final LocalDateTime deletedAt);
+
+    @Transactional
+    @Modifying
+    @Query(value = "update TASK_CHANGE_HORIZON set VERSION = greatest(VERSION, :version) where ID = 1",
+            nativeQuery = true)
+    void raiseChangeHorizon(@Param("version") final long version);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            update TASK_CHANGE_HORIZON
+            set VERSION = greatest(VERSION, (
+                select coalesce(max(CHANGE_VERSION), 0) from TASK_TOMBSTONES where DELETED_AT < :cutoff
+            ))
+            where ID = 1
+            """, nativeQuery = true)
+    void raiseChangeHorizonToTombstonesBefore(@Param("cutoff") final LocalDateTime cutoff);
+
+    @Transactional
+    @Modifying
+    @Query(value = "delete from TASK_TOMBSTONES where DELETED_AT < :cutoff", nativeQuery = true)
+    int deleteTombstonesBefore(@Param("cutoff") final LocalDateTime cutoff);
+
+    /**
+     * Deletes a task, leaving a tombstone at a change version taken in the same transaction
+     *
+     * @param id ID of the task to delete
+     * @param taskChangeVersions change versions of tasks
+     *
+     * @return number of deleted tasks
+     */
+    @Transactional
+    default int deleteTaskById(final long id, final TaskChangeVersions taskChangeVersions) {
+        final int deletedTasks = deleteTaskById(id);
+        if (deletedTasks > 0) {
+            insertTombstone(id, taskChangeVersions.next(), taskChangeVersions.now());
+        }
+
+        return deletedTasks;
+    }
+
+    /**
+     * Deletes all completed tasks, leaving tombstones at a change version taken in the same transaction. Both
+     * statements read the same snapshot, so that a task completed meanwhile is either deleted with its tombstone or
+     * kept. On Postgres, the transaction fails on a serialization failure instead if such a task is written meanwhile.
+     *
+     * @param taskChangeVersions change versions of tasks
+     */
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    default void deleteAllCompletedTasks(final TaskChangeVersions taskChangeVersions) {
+        insertTombstonesOfCompletedTasks(taskChangeVersions.next(), taskChangeVersions.now());
+        deleteAllCompletedTasks();
+    }
+
+    /**
+     * Deletes all tasks without leaving tombstones, raising the change horizon past the deletion instead, so that
+     * clients read all tasks again
+     *
+     * @param taskChangeVersions change versions of tasks
+     */
+    @Transactional
+    default void deleteAllTasks(final TaskChangeVersions taskChangeVersions) {
+        deleteAllInBatch();
+        raiseChangeHorizon(taskChangeVersions.next());
+    }
+
+    /**
+     * Compacts the tombstones of tasks deleted before a time, raising the change horizon to the last of them, so that
+     * clients reading from before it read all tasks again
+     *
+     * @param cutoff time before which tombstones are compacted
+     */
+    @Transactional
+    default void compactTombstones(final LocalDateTime cutoff) {
+        raiseChangeHorizonToTombstonesBefore(cutoff);
+        deleteTombstonesBefore(cutoff);
+    }
+
 }
@@ -0,0 +1,47 @@
+package com.blackpantech.todo.infra.jpa;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Source of blocks of task position slots reading the database sequence shared by all nodes. Each value is the last
+ * slot of a block of {@link #SLOTS_PER_BLOCK} slots that no other node is given.
+ */
+@Component
+@Profile("!memory")
+public class TaskOrderSequence implements LongSupplier {
+
+    /**
+     * Number of slots reserved by a single read of the sequence, its increment
+     */
+    public static final int SLOTS_PER_BLOCK = 50;
+
+    private static final String SEQUENCE_NAME = "task_order_seq";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Query reading the next value of the sequence, in the SQL dialect of the database
+     */
+    private final String nextValueQuery;
+
+    public TaskOrderSequence(final JdbcTemplate jdbcTemplate, final EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.nextValueQuery = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect()
+                .getSequenceSupport()
+                .getSequenceNextValString(SEQUENCE_NAME);
+    }
+
+    @Override
+    public long getAsLong() {
+        return jdbcTemplate.queryForObject(nextValueQuery, Long.class);
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.blackpantech.todo.infra.jpa;
+
+import com.blackpantech.todo.domain.task.TaskFilter;
+import com.blackpantech.todo.domain.task.TaskSort;
+import jakarta.persistence.criteria.Predicate;
+import org.hibernate.query.NullPrecedence;
+import org.hibernate.query.SortDirection;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaExpression;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds task queries from domain filters and sort orders. Only the given criteria end up in the WHERE clause, so
+ * that the database can pick the index of each combination, which optional parameters in a single static query would
+ * prevent.
+ */
+final class TaskSpecifications {
+
+    private TaskSpecifications() {
+        // Utility class
+    }
+
+    /**
+     * Gets the specification of tasks matching a filter
+     *
+     * @param taskFilter filter on tasks
+     *
+     * @return specification of matching tasks
+     */
+    static Specification<TaskEntity> matching(final TaskFilter taskFilter) {
+        return (task, query, criteriaBuilder) -> {
+            final List<Predicate> predicates = new ArrayList<>(4);
+
+            if (taskFilter.ids() != null) {
+                predicates.add(task.get("id").in(taskFilter.ids()));
+            }
+            if (taskFilter.completed() != null) {
+                predicates.add(criteriaBuilder.equal(task.get("completed"), taskFilter.completed()));
+            }
+            if (taskFilter.dueFrom() != null) {
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(task.get("dueDate"), taskFilter.dueFrom()));
+            }
+            if (taskFilter.dueBefore() != null) {
+                predicates.add(criteriaBuilder.lessThan(task.get("dueDate"), taskFilter.dueBefore()));
+            }
+
+            return criteriaBuilder.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * Gets the specification sorting tasks in a given order, matching the columns of an index. The order is set on
+     * the query rather than given as a Sort, as Spring Data rejects null precedences in criteria queries.
+     *
+     * @param taskSort sort order of tasks
+     *
+     * @return specification ordering task entities, matching all of them
+     */
+    static Specification<TaskEntity> sortedBy(final TaskSort taskSort) {
+        return (task, query, criteriaBuilder) -> {
+            final HibernateCriteriaBuilder hibernateCriteriaBuilder = (HibernateCriteriaBuilder) criteriaBuilder;
+
+            query.orderBy(switch (taskSort) {
+                case ORDER -> List.of(
+                        criteriaBuilder.asc(task.get("orderPosition")),
+                        criteriaBuilder.asc(task.get("id"))
+                );
+                case DUE_DATE -> List.of(
+                        hibernateCriteriaBuilder.sort(
+                                (JpaExpression<?>) task.get("dueDate"), SortDirection.ASCENDING, NullPrecedence.LAST
+                        ),
+                        criteriaBuilder.asc(task.get("id"))
+                );
+                case TITLE -> List.of(criteriaBuilder.asc(task.get("title")));
+            });
+
+            return null;
+        };
+    }
+
+}
@@ -0,0 +1,11 @@
+package com.blackpantech.todo.infra.jpa;
+
+/**
+ * ID and title of a stored task, read without loading the whole entity
+ *
+ * @param id ID of the task
+ * @param title title of the task
+ */
+public record TaskTitle(long id, String title) {
+
+}
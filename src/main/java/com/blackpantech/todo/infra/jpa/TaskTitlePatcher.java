@@ -0,0 +1,120 @@
+package com.blackpantech.todo.infra.jpa;
+
+import com.blackpantech.todo.domain.task.TaskPatch;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.stereotype.Component;
+
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Patches a task whose title changes with a single UPDATE statement giving back the title it replaced, so that the
+ * title filter can forget it without reading the task beforehand. The statement only locks the patched row, as any
+ * UPDATE does.
+ */
+@Component
+@Profile("!memory")
+public class TaskTitlePatcher {
+
+    private static final String SET_PATCH = "TITLE = ?, COMPLETED = coalesce(?, COMPLETED), "
+            + "ORDER_POSITION = coalesce(?, ORDER_POSITION), DUE_DATE = case when ? then ? else DUE_DATE end, "
+            + "VERSION = VERSION + 1, CHANGE_VERSION = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Patch statement returning the replaced title, in the SQL dialect of the database
+     */
+    private final String patchSql;
+
+    /**
+     * Patch statement returning the replaced title, only if the task is at an expected version, in the SQL dialect of
+     * the database
+     */
+    private final String patchIfVersionSql;
+
+    public TaskTitlePatcher(final JdbcTemplate jdbcTemplate, final EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+
+        if (entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect()
+                instanceof PostgreSQLDialect) {
+            // RETURNING only gives new values: the previous row is joined, locked as the update would lock it anyway
+            final String update = "update TASKS task set " + SET_PATCH
+                    + " from (select ID, TITLE from TASKS where ID = ? for no key update) previous"
+                    + " where task.ID = previous.ID";
+            this.patchSql = update + " returning previous.TITLE";
+            this.patchIfVersionSql = update + " and task.VERSION = ? returning previous.TITLE";
+        } else {
+            this.patchSql = "select TITLE from OLD TABLE (update TASKS set " + SET_PATCH + " where ID = ?)";
+            this.patchIfVersionSql =
+                    "select TITLE from OLD TABLE (update TASKS set " + SET_PATCH + " where ID = ? and VERSION = ?)";
+        }
+    }
+
+    /**
+     * Patches a task, title included
+     *
+     * @param id ID of the task to patch
+     * @param taskPatch patch to apply, with a title
+     * @param changeVersion change version of the patched task
+     *
+     * @return title of the task before the patch, or nothing if no task with given ID was found
+     */
+    public Optional<String> patch(final long id, final TaskPatch taskPatch, final long changeVersion) {
+        return query(patchSql, taskPatch, changeVersion, id);
+    }
+
+    /**
+     * Patches a task, title included, only if it is still at the expected version
+     *
+     * @param id ID of the task to patch
+     * @param expectedVersion version the task must be at
+     * @param taskPatch patch to apply, with a title
+     * @param changeVersion change version of the patched task
+     *
+     * @return title of the task before the patch, or nothing if no task with given ID was found at that version
+     */
+    public Optional<String> patchIfVersion(final long id,
+                                           final long expectedVersion,
+                                           final TaskPatch taskPatch,
+                                           final long changeVersion) {
+        return query(patchIfVersionSql, taskPatch, changeVersion, id, expectedVersion);
+    }
+
+    /**
+     * Runs a patch statement
+     *
+     * @param sql patch statement
+     * @param taskPatch patch to apply
+     * @param changeVersion change version of the patched task
+     * @param conditions values of the WHERE clause
+     *
+     * @return title of the task before the patch, or nothing if no task was patched
+     */
+    private Optional<String> query(final String sql,
+                                   final TaskPatch taskPatch,
+                                   final long changeVersion,
+                                   final Object... conditions) {
+        final Object[] patchValues = {
+                new SqlParameterValue(Types.VARCHAR, taskPatch.title()),
+                new SqlParameterValue(Types.BOOLEAN, taskPatch.completed()),
+                new SqlParameterValue(Types.BIGINT, taskPatch.order()),
+                taskPatch.dueDatePatched(),
+                new SqlParameterValue(Types.TIMESTAMP, taskPatch.dueDate()),
+                changeVersion
+        };
+        final Object[] values = Arrays.copyOf(patchValues, patchValues.length + conditions.length);
+        System.arraycopy(conditions, 0, values, patchValues.length, conditions.length);
+
+        return Optional.ofNullable(
+                jdbcTemplate.query(sql, resultSet -> resultSet.next() ? resultSet.getString(1) : null, values)
+        );
+    }
+
+}
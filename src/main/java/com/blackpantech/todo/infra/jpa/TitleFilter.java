@@ -0,0 +1,37 @@
+package com.blackpantech.todo.infra.jpa;
+
+/**
+ * Probabilistic set of the task titles stored in database, used to skip the duplicate title query when a title is
+ * definitely new. It may answer that a title might exist when it does not, never the opposite.
+ */
+public interface TitleFilter {
+
+    /**
+     * Tells whether given title might be taken
+     *
+     * @param title title to look for
+     *
+     * @return false if the title is definitely not taken, true if it might be
+     */
+    boolean mightContain(final String title);
+
+    /**
+     * Adds a taken title
+     *
+     * @param title title of a stored task
+     */
+    void add(final String title);
+
+    /**
+     * Removes a title which is not taken anymore
+     *
+     * @param title title of a deleted or renamed task
+     */
+    void remove(final String title);
+
+    /**
+     * Removes all titles
+     */
+    void clear();
+
+}
@@ -0,0 +1,752 @@
+package com.blackpantech.todo.infra.jpa;
+
+import com.blackpantech.todo.domain.task.TaskChangeVersions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index of task titles by trigram, answering substring searches without scanning the table.
+ * <p>
+ * Each title is lower-cased and held under a document number. Each trigram of a title maps to a posting list, a sorted
+ * array of document numbers. A search intersects the posting lists of the trigrams of the query, then checks the
+ * remaining titles really contain it. Queries shorter than a trigram find nothing, rather than scanning all titles.
+ * <p>
+ * It is rebuilt from database at startup, and updated right away by the writes of the JPA repository on this node.
+ * Every refresh interval, it also reads the titles changed and the tasks deleted since its last refresh by change
+ * version, so that it catches up with the writes of other nodes; it is rebuilt instead once the tombstones it would
+ * need were compacted. Until then, and whenever a refresh applies a row read before a later local write, a search may
+ * miss a task: searches read the found tasks from database, so that the index never returns a deleted task or a stale
+ * title, and search again once such entries are dropped.
+ */
+@Component
+@Profile("!memory")
+public class TrigramTitleIndex implements AutoCloseable {
+
+    /**
+     * Length of the shortest query the index finds tasks for
+     */
+    public static final int GRAM_LENGTH = 3;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TrigramTitleIndex.class);
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final int[] NO_DOCUMENTS = new int[0];
+
+    private final TaskJpaRepository taskJpaRepository;
+
+    private final TaskChangeVersions taskChangeVersions;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Duration refreshInterval;
+
+    /**
+     * Lets a single rebuild or refresh run at once, and guards the indexed version
+     */
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    /**
+     * Change version from which the next refresh reads the writes of all nodes
+     */
+    private long indexedVersion;
+
+    private ScheduledExecutorService executorService;
+
+    /**
+     * Guards all fields below: shared by searches, exclusive to the writes of tasks and the rebuild
+     */
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Task ID of each document number
+     */
+    private long[] taskIds = new long[INITIAL_CAPACITY];
+
+    /**
+     * Lower-cased title of each document number, or null once the document number is free
+     */
+    private String[] titles = new String[INITIAL_CAPACITY];
+
+    /**
+     * Number of document numbers in use or freed, the next new document number
+     */
+    private int documentCount;
+
+    /**
+     * Stack of freed document numbers, reused before new ones
+     */
+    private int[] freeDocuments = new int[INITIAL_CAPACITY];
+
+    private int freeDocumentCount;
+
+    private final LongIntHashMap documentsByTaskId = new LongIntHashMap();
+
+    private final LongIntHashMap postingListsByTrigram = new LongIntHashMap();
+
+    /**
+     * Sorted document numbers of each posting list, followed by unused capacity
+     */
+    private int[][] postingLists = new int[INITIAL_CAPACITY][];
+
+    private int[] postingListSizes = new int[INITIAL_CAPACITY];
+
+    private int postingListCount;
+
+    /**
+     * IDs of the tasks written while rebuilding, whose rows read before the write must not overwrite them, or null when
+     * not rebuilding
+     */
+    private Set<Long> writtenWhileRebuilding;
+
+    public TrigramTitleIndex(final TaskJpaRepository taskJpaRepository,
+                             final TaskChangeVersions taskChangeVersions,
+                             final PlatformTransactionManager transactionManager,
+                             @Value("${todo.search.refresh-interval:5s}") final Duration refreshInterval) {
+        this.taskJpaRepository = taskJpaRepository;
+        this.taskChangeVersions = taskChangeVersions;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.refreshInterval = refreshInterval;
+    }
+
+    /**
+     * Rebuilds the index, then starts refreshing it every refresh interval, on a single platform thread
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        rebuild();
+
+        executorService = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("task-title-index").daemon().factory()
+        );
+        executorService.scheduleWithFixedDelay(
+                this::refreshSafely, refreshInterval.toMillis(), refreshInterval.toMillis(), TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * Stops refreshing periodically
+     */
+    @Override
+    public void close() {
+        if (executorService != null) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Rebuilds the index from the titles stored in database. Writes go on meanwhile, and take precedence over the rows
+     * read before them.
+     */
+    public void rebuild() {
+        refreshLock.lock();
+        try {
+            transactionTemplate.executeWithoutResult(status -> rebuildFromDatabase());
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Applies the titles changed and the tasks deleted on any node since the last refresh, or rebuilds the index if
+     * the tombstones of tasks deleted since were compacted
+     */
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                final long since = indexedVersion;
+                // Taken before reading, so that changes written during the read are read again at the next refresh
+                final long current = taskChangeVersions.current(taskJpaRepository.findTasksVersion());
+
+                if (since < taskJpaRepository.findChangeHorizon()) {
+                    rebuildFromDatabase();
+                    return;
+                }
+
+                try (final Stream<TaskTitle> changedTitles =
+                             taskJpaRepository.streamTitlesChangedBetween(since, current)) {
+                    changedTitles.forEach(taskTitle -> put(taskTitle.id(), taskTitle.title()));
+                }
+                taskJpaRepository.findIdsDeletedBetween(since, current).forEach(this::remove);
+
+                indexedVersion = taskChangeVersions.resumeVersion(since, current);
+            });
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the index within the current transaction, and sets the version the next refresh reads from
+     */
+    private void rebuildFromDatabase() {
+        final long current = taskChangeVersions.current(taskJpaRepository.findTasksVersion());
+
+        lock.writeLock().lock();
+        try {
+            clearDocuments();
+            writtenWhileRebuilding = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try (final Stream<TaskTitle> taskTitles = taskJpaRepository.streamAllIdsAndTitles()) {
+            taskTitles.forEach(taskTitle -> {
+                lock.writeLock().lock();
+                try {
+                    if (!writtenWhileRebuilding.contains(taskTitle.id())) {
+                        putDocument(taskTitle.id(), taskTitle.title());
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            });
+        } finally {
+            lock.writeLock().lock();
+            try {
+                writtenWhileRebuilding = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        indexedVersion = taskChangeVersions.resumeVersion(0L, current);
+    }
+
+    /**
+     * Refreshes periodically, logging a failure so that the next refreshes still happen
+     */
+    private void refreshSafely() {
+        try {
+            refresh();
+        } catch (final RuntimeException exception) {
+            LOGGER.warn("Task title index refresh failed", exception);
+        }
+    }
+
+    /**
+     * Adds the title of a task, replacing its previous title if any
+     *
+     * @param taskId ID of the task
+     * @param title current title of the task
+     */
+    public void put(final long taskId, final String title) {
+        lock.writeLock().lock();
+        try {
+            if (writtenWhileRebuilding != null) {
+                writtenWhileRebuilding.add(taskId);
+            }
+            putDocument(taskId, title);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the title of a task
+     *
+     * @param taskId ID of the deleted task
+     */
+    public void remove(final long taskId) {
+        lock.writeLock().lock();
+        try {
+            if (writtenWhileRebuilding != null) {
+                writtenWhileRebuilding.add(taskId);
+            }
+            removeDocument(taskId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes all titles
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            clearDocuments();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Searches the tasks whose title contains the query, ignoring case. Titles starting with the query come first,
+     * then shorter titles, then older tasks.
+     *
+     * @param query text to look for
+     * @param limit maximum number of task IDs to return
+     *
+     * @return IDs of the best matching tasks, best first, none if the query is shorter than a trigram
+     */
+    public List<Long> search(final String query, final int limit) {
+        final String lowerCaseQuery = query.toLowerCase(Locale.ROOT);
+        if (lowerCaseQuery.length() < GRAM_LENGTH) {
+            return List.of();
+        }
+        final Comparator<Integer> ranking = ranking(lowerCaseQuery);
+
+        lock.readLock().lock();
+        try {
+            // Worst kept match on top, replaced as soon as a better match is found
+            final PriorityQueue<Integer> bestMatches = new PriorityQueue<>(limit + 1, ranking.reversed());
+            for (final int document : intersectPostingLists(lowerCaseQuery)) {
+                if (titles[document] != null
+                        && titles[document].contains(lowerCaseQuery)
+                        && (bestMatches.size() < limit || ranking.compare(document, bestMatches.peek()) < 0)) {
+                    bestMatches.add(document);
+                    if (bestMatches.size() > limit) {
+                        bestMatches.poll();
+                    }
+                }
+            }
+
+            final List<Integer> matches = new ArrayList<>(bestMatches);
+            matches.sort(ranking);
+
+            return matches.stream().map(document -> taskIds[document]).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of indexed titles
+     *
+     * @return number of titles
+     */
+    int size() {
+        lock.readLock().lock();
+        try {
+            return documentsByTaskId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Orders matching documents: titles starting with the query first, then shorter titles, then older tasks
+     *
+     * @param lowerCaseQuery lower-cased query
+     *
+     * @return comparator of document numbers, best first
+     */
+    private Comparator<Integer> ranking(final String lowerCaseQuery) {
+        return (document, otherDocument) -> {
+            final String title = titles[document];
+            final String otherTitle = titles[otherDocument];
+
+            int comparison = Boolean.compare(
+                    !title.startsWith(lowerCaseQuery),
+                    !otherTitle.startsWith(lowerCaseQuery)
+            );
+            if (comparison == 0) {
+                comparison = Integer.compare(title.length(), otherTitle.length());
+            }
+
+            return comparison != 0 ? comparison : Long.compare(taskIds[document], taskIds[otherDocument]);
+        };
+    }
+
+    /**
+     * Gets the documents holding all trigrams of a query, smallest posting lists first so that the candidates shrink
+     * fast
+     *
+     * @param lowerCaseQuery lower-cased query, at least a trigram long
+     *
+     * @return sorted candidate document numbers
+     */
+    private int[] intersectPostingLists(final String lowerCaseQuery) {
+        final long[] trigrams = trigrams(lowerCaseQuery);
+        final int[] postingListIndexes = new int[trigrams.length];
+
+        for (int i = 0; i < trigrams.length; i++) {
+            postingListIndexes[i] = postingListsByTrigram.get(trigrams[i]);
+            if (postingListIndexes[i] < 0 || postingListSizes[postingListIndexes[i]] == 0) {
+                return NO_DOCUMENTS;
+            }
+        }
+
+        final int[] sortedIndexes = Arrays.stream(postingListIndexes)
+                .boxed()
+                .sorted(Comparator.comparingInt(index -> postingListSizes[index]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        int[] candidates = Arrays.copyOf(postingLists[sortedIndexes[0]], postingListSizes[sortedIndexes[0]]);
+        for (int i = 1; i < sortedIndexes.length && candidates.length > 0; i++) {
+            candidates = intersect(candidates, postingLists[sortedIndexes[i]], postingListSizes[sortedIndexes[i]]);
+        }
+
+        return candidates;
+    }
+
+    /**
+     * Keeps the candidates found in a posting list. Both are sorted, so the posting list is searched forward only, by
+     * galloping: linear when both are alike, logarithmic in the gaps when the posting list is much longer.
+     *
+     * @param candidates sorted document numbers, overwritten
+     * @param postingList sorted document numbers
+     * @param postingListSize number of document numbers in the posting list
+     *
+     * @return sorted document numbers found in both
+     */
+    private static int[] intersect(final int[] candidates, final int[] postingList, final int postingListSize) {
+        int kept = 0;
+        int low = 0;
+
+        for (int i = 0; i < candidates.length && low < postingListSize; i++) {
+            final int candidate = candidates[i];
+
+            int step = 1;
+            int high = low;
+            while (high < postingListSize && postingList[high] < candidate) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+
+            final int position = Arrays.binarySearch(postingList, low, Math.min(high + 1, postingListSize), candidate);
+            if (position >= 0) {
+                candidates[kept++] = candidate;
+                low = position + 1;
+            } else {
+                low = -position - 1;
+            }
+        }
+
+        return Arrays.copyOf(candidates, kept);
+    }
+
+    /**
+     * Adds or replaces the document of a task
+     *
+     * @param taskId ID of the task
+     * @param title title of the task
+     */
+    private void putDocument(final long taskId, final String title) {
+        removeDocument(taskId);
+
+        final int document = freeDocumentCount > 0 ? freeDocuments[--freeDocumentCount] : newDocument();
+        final String lowerCaseTitle = title.toLowerCase(Locale.ROOT);
+        taskIds[document] = taskId;
+        titles[document] = lowerCaseTitle;
+        documentsByTaskId.put(taskId, document);
+
+        for (final long trigram : trigrams(lowerCaseTitle)) {
+            int postingListIndex = postingListsByTrigram.get(trigram);
+            if (postingListIndex < 0) {
+                postingListIndex = newPostingList();
+                postingListsByTrigram.put(trigram, postingListIndex);
+            }
+            addToPostingList(postingListIndex, document);
+        }
+    }
+
+    /**
+     * Removes the document of a task, if any, and frees its document number
+     *
+     * @param taskId ID of the task
+     */
+    private void removeDocument(final long taskId) {
+        final int document = documentsByTaskId.remove(taskId);
+        if (document < 0) {
+            return;
+        }
+
+        for (final long trigram : trigrams(titles[document])) {
+            removeFromPostingList(postingListsByTrigram.get(trigram), document);
+        }
+        titles[document] = null;
+
+        if (freeDocumentCount == freeDocuments.length) {
+            freeDocuments = Arrays.copyOf(freeDocuments, freeDocuments.length * 2);
+        }
+        freeDocuments[freeDocumentCount++] = document;
+    }
+
+    /**
+     * Removes all documents and posting lists
+     */
+    private void clearDocuments() {
+        taskIds = new long[INITIAL_CAPACITY];
+        titles = new String[INITIAL_CAPACITY];
+        documentCount = 0;
+        freeDocuments = new int[INITIAL_CAPACITY];
+        freeDocumentCount = 0;
+        documentsByTaskId.clear();
+        postingListsByTrigram.clear();
+        postingLists = new int[INITIAL_CAPACITY][];
+        postingListSizes = new int[INITIAL_CAPACITY];
+        postingListCount = 0;
+    }
+
+    /**
+     * Allocates a new document number, growing the document arrays if needed
+     *
+     * @return new document number
+     */
+    private int newDocument() {
+        if (documentCount == taskIds.length) {
+            taskIds = Arrays.copyOf(taskIds, taskIds.length * 2);
+            titles = Arrays.copyOf(titles, titles.length * 2);
+        }
+
+        return documentCount++;
+    }
+
+    /**
+     * Allocates a new empty posting list, growing the posting list arrays if needed
+     *
+     * @return index of the new posting list
+     */
+    private int newPostingList() {
+        if (postingListCount == postingLists.length) {
+            postingLists = Arrays.copyOf(postingLists, postingLists.length * 2);
+            postingListSizes = Arrays.copyOf(postingListSizes, postingListSizes.length * 2);
+        }
+        postingLists[postingListCount] = new int[4];
+
+        return postingListCount++;
+    }
+
+    /**
+     * Inserts a document number in a posting list, keeping it sorted. New document numbers are the highest, so that
+     * they are usually appended.
+     *
+     * @param postingListIndex index of the posting list
+     * @param document document number to insert
+     */
+    private void addToPostingList(final int postingListIndex, final int document) {
+        int[] postingList = postingLists[postingListIndex];
+        final int size = postingListSizes[postingListIndex];
+
+        final int position = size > 0 && postingList[size - 1] < document
+                ? size
+                : Arrays.binarySearch(postingList, 0, size, document);
+        if (position >= 0 && position < size) {
+            // Already indexed
+            return;
+        }
+        final int insertionPoint = position >= 0 ? position : -position - 1;
+
+        if (size == postingList.length) {
+            postingList = Arrays.copyOf(postingList, size + (size >> 1) + 1);
+            postingLists[postingListIndex] = postingList;
+        }
+        System.arraycopy(postingList, insertionPoint, postingList, insertionPoint + 1, size - insertionPoint);
+        postingList[insertionPoint] = document;
+        postingListSizes[postingListIndex] = size + 1;
+    }
+
+    /**
+     * Removes a document number from a posting list
+     *
+     * @param postingListIndex index of the posting list
+     * @param document document number to remove
+     */
+    private void removeFromPostingList(final int postingListIndex, final int document) {
+        final int[] postingList = postingLists[postingListIndex];
+        final int size = postingListSizes[postingListIndex];
+
+        final int position = Arrays.binarySearch(postingList, 0, size, document);
+        if (position < 0) {
+            return;
+        }
+
+        System.arraycopy(postingList, position + 1, postingList, position, size - position - 1);
+        postingListSizes[postingListIndex] = size - 1;
+    }
+
+    /**
+     * Gets the distinct trigrams of a text, each packed in a long as three 16-bit characters
+     *
+     * @param text lower-cased text
+     *
+     * @return packed trigrams, none if the text is shorter than a trigram
+     */
+    private static long[] trigrams(final String text) {
+        final int count = Math.max(0, text.length() - GRAM_LENGTH + 1);
+        final long[] trigrams = new long[count];
+
+        for (int i = 0; i < count; i++) {
+            trigrams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+
+        return Arrays.stream(trigrams).distinct().toArray();
+    }
+
+    /**
+     * Open addressing hash map from non-negative long keys to non-negative int values, with linear probing, so that
+     * neither keys nor values are boxed
+     */
+    private static final class LongIntHashMap {
+
+        private static final long EMPTY = -1L;
+
+        private static final int MISSING = -1;
+
+        private long[] keys;
+
+        private int[] values;
+
+        private int size;
+
+        private LongIntHashMap() {
+            clear();
+        }
+
+        /**
+         * Gets the value of a key
+         *
+         * @param key key to look for
+         *
+         * @return value of the key, or -1 if missing
+         */
+        private int get(final long key) {
+            for (int slot = slot(key); keys[slot] != EMPTY; slot = (slot + 1) & (keys.length - 1)) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+            }
+
+            return MISSING;
+        }
+
+        /**
+         * Sets the value of a key
+         *
+         * @param key key to set
+         * @param value value to set
+         */
+        private void put(final long key, final int value) {
+            if ((size + 1) * 4L > keys.length * 3L) {
+                resize(keys.length * 2);
+            }
+
+            int slot = slot(key);
+            while (keys[slot] != EMPTY && keys[slot] != key) {
+                slot = (slot + 1) & (keys.length - 1);
+            }
+            if (keys[slot] == EMPTY) {
+                size++;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        /**
+         * Removes a key, shifting back the following keys of its probe sequence so that no tombstone is left
+         *
+         * @param key key to remove
+         *
+         * @return removed value, or -1 if missing
+         */
+        private int remove(final long key) {
+            final int mask = keys.length - 1;
+            int slot = slot(key);
+            while (keys[slot] != key) {
+                if (keys[slot] == EMPTY) {
+                    return MISSING;
+                }
+                slot = (slot + 1) & mask;
+            }
+            final int removedValue = values[slot];
+
+            int gap = slot;
+            for (int next = (gap + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+                final int home = slot(keys[next]);
+                // Moves the key back unless its home slot lies cyclically after the gap
+                if (((next - home) & mask) >= ((next - gap) & mask)) {
+                    keys[gap] = keys[next];
+                    values[gap] = values[next];
+                    gap = next;
+                }
+            }
+            keys[gap] = EMPTY;
+            size--;
+
+            return removedValue;
+        }
+
+        /**
+         * Gets the number of keys
+         *
+         * @return number of keys
+         */
+        private int size() {
+            return size;
+        }
+
+        /**
+         * Removes all keys
+         */
+        private void clear() {
+            keys = new long[INITIAL_CAPACITY];
+            Arrays.fill(keys, EMPTY);
+            values = new int[INITIAL_CAPACITY];
+            size = 0;
+        }
+
+        /**
+         * Moves all keys to new arrays
+         *
+         * @param capacity new capacity, a power of two
+         */
+        private void resize(final int capacity) {
+            final long[] previousKeys = keys;
+            final int[] previousValues = values;
+            keys = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            values = new int[capacity];
+            size = 0;
+
+            for (int slot = 0; slot < previousKeys.length; slot++) {
+                if (previousKeys[slot] != EMPTY) {
+                    put(previousKeys[slot], previousValues[slot]);
+                }
+            }
+        }
+
+        /**
+         * Gets the home slot of a key, mixing its bits so that sequential IDs spread
+         *
+         * @param key key to place
+         *
+         * @return home slot
+         */
+        private int slot(final long key) {
+            final long mixed = key * 0x9E3779B97F4A7C15L;
+
+            return (int) (mixed ^ (mixed >>> 32)) & (keys.length - 1);
+        }
+
+    }
+
+}
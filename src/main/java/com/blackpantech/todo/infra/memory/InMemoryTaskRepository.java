@@ -0,0 +1,618 @@
+package com.blackpantech.todo.infra.memory;
+
+import com.blackpantech.todo.domain.task.MovePosition;
+import com.blackpantech.todo.domain.task.Task;
+import com.blackpantech.todo.domain.task.TaskBulkUpdate;
+import com.blackpantech.todo.domain.task.TaskChangeVersions;
+import com.blackpantech.todo.domain.task.TaskChanges;
+import com.blackpantech.todo.domain.task.TaskCursor;
+import com.blackpantech.todo.domain.task.TaskEdit;
+import com.blackpantech.todo.domain.task.TaskFilter;
+import com.blackpantech.todo.domain.task.TaskPage;
+import com.blackpantech.todo.domain.task.TaskPatch;
+import com.blackpantech.todo.domain.task.TaskRepository;
+import com.blackpantech.todo.domain.task.TaskSort;
+import com.blackpantech.todo.domain.task.TaskToCreate;
+import com.blackpantech.todo.domain.task.exceptions.DuplicatedTaskTitleException;
+import com.blackpantech.todo.domain.task.exceptions.OrderGapExhaustedException;
+import com.blackpantech.todo.domain.task.exceptions.TaskNotFoundException;
+import com.blackpantech.todo.domain.task.exceptions.TaskVersionMismatchException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory implementation of the task repository, for the 'memory' profile. Tasks and their change versions are
+ * stored in a primitive-keyed {@link TaskTable}, with a hash set of titles to keep them unique and a primitive
+ * {@link TaskOrderIndex} sorted by position in list. Writes are serialised by a lock while reads never block: a read
+ * racing a write sees the task before or after it, and a list read racing an edit that moves a task may miss that
+ * task.
+ */
+public class InMemoryTaskRepository implements TaskRepository {
+
+    /**
+     * Gap between the positions of consecutive new tasks, as allocated by the JPA adapter
+     */
+    private static final long DEFAULT_ORDER_GAP = 1024L;
+
+    /**
+     * Time before a read of changes from which the next read starts again
+     */
+    private static final Duration DEFAULT_CHANGES_OVERLAP = Duration.ofSeconds(5);
+
+    /**
+     * Time for which deleted tasks are kept as tombstones
+     */
+    private static final Duration DEFAULT_TOMBSTONE_RETENTION = Duration.ofDays(30);
+
+    private final TaskTable taskTable = new TaskTable();
+
+    private final Set<String> titles = ConcurrentHashMap.newKeySet();
+
+    private final TaskOrderIndex orderIndex = new TaskOrderIndex();
+
+    /**
+     * Deleted tasks, by change version of their deletion
+     */
+    private final NavigableMap<Long, Tombstone> tombstones = new ConcurrentSkipListMap<>();
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private final long orderGap;
+
+    private final TaskChangeVersions taskChangeVersions;
+
+    private long lastId;
+
+    private long lastOrder;
+
+    private volatile long tasksVersion = System.currentTimeMillis() * 1000;
+
+    /**
+     * Version up to which tombstones are compacted or tasks were deleted without tombstones
+     */
+    private volatile long changeHorizon;
+
+    public InMemoryTaskRepository() {
+        this(DEFAULT_ORDER_GAP);
+    }
+
+    public InMemoryTaskRepository(final long orderGap) {
+        this(orderGap, new TaskChangeVersions(DEFAULT_CHANGES_OVERLAP, DEFAULT_TOMBSTONE_RETENTION));
+    }
+
+    public InMemoryTaskRepository(final long orderGap, final TaskChangeVersions taskChangeVersions) {
+        this.orderGap = orderGap;
+        this.taskChangeVersions = taskChangeVersions;
+    }
+
+    @Override
+    public Task getTask(final long id) throws TaskNotFoundException {
+        return getTaskById(id);
+    }
+
+    @Override
+    public Task createTask(final String title, final LocalDateTime dueDate) throws DuplicatedTaskTitleException {
+        writeLock.lock();
+        try {
+            if (!titles.add(title)) {
+                throw new DuplicatedTaskTitleException(title);
+            }
+
+            final Task createdTask = new Task(++lastId, title, false, lastOrder += orderGap, dueDate, 0L);
+            store(null, createdTask);
+            tasksVersion++;
+
+            return createdTask;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Task> createTasks(final List<TaskToCreate> tasksToCreate) throws DuplicatedTaskTitleException {
+        writeLock.lock();
+        try {
+            final Set<String> distinctTitles = new HashSet<>(tasksToCreate.size());
+            for (final TaskToCreate taskToCreate : tasksToCreate) {
+                if (!distinctTitles.add(taskToCreate.title()) || titles.contains(taskToCreate.title())) {
+                    throw new DuplicatedTaskTitleException(taskToCreate.title());
+                }
+            }
+
+            final List<Task> createdTasks = new ArrayList<>(tasksToCreate.size());
+            for (final TaskToCreate taskToCreate : tasksToCreate) {
+                final Task createdTask =
+                        new Task(++lastId, taskToCreate.title(), false, lastOrder += orderGap, taskToCreate.dueDate(), 0L);
+                titles.add(createdTask.title());
+                store(null, createdTask);
+                createdTasks.add(createdTask);
+            }
+            tasksVersion++;
+
+            return createdTasks;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public Task editTask(final long id,
+                         final String title,
+                         final boolean completed,
+                         final long order,
+                         final LocalDateTime dueDate)
+            throws DuplicatedTaskTitleException, TaskNotFoundException {
+        writeLock.lock();
+        try {
+            final Task taskToEdit = getTaskById(id);
+
+            if (!taskToEdit.title().equals(title)) {
+                if (!titles.add(title)) {
+                    throw new DuplicatedTaskTitleException(title);
+                }
+                titles.remove(taskToEdit.title());
+            }
+
+            final Task editedTask = new Task(id, title, completed, order, dueDate, taskToEdit.version() + 1);
+            store(taskToEdit, editedTask);
+            lastOrder = Math.max(lastOrder, order);
+            tasksVersion++;
+
+            return editedTask;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void patchTask(final long id, final TaskPatch taskPatch)
+            throws DuplicatedTaskTitleException, TaskNotFoundException {
+        writeLock.lock();
+        try {
+            final Task taskToPatch = getTaskById(id);
+
+            editTask(
+                    id,
+                    taskPatch.title() != null ? taskPatch.title() : taskToPatch.title(),
+                    taskPatch.completed() != null ? taskPatch.completed() : taskToPatch.completed(),
+                    taskPatch.order() != null ? taskPatch.order() : taskToPatch.order(),
+                    taskPatch.dueDatePatched() ? taskPatch.dueDate() : taskToPatch.dueDate()
+            );
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void patchTask(final long id, final TaskPatch taskPatch, final long expectedVersion)
+            throws DuplicatedTaskTitleException, TaskNotFoundException, TaskVersionMismatchException {
+        writeLock.lock();
+        try {
+            if (getTaskById(id).version() != expectedVersion) {
+                throw new TaskVersionMismatchException(id, expectedVersion);
+            }
+
+            patchTask(id, taskPatch);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public long updateTasks(final TaskFilter taskFilter, final TaskBulkUpdate taskBulkUpdate) {
+        writeLock.lock();
+        try {
+            final List<Task> tasksToUpdate = taskFilter.ids() != null
+                    ? taskFilter.ids().stream().distinct().map(taskTable::get)
+                            .filter(task -> task != null && taskFilter.matches(task)).toList()
+                    : getAllTasks().stream().filter(taskFilter::matches).toList();
+
+            for (final Task taskToUpdate : tasksToUpdate) {
+                store(taskToUpdate, new Task(
+                        taskToUpdate.id(),
+                        taskToUpdate.title(),
+                        taskBulkUpdate.completed() != null ? taskBulkUpdate.completed() : taskToUpdate.completed(),
+                        taskToUpdate.order(),
+                        taskBulkUpdate.dueDateShift() != null && taskToUpdate.dueDate() != null
+                                ? taskToUpdate.dueDate().plus(taskBulkUpdate.dueDateShift())
+                                : taskToUpdate.dueDate(),
+                        taskToUpdate.version() + 1
+                ));
+            }
+            if (!tasksToUpdate.isEmpty()) {
+                tasksVersion++;
+            }
+
+            return tasksToUpdate.size();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Long> saveTaskEdits(final List<TaskEdit> taskEdits) {
+        writeLock.lock();
+        try {
+            final List<Long> unsavedIds = new ArrayList<>();
+            for (final TaskEdit taskEdit : taskEdits) {
+                final Task taskToEdit = taskTable.get(taskEdit.id());
+                if (taskToEdit == null || taskToEdit.version() != taskEdit.fromVersion()) {
+                    unsavedIds.add(taskEdit.id());
+                    continue;
+                }
+
+                store(taskToEdit, new Task(
+                        taskEdit.id(),
+                        taskToEdit.title(),
+                        taskEdit.completed(),
+                        taskEdit.order(),
+                        taskEdit.dueDate(),
+                        taskEdit.version()
+                ));
+                lastOrder = Math.max(lastOrder, taskEdit.order());
+            }
+            tasksVersion++;
+
+            return unsavedIds;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void moveTask(final long id, final long anchorId, final MovePosition position)
+            throws OrderGapExhaustedException, TaskNotFoundException {
+        writeLock.lock();
+        try {
+            final Task taskToMove = getTaskById(id);
+            final Task anchorTask = getTaskById(anchorId);
+
+            final long order;
+            if (position == MovePosition.BEFORE) {
+                final Task previousTask =
+                        getNeighbourTask(orderIndex.idsBefore(anchorTask.order(), anchorTask.id(), 2), id);
+                order = getFreeOrderBetween(previousTask != null ? previousTask.order() : 0L, anchorTask.order());
+            } else {
+                final Task nextTask =
+                        getNeighbourTask(orderIndex.idsAfter(anchorTask.order(), anchorTask.id(), 2), id);
+                order = nextTask != null
+                        ? getFreeOrderBetween(anchorTask.order(), nextTask.order())
+                        : anchorTask.order() + orderGap;
+            }
+
+            store(taskToMove, new Task(
+                    id,
+                    taskToMove.title(),
+                    taskToMove.completed(),
+                    order,
+                    taskToMove.dueDate(),
+                    taskToMove.version() + 1
+            ));
+            lastOrder = Math.max(lastOrder, order);
+            tasksVersion++;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void rebalanceTaskOrders() {
+        writeLock.lock();
+        try {
+            final List<Task> tasksToRenumber = getAllTasks();
+            orderIndex.clear();
+
+            long order = 0L;
+            for (final Task taskToRenumber : tasksToRenumber) {
+                order += orderGap;
+                store(null, new Task(
+                        taskToRenumber.id(),
+                        taskToRenumber.title(),
+                        taskToRenumber.completed(),
+                        order,
+                        taskToRenumber.dueDate(),
+                        taskToRenumber.version() + 1
+                ));
+            }
+            lastOrder = Math.max(lastOrder, order);
+            tasksVersion++;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void deleteTask(final long id) throws TaskNotFoundException {
+        writeLock.lock();
+        try {
+            remove(getTaskById(id));
+            tasksVersion++;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Task> getAllTasks() {
+        return toTasks(orderIndex.ids());
+    }
+
+    @Override
+    public List<Task> findTasks(final TaskFilter taskFilter, final TaskSort taskSort) {
+        return getAllTasks().stream()
+                .filter(taskFilter::matches)
+                .sorted(taskSort.comparator())
+                .toList();
+    }
+
+    @Override
+    public List<Task> searchTasks(final String query, final int limit) {
+        // Scans all titles, as this profile is not meant for tables large enough to need an index
+        final String lowerCaseQuery = query.toLowerCase(Locale.ROOT);
+
+        final Comparator<Task> ranking = Comparator
+                .<Task, Boolean>comparing(task -> !task.title().toLowerCase(Locale.ROOT).startsWith(lowerCaseQuery))
+                .thenComparingInt(task -> task.title().length())
+                .thenComparingLong(Task::id);
+
+        return getAllTasks().stream()
+                .filter(task -> task.title().toLowerCase(Locale.ROOT).contains(lowerCaseQuery))
+                .sorted(ranking)
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public TaskPage getTasksPage(final TaskCursor after, final int limit) {
+        // Reads one extra ID to know whether there is a next page
+        final long[] ids = after == null
+                ? orderIndex.idsAfter(Long.MIN_VALUE, Long.MIN_VALUE, limit + 1)
+                : orderIndex.idsAfter(after.order(), after.id(), limit + 1);
+        final List<Task> tasks = toTasks(Arrays.copyOf(ids, Math.min(ids.length, limit)));
+
+        if (ids.length <= limit || tasks.isEmpty()) {
+            return new TaskPage(tasks, null);
+        }
+
+        final Task lastTask = tasks.getLast();
+
+        return new TaskPage(tasks, new TaskCursor(lastTask.order(), lastTask.id()));
+    }
+
+    @Override
+    public void forEachTask(final Consumer<Task> consumer) {
+        for (final long id : orderIndex.ids()) {
+            final Task task = taskTable.get(id);
+            if (task != null) {
+                consumer.accept(task);
+            }
+        }
+    }
+
+    @Override
+    public TaskChanges getTaskChanges(final long since) {
+        // Taken before reading, so that changes written during the read are read again from the next version
+        final long current = taskChangeVersions.next();
+
+        if (taskChangeVersions.needsReset(since, changeHorizon, current)) {
+            return new TaskChanges(
+                    getAllTasks(), List.of(), taskChangeVersions.resumeVersion(0L, current), true, false
+            );
+        }
+
+        // Scans all tasks, as this profile is not meant for tables large enough to need an index or a limit
+        final List<Task> changedTasks = getAllTasks().stream()
+                .filter(task -> taskTable.getChangeVersion(task.id()) > since)
+                .toList();
+        final List<Long> deletedIds = tombstones.subMap(since, false, current, true).values().stream()
+                .map(Tombstone::taskId)
+                .toList();
+
+        if (taskChangeVersions.compactionDue()) {
+            compactTombstones();
+        }
+
+        final long version = taskChangeVersions.resumeVersion(since, current);
+
+        return new TaskChanges(changedTasks, deletedIds, version, false, false);
+    }
+
+    @Override
+    public long getTasksVersion() {
+        return tasksVersion;
+    }
+
+    @Override
+    public long getTaskVersion(final long id) throws TaskNotFoundException {
+        return getTaskById(id).version();
+    }
+
+    @Override
+    public long countTasks() {
+        return orderIndex.size();
+    }
+
+    @Override
+    public long countCompletedTasks() {
+        return getAllTasks().stream().filter(Task::completed).count();
+    }
+
+    @Override
+    public void deleteAllTasks() {
+        writeLock.lock();
+        try {
+            orderIndex.clear();
+            taskTable.clear();
+            titles.clear();
+            // No tombstones, clients read all tasks again instead
+            changeHorizon = taskChangeVersions.next();
+            tasksVersion++;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void deleteAllCompletedTasks() {
+        writeLock.lock();
+        try {
+            for (final Task task : getAllTasks()) {
+                if (task.completed()) {
+                    remove(task);
+                }
+            }
+            tasksVersion++;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Gets task with given ID
+     *
+     * @param id ID to look for
+     *
+     * @return task with given ID
+     *
+     * @throws TaskNotFoundException if no task was found
+     */
+    private Task getTaskById(final long id) throws TaskNotFoundException {
+        final Task task = taskTable.get(id);
+
+        if (task == null) {
+            throw new TaskNotFoundException(id);
+        }
+
+        return task;
+    }
+
+    /**
+     * Gets the tasks with given IDs, skipping the tasks deleted since the IDs were read
+     *
+     * @param ids IDs to look for
+     *
+     * @return tasks in the same order as their IDs
+     */
+    private List<Task> toTasks(final long[] ids) {
+        final List<Task> tasks = new ArrayList<>(ids.length);
+        for (final long id : ids) {
+            final Task task = taskTable.get(id);
+            if (task != null) {
+                tasks.add(task);
+            }
+        }
+
+        return tasks;
+    }
+
+    /**
+     * Gets the first task of sorted IDs, other than the task being moved
+     *
+     * @param ids IDs sorted from the closest to the farthest
+     * @param movedId ID of the task being moved
+     *
+     * @return closest task, or null if there is none
+     */
+    private Task getNeighbourTask(final long[] ids, final long movedId) {
+        for (final long id : ids) {
+            if (id != movedId) {
+                return taskTable.get(id);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Gets the position halfway between two positions
+     *
+     * @param lowerOrder lower position, excluded
+     * @param upperOrder upper position, excluded
+     *
+     * @return free position between the given positions
+     *
+     * @throws OrderGapExhaustedException if there is no position between the given positions
+     */
+    private static long getFreeOrderBetween(final long lowerOrder, final long upperOrder)
+            throws OrderGapExhaustedException {
+        if (upperOrder - lowerOrder < 2) {
+            throw new OrderGapExhaustedException(lowerOrder, upperOrder);
+        }
+
+        return lowerOrder + (upperOrder - lowerOrder) / 2;
+    }
+
+    /**
+     * Stores a new or edited task, whose title is already indexed, at a new change version, under the write lock
+     *
+     * @param previousTask stored task being edited, or null for a new task
+     * @param task task to store
+     */
+    private void store(final Task previousTask, final Task task) {
+        taskTable.put(task, taskChangeVersions.next());
+
+        if (previousTask != null) {
+            if (previousTask.order() == task.order()) {
+                return;
+            }
+            orderIndex.remove(previousTask.order(), previousTask.id());
+        }
+        orderIndex.add(task.order(), task.id());
+    }
+
+    /**
+     * Removes a stored task from all indexes, leaving a tombstone, under the write lock
+     *
+     * @param task task to remove
+     */
+    private void remove(final Task task) {
+        orderIndex.remove(task.order(), task.id());
+        taskTable.remove(task.id());
+        titles.remove(task.title());
+        tombstones.put(taskChangeVersions.next(), new Tombstone(task.id(), taskChangeVersions.now()));
+    }
+
+    /**
+     * Compacts the tombstones past the retention, oldest first, raising the change horizon to the last of them
+     */
+    private void compactTombstones() {
+        final LocalDateTime cutoff = taskChangeVersions.tombstoneCutoff();
+
+        writeLock.lock();
+        try {
+            Map.Entry<Long, Tombstone> oldest = tombstones.firstEntry();
+            while (oldest != null && oldest.getValue().deletedAt().isBefore(cutoff)) {
+                changeHorizon = Math.max(changeHorizon, oldest.getKey());
+                tombstones.remove(oldest.getKey());
+                oldest = tombstones.firstEntry();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Tombstone of a deleted task
+     *
+     * @param taskId ID of the deleted task
+     * @param deletedAt UTC time of the deletion
+     */
+    private record Tombstone(long taskId, LocalDateTime deletedAt) {
+
+    }
+
+}
@@ -0,0 +1,232 @@
+package com.blackpantech.todo.infra.memory;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Index of task IDs sorted by position in list, then by ID, as the seek queries of the JPA adapter do. Positions and
+ * IDs are kept in parallel primitive arrays, so that no entry, node or key is allocated per task. Writes must be
+ * serialised by the caller and take a stamped lock; reads copy the IDs they need optimistically, and only wait for
+ * the lock when a write raced them.
+ */
+final class TaskOrderIndex {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private final StampedLock lock = new StampedLock();
+
+    private long[] orders = new long[MIN_CAPACITY];
+
+    private long[] ids = new long[MIN_CAPACITY];
+
+    private int size;
+
+    /**
+     * Adds a task at its position
+     *
+     * @param order position of the task in the list
+     * @param id ID of the task
+     */
+    void add(final long order, final long id) {
+        final long stamp = lock.writeLock();
+        try {
+            if (size == orders.length) {
+                orders = Arrays.copyOf(orders, size * 2);
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+
+            final int index = lowerBound(orders, ids, size, order, id);
+            System.arraycopy(orders, index, orders, index + 1, size - index);
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            orders[index] = order;
+            ids[index] = id;
+            size++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes a task from its position
+     *
+     * @param order position of the task in the list
+     * @param id ID of the task
+     */
+    void remove(final long order, final long id) {
+        final long stamp = lock.writeLock();
+        try {
+            final int index = lowerBound(orders, ids, size, order, id);
+
+            if (index < size && orders[index] == order && ids[index] == id) {
+                System.arraycopy(orders, index + 1, orders, index, size - index - 1);
+                System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+                size--;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes all tasks
+     */
+    void clear() {
+        final long stamp = lock.writeLock();
+        try {
+            orders = new long[MIN_CAPACITY];
+            ids = new long[MIN_CAPACITY];
+            size = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Gets the IDs of all tasks
+     *
+     * @return IDs sorted by position in list
+     */
+    long[] ids() {
+        return read((orders, ids, size) -> Arrays.copyOf(ids, size));
+    }
+
+    /**
+     * Gets the IDs of the tasks after a position
+     *
+     * @param order position of the task to start after
+     * @param id ID of the task to start after
+     * @param limit maximum number of IDs to get
+     *
+     * @return IDs of the closest tasks after the given one, sorted by position in list
+     */
+    long[] idsAfter(final long order, final long id, final int limit) {
+        return read((orders, ids, size) -> {
+            int start = lowerBound(orders, ids, size, order, id);
+            if (start < size && orders[start] == order && ids[start] == id) {
+                start++;
+            }
+
+            return Arrays.copyOfRange(ids, start, start + Math.min(limit, size - start));
+        });
+    }
+
+    /**
+     * Gets the IDs of the tasks before a position
+     *
+     * @param order position of the task to start before
+     * @param id ID of the task to start before
+     * @param limit maximum number of IDs to get
+     *
+     * @return IDs of the closest tasks before the given one, from the closest to the farthest
+     */
+    long[] idsBefore(final long order, final long id, final int limit) {
+        return read((orders, ids, size) -> {
+            final int end = lowerBound(orders, ids, size, order, id);
+            final long[] idsBefore = new long[Math.min(limit, end)];
+            for (int i = 0; i < idsBefore.length; i++) {
+                idsBefore[i] = ids[end - 1 - i];
+            }
+
+            return idsBefore;
+        });
+    }
+
+    /**
+     * Gets the number of indexed tasks
+     *
+     * @return number of tasks
+     */
+    int size() {
+        final long optimisticStamp = lock.tryOptimisticRead();
+        final int count = size;
+        if (optimisticStamp != 0L && lock.validate(optimisticStamp)) {
+            return count;
+        }
+
+        final long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Reads the arrays optimistically, then again under the read lock if a write raced the first read
+     *
+     * @param reader read of the arrays, which must stay within the given size
+     *
+     * @return result of the read
+     */
+    private long[] read(final Reader reader) {
+        final long optimisticStamp = lock.tryOptimisticRead();
+        if (optimisticStamp != 0L) {
+            final long[] orderArray = orders;
+            final long[] idArray = ids;
+            // A racing write may have replaced one array but not the other yet
+            final int count = Math.min(size, Math.min(orderArray.length, idArray.length));
+            final long[] result = reader.read(orderArray, idArray, count);
+
+            if (lock.validate(optimisticStamp)) {
+                return result;
+            }
+        }
+
+        final long stamp = lock.readLock();
+        try {
+            return reader.read(orders, ids, size);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Finds the first index whose task is at or after a position
+     *
+     * @param orders positions, sorted
+     * @param ids IDs, sorted within equal positions
+     * @param size number of indexed tasks
+     * @param order position to look for
+     * @param id ID to look for
+     *
+     * @return first index at or after the position, or size if there is none
+     */
+    private static int lowerBound(final long[] orders,
+                                  final long[] ids,
+                                  final int size,
+                                  final long order,
+                                  final long id) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (orders[middle] < order || (orders[middle] == order && ids[middle] < id)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Read of the index arrays
+     */
+    @FunctionalInterface
+    private interface Reader {
+
+        /**
+         * Reads the index arrays
+         *
+         * @param orders positions, sorted
+         * @param ids IDs, sorted within equal positions
+         * @param size number of indexed tasks
+         *
+         * @return result of the read
+         */
+        long[] read(final long[] orders, final long[] ids, final int size);
+
+    }
+
+}
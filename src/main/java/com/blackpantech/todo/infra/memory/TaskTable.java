@@ -0,0 +1,234 @@
+package com.blackpantech.todo.infra.memory;
+
+import com.blackpantech.todo.domain.task.Task;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Open-addressing hash table of tasks keyed by their primitive ID, read without locking. Tasks carry their own ID, so
+ * slots only hold task references and keys are never boxed, and the change version of each task is kept in a
+ * parallel primitive array. Writes must be serialised by the caller; a reader sees every slot either before or after
+ * a write, and a resize publishes a new table without touching the old one.
+ */
+final class TaskTable {
+
+    /**
+     * Marks a slot whose task was removed, so that probes for tasks stored further go on
+     */
+    private static final Task TOMBSTONE = new Task(Long.MIN_VALUE, null, false, 0L, null, 0L);
+
+    private static final int MIN_CAPACITY = 16;
+
+    private volatile Slots slots = new Slots(MIN_CAPACITY);
+
+    private int size;
+
+    private int tombstones;
+
+    /**
+     * Gets the task with given ID
+     *
+     * @param id ID to look for
+     *
+     * @return task with given ID, or null if there is none
+     */
+    Task get(final long id) {
+        final Slots table = slots;
+        final int index = find(table, id);
+
+        return index < 0 ? null : table.tasks().get(index);
+    }
+
+    /**
+     * Gets the change version of the task with given ID
+     *
+     * @param id ID to look for
+     *
+     * @return change version of the task, at least as recent as the task last read with the same ID, or 0 if there is
+     * no such task
+     */
+    long getChangeVersion(final long id) {
+        final Slots table = slots;
+        final int index = find(table, id);
+
+        return index < 0 ? 0L : table.changeVersions().get(index);
+    }
+
+    /**
+     * Stores a task, replacing the task with the same ID if any
+     *
+     * @param task task to store
+     * @param changeVersion change version of the task
+     */
+    void put(final Task task, final long changeVersion) {
+        if ((size + tombstones + 1) * 2 > slots.length()) {
+            resize();
+        }
+
+        final Slots table = slots;
+        final int mask = table.length() - 1;
+        int freeIndex = -1;
+
+        for (int index = indexOf(task.id(), mask); ; index = (index + 1) & mask) {
+            final Task storedTask = table.tasks().get(index);
+
+            if (storedTask == null) {
+                if (freeIndex < 0) {
+                    freeIndex = index;
+                } else {
+                    tombstones--;
+                }
+                table.set(freeIndex, task, changeVersion);
+                size++;
+                return;
+            }
+            if (storedTask == TOMBSTONE) {
+                if (freeIndex < 0) {
+                    freeIndex = index;
+                }
+            } else if (storedTask.id() == task.id()) {
+                table.set(index, task, changeVersion);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes the task with given ID
+     *
+     * @param id ID to look for
+     *
+     * @return removed task, or null if there is none
+     */
+    Task remove(final long id) {
+        final Slots table = slots;
+        final int index = find(table, id);
+
+        if (index < 0) {
+            return null;
+        }
+
+        final Task task = table.tasks().get(index);
+        table.tasks().set(index, TOMBSTONE);
+        size--;
+        tombstones++;
+
+        return task;
+    }
+
+    /**
+     * Removes all tasks
+     */
+    void clear() {
+        slots = new Slots(MIN_CAPACITY);
+        size = 0;
+        tombstones = 0;
+    }
+
+    /**
+     * Gets the number of stored tasks
+     *
+     * @return number of tasks
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Finds the slot of the task with given ID
+     *
+     * @param table slots to look in
+     * @param id ID to look for
+     *
+     * @return slot index, or -1 if there is no such task
+     */
+    private static int find(final Slots table, final long id) {
+        final int mask = table.length() - 1;
+
+        for (int index = indexOf(id, mask); ; index = (index + 1) & mask) {
+            final Task task = table.tasks().get(index);
+
+            if (task == null) {
+                return -1;
+            }
+            if (task != TOMBSTONE && task.id() == id) {
+                return index;
+            }
+        }
+    }
+
+    /**
+     * Rehashes live tasks and their change versions into a new table, twice as large if they fill more than a quarter
+     * of the current one, and publishes it
+     */
+    private void resize() {
+        final Slots table = slots;
+        final int capacity = size * 4 >= table.length() ? table.length() * 2 : table.length();
+        final Slots resizedTable = new Slots(Math.max(capacity, MIN_CAPACITY));
+        final int mask = resizedTable.length() - 1;
+
+        for (int i = 0; i < table.length(); i++) {
+            final Task task = table.tasks().get(i);
+
+            if (task != null && task != TOMBSTONE) {
+                int index = indexOf(task.id(), mask);
+                while (resizedTable.tasks().get(index) != null) {
+                    index = (index + 1) & mask;
+                }
+                resizedTable.set(index, task, table.changeVersions().get(i));
+            }
+        }
+
+        slots = resizedTable;
+        tombstones = 0;
+    }
+
+    /**
+     * Gets the home slot of an ID, spreading sequential IDs with a multiplicative hash
+     *
+     * @param id task ID
+     * @param mask table length minus one
+     *
+     * @return slot index
+     */
+    private static int indexOf(final long id, final int mask) {
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+
+    /**
+     * Task references and their change versions, published together
+     *
+     * @param tasks stored tasks, null for free slots
+     * @param changeVersions change version of the task in the slot with the same index
+     */
+    private record Slots(AtomicReferenceArray<Task> tasks, AtomicLongArray changeVersions) {
+
+        Slots(final int capacity) {
+            this(new AtomicReferenceArray<>(capacity), new AtomicLongArray(capacity));
+        }
+
+        /**
+         * Gets the number of slots
+         *
+         * @return number of slots
+         */
+        int length() {
+            return tasks.length();
+        }
+
+        /**
+         * Fills a slot, writing the change version first, so that a reader of the task sees its change version
+         *
+         * @param index slot index
+         * @param task task to store
+         * @param changeVersion change version of the task
+         */
+        void set(final int index, final Task task, final long changeVersion) {
+            changeVersions.set(index, changeVersion);
+            tasks.set(index, task);
+        }
+
+    }
+
+}
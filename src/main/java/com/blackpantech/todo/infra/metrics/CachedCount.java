@@ -0,0 +1,61 @@
+package com.blackpantech.todo.infra.metrics;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Count read from a costly source at most once per time to live, so that gauges scraped often, or by several
+ * scrapers, do not count the whole table on each scrape
+ */
+public class CachedCount {
+
+    private final LongSupplier source;
+
+    private final long ttlNanos;
+
+    private final LongSupplier nanoClock;
+
+    /**
+     * Guards the cached count, so that concurrent scrapes of an expired count read the source once
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long count;
+
+    private long expiresAt;
+
+    private boolean counted;
+
+    public CachedCount(final LongSupplier source, final Duration ttl) {
+        this(source, ttl, System::nanoTime);
+    }
+
+    CachedCount(final LongSupplier source, final Duration ttl, final LongSupplier nanoClock) {
+        this.source = source;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Gets the count, read again from the source once expired
+     *
+     * @return count, at most the time to live old
+     */
+    public double get() {
+        lock.lock();
+        try {
+            final long now = nanoClock.getAsLong();
+            if (!counted || now - expiresAt >= 0) {
+                count = source.getAsLong();
+                expiresAt = now + ttlNanos;
+                counted = true;
+            }
+
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+}
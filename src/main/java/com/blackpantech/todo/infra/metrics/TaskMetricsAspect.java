@@ -0,0 +1,121 @@
+package com.blackpantech.todo.infra.metrics;
+
+import com.blackpantech.todo.domain.task.exceptions.DuplicatedTaskTitleException;
+import com.blackpantech.todo.domain.task.exceptions.TaskNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every operation of the task controller, service and repository, one timer per layer and operation, so that
+ * the time spent in each layer can be told apart. Timers are looked up once per method, leaving a map lookup and a
+ * histogram update on the hot path. Not found and duplicated title outcomes of the controller are counted as well.
+ */
+@Aspect
+public class TaskMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+
+    private final Counter notFoundCounter;
+
+    private final Counter duplicatedTitleCounter;
+
+    public TaskMetricsAspect(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.notFoundCounter = Counter.builder("tasks.not.found")
+                .description("Requests for a task that does not exist, answered with 404 Not Found")
+                .register(meterRegistry);
+        this.duplicatedTitleCounter = Counter.builder("tasks.duplicated.title")
+                .description("Requests with a task title already taken, answered with 409 Conflict")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Times a controller operation and counts its not found and duplicated title outcomes
+     *
+     * @param joinPoint controller method call
+     *
+     * @return result of the call
+     *
+     * @throws Throwable exception thrown by the call
+     */
+    @Around("execution(public * com.blackpantech.todo.infra.http.TaskController.*(..))")
+    public Object timeController(final ProceedingJoinPoint joinPoint) throws Throwable {
+        try {
+            return time("tasks.controller", joinPoint);
+        } catch (final TaskNotFoundException exception) {
+            notFoundCounter.increment();
+            throw exception;
+        } catch (final DuplicatedTaskTitleException exception) {
+            duplicatedTitleCounter.increment();
+            throw exception;
+        }
+    }
+
+    /**
+     * Times a service operation
+     *
+     * @param joinPoint service method call
+     *
+     * @return result of the call
+     *
+     * @throws Throwable exception thrown by the call
+     */
+    @Around("execution(public * com.blackpantech.todo.domain.task.TaskService.*(..))")
+    public Object timeService(final ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("tasks.service", joinPoint);
+    }
+
+    /**
+     * Times a repository operation, including database access and mapping
+     *
+     * @param joinPoint repository method call
+     *
+     * @return result of the call
+     *
+     * @throws Throwable exception thrown by the call
+     */
+    @Around("execution(public * com.blackpantech.todo.infra.jpa.JpaTaskRepository.*(..))"
+            + " || execution(public * com.blackpantech.todo.infra.memory.InMemoryTaskRepository.*(..))")
+    public Object timeRepository(final ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("tasks.repository", joinPoint);
+    }
+
+    /**
+     * Times a method call, whether it returns or throws
+     *
+     * @param name timer name of the layer
+     * @param joinPoint method call
+     *
+     * @return result of the call
+     *
+     * @throws Throwable exception thrown by the call
+     */
+    private Object time(final String name, final ProceedingJoinPoint joinPoint) throws Throwable {
+        final Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        final Timer timer = timers.computeIfAbsent(method, ignored -> Timer.builder(name)
+                .description("Time spent in task operations, per layer")
+                .tag("operation", method.getName())
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+
+        final long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.blackpantech.todo.infra.r2dbc;
+
+import com.blackpantech.todo.domain.task.ReactiveTaskRepository;
+import com.blackpantech.todo.domain.task.Task;
+import com.blackpantech.todo.domain.task.TaskCursor;
+import com.blackpantech.todo.domain.task.TaskPage;
+import com.blackpantech.todo.domain.task.exceptions.TaskNotFoundException;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC implementation of the non-blocking, read-only task repository, on the TASKS table of the JPA adapter. Tasks
+ * are written through the JPA adapter only, so that no write skips its change versions, positions or title indexes.
+ */
+public class R2dbcTaskRepository implements ReactiveTaskRepository {
+
+    private static final String COLUMNS = "ID, TITLE, COMPLETED, ORDER_POSITION, DUE_DATE, VERSION";
+
+    private final DatabaseClient databaseClient;
+
+    public R2dbcTaskRepository(final DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    @Override
+    public Mono<Task> getTask(final long id) {
+        return databaseClient.sql("select " + COLUMNS + " from TASKS where ID = :id")
+                .bind("id", id)
+                .map(R2dbcTaskRepository::toTask)
+                .one()
+                .switchIfEmpty(Mono.error(() -> new TaskNotFoundException(id)));
+    }
+
+    @Override
+    public Flux<Task> getAllTasks() {
+        return databaseClient.sql("select " + COLUMNS + " from TASKS order by ORDER_POSITION, ID")
+                .map(R2dbcTaskRepository::toTask)
+                .all();
+    }
+
+    @Override
+    public Mono<TaskPage> getTasksPage(final TaskCursor after, final int limit) {
+        // Fetches one extra row to know whether there is a next page without counting
+        final DatabaseClient.GenericExecuteSpec query = after == null
+                ? databaseClient.sql("select " + COLUMNS + " from TASKS order by ORDER_POSITION, ID limit :limit")
+                : databaseClient.sql("select " + COLUMNS + " from TASKS where ORDER_POSITION >= :order "
+                                + "and (ORDER_POSITION > :order or ID > :id) order by ORDER_POSITION, ID limit :limit")
+                        .bind("order", after.order())
+                        .bind("id", after.id());
+
+        return query.bind("limit", limit + 1)
+                .map(R2dbcTaskRepository::toTask)
+                .all()
+                .collectList()
+                .map(tasks -> {
+                    if (tasks.size() <= limit) {
+                        return new TaskPage(tasks, null);
+                    }
+
+                    final Task lastTask = tasks.get(limit - 1);
+
+                    return new TaskPage(tasks.subList(0, limit), new TaskCursor(lastTask.order(), lastTask.id()));
+                });
+    }
+
+    /**
+     * Maps a TASKS row to a task
+     *
+     * @param row row to map
+     *
+     * @return mapped task
+     */
+    private static Task toTask(final Readable row) {
+        return new Task(
+                row.get("ID", Long.class),
+                row.get("TITLE", String.class),
+                row.get("COMPLETED", Boolean.class),
+                row.get("ORDER_POSITION", Long.class),
+                row.get("DUE_DATE", LocalDateTime.class),
+                row.get("VERSION", Long.class)
+        );
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.blackpantech.todo.infra.reminder;
+
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * Sink publishing due tasks as application events, to in-process {@code @EventListener} methods taking a
+ * {@link TaskDueEvent}
+ */
+public class ApplicationEventTaskDueSink implements TaskDueSink {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public ApplicationEventTaskDueSink(final ApplicationEventPublisher applicationEventPublisher) {
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    @Override
+    public void taskDue(final TaskDueEvent taskDueEvent) {
+        applicationEventPublisher.publishEvent(taskDueEvent);
+    }
+
+}
@@ -0,0 +1,249 @@
+package com.blackpantech.todo.infra.reminder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel of keyed timers. Each level is a ring of slots, each slot a doubly linked list of timers;
+ * a slot of a level spans a whole turn of the level below. Scheduling and cancelling a timer link and unlink it in
+ * constant time, whatever the number of timers. Advancing the wheel visits one slot per tick, and moves the timers of
+ * a higher level down once the lower level has turned.
+ * <p>
+ * Not thread-safe: callers serialise all calls.
+ *
+ * @param <T> type of the values carried by timers
+ */
+class HierarchicalTimingWheel<T> {
+
+    private final long tickMillis;
+
+    private final int wheelBits;
+
+    private final int levels;
+
+    private final long mask;
+
+    private final Timer<T>[][] slots;
+
+    private final Map<Long, Timer<T>> timers = new HashMap<>();
+
+    private long currentTick;
+
+    /**
+     * Creates an empty wheel
+     *
+     * @param tickMillis duration of a tick, the resolution of timers
+     * @param wheelBits number of bits of the slot index of a level, each level having 2^wheelBits slots
+     * @param levels number of levels
+     * @param startMillis current time
+     */
+    @SuppressWarnings("unchecked")
+    HierarchicalTimingWheel(final long tickMillis, final int wheelBits, final int levels, final long startMillis) {
+        this.tickMillis = tickMillis;
+        this.wheelBits = wheelBits;
+        this.levels = levels;
+        this.mask = (1L << wheelBits) - 1;
+        this.slots = (Timer<T>[][]) new Timer<?>[levels][1 << wheelBits];
+        for (final Timer<T>[] level : slots) {
+            for (int slot = 0; slot < level.length; slot++) {
+                level[slot] = Timer.sentinel();
+            }
+        }
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    /**
+     * Gets the longest delay of a timer from the current time
+     *
+     * @return horizon of the wheel
+     */
+    long horizonMillis() {
+        return ((1L << (wheelBits * levels)) - 1) * tickMillis;
+    }
+
+    /**
+     * Schedules a timer, replacing the timer with the same key if any. A timer whose deadline has passed expires on the
+     * next tick.
+     *
+     * @param key key of the timer
+     * @param value value carried by the timer
+     * @param deadlineMillis time the timer expires at
+     *
+     * @return true if the timer was scheduled, false if its deadline is beyond the horizon of the wheel
+     */
+    boolean schedule(final long key, final T value, final long deadlineMillis) {
+        cancel(key);
+
+        // Rounded up, so that timers never expire early
+        final long deadlineTick = Math.max(-Math.floorDiv(-deadlineMillis, tickMillis), currentTick + 1);
+        if (deadlineTick - currentTick >= 1L << (wheelBits * levels)) {
+            return false;
+        }
+
+        final Timer<T> timer = new Timer<>(key, value, deadlineTick);
+        timers.put(key, timer);
+        link(timer);
+
+        return true;
+    }
+
+    /**
+     * Cancels a timer
+     *
+     * @param key key of the timer
+     *
+     * @return true if the timer was scheduled
+     */
+    boolean cancel(final long key) {
+        final Timer<T> timer = timers.remove(key);
+
+        if (timer == null) {
+            return false;
+        }
+
+        timer.unlink();
+
+        return true;
+    }
+
+    /**
+     * Cancels all timers
+     */
+    void clear() {
+        for (final Timer<T> timer : timers.values()) {
+            timer.unlink();
+        }
+        timers.clear();
+    }
+
+    /**
+     * Gets the number of scheduled timers
+     *
+     * @return number of timers
+     */
+    int size() {
+        return timers.size();
+    }
+
+    /**
+     * Advances the wheel tick by tick up to the given time, expiring the timers on the way
+     *
+     * @param nowMillis current time
+     * @param expired consumer of the values of expired timers, in deadline order
+     */
+    void advanceTo(final long nowMillis, final Consumer<T> expired) {
+        final long targetTick = Math.floorDiv(nowMillis, tickMillis);
+
+        while (currentTick < targetTick) {
+            currentTick++;
+
+            // Highest level first, so that timers moved down can be moved down again within the same tick
+            for (int level = levels - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (wheelBits * level)) - 1)) == 0) {
+                    cascade(slots[level][slotIndex(currentTick, level)]);
+                }
+            }
+
+            final Timer<T> head = slots[0][slotIndex(currentTick, 0)];
+            while (head.next != head) {
+                final Timer<T> timer = head.next;
+                timer.unlink();
+                timers.remove(timer.key);
+                expired.accept(timer.value);
+            }
+        }
+    }
+
+    /**
+     * Moves the timers of a slot to the levels matching their remaining delay
+     *
+     * @param head sentinel of the slot
+     */
+    private void cascade(final Timer<T> head) {
+        while (head.next != head) {
+            final Timer<T> timer = head.next;
+            timer.unlink();
+            link(timer);
+        }
+    }
+
+    /**
+     * Links a timer in the slot of the lowest level whose turn covers its remaining delay
+     *
+     * @param timer timer to link
+     */
+    private void link(final Timer<T> timer) {
+        final long delay = timer.deadlineTick - currentTick;
+
+        int level = 0;
+        while (level < levels - 1 && delay >= 1L << (wheelBits * (level + 1))) {
+            level++;
+        }
+
+        final Timer<T> head = slots[level][slotIndex(timer.deadlineTick, level)];
+        timer.prev = head.prev;
+        timer.next = head;
+        head.prev.next = timer;
+        head.prev = timer;
+    }
+
+    /**
+     * Gets the slot of a tick in a level
+     *
+     * @param tick tick
+     * @param level level
+     *
+     * @return index of the slot
+     */
+    private int slotIndex(final long tick, final int level) {
+        return (int) ((tick >>> (wheelBits * level)) & mask);
+    }
+
+    /**
+     * Timer, linked in the list of its slot
+     *
+     * @param <T> type of the value carried by the timer
+     */
+    private static final class Timer<T> {
+
+        private final long key;
+
+        private final T value;
+
+        private final long deadlineTick;
+
+        private Timer<T> prev = this;
+
+        private Timer<T> next = this;
+
+        private Timer(final long key, final T value, final long deadlineTick) {
+            this.key = key;
+            this.value = value;
+            this.deadlineTick = deadlineTick;
+        }
+
+        /**
+         * Creates the sentinel of an empty slot
+         *
+         * @param <T> type of the values carried by timers
+         *
+         * @return sentinel, linked to itself
+         */
+        private static <T> Timer<T> sentinel() {
+            return new Timer<>(0L, null, 0L);
+        }
+
+        /**
+         * Unlinks the timer from its slot
+         */
+        private void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = this;
+            next = this;
+        }
+
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.blackpantech.todo.infra.reminder;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Reminder claims in the REMINDED_DUE_DATE column of the tasks, shared by all nodes of the database. A reminder is
+ * claimed with a single conditional UPDATE, which only one node gets to apply, and a task whose due date changes can
+ * be reminded again.
+ */
+public class JdbcReminderClaims implements ReminderClaims {
+
+    private static final String CLAIM_SQL = """
+            update TASKS set REMINDED_DUE_DATE = DUE_DATE
+            where ID = ? and DUE_DATE = ? and COMPLETED = false
+              and (REMINDED_DUE_DATE is null or REMINDED_DUE_DATE <> DUE_DATE)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcReminderClaims(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public boolean claim(final long id, final LocalDateTime dueDate) {
+        return jdbcTemplate.update(CLAIM_SQL, id, Timestamp.valueOf(dueDate)) > 0;
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.blackpantech.todo.infra.reminder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sink logging due tasks
+ */
+public class LoggingTaskDueSink implements TaskDueSink {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoggingTaskDueSink.class);
+
+    @Override
+    public void taskDue(final TaskDueEvent taskDueEvent) {
+        LOGGER.info("Task {} \"{}\" is due since {}", taskDueEvent.id(), taskDueEvent.title(), taskDueEvent.dueDate());
+    }
+
+}
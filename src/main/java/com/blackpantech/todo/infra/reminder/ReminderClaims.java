@@ -0,0 +1,21 @@
+package com.blackpantech.todo.infra.reminder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Claims of the reminders sent, so that the reminder of a task at a due date is sent by a single scheduler
+ */
+public interface ReminderClaims {
+
+    /**
+     * Claims the reminder of a pending task at its due date, unless it was claimed already
+     *
+     * @param id task ID
+     * @param dueDate due date the reminder is sent for
+     *
+     * @return true if the caller claimed the reminder and sends it, false if it was claimed before or the task is no
+     * longer pending at that due date
+     */
+    boolean claim(final long id, final LocalDateTime dueDate);
+
+}
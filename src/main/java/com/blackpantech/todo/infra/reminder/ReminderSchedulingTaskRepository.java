@@ -0,0 +1,113 @@
+package com.blackpantech.todo.infra.reminder;
+
+import com.blackpantech.todo.domain.task.ForwardingTaskRepository;
+import com.blackpantech.todo.domain.task.Task;
+import com.blackpantech.todo.domain.task.TaskBulkUpdate;
+import com.blackpantech.todo.domain.task.TaskFilter;
+import com.blackpantech.todo.domain.task.TaskPatch;
+import com.blackpantech.todo.domain.task.TaskRepository;
+import com.blackpantech.todo.domain.task.TaskToCreate;
+import com.blackpantech.todo.domain.task.exceptions.DuplicatedTaskTitleException;
+import com.blackpantech.todo.domain.task.exceptions.TaskNotFoundException;
+import com.blackpantech.todo.domain.task.exceptions.TaskVersionMismatchException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Task repository decorator keeping the reminders of the scheduler in sync with the writes that went through
+ */
+public class ReminderSchedulingTaskRepository extends ForwardingTaskRepository {
+
+    private final TaskReminderScheduler taskReminderScheduler;
+
+    public ReminderSchedulingTaskRepository(final TaskRepository delegate,
+                                            final TaskReminderScheduler taskReminderScheduler) {
+        super(delegate);
+        this.taskReminderScheduler = taskReminderScheduler;
+    }
+
+    @Override
+    public Task createTask(final String title, final LocalDateTime dueDate) throws DuplicatedTaskTitleException {
+        final Task createdTask = delegate.createTask(title, dueDate);
+        taskReminderScheduler.taskChanged(createdTask);
+
+        return createdTask;
+    }
+
+    @Override
+    public List<Task> createTasks(final List<TaskToCreate> tasksToCreate) throws DuplicatedTaskTitleException {
+        final List<Task> createdTasks = delegate.createTasks(tasksToCreate);
+        createdTasks.forEach(taskReminderScheduler::taskChanged);
+
+        return createdTasks;
+    }
+
+    @Override
+    public Task editTask(final long id,
+                         final String title,
+                         final boolean completed,
+                         final long order,
+                         final LocalDateTime dueDate)
+            throws DuplicatedTaskTitleException, TaskNotFoundException {
+        final Task editedTask = delegate.editTask(id, title, completed, order, dueDate);
+        taskReminderScheduler.taskChanged(editedTask);
+
+        return editedTask;
+    }
+
+    @Override
+    public void patchTask(final long id, final TaskPatch taskPatch)
+            throws DuplicatedTaskTitleException, TaskNotFoundException {
+        delegate.patchTask(id, taskPatch);
+        patched(id, taskPatch);
+    }
+
+    @Override
+    public void patchTask(final long id, final TaskPatch taskPatch, final long expectedVersion)
+            throws DuplicatedTaskTitleException, TaskNotFoundException, TaskVersionMismatchException {
+        delegate.patchTask(id, taskPatch, expectedVersion);
+        patched(id, taskPatch);
+    }
+
+    @Override
+    public long updateTasks(final TaskFilter taskFilter, final TaskBulkUpdate taskBulkUpdate) {
+        final long updatedTasks = delegate.updateTasks(taskFilter, taskBulkUpdate);
+
+        if (updatedTasks > 0) {
+            taskReminderScheduler.reloadWindow();
+        }
+
+        return updatedTasks;
+    }
+
+    @Override
+    public void deleteTask(final long id) throws TaskNotFoundException {
+        delegate.deleteTask(id);
+        taskReminderScheduler.taskDeleted(id);
+    }
+
+    @Override
+    public void deleteAllTasks() {
+        delegate.deleteAllTasks();
+        taskReminderScheduler.allTasksDeleted();
+    }
+
+    /**
+     * Updates the reminder of a patched task. A patch does not return the task, which is only read when the reminder
+     * may change.
+     *
+     * @param id ID of the patched task
+     * @param taskPatch applied patch
+     */
+    private void patched(final long id, final TaskPatch taskPatch) {
+        if (taskPatch.completed() != null || taskPatch.dueDatePatched()) {
+            try {
+                taskReminderScheduler.taskChanged(delegate.getTask(id));
+            } catch (final TaskNotFoundException exception) {
+                taskReminderScheduler.taskDeleted(id);
+            }
+        }
+    }
+
+}
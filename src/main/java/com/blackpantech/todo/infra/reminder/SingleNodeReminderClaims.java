@@ -0,0 +1,16 @@
+package com.blackpantech.todo.infra.reminder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reminder claims of a single node holding its tasks in memory, where the single scheduler fires each reminder once
+ * and no overdue reminder outlives a restart
+ */
+public class SingleNodeReminderClaims implements ReminderClaims {
+
+    @Override
+    public boolean claim(final long id, final LocalDateTime dueDate) {
+        return true;
+    }
+
+}
@@ -0,0 +1,14 @@
+package com.blackpantech.todo.infra.reminder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Event fired when a task that is not completed reaches its due date
+ *
+ * @param id ID of the due task
+ * @param title title of the due task
+ * @param dueDate due date of the task
+ */
+public record TaskDueEvent(long id, String title, LocalDateTime dueDate) {
+
+}
@@ -0,0 +1,15 @@
+package com.blackpantech.todo.infra.reminder;
+
+/**
+ * Destination of the events fired when tasks are due
+ */
+public interface TaskDueSink {
+
+    /**
+     * Handles a task that is due, on the reminder thread, so that slow sinks should hand the event over
+     *
+     * @param taskDueEvent due task
+     */
+    void taskDue(final TaskDueEvent taskDueEvent);
+
+}
@@ -0,0 +1,331 @@
+package com.blackpantech.todo.infra.reminder;
+
+import com.blackpantech.todo.domain.task.Task;
+import com.blackpantech.todo.domain.task.TaskFilter;
+import com.blackpantech.todo.domain.task.TaskRepository;
+import com.blackpantech.todo.domain.task.TaskSort;
+import com.blackpantech.todo.domain.task.exceptions.TaskNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fires an event to a sink when tasks that are not completed reach their due date. Only the tasks due within a
+ * bounded window ahead are held, in a hierarchical timing wheel: the window is extended periodically with a single
+ * query on the due date index, and writes in between update the wheel directly, so that there is no polling query.
+ * <p>
+ * A due task is read again before firing, since a reload may race with a write, and its reminder is claimed before
+ * firing, so that it is sent by a single node, at most once. The first window starts a catch-up period before the
+ * start, and each extension starts where the previous one ended, so that reminders due while no scheduler ran are
+ * sent late rather than never. Due dates are read in the time zone of the clock.
+ */
+public class TaskReminderScheduler implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskReminderScheduler.class);
+
+    /**
+     * 64 slots per level
+     */
+    private static final int WHEEL_BITS = 6;
+
+    /**
+     * 64^4 ticks, more than 6 months with one-second ticks
+     */
+    private static final int WHEEL_LEVELS = 4;
+
+    private final TaskRepository taskRepository;
+
+    private final TaskDueSink taskDueSink;
+
+    private final ReminderClaims reminderClaims;
+
+    private final Duration tick;
+
+    private final Duration window;
+
+    private final Clock clock;
+
+    /**
+     * Guards the wheel and the loaded window, written both by the reminder thread and by the threads writing tasks
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final HierarchicalTimingWheel<TaskDueEvent> wheel;
+
+    /**
+     * End of the loaded window: the wheel holds all pending tasks due until then that were not fired yet
+     */
+    private long loadedUntilMillis;
+
+    private ScheduledExecutorService executorService;
+
+    public TaskReminderScheduler(final TaskRepository taskRepository,
+                                 final TaskDueSink taskDueSink,
+                                 final ReminderClaims reminderClaims,
+                                 final Duration tick,
+                                 final Duration window,
+                                 final Duration catchUp) {
+        this(taskRepository, taskDueSink, reminderClaims, tick, window, catchUp, Clock.systemDefaultZone());
+    }
+
+    TaskReminderScheduler(final TaskRepository taskRepository,
+                          final TaskDueSink taskDueSink,
+                          final ReminderClaims reminderClaims,
+                          final Duration tick,
+                          final Duration window,
+                          final Duration catchUp,
+                          final Clock clock) {
+        this.taskRepository = taskRepository;
+        this.taskDueSink = taskDueSink;
+        this.reminderClaims = reminderClaims;
+        this.tick = tick;
+        this.window = window;
+        this.clock = clock;
+        this.wheel = new HierarchicalTimingWheel<>(tick.toMillis(), WHEEL_BITS, WHEEL_LEVELS, clock.millis());
+        // Overdue tasks are fired on the first tick
+        this.loadedUntilMillis = clock.millis() - catchUp.toMillis();
+
+        if (window.toMillis() > wheel.horizonMillis()) {
+            throw new IllegalArgumentException("Reminder window " + window + " is beyond the timing wheel horizon");
+        }
+    }
+
+    /**
+     * Loads the first window and starts ticking, on a single platform thread
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executorService = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("task-reminders").daemon().factory()
+        );
+
+        // Extended at half the window, so that tasks are loaded well before they are due
+        final long extensionMillis = Math.max(window.toMillis() / 2, tick.toMillis());
+        executorService.scheduleAtFixedRate(
+                () -> runSafely(this::extendWindow), 0, extensionMillis, TimeUnit.MILLISECONDS
+        );
+        executorService.scheduleAtFixedRate(
+                () -> runSafely(this::fireDueTasks), tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * Stops ticking
+     */
+    @Override
+    public void close() {
+        if (executorService != null) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Schedules, moves or cancels the reminder of a created or edited task
+     *
+     * @param task current state of the task
+     */
+    public void taskChanged(final Task task) {
+        lock.lock();
+        try {
+            if (!task.completed() && task.dueDate() != null) {
+                final long dueMillis = toMillis(task.dueDate());
+                if (dueMillis >= clock.millis() && dueMillis < loadedUntilMillis) {
+                    wheel.schedule(task.id(), new TaskDueEvent(task.id(), task.title(), task.dueDate()), dueMillis);
+                    return;
+                }
+            }
+            wheel.cancel(task.id());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Cancels the reminder of a deleted task
+     *
+     * @param id ID of the deleted task
+     */
+    public void taskDeleted(final long id) {
+        lock.lock();
+        try {
+            wheel.cancel(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Cancels all reminders, once all tasks are deleted
+     */
+    public void allTasksDeleted() {
+        lock.lock();
+        try {
+            wheel.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Loads the current window again, after a write changing tasks that are not known one by one
+     */
+    public void reloadWindow() {
+        final long fromMillis = clock.millis();
+        final long untilMillis;
+
+        lock.lock();
+        try {
+            wheel.clear();
+            untilMillis = loadedUntilMillis;
+        } finally {
+            lock.unlock();
+        }
+
+        load(fromMillis, untilMillis);
+    }
+
+    /**
+     * Gets the number of pending reminders
+     *
+     * @return number of reminders in the wheel
+     */
+    int pendingReminders() {
+        lock.lock();
+        try {
+            return wheel.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Extends the loaded window up to the window duration from now, loading only the tasks due in the extension, or
+     * overdue since the end of the loaded window
+     */
+    void extendWindow() {
+        final long fromMillis;
+        final long untilMillis = clock.millis() + window.toMillis();
+
+        // The end moves first, so that tasks written during the query are scheduled by the write
+        lock.lock();
+        try {
+            fromMillis = loadedUntilMillis;
+            loadedUntilMillis = Math.max(loadedUntilMillis, untilMillis);
+        } finally {
+            lock.unlock();
+        }
+
+        load(fromMillis, untilMillis);
+    }
+
+    /**
+     * Advances the wheel to now, and fires the due tasks that are still due after reading them again, and whose
+     * reminder no other node claimed
+     */
+    void fireDueTasks() {
+        final List<TaskDueEvent> dueEvents = new ArrayList<>();
+
+        lock.lock();
+        try {
+            wheel.advanceTo(clock.millis(), dueEvents::add);
+        } finally {
+            lock.unlock();
+        }
+
+        for (final TaskDueEvent dueEvent : dueEvents) {
+            final Task task;
+            try {
+                task = taskRepository.getTask(dueEvent.id());
+            } catch (final TaskNotFoundException exception) {
+                continue;
+            }
+
+            if (!task.completed() && dueEvent.dueDate().equals(task.dueDate())) {
+                if (reminderClaims.claim(task.id(), task.dueDate())) {
+                    taskDueSink.taskDue(new TaskDueEvent(task.id(), task.title(), task.dueDate()));
+                }
+            } else {
+                // Scheduled from a stale read: schedules the current due date instead
+                taskChanged(task);
+            }
+        }
+    }
+
+    /**
+     * Schedules the pending tasks due in a range
+     *
+     * @param fromMillis inclusive start of the range
+     * @param untilMillis exclusive end of the range
+     */
+    private void load(final long fromMillis, final long untilMillis) {
+        if (fromMillis >= untilMillis) {
+            return;
+        }
+
+        final List<Task> dueTasks = taskRepository.findTasks(
+                new TaskFilter(null, false, toLocalDateTime(fromMillis), toLocalDateTime(untilMillis)),
+                TaskSort.DUE_DATE
+        );
+
+        lock.lock();
+        try {
+            for (final Task dueTask : dueTasks) {
+                wheel.schedule(
+                        dueTask.id(),
+                        new TaskDueEvent(dueTask.id(), dueTask.title(), dueTask.dueDate()),
+                        toMillis(dueTask.dueDate())
+                );
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs a periodic action, logging its failure so that the next runs still happen
+     *
+     * @param action action to run
+     */
+    private static void runSafely(final Runnable action) {
+        try {
+            action.run();
+        } catch (final RuntimeException exception) {
+            LOGGER.warn("Task reminders failed", exception);
+        }
+    }
+
+    /**
+     * Converts a due date to epoch milliseconds
+     *
+     * @param dueDate due date, in the zone of the clock
+     *
+     * @return epoch milliseconds
+     */
+    private long toMillis(final LocalDateTime dueDate) {
+        return dueDate.atZone(clock.getZone()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Converts epoch milliseconds to a due date
+     *
+     * @param millis epoch milliseconds
+     *
+     * @return due date, in the zone of the clock
+     */
+    private LocalDateTime toLocalDateTime(final long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), clock.getZone());
+    }
+
+}
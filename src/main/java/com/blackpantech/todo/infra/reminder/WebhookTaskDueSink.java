@@ -0,0 +1,82 @@
+package com.blackpantech.todo.infra.reminder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Sink posting due tasks as JSON to a webhook URL. Requests are sent asynchronously, so that a slow endpoint does not
+ * hold back the reminders due after, and are not retried: failed deliveries are logged.
+ */
+public class WebhookTaskDueSink implements TaskDueSink {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WebhookTaskDueSink.class);
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private final HttpClient httpClient;
+
+    private final ObjectMapper objectMapper;
+
+    private final URI url;
+
+    public WebhookTaskDueSink(final HttpClient httpClient, final ObjectMapper objectMapper, final URI url) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.url = url;
+    }
+
+    @Override
+    public void taskDue(final TaskDueEvent taskDueEvent) {
+        final HttpRequest request = HttpRequest.newBuilder(url)
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(toJson(taskDueEvent)))
+                .build();
+
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, exception) -> logFailure(taskDueEvent, response, exception));
+    }
+
+    /**
+     * Logs a delivery that failed, either without a response or with an error status
+     *
+     * @param taskDueEvent delivered event
+     * @param response response of the webhook, or null if the request failed
+     * @param exception failure of the request, or null if a response was received
+     */
+    private void logFailure(final TaskDueEvent taskDueEvent,
+                            final HttpResponse<Void> response,
+                            final Throwable exception) {
+        if (exception != null) {
+            LOGGER.warn("Reminder of task {} could not be posted to {}", taskDueEvent.id(), url, exception);
+        } else if (response.statusCode() >= 400) {
+            LOGGER.warn("Reminder of task {} was rejected by {} with status {}",
+                    taskDueEvent.id(), url, response.statusCode());
+        }
+    }
+
+    /**
+     * Serialises an event to JSON
+     *
+     * @param taskDueEvent event to serialise
+     *
+     * @return JSON bytes
+     */
+    private byte[] toJson(final TaskDueEvent taskDueEvent) {
+        try {
+            return objectMapper.writeValueAsBytes(taskDueEvent);
+        } catch (final JsonProcessingException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+}
@@ -0,0 +1,414 @@
+package com.blackpantech.todo.infra.writebehind;
+
+import com.blackpantech.todo.domain.task.Task;
+import com.blackpantech.todo.domain.task.TaskEdit;
+import com.blackpantech.todo.domain.task.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Overlay of the task edits which are not written yet. Edits of the same task are coalesced into its latest state,
+ * and all pending edits are written in a single batch every flush interval, or as soon as a given number of tasks
+ * have pending edits. Batches are written through the decorated task repository, so that the decorators above the
+ * write-behind see the writes, and the ones they drop.
+ * <p>
+ * Edits are acknowledged before they are written: the ones pending when the node crashes are lost, while a graceful
+ * shutdown writes them synchronously. A pending edit is only written if its task did not change meanwhile, otherwise
+ * it is dropped and logged. Edits which could not be written for another reason are kept for the next flush.
+ */
+public class TaskEditBuffer implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskEditBuffer.class);
+
+    private final Duration flushInterval;
+
+    private final int maxPendingTasks;
+
+    /**
+     * Guards the overlay, held only to read it or swap its maps, never while the repository is written
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Lets a single flush run at once
+     */
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    /**
+     * Latest pending edit of each task
+     */
+    private Map<Long, PendingEdit> pendingEdits = new HashMap<>();
+
+    /**
+     * Edits being written, still read until they are
+     */
+    private Map<Long, PendingEdit> flushingEdits = Map.of();
+
+    /**
+     * Number of times the repository may have changed under the overlay, by a flush or by a write going straight to
+     * the repository
+     */
+    private long generation;
+
+    /**
+     * Number of edits made since the start, telling readers of the task list version that the list changed before
+     * the edits are written
+     */
+    private long editCount;
+
+    /**
+     * Repository the pending edits are written to, set once the repository decorators are built
+     */
+    private volatile TaskRepository taskRepository;
+
+    private ScheduledExecutorService executorService;
+
+    public TaskEditBuffer(final Duration flushInterval, final int maxPendingTasks) {
+        this.flushInterval = flushInterval;
+        this.maxPendingTasks = maxPendingTasks;
+    }
+
+    /**
+     * Sets the repository the pending edits are written to: the outermost task repository decorator, so that each
+     * decorator sees the edits once they are written
+     *
+     * @param taskRepository decorated task repository
+     */
+    public void writeTo(final TaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+    }
+
+    /**
+     * Starts flushing every flush interval, on a single platform thread
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executorService = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("task-write-behind").daemon().factory()
+        );
+        executorService.scheduleWithFixedDelay(
+                this::flushSafely, flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * Stops flushing periodically, and writes the pending edits
+     */
+    @Override
+    public void close() {
+        if (executorService != null) {
+            executorService.shutdown();
+            try {
+                executorService.awaitTermination(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (final InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+    }
+
+    /**
+     * Gets the latest state of a task with pending edits
+     *
+     * @param id task ID
+     *
+     * @return edited task, or null if the task has no pending edits
+     */
+    public Task get(final long id) {
+        lock.lock();
+        try {
+            final PendingEdit pendingEdit = pendingEdits.get(id);
+            if (pendingEdit != null) {
+                return pendingEdit.task();
+            }
+
+            final PendingEdit flushingEdit = flushingEdits.get(id);
+            return flushingEdit != null ? flushingEdit.task() : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Tells whether a task has edits which are not written yet
+     *
+     * @param id task ID
+     *
+     * @return true if the task has pending edits, or edits being written
+     */
+    public boolean isPending(final long id) {
+        lock.lock();
+        try {
+            return pendingEdits.containsKey(id) || flushingEdits.containsKey(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the latest state of all tasks with pending edits, to read before reading tasks from the repository
+     *
+     * @return edited tasks by ID, empty if no task has pending edits
+     */
+    public Map<Long, Task> editedTasks() {
+        lock.lock();
+        try {
+            if (pendingEdits.isEmpty() && flushingEdits.isEmpty()) {
+                return Map.of();
+            }
+
+            final Map<Long, Task> editedTasks = new HashMap<>(pendingEdits.size() + flushingEdits.size());
+            flushingEdits.forEach((id, flushingEdit) -> editedTasks.put(id, flushingEdit.task()));
+            pendingEdits.forEach((id, pendingEdit) -> editedTasks.put(id, pendingEdit.task()));
+
+            return editedTasks;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of edits made since the start, which only increases
+     *
+     * @return number of edits
+     */
+    public long editCount() {
+        lock.lock();
+        try {
+            return editCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the change in the number of completed tasks made by the edits which are not written yet. Edits being
+     * written are counted until the write ends, so that the count may be off by them while their transaction commits.
+     *
+     * @return number of tasks completed minus number of tasks uncompleted by the edits
+     */
+    public long completedTasksDelta() {
+        lock.lock();
+        try {
+            long delta = 0;
+            for (final PendingEdit flushingEdit : flushingEdits.values()) {
+                delta += flushingEdit.completedDelta();
+            }
+            for (final PendingEdit pendingEdit : pendingEdits.values()) {
+                delta += pendingEdit.completedDelta();
+            }
+
+            return delta;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the current generation, to read before reading a task from the repository
+     *
+     * @return generation to give to {@link #edit(Task, boolean, long, LocalDateTime, long)}
+     */
+    public long generation() {
+        lock.lock();
+        try {
+            return generation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Tells that a write went straight to the repository, so that tasks read before it are not edited
+     */
+    public void written() {
+        lock.lock();
+        try {
+            generation++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Edits a task, keeping its title, unless the task was read from the repository before it may have changed
+     *
+     * @param task current state of the task, read from this buffer or from the repository
+     * @param completed edited completion of the task
+     * @param order edited position of the task in the list
+     * @param dueDate edited due date
+     * @param generation generation read before reading the task
+     *
+     * @return edited task at its next version, or null if the task must be read again
+     */
+    public Task edit(final Task task,
+                     final boolean completed,
+                     final long order,
+                     final LocalDateTime dueDate,
+                     final long generation) {
+        final Task editedTask;
+        final boolean full;
+
+        lock.lock();
+        try {
+            final PendingEdit pendingEdit = pendingEdits.get(task.id());
+            final PendingEdit flushingEdit = flushingEdits.get(task.id());
+            final Task currentTask;
+            final long fromVersion;
+            final boolean fromCompleted;
+            if (pendingEdit != null) {
+                currentTask = pendingEdit.task();
+                fromVersion = pendingEdit.fromVersion();
+                fromCompleted = pendingEdit.fromCompleted();
+            } else if (flushingEdit != null) {
+                // Edited from the version being written
+                currentTask = flushingEdit.task();
+                fromVersion = currentTask.version();
+                fromCompleted = currentTask.completed();
+            } else if (generation == this.generation) {
+                currentTask = task;
+                fromVersion = task.version();
+                fromCompleted = task.completed();
+            } else {
+                return null;
+            }
+
+            editedTask = new Task(task.id(), currentTask.title(), completed, order, dueDate, currentTask.version() + 1);
+            pendingEdits.put(task.id(), new PendingEdit(editedTask, fromVersion, fromCompleted));
+            editCount++;
+            full = pendingEdit == null && pendingEdits.size() == maxPendingTasks;
+        } finally {
+            lock.unlock();
+        }
+
+        if (full && executorService != null) {
+            executorService.execute(this::flushSafely);
+        }
+
+        return editedTask;
+    }
+
+    /**
+     * Writes all pending edits in a single batch, and waits for them to be written
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            final Map<Long, PendingEdit> editsToFlush;
+
+            lock.lock();
+            try {
+                if (pendingEdits.isEmpty()) {
+                    return;
+                }
+                editsToFlush = pendingEdits;
+                flushingEdits = editsToFlush;
+                pendingEdits = new HashMap<>();
+            } finally {
+                lock.unlock();
+            }
+
+            List<Long> unsavedIds = List.of();
+            boolean failed = false;
+            try {
+                unsavedIds = taskRepository.saveTaskEdits(
+                        editsToFlush.values().stream().map(PendingEdit::toTaskEdit).toList()
+                );
+            } catch (final RuntimeException exception) {
+                LOGGER.warn("Could not write {} task edits, retrying on next flush", editsToFlush.size(), exception);
+                failed = true;
+            }
+
+            if (!unsavedIds.isEmpty()) {
+                LOGGER.warn("Dropped the edits of tasks {}, deleted or changed before they were written", unsavedIds);
+            }
+
+            lock.lock();
+            try {
+                if (failed) {
+                    // Edits made during the flush are newer, and were made from the version being written
+                    editsToFlush.forEach((id, flushingEdit) -> pendingEdits.merge(
+                            id,
+                            flushingEdit,
+                            (newerEdit, olderEdit) -> new PendingEdit(
+                                    newerEdit.task(), olderEdit.fromVersion(), olderEdit.fromCompleted()
+                            )
+                    ));
+                }
+                flushingEdits = Map.of();
+                generation++;
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of tasks with pending edits
+     *
+     * @return number of tasks
+     */
+    int pendingTasks() {
+        lock.lock();
+        try {
+            return pendingEdits.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Flushes periodically, logging a failure so that the next flushes still happen
+     */
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (final RuntimeException exception) {
+            LOGGER.warn("Task write-behind failed", exception);
+        }
+    }
+
+    /**
+     * Latest state of a task with pending edits
+     *
+     * @param task edited task
+     * @param fromVersion version of the task in the repository the edits were made on
+     * @param fromCompleted completion of the task the edits were made on
+     */
+    private record PendingEdit(Task task, long fromVersion, boolean fromCompleted) {
+
+        /**
+         * Gets the change in the number of completed tasks made by the edits
+         *
+         * @return 1 if the edits complete the task, -1 if they uncomplete it, 0 otherwise
+         */
+        private long completedDelta() {
+            return Boolean.compare(task.completed(), fromCompleted);
+        }
+
+        /**
+         * Gets the edit to write
+         *
+         * @return task edit
+         */
+        private TaskEdit toTaskEdit() {
+            return new TaskEdit(task.id(), task.completed(), task.order(), task.dueDate(), fromVersion, task.version());
+        }
+
+    }
+
+}
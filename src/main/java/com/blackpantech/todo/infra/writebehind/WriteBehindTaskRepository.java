@@ -0,0 +1,324 @@
+package com.blackpantech.todo.infra.writebehind;
+
+import com.blackpantech.todo.domain.task.ForwardingTaskRepository;
+import com.blackpantech.todo.domain.task.MovePosition;
+import com.blackpantech.todo.domain.task.Task;
+import com.blackpantech.todo.domain.task.TaskBulkUpdate;
+import com.blackpantech.todo.domain.task.TaskChanges;
+import com.blackpantech.todo.domain.task.TaskCursor;
+import com.blackpantech.todo.domain.task.TaskEdit;
+import com.blackpantech.todo.domain.task.TaskFilter;
+import com.blackpantech.todo.domain.task.TaskPage;
+import com.blackpantech.todo.domain.task.TaskPatch;
+import com.blackpantech.todo.domain.task.TaskRepository;
+import com.blackpantech.todo.domain.task.TaskSort;
+import com.blackpantech.todo.domain.task.TaskToCreate;
+import com.blackpantech.todo.domain.task.exceptions.DuplicatedTaskTitleException;
+import com.blackpantech.todo.domain.task.exceptions.OrderGapExhaustedException;
+import com.blackpantech.todo.domain.task.exceptions.TaskNotFoundException;
+import com.blackpantech.todo.domain.task.exceptions.TaskVersionMismatchException;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Task repository decorator keeping the edits that do not change titles in a write-behind buffer. Reads lay the
+ * pending edits over the tasks read from the repository, so that edits are seen as soon as they are acknowledged,
+ * while they are only written on the flush interval or once the buffer is full. Titles are only known to be unique by
+ * the repository, so edits changing them are written through. Other writes write the pending edits first, so that they
+ * apply on top of the acknowledged edits.
+ */
+public class WriteBehindTaskRepository extends ForwardingTaskRepository {
+
+    private final TaskEditBuffer taskEditBuffer;
+
+    public WriteBehindTaskRepository(final TaskRepository delegate, final TaskEditBuffer taskEditBuffer) {
+        super(delegate);
+        this.taskEditBuffer = taskEditBuffer;
+    }
+
+    @Override
+    public Task getTask(final long id) throws TaskNotFoundException {
+        final Task editedTask = taskEditBuffer.get(id);
+
+        return editedTask != null ? editedTask : delegate.getTask(id);
+    }
+
+    @Override
+    public Task createTask(final String title, final LocalDateTime dueDate) throws DuplicatedTaskTitleException {
+        taskEditBuffer.flush();
+        try {
+            return delegate.createTask(title, dueDate);
+        } finally {
+            taskEditBuffer.written();
+        }
+    }
+
+    @Override
+    public List<Task> createTasks(final List<TaskToCreate> tasksToCreate) throws DuplicatedTaskTitleException {
+        taskEditBuffer.flush();
+        try {
+            return delegate.createTasks(tasksToCreate);
+        } finally {
+            taskEditBuffer.written();
+        }
+    }
+
+    @Override
+    public Task editTask(final long id,
+                         final String title,
+                         final boolean completed,
+                         final long order,
+                         final LocalDateTime dueDate)
+            throws DuplicatedTaskTitleException, TaskNotFoundException {
+        while (true) {
+            final long generation = taskEditBuffer.generation();
+            final Task task = getTask(id);
+
+            if (!task.title().equals(title)) {
+                taskEditBuffer.flush();
+                try {
+                    return delegate.editTask(id, title, completed, order, dueDate);
+                } finally {
+                    taskEditBuffer.written();
+                }
+            }
+
+            final Task editedTask = taskEditBuffer.edit(task, completed, order, dueDate, generation);
+            if (editedTask != null) {
+                return editedTask;
+            }
+            // The task was read from the repository before a write which may have changed it
+        }
+    }
+
+    @Override
+    public void patchTask(final long id, final TaskPatch taskPatch)
+            throws DuplicatedTaskTitleException, TaskNotFoundException {
+        taskEditBuffer.flush();
+        try {
+            delegate.patchTask(id, taskPatch);
+        } finally {
+            taskEditBuffer.written();
+        }
+    }
+
+    @Override
+    public void patchTask(final long id, final TaskPatch taskPatch, final long expectedVersion)
+            throws DuplicatedTaskTitleException, TaskNotFoundException, TaskVersionMismatchException {
+        taskEditBuffer.flush();
+        try {
+            delegate.patchTask(id, taskPatch, expectedVersion);
+        } finally {
+            taskEditBuffer.written();
+        }
+    }
+
+    @Override
+    public long updateTasks(final TaskFilter taskFilter, final TaskBulkUpdate taskBulkUpdate) {
+        taskEditBuffer.flush();
+        try {
+            return delegate.updateTasks(taskFilter, taskBulkUpdate);
+        } finally {
+            taskEditBuffer.written();
+        }
+    }
+
+    @Override
+    public List<Long> saveTaskEdits(final List<TaskEdit> taskEdits) {
+        // Called by the flush of the buffer, through the decorators above
+        try {
+            return delegate.saveTaskEdits(taskEdits);
+        } finally {
+            taskEditBuffer.written();
+        }
+    }
+
+    @Override
+    public void moveTask(final long id, final long anchorId, final MovePosition position)
+            throws OrderGapExhaustedException, TaskNotFoundException, TaskVersionMismatchException {
+        taskEditBuffer.flush();
+        try {
+            delegate.moveTask(id, anchorId, position);
+        } finally {
+            taskEditBuffer.written();
+        }
+    }
+
+    @Override
+    public void rebalanceTaskOrders() {
+        taskEditBuffer.flush();
+        try {
+            delegate.rebalanceTaskOrders();
+        } finally {
+            taskEditBuffer.written();
+        }
+    }
+
+    @Override
+    public void deleteTask(final long id) throws TaskNotFoundException {
+        taskEditBuffer.flush();
+        try {
+            delegate.deleteTask(id);
+        } finally {
+            taskEditBuffer.written();
+        }
+    }
+
+    @Override
+    public List<Task> getAllTasks() {
+        final Map<Long, Task> editedTasks = taskEditBuffer.editedTasks();
+
+        return overlay(delegate.getAllTasks(), editedTasks);
+    }
+
+    @Override
+    public List<Task> findTasks(final TaskFilter taskFilter, final TaskSort taskSort) {
+        final Map<Long, Task> editedTasks = taskEditBuffer.editedTasks();
+        final List<Task> tasks = delegate.findTasks(taskFilter, taskSort);
+        if (editedTasks.isEmpty()) {
+            return tasks;
+        }
+
+        // Edits may move tasks in or out of the filter, and change their place in the sort
+        final Map<Long, Task> matchingTasks = new HashMap<>(tasks.size() + editedTasks.size());
+        tasks.forEach(task -> matchingTasks.put(task.id(), task));
+        matchingTasks.putAll(editedTasks);
+
+        return matchingTasks.values().stream()
+                .filter(taskFilter::matches)
+                .sorted(taskSort.comparator())
+                .toList();
+    }
+
+    @Override
+    public List<Task> searchTasks(final String query, final int limit) {
+        // Edits written behind keep titles, so they do not change the tasks found
+        final Map<Long, Task> editedTasks = taskEditBuffer.editedTasks();
+
+        return overlay(delegate.searchTasks(query, limit), editedTasks);
+    }
+
+    @Override
+    public TaskPage getTasksPage(final TaskCursor after, final int limit) {
+        final Map<Long, Task> editedTasks = taskEditBuffer.editedTasks();
+        final TaskPage taskPage = delegate.getTasksPage(after, limit);
+        if (editedTasks.isEmpty()) {
+            return taskPage;
+        }
+
+        // Edits may move tasks in or out of the positions covered by the page, which is cut again at the limit
+        final Map<Long, Task> pageTasks = new HashMap<>(taskPage.tasks().size() + editedTasks.size());
+        taskPage.tasks().forEach(task -> pageTasks.put(task.id(), task));
+        pageTasks.putAll(editedTasks);
+
+        final List<Task> tasks = pageTasks.values().stream()
+                .filter(task -> after == null || compare(task, after) > 0)
+                .filter(task -> taskPage.next() == null || compare(task, taskPage.next()) <= 0)
+                .sorted(TaskSort.ORDER.comparator())
+                .toList();
+        if (tasks.size() <= limit) {
+            return new TaskPage(tasks, taskPage.next());
+        }
+
+        final Task lastTask = tasks.get(limit - 1);
+
+        return new TaskPage(tasks.subList(0, limit), new TaskCursor(lastTask.order(), lastTask.id()));
+    }
+
+    @Override
+    public void forEachTask(final Consumer<Task> consumer) {
+        final Map<Long, Task> editedTasks = taskEditBuffer.editedTasks();
+
+        delegate.forEachTask(task -> consumer.accept(editedTasks.getOrDefault(task.id(), task)));
+    }
+
+    @Override
+    public TaskChanges getTaskChanges(final long since) {
+        // Edited tasks are only listed once their edits are written and given a change version
+        final Map<Long, Task> editedTasks = taskEditBuffer.editedTasks();
+        final TaskChanges taskChanges = delegate.getTaskChanges(since);
+
+        return new TaskChanges(
+                overlay(taskChanges.tasks(), editedTasks),
+                taskChanges.deletedIds(),
+                taskChanges.version(),
+                taskChanges.reset(),
+                taskChanges.more()
+        );
+    }
+
+    @Override
+    public long getTasksVersion() {
+        // Both only increase, so that the sum changes on each edit, written or not
+        return taskEditBuffer.editCount() + delegate.getTasksVersion();
+    }
+
+    @Override
+    public long getTaskVersion(final long id) throws TaskNotFoundException {
+        final Task editedTask = taskEditBuffer.get(id);
+
+        return editedTask != null ? editedTask.version() : delegate.getTaskVersion(id);
+    }
+
+    @Override
+    public long countCompletedTasks() {
+        final long completedTasksDelta = taskEditBuffer.completedTasksDelta();
+
+        return delegate.countCompletedTasks() + completedTasksDelta;
+    }
+
+    @Override
+    public void deleteAllTasks() {
+        taskEditBuffer.flush();
+        try {
+            delegate.deleteAllTasks();
+        } finally {
+            taskEditBuffer.written();
+        }
+    }
+
+    @Override
+    public void deleteAllCompletedTasks() {
+        taskEditBuffer.flush();
+        try {
+            delegate.deleteAllCompletedTasks();
+        } finally {
+            taskEditBuffer.written();
+        }
+    }
+
+    /**
+     * Lays edited tasks over tasks read from the repository, keeping their order
+     *
+     * @param tasks tasks read from the repository
+     * @param editedTasks latest state of the tasks with pending edits, read before the tasks
+     *
+     * @return tasks in their latest state
+     */
+    private static List<Task> overlay(final List<Task> tasks, final Map<Long, Task> editedTasks) {
+        if (editedTasks.isEmpty()) {
+            return tasks;
+        }
+
+        return tasks.stream().map(task -> editedTasks.getOrDefault(task.id(), task)).toList();
+    }
+
+    /**
+     * Compares the position of a task to a page cursor
+     *
+     * @param task task to compare
+     * @param cursor cursor to compare to
+     *
+     * @return negative, zero or positive if the task comes before, at or after the cursor
+     */
+    private static int compare(final Task task, final TaskCursor cursor) {
+        final int orderComparison = Long.compare(task.order(), cursor.order());
+
+        return orderComparison != 0 ? orderComparison : Long.compare(task.id(), cursor.id());
+    }
+
+}
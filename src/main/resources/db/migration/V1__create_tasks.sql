@@ -0,0 +1,26 @@
+-- Schema of the tasks. Every statement is idempotent, so that databases created before migrations, baselined at
+-- version 0, get the missing column and indexes without losing their tasks.
+
+-- Named as Hibernate named the default sequence of the tasks before migrations
+create sequence if not exists task_entity_seq start with 1 increment by 50;
+
+create table if not exists TASKS (
+    ID bigint not null primary key,
+    TITLE varchar(255),
+    COMPLETED boolean not null,
+    ORDER_POSITION bigint not null,
+    DUE_DATE timestamp(6),
+    constraint UK_TASKS_TITLE unique (TITLE)
+);
+
+-- Optimistic locking version, missing from tables created before migrations
+alter table TASKS add column if not exists VERSION bigint default 0 not null;
+
+-- Default sort, and seek pagination
+create index if not exists IDX_TASKS_ORDER_POSITION_ID on TASKS (ORDER_POSITION, ID);
+
+-- Filter on completion, in default sort
+create index if not exists IDX_TASKS_COMPLETED_ORDER_POSITION on TASKS (COMPLETED, ORDER_POSITION, ID);
+
+-- Filter on due date range, and sort by due date with tasks without due date last
+create index if not exists IDX_TASKS_DUE_DATE_ID on TASKS (DUE_DATE nulls last, ID);
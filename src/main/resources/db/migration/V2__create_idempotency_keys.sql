@@ -0,0 +1,16 @@
+-- Tasks created under an idempotency key, for the 'database' idempotency store shared by all nodes. A key is reserved
+-- with the requested title and due date before its task is created, the task columns staying null until then.
+
+create table if not exists IDEMPOTENCY_KEYS (
+    IDEMPOTENCY_KEY varchar(255) not null primary key,
+    TASK_ID bigint,
+    TITLE varchar(255),
+    COMPLETED boolean,
+    ORDER_POSITION bigint,
+    DUE_DATE timestamp(6),
+    VERSION bigint,
+    EXPIRES_AT timestamp(6) not null
+);
+
+-- Purge of expired keys
+create index if not exists IDX_IDEMPOTENCY_KEYS_EXPIRES_AT on IDEMPOTENCY_KEYS (EXPIRES_AT);
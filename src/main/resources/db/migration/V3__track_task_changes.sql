@@ -0,0 +1,30 @@
+-- Change versions of tasks and tombstones of deleted tasks, from which clients get the changes since their last sync.
+-- Tasks written before this migration are at version 0, only read by clients reading all tasks.
+
+alter table TASKS add column if not exists CHANGE_VERSION bigint default 0 not null;
+
+-- Change versions shared by all nodes, uncached so that versions are given in increasing order
+create sequence if not exists task_change_version_seq start with 1 increment by 1;
+
+-- Tasks changed since a version
+create index if not exists IDX_TASKS_CHANGE_VERSION on TASKS (CHANGE_VERSION);
+
+-- Tasks deleted since a version, on the primary key
+create table if not exists TASK_TOMBSTONES (
+    CHANGE_VERSION bigint not null,
+    TASK_ID bigint not null,
+    DELETED_AT timestamp(6) not null,
+    primary key (CHANGE_VERSION, TASK_ID)
+);
+
+-- Compaction of the tombstones past the retention
+create index if not exists IDX_TASK_TOMBSTONES_DELETED_AT on TASK_TOMBSTONES (DELETED_AT);
+
+-- Version up to which tombstones are compacted or tasks were deleted without tombstones, in a single row
+create table if not exists TASK_CHANGE_HORIZON (
+    ID int primary key,
+    VERSION bigint not null
+);
+
+insert into TASK_CHANGE_HORIZON (ID, VERSION)
+select 1, 0 where not exists (select ID from TASK_CHANGE_HORIZON where ID = 1);
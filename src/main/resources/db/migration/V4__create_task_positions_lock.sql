@@ -0,0 +1,9 @@
+-- Single row locked by writes of tasks, shared, and by rebalancing of positions, exclusive, so that no node writes a
+-- task with a position computed before a rebalance, or in the middle of it
+
+create table if not exists TASK_POSITIONS_LOCK (
+    ID int primary key
+);
+
+insert into TASK_POSITIONS_LOCK (ID)
+select 1 where not exists (select ID from TASK_POSITIONS_LOCK where ID = 1);
@@ -0,0 +1,4 @@
+-- Due date of the last reminder sent for a task, set by the node claiming it, so that a reminder is sent once across
+-- nodes and restarts
+
+alter table TASKS add column if not exists REMINDED_DUE_DATE timestamp(6);
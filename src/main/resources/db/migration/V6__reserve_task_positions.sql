@@ -0,0 +1,14 @@
+-- Slots of task positions shared by all nodes, reserved by blocks of 50 as the IDs of tasks are. The value read from
+-- the sequence is the last slot of the block.
+create sequence if not exists task_order_seq start with 50 increment by 50;
+
+-- Position after which slots are spread by the gap, above the positions of the tasks written before this migration,
+-- in a single row
+create table if not exists TASK_ORDER_BASE (
+    ID int primary key,
+    POSITION bigint not null
+);
+
+insert into TASK_ORDER_BASE (ID, POSITION)
+select 1, (select coalesce(max(ORDER_POSITION), 0) from TASKS)
+where not exists (select ID from TASK_ORDER_BASE where ID = 1);
@@ -0,0 +1,3 @@
+-- Writes of tasks no longer lock positions: moves and rebalancing write positions at the version they read instead,
+-- and retry when the other one changed the task meanwhile
+drop table if exists TASK_POSITIONS_LOCK;
@@ -0,0 +1,132 @@
+package com.blackpantech.todo.domain.task;
+
+import com.blackpantech.todo.domain.task.exceptions.DuplicatedTaskTitleException;
+import com.blackpantech.todo.domain.task.exceptions.TaskMoveConflictException;
+import com.blackpantech.todo.domain.task.exceptions.TaskNotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.Mock;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+public class ReactiveTaskServiceTest {
+
+    @Mock
+    final ReactiveTaskRepository reactiveTaskRepository = mock(ReactiveTaskRepository.class);
+
+    @Mock
+    final TaskService taskService = mock(TaskService.class);
+
+    final ReactiveTaskService reactiveTaskService = new ReactiveTaskService(reactiveTaskRepository, taskService);
+
+    @Test
+    @DisplayName("should get a single task")
+    void shouldGetTask() {
+        final Task task = new Task(1L, "title", false, 1L, null, 0L);
+        when(reactiveTaskRepository.getTask(1L)).thenReturn(Mono.just(task));
+
+        StepVerifier.create(reactiveTaskService.getTask(1L))
+                .expectNext(task)
+                .verifyComplete();
+
+        verify(reactiveTaskRepository).getTask(1L);
+        verifyNoMoreInteractions(reactiveTaskRepository);
+    }
+
+    @Test
+    @DisplayName("should signal a missing task")
+    void shouldNotFindTask_whenGetTask() {
+        when(reactiveTaskRepository.getTask(1L)).thenReturn(Mono.error(new TaskNotFoundException(1L)));
+
+        StepVerifier.create(reactiveTaskService.getTask(1L))
+                .verifyError(TaskNotFoundException.class);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "0, 1",
+            "20, 20",
+            "1000, 100"
+    })
+    @DisplayName("should get a page of tasks with a bounded size")
+    void shouldGetTasksPage(final int limit, final int expectedLimit) {
+        final TaskPage taskPage = new TaskPage(List.of(), null);
+        when(reactiveTaskRepository.getTasksPage(null, expectedLimit)).thenReturn(Mono.just(taskPage));
+
+        StepVerifier.create(reactiveTaskService.getTasksPage(null, limit))
+                .expectNext(taskPage)
+                .verifyComplete();
+
+        verify(reactiveTaskRepository).getTasksPage(null, expectedLimit);
+        verifyNoMoreInteractions(reactiveTaskRepository);
+    }
+
+    @Test
+    @DisplayName("should create a task through the blocking service")
+    void shouldCreateTask() throws DuplicatedTaskTitleException {
+        final Task task = new Task(1L, "title", false, 1024L, null, 0L);
+        when(taskService.createTask("title", null)).thenReturn(task);
+
+        StepVerifier.create(reactiveTaskService.createTask("title", null))
+                .expectNext(task)
+                .verifyComplete();
+
+        verify(taskService).createTask("title", null);
+        verifyNoMoreInteractions(taskService);
+        verifyNoInteractions(reactiveTaskRepository);
+    }
+
+    @Test
+    @DisplayName("should signal a duplicated title of the blocking service")
+    void shouldFindDuplicatedTitle_whenCreateTask() throws DuplicatedTaskTitleException {
+        when(taskService.createTask("title", null)).thenThrow(new DuplicatedTaskTitleException("title"));
+
+        StepVerifier.create(reactiveTaskService.createTask("title", null))
+                .verifyError(DuplicatedTaskTitleException.class);
+    }
+
+    @Test
+    @DisplayName("should patch a task through the blocking service")
+    void shouldPatchTask() throws DuplicatedTaskTitleException, TaskNotFoundException {
+        final TaskPatch taskPatch = new TaskPatch(null, true, null, null, false);
+
+        StepVerifier.create(reactiveTaskService.patchTask(1L, taskPatch))
+                .verifyComplete();
+
+        verify(taskService).patchTask(1L, taskPatch);
+        verifyNoMoreInteractions(taskService);
+        verifyNoInteractions(reactiveTaskRepository);
+    }
+
+    @Test
+    @DisplayName("should signal a missing task of the blocking service when moving it")
+    void shouldNotFindTask_whenMoveTask() throws TaskNotFoundException, TaskMoveConflictException {
+        doThrow(new TaskNotFoundException(1L)).when(taskService).moveTask(1L, 2L, MovePosition.AFTER);
+
+        StepVerifier.create(reactiveTaskService.moveTask(1L, 2L, MovePosition.AFTER))
+                .verifyError(TaskNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("should search tasks through the blocking service")
+    void shouldSearchTasks() {
+        final Task task = new Task(1L, "title", false, 1024L, null, 0L);
+        when(taskService.searchTasks("tit", 20)).thenReturn(List.of(task));
+
+        StepVerifier.create(reactiveTaskService.searchTasks("tit", 20))
+                .expectNext(task)
+                .verifyComplete();
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.blackpantech.todo.domain.task;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TaskChangeVersionsTest {
+
+    private static final Instant NOW = Instant.parse("2025-02-24T13:30:00Z");
+
+    @Mock
+    final Clock clock = mock(Clock.class);
+
+    final AtomicLong lastVersion = new AtomicLong(100L);
+
+    final TaskChangeVersions taskChangeVersions =
+            new TaskChangeVersions(Duration.ofSeconds(5), Duration.ofDays(30), lastVersion::incrementAndGet, clock);
+
+    @BeforeEach
+    void setUp() {
+        setNow(NOW);
+    }
+
+    @Test
+    @DisplayName("should give versions from the version source")
+    void shouldGiveVersionsFromSource() {
+        assertEquals(101L, taskChangeVersions.next());
+        assertEquals(102L, taskChangeVersions.next());
+    }
+
+    @Test
+    @DisplayName("should resume reading changes from the last version given before the overlap, at most where read")
+    void shouldResumeFromSettledVersion() {
+        taskChangeVersions.next();
+        setNow(NOW.plusSeconds(3));
+        taskChangeVersions.next();
+        setNow(NOW.plusSeconds(4));
+
+        // No version was given before the overlap yet
+        assertEquals(50L, taskChangeVersions.resumeVersion(50L, 200L));
+
+        setNow(NOW.plusSeconds(7));
+        assertEquals(101L, taskChangeVersions.resumeVersion(50L, 200L));
+        assertEquals(90L, taskChangeVersions.resumeVersion(50L, 90L));
+        assertEquals(150L, taskChangeVersions.resumeVersion(150L, 200L));
+
+        setNow(NOW.plusSeconds(9));
+        taskChangeVersions.next();
+        assertEquals(102L, taskChangeVersions.resumeVersion(50L, 200L));
+    }
+
+    @Test
+    @DisplayName("should resume reading changes from the latest version read before the overlap, without giving one")
+    void shouldResumeFromSettledCurrentVersion() {
+        assertEquals(90L, taskChangeVersions.current(90L));
+
+        setNow(NOW.plusSeconds(7));
+        assertEquals(90L, taskChangeVersions.resumeVersion(50L, 200L));
+        assertEquals(101L, taskChangeVersions.next());
+    }
+
+    @Test
+    @DisplayName("should reset reads from the start, from before the horizon, or from versions not given yet")
+    void shouldNeedReset() {
+        assertTrue(taskChangeVersions.needsReset(0L, 0L, 100L));
+        assertTrue(taskChangeVersions.needsReset(49L, 50L, 100L));
+        assertFalse(taskChangeVersions.needsReset(50L, 50L, 100L));
+        assertFalse(taskChangeVersions.needsReset(100L, 50L, 100L));
+        assertTrue(taskChangeVersions.needsReset(101L, 50L, 100L));
+    }
+
+    @Test
+    @DisplayName("should compact tombstones older than the retention")
+    void shouldGiveTombstoneCutoff() {
+        assertEquals(LocalDateTime.parse("2025-02-24T13:30:00"), taskChangeVersions.now());
+        assertEquals(LocalDateTime.parse("2025-01-25T13:30:00"), taskChangeVersions.tombstoneCutoff());
+    }
+
+    @Test
+    @DisplayName("should tell a single caller to compact tombstones once per minute")
+    void shouldCompactOncePerMinute() {
+        assertTrue(taskChangeVersions.compactionDue());
+        assertFalse(taskChangeVersions.compactionDue());
+
+        setNow(NOW.plusSeconds(59));
+        assertFalse(taskChangeVersions.compactionDue());
+
+        setNow(NOW.plusSeconds(60));
+        assertTrue(taskChangeVersions.compactionDue());
+        assertFalse(taskChangeVersions.compactionDue());
+    }
+
+    /**
+     * Sets the current time of the clock
+     *
+     * @param now current time
+     */
+    private void setNow(final Instant now) {
+        when(clock.instant()).thenReturn(now);
+        when(clock.millis()).thenReturn(now.toEpochMilli());
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.blackpantech.todo.domain.task;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskFilterTest {
+
+    @Test
+    @DisplayName("should match all tasks without criteria")
+    void shouldMatchAllTasks_whenNoCriteria() {
+        final TaskFilter taskFilter = new TaskFilter(null, null, null, null);
+
+        assertTrue(taskFilter.matches(new Task(1L, "title", false, 1L, null, 0L)));
+        assertTrue(taskFilter.matches(new Task(2L, "title 2", true, 2L, LocalDateTime.now(), 0L)));
+    }
+
+    @Test
+    @DisplayName("should match tasks with given IDs and completion only")
+    void shouldMatchIdsAndCompletion() {
+        final TaskFilter taskFilter = new TaskFilter(List.of(1L, 2L), false, null, null);
+
+        assertTrue(taskFilter.matches(new Task(1L, "title", false, 1L, null, 0L)));
+        assertFalse(taskFilter.matches(new Task(2L, "title", true, 1L, null, 0L)));
+        assertFalse(taskFilter.matches(new Task(3L, "title", false, 1L, null, 0L)));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "2025-02-24T13:30:00, true",
+            "2025-02-28T23:59:59, true",
+            "2025-02-24T13:29:59, false",
+            "2025-03-01T00:00:00, false",
+            ", false"
+    })
+    @DisplayName("should match tasks due in a range including its lower bound only")
+    void shouldMatchDueDateRange(final LocalDateTime dueDate, final boolean expectedMatch) {
+        final TaskFilter taskFilter = new TaskFilter(
+                null,
+                null,
+                LocalDateTime.parse("2025-02-24T13:30:00"),
+                LocalDateTime.parse("2025-03-01T00:00:00")
+        );
+
+        assertEquals(expectedMatch, taskFilter.matches(new Task(1L, "title", false, 1L, dueDate, 0L)));
+    }
+
+}
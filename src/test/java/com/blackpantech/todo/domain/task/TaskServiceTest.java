@@ -1,7 +1,10 @@
 package com.blackpantech.todo.domain.task;
 
 import com.blackpantech.todo.domain.task.exceptions.DuplicatedTaskTitleException;
+import com.blackpantech.todo.domain.task.exceptions.OrderGapExhaustedException;
+import com.blackpantech.todo.domain.task.exceptions.TaskMoveConflictException;
 import com.blackpantech.todo.domain.task.exceptions.TaskNotFoundException;
+import com.blackpantech.todo.domain.task.exceptions.TaskVersionMismatchException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -9,9 +12,11 @@ import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Mock;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -19,6 +24,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -41,7 +47,7 @@ public class TaskServiceTest {
                        final long order,
                        final LocalDateTime dueDate)
             throws TaskNotFoundException {
-        final Task task = new Task(id, title, completed, order, dueDate);
+        final Task task = new Task(id, title, completed, order, dueDate, 0L);
         when(taskRepository.getTask(id)).thenReturn(task);
 
         final Task fetchedTask = taskService.getTask(id);
@@ -70,7 +76,7 @@ public class TaskServiceTest {
     })
     @DisplayName("should create a task")
     void shouldCreateTask(final String title, final LocalDateTime dueDate) throws DuplicatedTaskTitleException {
-        final Task task = new Task(0L, title, false, 1L, dueDate);
+        final Task task = new Task(0L, title, false, 1L, dueDate, 0L);
         when(taskRepository.createTask(title, dueDate)).thenReturn(task);
 
         final Task createdTask = taskService.createTask(title, dueDate);
@@ -108,7 +114,7 @@ public class TaskServiceTest {
                         final long order,
                         final LocalDateTime dueDate)
             throws TaskNotFoundException, DuplicatedTaskTitleException {
-        final Task task = new Task(id, title, completed, order, dueDate);
+        final Task task = new Task(id, title, completed, order, dueDate, 0L);
         when(taskRepository.editTask(id, title, completed, order, dueDate)).thenReturn(task);
 
         final Task createdTask = taskService.editTask(id, title, completed, order, dueDate);
@@ -160,6 +166,154 @@ public class TaskServiceTest {
         verifyNoMoreInteractions(taskRepository);
     }
 
+    @Test
+    @DisplayName("should patch a task")
+    void shouldPatchTask() throws TaskNotFoundException, DuplicatedTaskTitleException {
+        final TaskPatch taskPatch = new TaskPatch(null, true, null, null, false);
+
+        taskService.patchTask(1L, taskPatch);
+
+        verify(taskRepository).patchTask(1L, taskPatch);
+        verifyNoMoreInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("should only check that the task exists when patching nothing")
+    void shouldCheckTask_whenPatchTaskWithEmptyPatch() throws TaskNotFoundException {
+        doThrow(new TaskNotFoundException(1L)).when(taskRepository).getTaskVersion(1L);
+
+        assertThrows(TaskNotFoundException.class,
+                () -> taskService.patchTask(1L, new TaskPatch(null, null, null, null, false)));
+
+        verify(taskRepository).getTaskVersion(1L);
+        verifyNoMoreInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("should edit a task at the expected version with a conditional patch, without reading it")
+    void shouldEditTask_withExpectedVersion()
+            throws TaskNotFoundException, DuplicatedTaskTitleException, TaskVersionMismatchException {
+        final LocalDateTime dueDate = LocalDateTime.parse("2025-02-24T13:30:00");
+
+        final Task editedTask = taskService.editTask(1L, "title", true, 2L, dueDate, 3L);
+
+        assertEquals(new Task(1L, "title", true, 2L, dueDate, 4L), editedTask);
+        verify(taskRepository).patchTask(1L, new TaskPatch("title", true, 2L, dueDate, true), 3L);
+        verifyNoMoreInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("should patch a task at the expected version and get its next version")
+    void shouldPatchTask_withExpectedVersion()
+            throws TaskNotFoundException, DuplicatedTaskTitleException, TaskVersionMismatchException {
+        final TaskPatch taskPatch = new TaskPatch(null, true, null, null, false);
+
+        assertEquals(4L, taskService.patchTask(1L, taskPatch, 3L));
+
+        verify(taskRepository).patchTask(1L, taskPatch, 3L);
+        verifyNoMoreInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("should only check the version of the task when patching nothing at an expected version")
+    void shouldCheckVersion_whenPatchTaskWithEmptyPatch() throws TaskNotFoundException {
+        when(taskRepository.getTaskVersion(1L)).thenReturn(5L);
+        final TaskPatch emptyPatch = new TaskPatch(null, null, null, null, false);
+
+        assertThrows(TaskVersionMismatchException.class, () -> taskService.patchTask(1L, emptyPatch, 3L));
+
+        verify(taskRepository).getTaskVersion(1L);
+        verifyNoMoreInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("should move a task")
+    void shouldMoveTask() throws Exception {
+        taskService.moveTask(1L, 2L, MovePosition.BEFORE);
+
+        verify(taskRepository).moveTask(1L, 2L, MovePosition.BEFORE);
+        verifyNoMoreInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("should rebalance positions and move the task again when the gap is used up")
+    void shouldRebalanceTaskOrders_whenMoveTaskExhaustsGap() throws Exception {
+        doThrow(new OrderGapExhaustedException(1L, 2L))
+                .doNothing()
+                .when(taskRepository).moveTask(1L, 2L, MovePosition.AFTER);
+
+        taskService.moveTask(1L, 2L, MovePosition.AFTER);
+
+        verify(taskRepository, times(2)).moveTask(1L, 2L, MovePosition.AFTER);
+        verify(taskRepository).rebalanceTaskOrders();
+        verifyNoMoreInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("should move the task again when it was written or renumbered meanwhile")
+    void shouldMoveTaskAgain_whenVersionMismatch() throws Exception {
+        doThrow(new TaskVersionMismatchException(1L, 3L))
+                .doNothing()
+                .when(taskRepository).moveTask(1L, 2L, MovePosition.AFTER);
+
+        taskService.moveTask(1L, 2L, MovePosition.AFTER);
+
+        verify(taskRepository, times(2)).moveTask(1L, 2L, MovePosition.AFTER);
+        verifyNoMoreInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("should give up moving a task after a few attempts while the gap is used up or the task written")
+    void shouldNotMoveTask_whenAttemptsUsedUp() throws Exception {
+        doThrow(new OrderGapExhaustedException(1L, 2L))
+                .doThrow(new TaskVersionMismatchException(1L, 3L))
+                .doThrow(new OrderGapExhaustedException(1L, 2L))
+                .when(taskRepository).moveTask(1L, 2L, MovePosition.AFTER);
+
+        assertThrows(TaskMoveConflictException.class, () -> taskService.moveTask(1L, 2L, MovePosition.AFTER));
+
+        verify(taskRepository, times(TaskService.MAX_MOVE_ATTEMPTS)).moveTask(1L, 2L, MovePosition.AFTER);
+        verify(taskRepository, times(2)).rebalanceTaskOrders();
+        verifyNoMoreInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("should only check that the task exists when moving a task next to itself")
+    void shouldCheckTask_whenMoveTaskNextToItself() throws TaskNotFoundException, TaskMoveConflictException {
+        taskService.moveTask(1L, 1L, MovePosition.BEFORE);
+
+        verify(taskRepository).getTaskVersion(1L);
+        verifyNoMoreInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("should update tasks matching a filter")
+    void shouldUpdateTasks() {
+        final TaskFilter taskFilter = new TaskFilter(null, false, null, null);
+        final TaskBulkUpdate taskBulkUpdate = new TaskBulkUpdate(true, null);
+        when(taskRepository.updateTasks(taskFilter, taskBulkUpdate)).thenReturn(3L);
+
+        assertEquals(3L, taskService.updateTasks(taskFilter, taskBulkUpdate));
+
+        verify(taskRepository).updateTasks(taskFilter, taskBulkUpdate);
+        verifyNoMoreInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("should update no task when changing nothing or filtering no ID")
+    void shouldUpdateNoTask_whenNothingToUpdate() {
+        assertEquals(0L, taskService.updateTasks(
+                new TaskFilter(null, null, null, null),
+                new TaskBulkUpdate(null, Duration.ZERO)
+        ));
+        assertEquals(0L, taskService.updateTasks(
+                new TaskFilter(Collections.emptyList(), null, null, null),
+                new TaskBulkUpdate(true, null)
+        ));
+
+        verifyNoMoreInteractions(taskRepository);
+    }
+
     @ParameterizedTest
     @ValueSource(longs = {1L, 3L, 5L})
     @DisplayName("should delete a single task")
@@ -193,7 +347,7 @@ public class TaskServiceTest {
                            final boolean completed,
                            final long order,
                            final LocalDateTime dueDate) {
-        final List<Task> tasks = Collections.singletonList(new Task(id, title, completed, order, dueDate));
+        final List<Task> tasks = Collections.singletonList(new Task(id, title, completed, order, dueDate, 0L));
         when(taskRepository.getAllTasks()).thenReturn(tasks);
 
         final List<Task> fetchedTasks = taskService.getAllTasks();
@@ -204,6 +358,124 @@ public class TaskServiceTest {
         verifyNoMoreInteractions(taskRepository);
     }
 
+    @Test
+    @DisplayName("should get the tasks matching a filter in a given order")
+    void shouldFindTasks() {
+        final TaskFilter taskFilter = new TaskFilter(null, true, null, null);
+        final List<Task> tasks = List.of(new Task(1L, "title", true, 1L, null, 0L));
+        when(taskRepository.findTasks(taskFilter, TaskSort.TITLE)).thenReturn(tasks);
+
+        assertEquals(tasks, taskService.findTasks(taskFilter, TaskSort.TITLE));
+
+        verify(taskRepository).findTasks(taskFilter, TaskSort.TITLE);
+        verifyNoMoreInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("should search tasks by title with a capped limit")
+    void shouldSearchTasks() {
+        final List<Task> tasks = List.of(new Task(1L, "title", false, 1L, null, 0L));
+        when(taskRepository.searchTasks("tit", TaskService.MAX_PAGE_SIZE)).thenReturn(tasks);
+
+        assertEquals(tasks, taskService.searchTasks("tit", 1000));
+
+        verify(taskRepository).searchTasks("tit", TaskService.MAX_PAGE_SIZE);
+        verifyNoMoreInteractions(taskRepository);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "   ", "ti"})
+    @DisplayName("should not search tasks with a blank query or one shorter than a trigram")
+    void shouldNotSearchTasks_whenBlankOrShortQuery(final String query) {
+        assertEquals(List.of(), taskService.searchTasks(query, 20));
+
+        verifyNoMoreInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("should create tasks in batch")
+    void shouldCreateTasks() throws DuplicatedTaskTitleException {
+        final List<TaskToCreate> tasksToCreate = List.of(
+                new TaskToCreate("title 1", null),
+                new TaskToCreate("title 2", LocalDateTime.parse("2025-02-24T13:30:00"))
+        );
+        final List<Task> tasks = List.of(
+                new Task(1L, "title 1", false, 1L, null, 0L),
+                new Task(2L, "title 2", false, 2L, LocalDateTime.parse("2025-02-24T13:30:00"), 0L)
+        );
+        when(taskRepository.createTasks(tasksToCreate)).thenReturn(tasks);
+
+        final List<Task> createdTasks = taskService.createTasks(tasksToCreate);
+
+        assertEquals(tasks, createdTasks);
+        verify(taskRepository).createTasks(tasksToCreate);
+        verifyNoMoreInteractions(taskRepository);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "10, 10",
+            "0, 1",
+            "1000, 100"
+    })
+    @DisplayName("should get a page of tasks with a capped limit")
+    void shouldGetTasksPage(final int limit, final int expectedLimit) {
+        final TaskCursor after = new TaskCursor(1L, 1L);
+        final TaskPage taskPage = new TaskPage(Collections.emptyList(), null);
+        when(taskRepository.getTasksPage(after, expectedLimit)).thenReturn(taskPage);
+
+        final TaskPage fetchedTaskPage = taskService.getTasksPage(after, limit);
+
+        assertEquals(taskPage, fetchedTaskPage);
+        verify(taskRepository).getTasksPage(after, expectedLimit);
+        verifyNoMoreInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("should stream all tasks")
+    void shouldStreamAllTasks() {
+        final Consumer<Task> consumer = task -> { };
+
+        taskService.forEachTask(consumer);
+
+        verify(taskRepository).forEachTask(consumer);
+        verifyNoMoreInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("should get task changes since a change version")
+    void shouldGetTaskChanges() {
+        final TaskChanges taskChanges = new TaskChanges(List.of(), List.of(2L), 3_000L, false, false);
+        when(taskRepository.getTaskChanges(1_000L)).thenReturn(taskChanges);
+
+        assertEquals(taskChanges, taskService.getTaskChanges(1_000L));
+
+        verify(taskRepository).getTaskChanges(1_000L);
+        verifyNoMoreInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("should get the version of all tasks")
+    void shouldGetTasksVersion() {
+        when(taskRepository.getTasksVersion()).thenReturn(7L);
+
+        assertEquals(7L, taskService.getTasksVersion());
+
+        verify(taskRepository).getTasksVersion();
+        verifyNoMoreInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("should get the version of a single task")
+    void shouldGetTaskVersion() throws TaskNotFoundException {
+        when(taskRepository.getTaskVersion(1L)).thenReturn(3L);
+
+        assertEquals(3L, taskService.getTaskVersion(1L));
+
+        verify(taskRepository).getTaskVersion(1L);
+        verifyNoMoreInteractions(taskRepository);
+    }
+
     @Test
     @DisplayName("should delete all tasks")
     void shouldDeleteAllTasks() {
@@ -222,4 +494,18 @@ public class TaskServiceTest {
         verifyNoMoreInteractions(taskRepository);
     }
 
+    @Test
+    @DisplayName("should count all tasks and completed tasks")
+    void shouldCountTasks() {
+        when(taskRepository.countTasks()).thenReturn(5L);
+        when(taskRepository.countCompletedTasks()).thenReturn(2L);
+
+        assertEquals(5L, taskService.countTasks());
+        assertEquals(2L, taskService.countCompletedTasks());
+
+        verify(taskRepository).countTasks();
+        verify(taskRepository).countCompletedTasks();
+        verifyNoMoreInteractions(taskRepository);
+    }
+
 }
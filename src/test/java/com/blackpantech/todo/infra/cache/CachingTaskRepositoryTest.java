@@ -0,0 +1,196 @@
+package com.blackpantech.todo.infra.cache;
+
+import com.blackpantech.todo.domain.task.MovePosition;
+import com.blackpantech.todo.domain.task.Task;
+import com.blackpantech.todo.domain.task.TaskBulkUpdate;
+import com.blackpantech.todo.domain.task.TaskFilter;
+import com.blackpantech.todo.domain.task.TaskPatch;
+import com.blackpantech.todo.domain.task.TaskRepository;
+import com.blackpantech.todo.domain.task.exceptions.DuplicatedTaskTitleException;
+import com.blackpantech.todo.domain.task.exceptions.OrderGapExhaustedException;
+import com.blackpantech.todo.domain.task.exceptions.TaskNotFoundException;
+import com.blackpantech.todo.domain.task.exceptions.TaskVersionMismatchException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CachingTaskRepositoryTest {
+
+    @Mock
+    final TaskRepository taskRepository = mock(TaskRepository.class);
+
+    final CachingTaskRepository cachingTaskRepository =
+            new CachingTaskRepository(taskRepository, new TaskCache(64, Duration.ofMinutes(1)));
+
+    @Test
+    @DisplayName("should get a task from the repository only once")
+    void shouldGetTaskOnce() throws TaskNotFoundException {
+        final Task task = new Task(1L, "title", false, 1L, null, 0L);
+        when(taskRepository.getTask(1L)).thenReturn(task);
+
+        assertEquals(task, cachingTaskRepository.getTask(1L));
+        assertEquals(task, cachingTaskRepository.getTask(1L));
+
+        verify(taskRepository, times(1)).getTask(1L);
+    }
+
+    @Test
+    @DisplayName("should get an edited task from the repository again")
+    void shouldInvalidateTask_whenEditTask() throws TaskNotFoundException, DuplicatedTaskTitleException {
+        final Task task = new Task(1L, "title", false, 1L, null, 0L);
+        final Task editedTask = new Task(1L, "title", true, 1L, null, 0L);
+        when(taskRepository.getTask(1L)).thenReturn(task, editedTask);
+        when(taskRepository.editTask(1L, "title", true, 1L, null)).thenReturn(editedTask);
+
+        cachingTaskRepository.getTask(1L);
+        cachingTaskRepository.editTask(1L, "title", true, 1L, null);
+
+        assertEquals(editedTask, cachingTaskRepository.getTask(1L));
+        verify(taskRepository, times(2)).getTask(1L);
+    }
+
+    @Test
+    @DisplayName("should get a patched task from the repository again")
+    void shouldInvalidateTask_whenPatchTask() throws TaskNotFoundException, DuplicatedTaskTitleException {
+        final TaskPatch taskPatch = new TaskPatch(null, true, null, null, false);
+        final Task task = new Task(1L, "title", false, 1L, null, 0L);
+        final Task patchedTask = new Task(1L, "title", true, 1L, null, 1L);
+        when(taskRepository.getTask(1L)).thenReturn(task, patchedTask);
+
+        cachingTaskRepository.getTask(1L);
+        cachingTaskRepository.patchTask(1L, taskPatch);
+
+        assertEquals(patchedTask, cachingTaskRepository.getTask(1L));
+        verify(taskRepository).patchTask(1L, taskPatch);
+        verify(taskRepository, times(2)).getTask(1L);
+    }
+
+    @Test
+    @DisplayName("should get a task from the repository again after a conditional patch, even a failed one")
+    void shouldInvalidateTask_whenPatchTaskWithExpectedVersion()
+            throws TaskNotFoundException, DuplicatedTaskTitleException, TaskVersionMismatchException {
+        final TaskPatch taskPatch = new TaskPatch(null, true, null, null, false);
+        final Task task = new Task(1L, "title", false, 1L, null, 3L);
+        when(taskRepository.getTask(1L)).thenReturn(task);
+        doThrow(new TaskVersionMismatchException(1L, 2L)).when(taskRepository).patchTask(1L, taskPatch, 2L);
+
+        cachingTaskRepository.getTask(1L);
+        assertThrows(TaskVersionMismatchException.class, () -> cachingTaskRepository.patchTask(1L, taskPatch, 2L));
+
+        assertEquals(task, cachingTaskRepository.getTask(1L));
+        verify(taskRepository, times(2)).getTask(1L);
+    }
+
+    @Test
+    @DisplayName("should get a moved task from the repository again")
+    void shouldInvalidateTask_whenMoveTask() throws TaskNotFoundException, OrderGapExhaustedException,
+            TaskVersionMismatchException {
+        when(taskRepository.getTask(1L)).thenReturn(new Task(1L, "title 1", false, 1024L, null, 0L));
+        when(taskRepository.getTask(2L)).thenReturn(new Task(2L, "title 2", false, 2048L, null, 0L));
+        cachingTaskRepository.getTask(1L);
+        cachingTaskRepository.getTask(2L);
+
+        cachingTaskRepository.moveTask(1L, 2L, MovePosition.AFTER);
+        cachingTaskRepository.getTask(1L);
+        cachingTaskRepository.getTask(2L);
+
+        verify(taskRepository).moveTask(1L, 2L, MovePosition.AFTER);
+        verify(taskRepository, times(2)).getTask(1L);
+        verify(taskRepository, times(1)).getTask(2L);
+    }
+
+    @Test
+    @DisplayName("should get tasks from the repository again once positions are rebalanced")
+    void shouldClearCache_whenRebalanceTaskOrders() throws TaskNotFoundException {
+        when(taskRepository.getTask(1L)).thenReturn(new Task(1L, "title", false, 1L, null, 0L));
+        cachingTaskRepository.getTask(1L);
+
+        cachingTaskRepository.rebalanceTaskOrders();
+        cachingTaskRepository.getTask(1L);
+
+        verify(taskRepository).rebalanceTaskOrders();
+        verify(taskRepository, times(2)).getTask(1L);
+    }
+
+    @Test
+    @DisplayName("should get tasks from the repository again once they are updated in bulk")
+    void shouldInvalidateMatchingTasks_whenUpdateTasks() throws TaskNotFoundException {
+        final TaskFilter taskFilter = new TaskFilter(null, false, null, null);
+        final TaskBulkUpdate taskBulkUpdate = new TaskBulkUpdate(true, null);
+        when(taskRepository.getTask(1L)).thenReturn(new Task(1L, "title 1", false, 1L, null, 0L));
+        when(taskRepository.getTask(2L)).thenReturn(new Task(2L, "title 2", true, 2L, null, 0L));
+        cachingTaskRepository.getTask(1L);
+        cachingTaskRepository.getTask(2L);
+
+        cachingTaskRepository.updateTasks(taskFilter, taskBulkUpdate);
+        cachingTaskRepository.getTask(1L);
+        cachingTaskRepository.getTask(2L);
+
+        verify(taskRepository).updateTasks(taskFilter, taskBulkUpdate);
+        verify(taskRepository, times(2)).getTask(1L);
+        verify(taskRepository, times(1)).getTask(2L);
+    }
+
+    @Test
+    @DisplayName("should get tasks from the repository again once completed tasks are deleted")
+    void shouldInvalidateCompletedTasks_whenDeleteAllCompletedTasks() throws TaskNotFoundException {
+        when(taskRepository.getTask(1L)).thenReturn(new Task(1L, "title 1", true, 1L, null, 0L));
+        when(taskRepository.getTask(2L)).thenReturn(new Task(2L, "title 2", false, 2L, null, 0L));
+        cachingTaskRepository.getTask(1L);
+        cachingTaskRepository.getTask(2L);
+
+        cachingTaskRepository.deleteAllCompletedTasks();
+        cachingTaskRepository.getTask(1L);
+        cachingTaskRepository.getTask(2L);
+
+        verify(taskRepository).deleteAllCompletedTasks();
+        verify(taskRepository, times(2)).getTask(1L);
+        verify(taskRepository, times(1)).getTask(2L);
+    }
+
+    @Test
+    @DisplayName("should get tasks from the repository again once all tasks are deleted")
+    void shouldClearCache_whenDeleteAllTasks() throws TaskNotFoundException {
+        when(taskRepository.getTask(1L)).thenReturn(new Task(1L, "title", false, 1L, null, 0L));
+        cachingTaskRepository.getTask(1L);
+
+        cachingTaskRepository.deleteAllTasks();
+        cachingTaskRepository.getTask(1L);
+
+        verify(taskRepository).deleteAllTasks();
+        verify(taskRepository, times(2)).getTask(1L);
+    }
+
+    @Test
+    @DisplayName("should get the version of a cached task without the repository")
+    void shouldGetCachedTaskVersion() throws TaskNotFoundException {
+        when(taskRepository.getTask(1L)).thenReturn(new Task(1L, "title", false, 1L, null, 3L));
+        cachingTaskRepository.getTask(1L);
+
+        assertEquals(3L, cachingTaskRepository.getTaskVersion(1L));
+
+        verify(taskRepository, never()).getTaskVersion(1L);
+    }
+
+    @Test
+    @DisplayName("should get the version of an uncached task from the repository")
+    void shouldGetTaskVersion() throws TaskNotFoundException {
+        when(taskRepository.getTaskVersion(1L)).thenReturn(3L);
+
+        assertEquals(3L, cachingTaskRepository.getTaskVersion(1L));
+
+        verify(taskRepository).getTaskVersion(1L);
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.blackpantech.todo.infra.cache;
+
+import com.blackpantech.todo.domain.task.Task;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskCacheTest {
+
+    final AtomicLong nanoClock = new AtomicLong();
+
+    final TaskCache taskCache = new TaskCache(64, Duration.ofSeconds(10), nanoClock::get);
+
+    @Test
+    @DisplayName("should get a cached task and count hits and misses")
+    void shouldGetCachedTask() {
+        final Task task = new Task(1L, "title", false, 1L, null, 0L);
+
+        assertNull(taskCache.get(1L));
+        taskCache.put(1L, task, taskCache.stamp(1L));
+
+        assertEquals(task, taskCache.get(1L));
+        assertEquals(1L, taskCache.hitCount());
+        assertEquals(1L, taskCache.missCount());
+    }
+
+    @Test
+    @DisplayName("should expire a cached task after its time to live")
+    void shouldExpireCachedTask() {
+        taskCache.put(1L, new Task(1L, "title", false, 1L, null, 0L), taskCache.stamp(1L));
+
+        nanoClock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertNull(taskCache.get(1L));
+        assertEquals(1L, taskCache.evictionCount());
+    }
+
+    @Test
+    @DisplayName("should not cache a task loaded before an invalidation")
+    void shouldNotCacheTask_whenInvalidatedWhileLoading() {
+        final long stamp = taskCache.stamp(1L);
+
+        taskCache.invalidate(1L);
+        taskCache.put(1L, new Task(1L, "stale title", false, 1L, null, 0L), stamp);
+
+        assertNull(taskCache.get(1L));
+    }
+
+    @Test
+    @DisplayName("should invalidate cached tasks matching a predicate")
+    void shouldInvalidateMatchingTasks() {
+        final Task completedTask = new Task(1L, "title 1", true, 1L, null, 0L);
+        final Task task = new Task(2L, "title 2", false, 2L, null, 0L);
+        taskCache.put(1L, completedTask, taskCache.stamp(1L));
+        taskCache.put(2L, task, taskCache.stamp(2L));
+
+        taskCache.invalidateIf(Task::completed);
+
+        assertNull(taskCache.get(1L));
+        assertEquals(task, taskCache.get(2L));
+    }
+
+    @Test
+    @DisplayName("should never hold more tasks than its capacity")
+    void shouldEvictTasks_whenFull() {
+        final int tasks = taskCache.capacity() * 4;
+
+        for (long id = 1; id <= tasks; id++) {
+            taskCache.put(id, new Task(id, "title " + id, false, id, null, 0L), taskCache.stamp(id));
+        }
+
+        long cachedTasks = 0;
+        for (long id = 1; id <= tasks; id++) {
+            if (taskCache.get(id) != null) {
+                cachedTasks++;
+            }
+        }
+        assertTrue(cachedTasks <= taskCache.capacity());
+        assertEquals(tasks - cachedTasks, taskCache.evictionCount());
+    }
+
+}
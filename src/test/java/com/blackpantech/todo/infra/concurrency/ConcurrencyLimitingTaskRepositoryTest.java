@@ -0,0 +1,83 @@
+package com.blackpantech.todo.infra.concurrency;
+
+import com.blackpantech.todo.domain.task.Task;
+import com.blackpantech.todo.domain.task.TaskRepository;
+import com.blackpantech.todo.domain.task.exceptions.TaskNotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ConcurrencyLimitingTaskRepositoryTest {
+
+    @Mock
+    final TaskRepository taskRepository = mock(TaskRepository.class);
+
+    final DatabaseAccessLimiter databaseAccessLimiter = new DatabaseAccessLimiter(2);
+
+    final ConcurrencyLimitingTaskRepository concurrencyLimitingTaskRepository =
+            new ConcurrencyLimitingTaskRepository(taskRepository, databaseAccessLimiter);
+
+    @Test
+    @DisplayName("should let no more threads than permitted into the repository")
+    void shouldLimitConcurrency() throws Exception {
+        final AtomicInteger activeThreads = new AtomicInteger();
+        final AtomicInteger maxActiveThreads = new AtomicInteger();
+        when(taskRepository.getTask(anyLong())).thenAnswer(invocation -> {
+            maxActiveThreads.accumulateAndGet(activeThreads.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            activeThreads.decrementAndGet();
+            return new Task(invocation.getArgument(0), "title", false, 1L, null, 0L);
+        });
+
+        try (final ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor()) {
+            final List<Future<Task>> tasks = new ArrayList<>();
+            for (long id = 0; id < 100; id++) {
+                final long taskId = id;
+                tasks.add(executorService.submit(() -> concurrencyLimitingTaskRepository.getTask(taskId)));
+            }
+            for (final Future<Task> task : tasks) {
+                task.get();
+            }
+        }
+
+        assertTrue(maxActiveThreads.get() <= 2);
+        assertEquals(0, databaseAccessLimiter.activeCount());
+    }
+
+    @Test
+    @DisplayName("should give back the permit when the repository throws")
+    void shouldReleasePermit_whenRepositoryThrows() throws TaskNotFoundException {
+        when(taskRepository.getTask(1L)).thenThrow(new TaskNotFoundException(1L));
+
+        assertThrows(TaskNotFoundException.class, () -> concurrencyLimitingTaskRepository.getTask(1L));
+
+        verify(taskRepository).getTask(1L);
+        assertEquals(0, databaseAccessLimiter.activeCount());
+    }
+
+    @Test
+    @DisplayName("should get the version of all tasks without waiting for a permit")
+    void shouldNotLimitTasksVersion() {
+        when(taskRepository.getTasksVersion()).thenReturn(7L);
+        databaseAccessLimiter.acquire();
+        databaseAccessLimiter.acquire();
+
+        assertEquals(7L, concurrencyLimitingTaskRepository.getTasksVersion());
+    }
+
+}
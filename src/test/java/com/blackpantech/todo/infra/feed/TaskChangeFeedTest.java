@@ -0,0 +1,251 @@
+package com.blackpantech.todo.infra.feed;
+
+import com.blackpantech.todo.domain.task.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskChangeFeedTest {
+
+    private static final Task TASK = new Task(1L, "title", false, 1L, null, 0L);
+
+    TaskChangeFeed taskChangeFeed = feed(8, 4, SlowConsumerPolicy.RESYNC);
+
+    @AfterEach
+    void close() {
+        taskChangeFeed.close();
+    }
+
+    @Test
+    @DisplayName("should send published events in order to every subscriber")
+    void shouldFanOutEvents() throws InterruptedException {
+        final RecordingSink firstSink = new RecordingSink();
+        final RecordingSink secondSink = new RecordingSink();
+        taskChangeFeed.subscribe(null, firstSink);
+        taskChangeFeed.subscribe(null, secondSink);
+
+        taskChangeFeed.publish(TaskChangeType.CREATED, 1L, TASK);
+        taskChangeFeed.publish(TaskChangeType.DELETED, 1L, null);
+
+        for (final RecordingSink sink : new RecordingSink[]{firstSink, secondSink}) {
+            assertEquals(new TaskChangeEvent(101L, TaskChangeType.CREATED, 1L, TASK), sink.next());
+            assertEquals(new TaskChangeEvent(102L, TaskChangeType.DELETED, 1L, null), sink.next());
+        }
+    }
+
+    @Test
+    @DisplayName("should send events in order of their IDs, although offered by concurrent publishers")
+    void shouldSendEventsInOrder_whenPublishedConcurrently() throws InterruptedException {
+        taskChangeFeed = feed(64, 64, SlowConsumerPolicy.RESYNC);
+        final RecordingSink sink = new RecordingSink();
+        taskChangeFeed.subscribe(null, sink);
+
+        final CountDownLatch published = new CountDownLatch(4);
+        for (int publisher = 0; publisher < 4; publisher++) {
+            Thread.ofVirtual().start(() -> {
+                for (int event = 0; event < 10; event++) {
+                    taskChangeFeed.publish(TaskChangeType.EDITED, 1L, TASK);
+                }
+                published.countDown();
+            });
+        }
+
+        assertTrue(published.await(5, TimeUnit.SECONDS));
+        for (long id = 101L; id <= 140L; id++) {
+            assertEquals(id, sink.next().id());
+        }
+    }
+
+    @Test
+    @DisplayName("should resume after the last event ID from the events kept in the ring")
+    void shouldResume_afterLastEventId() throws InterruptedException {
+        taskChangeFeed.publish(TaskChangeType.CREATED, 1L, TASK);
+        taskChangeFeed.publish(TaskChangeType.EDITED, 1L, TASK);
+        taskChangeFeed.publish(TaskChangeType.DELETED, 1L, null);
+
+        final RecordingSink sink = new RecordingSink();
+        taskChangeFeed.subscribe(101L, sink);
+        taskChangeFeed.publish(TaskChangeType.RESYNC, 0L, null);
+
+        assertEquals(102L, sink.next().id());
+        assertEquals(103L, sink.next().id());
+        assertEquals(104L, sink.next().id());
+    }
+
+    @Test
+    @DisplayName("should resync a subscriber resuming after an event no longer in the ring, or from another run")
+    void shouldResync_whenLastEventIdIsGone() throws InterruptedException {
+        taskChangeFeed = feed(2, 4, SlowConsumerPolicy.RESYNC);
+        taskChangeFeed.publish(TaskChangeType.CREATED, 1L, TASK);
+        taskChangeFeed.publish(TaskChangeType.EDITED, 1L, TASK);
+        taskChangeFeed.publish(TaskChangeType.DELETED, 1L, null);
+
+        final RecordingSink lateSink = new RecordingSink();
+        taskChangeFeed.subscribe(100L, lateSink);
+        final RecordingSink restartedSink = new RecordingSink();
+        taskChangeFeed.subscribe(500L, restartedSink);
+        final RecordingSink resumingSink = new RecordingSink();
+        taskChangeFeed.subscribe(101L, resumingSink);
+
+        assertEquals(new TaskChangeEvent(103L, TaskChangeType.RESYNC, 0L, null), lateSink.next());
+        assertEquals(new TaskChangeEvent(103L, TaskChangeType.RESYNC, 0L, null), restartedSink.next());
+        assertEquals(102L, resumingSink.next().id());
+        assertEquals(103L, resumingSink.next().id());
+    }
+
+    @Test
+    @DisplayName("should drop the buffered events of a slow subscriber and resync it, without holding back writes")
+    void shouldResyncSlowSubscriber() throws InterruptedException {
+        final RecordingSink slowSink = new RecordingSink(new CountDownLatch(1));
+        taskChangeFeed.subscribe(null, slowSink);
+
+        taskChangeFeed.publish(TaskChangeType.CREATED, 1L, TASK);
+        assertTrue(slowSink.sending.await(5, TimeUnit.SECONDS));
+        for (int event = 0; event < 5; event++) {
+            taskChangeFeed.publish(TaskChangeType.EDITED, 1L, TASK);
+        }
+
+        slowSink.release.countDown();
+
+        assertEquals(101L, slowSink.next().id());
+        // Numbered after the last event sent, so that a reconnection replays the dropped events from the ring
+        assertEquals(new TaskChangeEvent(101L, TaskChangeType.RESYNC, 0L, null), slowSink.next());
+
+        taskChangeFeed.publish(TaskChangeType.DELETED, 1L, null);
+
+        assertEquals(new TaskChangeEvent(107L, TaskChangeType.DELETED, 1L, null), slowSink.next());
+    }
+
+    @Test
+    @DisplayName("should disconnect a slow subscriber with the disconnect policy")
+    void shouldDisconnectSlowSubscriber() throws InterruptedException {
+        taskChangeFeed = feed(8, 4, SlowConsumerPolicy.DISCONNECT);
+        final RecordingSink slowSink = new RecordingSink(new CountDownLatch(1));
+        final TaskChangeSubscription subscription = taskChangeFeed.subscribe(null, slowSink);
+
+        taskChangeFeed.publish(TaskChangeType.CREATED, 1L, TASK);
+        assertTrue(slowSink.sending.await(5, TimeUnit.SECONDS));
+        for (int event = 0; event < 5; event++) {
+            taskChangeFeed.publish(TaskChangeType.EDITED, 1L, TASK);
+        }
+
+        assertTrue(subscription.isClosed());
+        assertEquals(0, taskChangeFeed.subscribers());
+
+        slowSink.release.countDown();
+
+        assertTrue(slowSink.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(101L, slowSink.next().id());
+        assertNull(slowSink.events.poll());
+    }
+
+    @Test
+    @DisplayName("should send a heartbeat to an idle subscriber")
+    void shouldSendHeartbeat() throws InterruptedException {
+        taskChangeFeed = new TaskChangeFeed(8, 4, Duration.ofMillis(10), SlowConsumerPolicy.RESYNC, 100L);
+        final RecordingSink sink = new RecordingSink();
+        taskChangeFeed.subscribe(null, sink);
+
+        assertTrue(sink.heartbeats.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("should complete subscribers whose connection failed or which were closed")
+    void shouldCompleteSubscribers() throws InterruptedException {
+        final RecordingSink failingSink = new RecordingSink();
+        failingSink.failing = true;
+        final RecordingSink sink = new RecordingSink();
+        taskChangeFeed.subscribe(null, failingSink);
+        final TaskChangeSubscription subscription = taskChangeFeed.subscribe(null, sink);
+
+        taskChangeFeed.publish(TaskChangeType.CREATED, 1L, TASK);
+        assertTrue(failingSink.completed.await(5, TimeUnit.SECONDS));
+
+        subscription.close();
+        assertTrue(sink.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(0, taskChangeFeed.subscribers());
+    }
+
+    /**
+     * Creates a feed whose last event ID is 100, with heartbeats far apart
+     *
+     * @param historySize number of events kept in the ring
+     * @param subscriberBufferSize number of events buffered for each subscriber
+     * @param slowConsumerPolicy slow consumer policy
+     *
+     * @return task change feed
+     */
+    private static TaskChangeFeed feed(final int historySize,
+                                       final int subscriberBufferSize,
+                                       final SlowConsumerPolicy slowConsumerPolicy) {
+        return new TaskChangeFeed(historySize, subscriberBufferSize, Duration.ofMinutes(1), slowConsumerPolicy, 100L);
+    }
+
+    /**
+     * Sink recording sent events, which may block on its first event until released
+     */
+    private static class RecordingSink implements TaskChangeSink {
+
+        final BlockingQueue<TaskChangeEvent> events = new LinkedBlockingQueue<>();
+
+        final CountDownLatch sending = new CountDownLatch(1);
+
+        final CountDownLatch release;
+
+        final CountDownLatch heartbeats = new CountDownLatch(2);
+
+        final CountDownLatch completed = new CountDownLatch(1);
+
+        volatile boolean failing;
+
+        RecordingSink() {
+            this(new CountDownLatch(0));
+        }
+
+        RecordingSink(final CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(final TaskChangeEvent event) throws IOException {
+            if (failing) {
+                throw new IOException("connection reset");
+            }
+
+            events.add(event);
+            sending.countDown();
+            try {
+                release.await();
+            } catch (final InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void heartbeat() {
+            heartbeats.countDown();
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+
+        TaskChangeEvent next() throws InterruptedException {
+            return events.poll(5, TimeUnit.SECONDS);
+        }
+
+    }
+
+}
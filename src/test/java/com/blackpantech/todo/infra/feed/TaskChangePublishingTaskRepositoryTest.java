@@ -0,0 +1,146 @@
+package com.blackpantech.todo.infra.feed;
+
+import com.blackpantech.todo.domain.task.MovePosition;
+import com.blackpantech.todo.domain.task.Task;
+import com.blackpantech.todo.domain.task.TaskBulkUpdate;
+import com.blackpantech.todo.domain.task.TaskEdit;
+import com.blackpantech.todo.domain.task.TaskFilter;
+import com.blackpantech.todo.domain.task.TaskPatch;
+import com.blackpantech.todo.domain.task.TaskRepository;
+import com.blackpantech.todo.domain.task.TaskToCreate;
+import com.blackpantech.todo.domain.task.exceptions.DuplicatedTaskTitleException;
+import com.blackpantech.todo.domain.task.exceptions.OrderGapExhaustedException;
+import com.blackpantech.todo.domain.task.exceptions.TaskNotFoundException;
+import com.blackpantech.todo.domain.task.exceptions.TaskVersionMismatchException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+public class TaskChangePublishingTaskRepositoryTest {
+
+    @Mock
+    final TaskRepository taskRepository = mock(TaskRepository.class);
+
+    @Mock
+    final TaskChangeFeed taskChangeFeed = mock(TaskChangeFeed.class);
+
+    final TaskChangePublishingTaskRepository taskChangePublishingTaskRepository =
+            new TaskChangePublishingTaskRepository(taskRepository, taskChangeFeed);
+
+    @Test
+    @DisplayName("should publish created tasks")
+    void shouldPublishCreatedTasks() throws DuplicatedTaskTitleException {
+        final Task firstTask = new Task(1L, "title 1", false, 1L, null, 0L);
+        final Task secondTask = new Task(2L, "title 2", false, 2L, null, 0L);
+        final List<TaskToCreate> tasksToCreate =
+                List.of(new TaskToCreate("title 1", null), new TaskToCreate("title 2", null));
+        when(taskRepository.createTask("title 1", null)).thenReturn(firstTask);
+        when(taskRepository.createTasks(tasksToCreate)).thenReturn(List.of(firstTask, secondTask));
+
+        taskChangePublishingTaskRepository.createTask("title 1", null);
+        taskChangePublishingTaskRepository.createTasks(tasksToCreate);
+
+        verify(taskChangeFeed, times(2)).publish(TaskChangeType.CREATED, 1L, firstTask);
+        verify(taskChangeFeed).publish(TaskChangeType.CREATED, 2L, secondTask);
+        verifyNoMoreInteractions(taskChangeFeed);
+    }
+
+    @Test
+    @DisplayName("should publish edited, patched and moved tasks as read after the write")
+    void shouldPublishEditedTasks()
+            throws DuplicatedTaskTitleException, TaskNotFoundException, TaskVersionMismatchException,
+            OrderGapExhaustedException {
+        final Task editedTask = new Task(1L, "title", true, 1L, null, 1L);
+        final Task patchedTask = new Task(2L, "title 2", true, 2L, null, 1L);
+        final TaskPatch taskPatch = new TaskPatch(null, true, null, null, false);
+        when(taskRepository.editTask(1L, "title", true, 1L, null)).thenReturn(editedTask);
+        when(taskRepository.getTask(2L)).thenReturn(patchedTask);
+
+        taskChangePublishingTaskRepository.editTask(1L, "title", true, 1L, null);
+        taskChangePublishingTaskRepository.patchTask(2L, taskPatch);
+        taskChangePublishingTaskRepository.patchTask(2L, taskPatch, 0L);
+        taskChangePublishingTaskRepository.moveTask(2L, 1L, MovePosition.AFTER);
+
+        verify(taskChangeFeed).publish(TaskChangeType.EDITED, 1L, editedTask);
+        verify(taskChangeFeed, times(3)).publish(TaskChangeType.EDITED, 2L, patchedTask);
+        verifyNoMoreInteractions(taskChangeFeed);
+    }
+
+    @Test
+    @DisplayName("should publish edits held back by a write-behind buffer once they are written")
+    void shouldPublishEdits_whenWritten() throws DuplicatedTaskTitleException, TaskNotFoundException {
+        final TaskChangePublishingTaskRepository writeBehindPublishingTaskRepository =
+                new TaskChangePublishingTaskRepository(taskRepository, taskChangeFeed, id -> id == 1L);
+        final Task editedTask = new Task(1L, "title", true, 1L, null, 4L);
+        final List<TaskEdit> taskEdits = List.of(
+                new TaskEdit(1L, true, 1L, null, 3L, 4L),
+                new TaskEdit(2L, true, 2L, null, 3L, 4L)
+        );
+        when(taskRepository.editTask(1L, "title", true, 1L, null)).thenReturn(editedTask);
+        when(taskRepository.saveTaskEdits(taskEdits)).thenReturn(List.of(2L));
+        when(taskRepository.getTask(1L)).thenReturn(editedTask);
+
+        writeBehindPublishingTaskRepository.editTask(1L, "title", true, 1L, null);
+
+        verifyNoInteractions(taskChangeFeed);
+
+        writeBehindPublishingTaskRepository.saveTaskEdits(taskEdits);
+
+        verify(taskChangeFeed).publish(TaskChangeType.EDITED, 1L, editedTask);
+        verifyNoMoreInteractions(taskChangeFeed);
+    }
+
+    @Test
+    @DisplayName("should publish a patched task deleted meanwhile as deleted")
+    void shouldPublishDeletedTask_whenPatchedTaskIsGone() throws DuplicatedTaskTitleException, TaskNotFoundException {
+        final TaskPatch taskPatch = new TaskPatch(null, true, null, null, false);
+        when(taskRepository.getTask(1L)).thenThrow(new TaskNotFoundException(1L));
+
+        taskChangePublishingTaskRepository.patchTask(1L, taskPatch);
+
+        verify(taskChangeFeed).publish(TaskChangeType.DELETED, 1L, null);
+        verifyNoMoreInteractions(taskChangeFeed);
+    }
+
+    @Test
+    @DisplayName("should not publish failed writes")
+    void shouldNotPublish_whenWriteFails() throws TaskNotFoundException {
+        doThrow(new TaskNotFoundException(1L)).when(taskRepository).deleteTask(1L);
+
+        assertThrows(TaskNotFoundException.class, () -> taskChangePublishingTaskRepository.deleteTask(1L));
+
+        verifyNoInteractions(taskChangeFeed);
+    }
+
+    @Test
+    @DisplayName("should publish deleted tasks, and a resync after bulk writes")
+    void shouldPublishDeletedTasksAndResyncs() throws TaskNotFoundException {
+        final TaskFilter taskFilter = new TaskFilter(null, false, null, null);
+        final TaskBulkUpdate taskBulkUpdate = new TaskBulkUpdate(true, null);
+        when(taskRepository.updateTasks(taskFilter, taskBulkUpdate)).thenReturn(0L, 2L);
+
+        taskChangePublishingTaskRepository.deleteTask(1L);
+        taskChangePublishingTaskRepository.updateTasks(taskFilter, taskBulkUpdate);
+        verify(taskChangeFeed).publish(TaskChangeType.DELETED, 1L, null);
+        verifyNoMoreInteractions(taskChangeFeed);
+
+        taskChangePublishingTaskRepository.updateTasks(taskFilter, taskBulkUpdate);
+        taskChangePublishingTaskRepository.rebalanceTaskOrders();
+        taskChangePublishingTaskRepository.deleteAllCompletedTasks();
+        taskChangePublishingTaskRepository.deleteAllTasks();
+        verify(taskChangeFeed, times(4)).publish(TaskChangeType.RESYNC, 0L, null);
+        verifyNoMoreInteractions(taskChangeFeed);
+    }
+
+}
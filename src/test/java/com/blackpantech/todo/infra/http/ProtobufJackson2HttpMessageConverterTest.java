@@ -0,0 +1,85 @@
+package com.blackpantech.todo.infra.http;
+
+import com.blackpantech.todo.domain.task.Task;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ProtobufJackson2HttpMessageConverterTest {
+
+    final ProtobufJackson2HttpMessageConverter protobufConverter = new ProtobufJackson2HttpMessageConverter(
+            Jackson2ObjectMapperBuilder.json()
+                    .factory(new ProtobufFactory())
+                    .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .build()
+    );
+
+    @Test
+    @DisplayName("should write and read back a task, with or without due date")
+    void shouldReadWrittenTask() throws IOException {
+        final Task task = new Task(1L, "title", true, 1024L, LocalDateTime.parse("2025-02-24T13:30:00"), 3L);
+        final Task taskWithoutDueDate = new Task(2L, "other title", false, 2048L, null, 0L);
+
+        assertEquals(task, writeAndRead(task, Task.class));
+        assertEquals(taskWithoutDueDate, writeAndRead(taskWithoutDueDate, Task.class));
+    }
+
+    @Test
+    @DisplayName("should write and read back a list of tasks as a repeated field")
+    void shouldReadWrittenTasks() throws IOException {
+        final Type tasksType = new ParameterizedTypeReference<List<Task>>() { }.getType();
+        final List<Task> tasks = List.of(
+                new Task(1L, "title 1", false, 1024L, null, 0L),
+                new Task(2L, "title 2", true, 2048L, LocalDateTime.parse("2025-02-24T13:30:00"), 1L)
+        );
+
+        assertEquals(tasks, writeAndRead(tasks, tasksType));
+        assertEquals(List.of(), writeAndRead(List.of(), tasksType));
+    }
+
+    @Test
+    @DisplayName("should only convert objects and lists, which have a message to be written as")
+    void shouldNotConvertScalarsOrMaps() {
+        final MediaType protobuf = ProtobufJackson2HttpMessageConverter.APPLICATION_PROTOBUF;
+
+        assertTrue(protobufConverter.canWrite(Task.class, protobuf));
+        assertTrue(protobufConverter.canWrite(List.class, protobuf));
+        assertFalse(protobufConverter.canWrite(Task.class, MediaType.APPLICATION_JSON));
+        assertFalse(protobufConverter.canWrite(String.class, protobuf));
+        assertFalse(protobufConverter.canWrite(Map.class, protobuf));
+    }
+
+    /**
+     * Writes an object as a Protocol Buffers message and reads it back
+     *
+     * @param object object to write
+     * @param type type of the object
+     *
+     * @return object read back
+     *
+     * @throws IOException if the message cannot be written or read
+     */
+    private Object writeAndRead(final Object object, final Type type) throws IOException {
+        final MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+        protobufConverter.write(object, type, ProtobufJackson2HttpMessageConverter.APPLICATION_PROTOBUF, outputMessage);
+
+        return protobufConverter.read(type, null, new MockHttpInputMessage(outputMessage.getBodyAsBytes()));
+    }
+
+}
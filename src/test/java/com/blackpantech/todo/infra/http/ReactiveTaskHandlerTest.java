@@ -0,0 +1,279 @@
+package com.blackpantech.todo.infra.http;
+
+import com.blackpantech.todo.domain.task.MovePosition;
+import com.blackpantech.todo.domain.task.ReactiveTaskService;
+import com.blackpantech.todo.domain.task.Task;
+import com.blackpantech.todo.domain.task.TaskChanges;
+import com.blackpantech.todo.domain.task.TaskCursor;
+import com.blackpantech.todo.domain.task.TaskPage;
+import com.blackpantech.todo.domain.task.TaskPatch;
+import com.blackpantech.todo.domain.task.TaskToCreate;
+import com.blackpantech.todo.domain.task.exceptions.DuplicatedTaskTitleException;
+import com.blackpantech.todo.domain.task.exceptions.TaskMoveConflictException;
+import com.blackpantech.todo.domain.task.exceptions.TaskNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+public class ReactiveTaskHandlerTest {
+
+    @Mock
+    final ReactiveTaskService reactiveTaskService = mock(ReactiveTaskService.class);
+
+    final WebTestClient webTestClient = WebTestClient.bindToRouterFunction(
+            new ReactiveTaskRouter().taskRoutes(new ReactiveTaskHandler(
+                    reactiveTaskService,
+                    Validation.buildDefaultValidatorFactory().getValidator(),
+                    new ObjectMapper().findAndRegisterModules()
+            ))
+    ).build();
+
+    @Test
+    @DisplayName("should get a single task")
+    void shouldGetTask() {
+        final Task task = new Task(1L, "title", false, 1L, LocalDateTime.parse("2025-08-23T22:00:00"), 0L);
+        when(reactiveTaskService.getTask(1L)).thenReturn(Mono.just(task));
+
+        webTestClient.get().uri("/tasks/{id}", 1L)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Task.class).isEqualTo(task);
+
+        verify(reactiveTaskService).getTask(1L);
+        verifyNoMoreInteractions(reactiveTaskService);
+    }
+
+    @Test
+    @DisplayName("should return 404 when getting a single task")
+    void shouldNotFindTask_whenGetTask() {
+        when(reactiveTaskService.getTask(1L)).thenReturn(Mono.error(new TaskNotFoundException(1L)));
+
+        webTestClient.get().uri("/tasks/{id}", 1L)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("should create a task")
+    void shouldCreateTask() {
+        final Task task = new Task(1L, "title", false, 1L, null, 0L);
+        when(reactiveTaskService.createTask("title", null)).thenReturn(Mono.just(task));
+
+        webTestClient.post().uri("/tasks")
+                .bodyValue(Map.of("title", "title"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Task.class).isEqualTo(task);
+    }
+
+    @Test
+    @DisplayName("should return 409 when creating a task with a taken title")
+    void shouldFindDuplicatedTitle_whenCreateTask() {
+        when(reactiveTaskService.createTask("title", null))
+                .thenReturn(Mono.error(new DuplicatedTaskTitleException("title")));
+
+        webTestClient.post().uri("/tasks")
+                .bodyValue(Map.of("title", "title"))
+                .exchange()
+                .expectStatus().isEqualTo(409);
+    }
+
+    @Test
+    @DisplayName("should return 400 when creating a task without title")
+    void shouldReturnBadRequest_whenCreateTask() {
+        webTestClient.post().uri("/tasks")
+                .bodyValue(Map.of("title", " "))
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verifyNoInteractions(reactiveTaskService);
+    }
+
+    @Test
+    @DisplayName("should create tasks in batch")
+    void shouldCreateTasks() {
+        final List<Task> tasks = List.of(
+                new Task(1L, "title 1", false, 1L, null, 0L),
+                new Task(2L, "title 2", false, 2L, null, 0L)
+        );
+        when(reactiveTaskService.createTasks(List.of(
+                new TaskToCreate("title 1", null),
+                new TaskToCreate("title 2", null)
+        ))).thenReturn(Flux.fromIterable(tasks));
+
+        webTestClient.post().uri("/tasks/batch")
+                .bodyValue(List.of(Map.of("title", "title 1"), Map.of("title", "title 2")))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBodyList(Task.class).isEqualTo(tasks);
+    }
+
+    @Test
+    @DisplayName("should stream all tasks as newline-delimited JSON")
+    void shouldStreamAllTasks() {
+        final Task task1 = new Task(1L, "title 1", false, 1L, null, 0L);
+        final Task task2 = new Task(2L, "title 2", true, 2L, null, 0L);
+        when(reactiveTaskService.getAllTasks()).thenReturn(Flux.just(task1, task2));
+
+        webTestClient.get().uri("/tasks")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(Task.class).isEqualTo(List.of(task1, task2));
+    }
+
+    @Test
+    @DisplayName("should get a page of tasks with a cursor to the next page")
+    void shouldGetTasksPage() {
+        final TaskCursor next = new TaskCursor(1L, 1L);
+        final List<Task> tasks = List.of(new Task(1L, "title", false, 1L, null, 0L));
+        when(reactiveTaskService.getTasksPage(null, 1)).thenReturn(Mono.just(new TaskPage(tasks, next)));
+
+        webTestClient.get().uri("/tasks?limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(TaskPageResponse.class)
+                .isEqualTo(new TaskPageResponse(tasks, TaskCursorCodec.encode(next)));
+    }
+
+    @Test
+    @DisplayName("should return 400 when getting a page of tasks with an invalid cursor")
+    void shouldReturnBadRequest_whenGetTasksPage() {
+        webTestClient.get().uri("/tasks?limit=1&after=not-a-cursor")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verifyNoInteractions(reactiveTaskService);
+    }
+
+    @Test
+    @DisplayName("should delete all completed tasks")
+    void shouldDeleteAllCompletedTasks() {
+        when(reactiveTaskService.deleteAllCompletedTasks()).thenReturn(Mono.empty());
+
+        webTestClient.delete().uri("/tasks?completed=true")
+                .exchange()
+                .expectStatus().isNoContent();
+
+        verify(reactiveTaskService).deleteAllCompletedTasks();
+        verifyNoMoreInteractions(reactiveTaskService);
+    }
+
+    @Test
+    @DisplayName("should patch a task")
+    void shouldPatchTask() {
+        final TaskPatch taskPatch = new TaskPatch(null, true, null, null, false);
+        when(reactiveTaskService.patchTask(1L, taskPatch)).thenReturn(Mono.empty());
+
+        webTestClient.patch().uri("/tasks/{id}", 1L)
+                .contentType(MediaType.parseMediaType(TaskController.MERGE_PATCH_JSON_VALUE))
+                .bodyValue(Map.of("completed", true))
+                .exchange()
+                .expectStatus().isNoContent();
+
+        verify(reactiveTaskService).patchTask(1L, taskPatch);
+        verifyNoMoreInteractions(reactiveTaskService);
+    }
+
+    @Test
+    @DisplayName("should return 400 when patching a task with an invalid merge patch")
+    void shouldReturnBadRequest_whenPatchTask() {
+        webTestClient.patch().uri("/tasks/{id}", 1L)
+                .contentType(MediaType.parseMediaType(TaskController.MERGE_PATCH_JSON_VALUE))
+                .bodyValue(Map.of("completed", "maybe"))
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verifyNoInteractions(reactiveTaskService);
+    }
+
+    @Test
+    @DisplayName("should move a task after another one")
+    void shouldMoveTask() {
+        when(reactiveTaskService.moveTask(1L, 2L, MovePosition.AFTER)).thenReturn(Mono.empty());
+
+        webTestClient.post().uri("/tasks/{id}/move", 1L)
+                .bodyValue(Map.of("anchorId", 2L, "position", "AFTER"))
+                .exchange()
+                .expectStatus().isNoContent();
+
+        verify(reactiveTaskService).moveTask(1L, 2L, MovePosition.AFTER);
+        verifyNoMoreInteractions(reactiveTaskService);
+    }
+
+    @Test
+    @DisplayName("should return 404 when moving a task next to a missing one")
+    void shouldNotFindTask_whenMoveTask() {
+        when(reactiveTaskService.moveTask(1L, 2L, MovePosition.BEFORE))
+                .thenReturn(Mono.error(new TaskNotFoundException(2L)));
+
+        webTestClient.post().uri("/tasks/{id}/move", 1L)
+                .bodyValue(Map.of("anchorId", 2L, "position", "BEFORE"))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("should return 409 when the task kept being written while moving it")
+    void shouldReturnConflict_whenMoveTask() {
+        when(reactiveTaskService.moveTask(1L, 2L, MovePosition.BEFORE))
+                .thenReturn(Mono.error(new TaskMoveConflictException(1L, 3)));
+
+        webTestClient.post().uri("/tasks/{id}/move", 1L)
+                .bodyValue(Map.of("anchorId", 2L, "position", "BEFORE"))
+                .exchange()
+                .expectStatus().isEqualTo(409);
+    }
+
+    @Test
+    @DisplayName("should search tasks by title")
+    void shouldSearchTasks() {
+        final List<Task> tasks = List.of(new Task(1L, "title", false, 1L, null, 0L));
+        when(reactiveTaskService.searchTasks("tit", 20)).thenReturn(Flux.fromIterable(tasks));
+
+        webTestClient.get().uri("/tasks/search?q=tit")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Task.class).isEqualTo(tasks);
+    }
+
+    @Test
+    @DisplayName("should return 400 when searching tasks with a query shorter than a trigram")
+    void shouldReturnBadRequest_whenSearchTasksWithShortQuery() {
+        webTestClient.get().uri("/tasks/search?q=ti")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verifyNoInteractions(reactiveTaskService);
+    }
+
+    @Test
+    @DisplayName("should get the task changes since a version")
+    void shouldGetTaskChanges() {
+        final TaskChanges taskChanges = new TaskChanges(List.of(), List.of(3L), 8L, false, false);
+        when(reactiveTaskService.getTaskChanges(5L)).thenReturn(Mono.just(taskChanges));
+
+        webTestClient.get().uri("/tasks/changes?since=5")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(TaskChanges.class).isEqualTo(taskChanges);
+    }
+
+}
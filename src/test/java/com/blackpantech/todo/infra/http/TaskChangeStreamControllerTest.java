@@ -0,0 +1,102 @@
+package com.blackpantech.todo.infra.http;
+
+import com.blackpantech.todo.domain.task.Task;
+import com.blackpantech.todo.infra.feed.TaskChangeEvent;
+import com.blackpantech.todo.infra.feed.TaskChangeFeed;
+import com.blackpantech.todo.infra.feed.TaskChangeSink;
+import com.blackpantech.todo.infra.feed.TaskChangeSubscription;
+import com.blackpantech.todo.infra.feed.TaskChangeType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(TaskChangeStreamController.class)
+public class TaskChangeStreamControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockitoBean
+    TaskChangeFeed taskChangeFeed;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("should stream task changes as server-sent events, resuming after the last event ID")
+    void shouldStreamTaskChanges() throws Exception {
+        final Task task = new Task(1L, "title", false, 1L, null, 0L);
+        final ArgumentCaptor<TaskChangeSink> taskChangeSink = ArgumentCaptor.forClass(TaskChangeSink.class);
+        when(taskChangeFeed.subscribe(eq(41L), taskChangeSink.capture()))
+                .thenReturn(mock(TaskChangeSubscription.class));
+
+        final MvcResult mvcResult = mockMvc.perform(get("/tasks/stream")
+                        .header(TaskChangeStreamController.LAST_EVENT_ID, "41")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        taskChangeSink.getValue().send(new TaskChangeEvent(42L, TaskChangeType.CREATED, 1L, task));
+        taskChangeSink.getValue().send(new TaskChangeEvent(43L, TaskChangeType.DELETED, 1L, null));
+        taskChangeSink.getValue().heartbeat();
+        taskChangeSink.getValue().send(new TaskChangeEvent(44L, TaskChangeType.RESYNC, 0L, null));
+        taskChangeSink.getValue().complete();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string(containsString(
+                        "id:42\nevent:created\ndata:" + objectMapper.writeValueAsString(task) + "\n\n"
+                )))
+                .andExpect(content().string(containsString("id:43\nevent:deleted\ndata:{\"id\":1}\n\n")))
+                .andExpect(content().string(containsString(":heartbeat\n\n")))
+                .andExpect(content().string(containsString("id:44\nevent:resync\ndata:{}\n\n")));
+    }
+
+    @Test
+    @DisplayName("should subscribe without last event ID on a first connection")
+    void shouldSubscribe_withoutLastEventId() throws Exception {
+        when(taskChangeFeed.subscribe(eq(null), any())).thenReturn(mock(TaskChangeSubscription.class));
+
+        mockMvc.perform(get("/tasks/stream")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                )
+                .andExpect(request().asyncStarted());
+
+        verify(taskChangeFeed).subscribe(eq(null), any());
+    }
+
+    @Test
+    @DisplayName("should return 400 when the last event ID is not a number")
+    void shouldReturnBadRequest_whenLastEventIdIsInvalid() throws Exception {
+        mockMvc.perform(get("/tasks/stream")
+                        .header(TaskChangeStreamController.LAST_EVENT_ID, "abc")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                )
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(taskChangeFeed);
+    }
+
+}
@@ -1,37 +1,75 @@
 package com.blackpantech.todo.infra.http;
 
+import com.blackpantech.todo.domain.task.MovePosition;
 import com.blackpantech.todo.domain.task.Task;
+import com.blackpantech.todo.domain.task.TaskBulkUpdate;
+import com.blackpantech.todo.domain.task.TaskChanges;
+import com.blackpantech.todo.domain.task.TaskCursor;
+import com.blackpantech.todo.domain.task.TaskFilter;
+import com.blackpantech.todo.domain.task.TaskPage;
+import com.blackpantech.todo.domain.task.TaskPatch;
+import com.blackpantech.todo.domain.task.TaskToCreate;
 import com.blackpantech.todo.domain.task.TaskService;
+import com.blackpantech.todo.domain.task.TaskSort;
 import com.blackpantech.todo.domain.task.exceptions.DuplicatedTaskTitleException;
+import com.blackpantech.todo.domain.task.exceptions.TaskMoveConflictException;
 import com.blackpantech.todo.domain.task.exceptions.TaskNotFoundException;
+import com.blackpantech.todo.domain.task.exceptions.TaskVersionMismatchException;
+import com.blackpantech.todo.infra.idempotency.IdempotencyKeyReusedException;
+import com.blackpantech.todo.infra.idempotency.IdempotentCreationPendingException;
+import com.blackpantech.todo.infra.idempotency.IdempotentTaskCreator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.json.JsonCompareMode;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(TaskController.class)
@@ -43,9 +81,15 @@ public class TaskControllerTest {
     @MockitoBean
     TaskService taskService;
 
+    @MockitoBean
+    IdempotentTaskCreator idempotentTaskCreator;
+
     @Autowired
     ObjectMapper objectMapper;
 
+    @Autowired
+    ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilders;
+
     @ParameterizedTest
     @CsvSource({
             "0, title, false, 1, 2025-08-23T22:00:00"
@@ -57,31 +101,74 @@ public class TaskControllerTest {
                        final long order,
                        final LocalDateTime dueDate)
             throws Exception {
-        final Task task = new Task(id, title, completed, order, dueDate);
+        final Task task = new Task(id, title, completed, order, dueDate, 3L);
+        when(taskService.getTaskVersion(id)).thenReturn(3L);
         when(taskService.getTask(id)).thenReturn(task);
 
         mockMvc.perform(get("/tasks/{id}", id)
                         .accept(MediaType.APPLICATION_JSON)
                 )
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(content().json(objectMapper.writeValueAsString(task), JsonCompareMode.STRICT));
 
+        verify(taskService).getTaskVersion(id);
         verify(taskService).getTask(id);
         verifyNoMoreInteractions(taskService);
     }
 
+    @Test
+    @DisplayName("should get a single task in Protocol Buffers")
+    void shouldGetTask_withProtobuf() throws Exception {
+        final Task task = new Task(0L, "title", true, 1L, LocalDateTime.parse("2025-08-23T22:00:00"), 3L);
+        when(taskService.getTaskVersion(0L)).thenReturn(3L);
+        when(taskService.getTask(0L)).thenReturn(task);
+
+        final byte[] body = mockMvc.perform(get("/tasks/{id}", 0L)
+                        .accept(ProtobufJackson2HttpMessageConverter.APPLICATION_PROTOBUF)
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ProtobufJackson2HttpMessageConverter.APPLICATION_PROTOBUF))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        assertEquals(task, protobufConverter().read(Task.class, null, new MockHttpInputMessage(body)));
+        verify(taskService).getTaskVersion(0L);
+        verify(taskService).getTask(0L);
+        verifyNoMoreInteractions(taskService);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"\"3\"", "W/\"3\"", "\"2\", \"3\"", "*"})
+    @DisplayName("should return 304 without loading a single task when its version did not change")
+    void shouldReturnNotModified_whenGetTask(final String ifNoneMatch) throws Exception {
+        when(taskService.getTaskVersion(0L)).thenReturn(3L);
+
+        mockMvc.perform(get("/tasks/{id}", 0L)
+                        .header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch)
+                        .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(content().string(""));
+
+        verify(taskService).getTaskVersion(0L);
+        verifyNoMoreInteractions(taskService);
+    }
+
     @Test
     @DisplayName("should return 404 when getting a single task")
     void shouldNotFindTask_whenGetTask() throws Exception {
-        when(taskService.getTask(anyLong())).thenThrow(new TaskNotFoundException(0L));
+        when(taskService.getTaskVersion(anyLong())).thenThrow(new TaskNotFoundException(0L));
 
         mockMvc.perform(get("/tasks/{id}", 0L)
                         .accept(MediaType.APPLICATION_JSON)
                 )
                 .andExpect(status().isNotFound());
 
-        verify(taskService).getTask(anyLong());
+        verify(taskService).getTaskVersion(anyLong());
         verifyNoMoreInteractions(taskService);
     }
 
@@ -92,7 +179,7 @@ public class TaskControllerTest {
     })
     @DisplayName("should create a task")
     void shouldCreateTask(final String title, final LocalDateTime dueDate) throws Exception {
-        Task expectedTask = new Task(0L, title, false, 1L, dueDate);
+        Task expectedTask = new Task(0L, title, false, 1L, dueDate, 0L);
         TaskToCreateRequest taskToCreateRequest = new TaskToCreateRequest(title, dueDate);
         when(taskService.createTask(title, dueDate)).thenReturn(expectedTask);
 
@@ -149,6 +236,204 @@ public class TaskControllerTest {
         verifyNoInteractions(taskService);
     }
 
+    @Test
+    @DisplayName("should create a task once per idempotency key")
+    void shouldCreateTask_withIdempotencyKey() throws Exception {
+        final Task expectedTask = new Task(0L, "title", false, 1L, null, 0L);
+        when(idempotentTaskCreator.createTask("key", "title", null)).thenReturn(expectedTask);
+
+        mockMvc.perform(post("/tasks")
+                        .header("Idempotency-Key", "key")
+                        .content(objectMapper.writeValueAsString(new TaskToCreateRequest("title", null)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isCreated())
+                .andExpect(content().json(objectMapper.writeValueAsString(expectedTask), JsonCompareMode.STRICT));
+
+        verify(idempotentTaskCreator).createTask("key", "title", null);
+        verifyNoMoreInteractions(idempotentTaskCreator);
+        verifyNoInteractions(taskService);
+    }
+
+    @Test
+    @DisplayName("should return 422 when creating another task with an idempotency key already used")
+    void shouldReturnUnprocessableEntity_whenIdempotencyKeyReused() throws Exception {
+        when(idempotentTaskCreator.createTask("key", "other title", null))
+                .thenThrow(new IdempotencyKeyReusedException("key"));
+
+        mockMvc.perform(post("/tasks")
+                        .header("Idempotency-Key", "key")
+                        .content(objectMapper.writeValueAsString(new TaskToCreateRequest("other title", null)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    @DisplayName("should return 409 with Retry-After when the task of an idempotency key is still being created")
+    void shouldReturnConflict_whenIdempotentCreationPending() throws Exception {
+        when(idempotentTaskCreator.createTask("key", "title", null))
+                .thenThrow(new IdempotentCreationPendingException("key", Duration.ofSeconds(1)));
+
+        mockMvc.perform(post("/tasks")
+                        .header("Idempotency-Key", "key")
+                        .content(objectMapper.writeValueAsString(new TaskToCreateRequest("title", null)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isConflict())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
+    @Test
+    @DisplayName("should return 400 when creating a task with an idempotency key too long to store")
+    void shouldReturnBadRequest_whenIdempotencyKeyTooLong() throws Exception {
+        mockMvc.perform(post("/tasks")
+                        .header("Idempotency-Key", "k".repeat(256))
+                        .content(objectMapper.writeValueAsString(new TaskToCreateRequest("title", null)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(idempotentTaskCreator, taskService);
+    }
+
+    @Test
+    @DisplayName("should create tasks in batch")
+    void shouldCreateTasks() throws Exception {
+        final LocalDateTime dueDate = LocalDateTime.parse("2025-02-24T13:30:00");
+        final List<TaskToCreateRequest> tasksToCreateRequest = List.of(
+                new TaskToCreateRequest("title 1", null),
+                new TaskToCreateRequest("title 2", dueDate)
+        );
+        final List<TaskToCreate> tasksToCreate = List.of(
+                new TaskToCreate("title 1", null),
+                new TaskToCreate("title 2", dueDate)
+        );
+        final List<Task> expectedTasks = List.of(
+                new Task(1L, "title 1", false, 1L, null, 0L),
+                new Task(2L, "title 2", false, 2L, dueDate, 0L)
+        );
+        when(taskService.createTasks(tasksToCreate)).thenReturn(expectedTasks);
+
+        mockMvc.perform(post("/tasks/batch")
+                        .content(objectMapper.writeValueAsString(tasksToCreateRequest))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(objectMapper.writeValueAsString(expectedTasks), JsonCompareMode.STRICT));
+
+        verify(taskService).createTasks(tasksToCreate);
+        verifyNoMoreInteractions(taskService);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"application/cbor", "application/x-jackson-smile"})
+    @DisplayName("should create a task from and into a binary format")
+    void shouldCreateTask_withBinaryFormat(final String mediaType) throws Exception {
+        final LocalDateTime dueDate = LocalDateTime.parse("2025-02-24T13:30:00");
+        final Task expectedTask = new Task(0L, "title", false, 1L, dueDate, 0L);
+        final ObjectMapper binaryObjectMapper = binaryObjectMapper(mediaType);
+        when(taskService.createTask("title", dueDate)).thenReturn(expectedTask);
+
+        final byte[] body = mockMvc.perform(post("/tasks")
+                        .content(binaryObjectMapper.writeValueAsBytes(new TaskToCreateRequest("title", dueDate)))
+                        .contentType(mediaType)
+                        .accept(mediaType)
+                )
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(mediaType))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        assertEquals(expectedTask, binaryObjectMapper.readValue(body, Task.class));
+        verify(taskService).createTask("title", dueDate);
+        verifyNoMoreInteractions(taskService);
+    }
+
+    @Test
+    @DisplayName("should create tasks in batch from and into Protocol Buffers")
+    void shouldCreateTasks_withProtobuf() throws Exception {
+        final LocalDateTime dueDate = LocalDateTime.parse("2025-02-24T13:30:00");
+        final List<TaskToCreate> tasksToCreate = List.of(
+                new TaskToCreate("title 1", null),
+                new TaskToCreate("title 2", dueDate)
+        );
+        final List<Task> expectedTasks = List.of(
+                new Task(1L, "title 1", false, 1L, null, 0L),
+                new Task(2L, "title 2", false, 2L, dueDate, 0L)
+        );
+        final ProtobufJackson2HttpMessageConverter protobufConverter = protobufConverter();
+        final MockHttpOutputMessage request = new MockHttpOutputMessage();
+        protobufConverter.write(
+                List.of(new TaskToCreateRequest("title 1", null), new TaskToCreateRequest("title 2", dueDate)),
+                new ParameterizedTypeReference<List<TaskToCreateRequest>>() { }.getType(),
+                ProtobufJackson2HttpMessageConverter.APPLICATION_PROTOBUF,
+                request
+        );
+        when(taskService.createTasks(tasksToCreate)).thenReturn(expectedTasks);
+
+        final byte[] body = mockMvc.perform(post("/tasks/batch")
+                        .content(request.getBodyAsBytes())
+                        .contentType(ProtobufJackson2HttpMessageConverter.APPLICATION_PROTOBUF)
+                        .accept(ProtobufJackson2HttpMessageConverter.APPLICATION_PROTOBUF)
+                )
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(ProtobufJackson2HttpMessageConverter.APPLICATION_PROTOBUF))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        assertEquals(expectedTasks, protobufConverter.read(
+                new ParameterizedTypeReference<List<Task>>() { }.getType(),
+                null,
+                new MockHttpInputMessage(body)
+        ));
+        verify(taskService).createTasks(tasksToCreate);
+        verifyNoMoreInteractions(taskService);
+    }
+
+    @Test
+    @DisplayName("should return 409 when creating tasks in batch")
+    void shouldFindDuplicatedTitle_whenCreateTasks() throws Exception {
+        final List<TaskToCreateRequest> tasksToCreateRequest = List.of(new TaskToCreateRequest("title", null));
+        when(taskService.createTasks(List.of(new TaskToCreate("title", null))))
+                .thenThrow(new DuplicatedTaskTitleException("title"));
+
+        mockMvc.perform(post("/tasks/batch")
+                        .content(objectMapper.writeValueAsString(tasksToCreateRequest))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isConflict());
+
+        verify(taskService).createTasks(List.of(new TaskToCreate("title", null)));
+        verifyNoMoreInteractions(taskService);
+    }
+
+    @Test
+    @DisplayName("should return 400 when creating tasks in batch")
+    void shouldReturnBadRequest_whenCreateTasks() throws Exception {
+        mockMvc.perform(post("/tasks/batch")
+                        .content(objectMapper.writeValueAsString(List.of(new TaskToCreateRequest("  ", null))))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/tasks/batch")
+                        .content("[]")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(taskService);
+    }
+
     @ParameterizedTest
     @CsvSource({
             "0, title, false, 1, ",
@@ -161,7 +446,7 @@ public class TaskControllerTest {
                         final long order,
                         final LocalDateTime dueDate)
             throws Exception{
-        Task expectedTask = new Task(id, title, completed, order, dueDate);
+        Task expectedTask = new Task(id, title, completed, order, dueDate, 0L);
         TaskToEditRequest taskToEditRequest = new TaskToEditRequest(title, completed, order, dueDate);
         when(taskService.editTask(id, title, completed, order, dueDate)).thenReturn(expectedTask);
 
@@ -235,6 +520,7 @@ public class TaskControllerTest {
     @CsvSource({
             "0, , false, 1, ",
             "1,   , true, 1, 2025-02-24T13:30:00",
+            "2, title, false, 9007199254740992, ",
     })
     @DisplayName("should return 400 when editing a task")
     void shouldReturnBadRequest_whenEditTask(final long id,
@@ -255,6 +541,277 @@ public class TaskControllerTest {
         verifyNoInteractions(taskService);
     }
 
+    @Test
+    @DisplayName("should patch a task with a merge patch")
+    void shouldPatchTask() throws Exception {
+        mockMvc.perform(patch("/tasks/{id}", 1L)
+                        .content("{\"completed\": true, \"dueDate\": null}")
+                        .contentType(TaskController.MERGE_PATCH_JSON_VALUE)
+                )
+                .andExpect(status().isNoContent());
+
+        verify(taskService).patchTask(1L, new TaskPatch(null, true, null, null, true));
+        verifyNoMoreInteractions(taskService);
+    }
+
+    @Test
+    @DisplayName("should patch the title, position and due date of a task")
+    void shouldPatchAllProperties_whenPatchTask() throws Exception {
+        mockMvc.perform(patch("/tasks/{id}", 1L)
+                        .content("{\"title\": \"title\", \"order\": 2, \"dueDate\": \"2025-02-24T13:30:00\"}")
+                        .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isNoContent());
+
+        verify(taskService).patchTask(
+                1L,
+                new TaskPatch("title", null, 2L, LocalDateTime.parse("2025-02-24T13:30:00"), true)
+        );
+        verifyNoMoreInteractions(taskService);
+    }
+
+    @Test
+    @DisplayName("should edit a task at the version given in If-Match and return its next ETag")
+    void shouldEditTask_whenIfMatch() throws Exception {
+        final Task editedTask = new Task(1L, "title", true, 1L, null, 4L);
+        when(taskService.editTask(1L, "title", true, 1L, null, 3L)).thenReturn(editedTask);
+
+        mockMvc.perform(put("/tasks/{id}", 1L)
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .content(objectMapper.writeValueAsString(new TaskToEditRequest("title", true, 1L, null)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(content().json(objectMapper.writeValueAsString(editedTask), JsonCompareMode.STRICT));
+
+        verify(taskService).editTask(1L, "title", true, 1L, null, 3L);
+        verifyNoMoreInteractions(taskService);
+    }
+
+    @Test
+    @DisplayName("should edit a task whatever its version when If-Match is a wildcard")
+    void shouldEditTask_whenIfMatchWildcard() throws Exception {
+        when(taskService.editTask(1L, "title", true, 1L, null)).thenReturn(new Task(1L, "title", true, 1L, null, 4L));
+
+        mockMvc.perform(put("/tasks/{id}", 1L)
+                        .header(HttpHeaders.IF_MATCH, "*")
+                        .content(objectMapper.writeValueAsString(new TaskToEditRequest("title", true, 1L, null)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk());
+
+        verify(taskService).editTask(1L, "title", true, 1L, null);
+        verifyNoMoreInteractions(taskService);
+    }
+
+    @Test
+    @DisplayName("should return 412 when editing a task which changed since the version given in If-Match")
+    void shouldReturnPreconditionFailed_whenEditTask() throws Exception {
+        when(taskService.editTask(1L, "title", true, 1L, null, 3L))
+                .thenThrow(new TaskVersionMismatchException(1L, 3L));
+
+        mockMvc.perform(put("/tasks/{id}", 1L)
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .content(objectMapper.writeValueAsString(new TaskToEditRequest("title", true, 1L, null)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    @DisplayName("should patch a task at the version given in If-Match and return its next ETag")
+    void shouldPatchTask_whenIfMatch() throws Exception {
+        final TaskPatch taskPatch = new TaskPatch(null, true, null, null, false);
+        when(taskService.patchTask(1L, taskPatch, 3L)).thenReturn(4L);
+
+        mockMvc.perform(patch("/tasks/{id}", 1L)
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .content("{\"completed\": true}")
+                        .contentType(TaskController.MERGE_PATCH_JSON_VALUE)
+                )
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+
+        verify(taskService).patchTask(1L, taskPatch, 3L);
+        verifyNoMoreInteractions(taskService);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"W/\"3\"", "\"tasks-3\"", "\"3\", \"4\"", "3"})
+    @DisplayName("should return 412 without patching when If-Match holds no single strong task ETag")
+    void shouldReturnPreconditionFailed_whenPatchTaskWithInvalidIfMatch(final String ifMatch) throws Exception {
+        mockMvc.perform(patch("/tasks/{id}", 1L)
+                        .header(HttpHeaders.IF_MATCH, ifMatch)
+                        .content("{\"completed\": true}")
+                        .contentType(TaskController.MERGE_PATCH_JSON_VALUE)
+                )
+                .andExpect(status().isPreconditionFailed());
+
+        verifyNoInteractions(taskService);
+    }
+
+    @Test
+    @DisplayName("should return 404 when patching a task")
+    void shouldReturnNotFound_whenPatchTask() throws Exception {
+        doThrow(new TaskNotFoundException(1L)).when(taskService).patchTask(anyLong(), any());
+
+        mockMvc.perform(patch("/tasks/{id}", 1L)
+                        .content("{\"completed\": true}")
+                        .contentType(TaskController.MERGE_PATCH_JSON_VALUE)
+                )
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("should return 409 when patching a task")
+    void shouldReturnConflict_whenPatchTask() throws Exception {
+        doThrow(new DuplicatedTaskTitleException("title")).when(taskService).patchTask(anyLong(), any());
+
+        mockMvc.perform(patch("/tasks/{id}", 1L)
+                        .content("{\"title\": \"title\"}")
+                        .contentType(TaskController.MERGE_PATCH_JSON_VALUE)
+                )
+                .andExpect(status().isConflict());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "[]",
+            "{\"title\": null}",
+            "{\"title\": \" \"}",
+            "{\"completed\": \"yes\"}",
+            "{\"order\": 0}",
+            "{\"order\": 1.5}",
+            "{\"order\": 9007199254740992}",
+            "{\"dueDate\": \"tomorrow\"}",
+            "{\"unknown\": 1}"
+    })
+    @DisplayName("should return 400 when patching a task")
+    void shouldReturnBadRequest_whenPatchTask(final String mergePatch) throws Exception {
+        mockMvc.perform(patch("/tasks/{id}", 1L)
+                        .content(mergePatch)
+                        .contentType(TaskController.MERGE_PATCH_JSON_VALUE)
+                )
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(taskService);
+    }
+
+    @Test
+    @DisplayName("should move a task next to another task")
+    void shouldMoveTask() throws Exception {
+        mockMvc.perform(post("/tasks/{id}/move", 1L)
+                        .content("{\"anchorId\": 2, \"position\": \"AFTER\"}")
+                        .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isNoContent());
+
+        verify(taskService).moveTask(1L, 2L, MovePosition.AFTER);
+        verifyNoMoreInteractions(taskService);
+    }
+
+    @Test
+    @DisplayName("should return 404 when moving a task")
+    void shouldReturnNotFound_whenMoveTask() throws Exception {
+        doThrow(new TaskNotFoundException(2L)).when(taskService).moveTask(anyLong(), anyLong(), any());
+
+        mockMvc.perform(post("/tasks/{id}/move", 1L)
+                        .content("{\"anchorId\": 2, \"position\": \"BEFORE\"}")
+                        .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("should return 409 when the task kept being written while moving it")
+    void shouldReturnConflict_whenMoveTask() throws Exception {
+        doThrow(new TaskMoveConflictException(1L, 3)).when(taskService).moveTask(anyLong(), anyLong(), any());
+
+        mockMvc.perform(post("/tasks/{id}/move", 1L)
+                        .content("{\"anchorId\": 2, \"position\": \"BEFORE\"}")
+                        .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isConflict());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "{\"position\": \"BEFORE\"}",
+            "{\"anchorId\": 2}",
+            "{\"anchorId\": 2, \"position\": \"BETWEEN\"}"
+    })
+    @DisplayName("should return 400 when moving a task")
+    void shouldReturnBadRequest_whenMoveTask(final String taskMove) throws Exception {
+        mockMvc.perform(post("/tasks/{id}/move", 1L)
+                        .content(taskMove)
+                        .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(taskService);
+    }
+
+    @Test
+    @DisplayName("should update tasks matching a filter in bulk")
+    void shouldUpdateTasks() throws Exception {
+        final TaskFilter taskFilter = new TaskFilter(null, false, null, LocalDateTime.parse("2025-03-01T00:00:00"));
+        final TaskBulkUpdate taskBulkUpdate = new TaskBulkUpdate(true, Duration.ofDays(1));
+        when(taskService.updateTasks(taskFilter, taskBulkUpdate)).thenReturn(3L);
+
+        mockMvc.perform(patch("/tasks")
+                        .content("""
+                                {"filter": {"completed": false, "dueBefore": "2025-03-01T00:00:00"},
+                                 "completed": true, "dueDateShift": "P1D"}
+                                """)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"updated\": 3}", JsonCompareMode.STRICT));
+
+        verify(taskService).updateTasks(taskFilter, taskBulkUpdate);
+        verifyNoMoreInteractions(taskService);
+    }
+
+    @Test
+    @DisplayName("should update tasks with given IDs in bulk")
+    void shouldUpdateTasksByIds() throws Exception {
+        final TaskFilter taskFilter = new TaskFilter(List.of(1L, 2L), null, null, null);
+        final TaskBulkUpdate taskBulkUpdate = new TaskBulkUpdate(true, null);
+        when(taskService.updateTasks(taskFilter, taskBulkUpdate)).thenReturn(2L);
+
+        mockMvc.perform(patch("/tasks")
+                        .content("{\"filter\": {\"ids\": [1, 2]}, \"completed\": true}")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"updated\": 2}", JsonCompareMode.STRICT));
+
+        verify(taskService).updateTasks(taskFilter, taskBulkUpdate);
+        verifyNoMoreInteractions(taskService);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "{\"completed\": true}",
+            "{\"filter\": {}}",
+            "{\"filter\": {\"ids\": [null]}, \"completed\": true}",
+            "{\"filter\": {\"dueFrom\": \"2025-03-01T00:00:00\", \"dueBefore\": \"2025-02-01T00:00:00\"}, \"completed\": true}"
+    })
+    @DisplayName("should return 400 when updating tasks in bulk")
+    void shouldReturnBadRequest_whenUpdateTasks(final String taskBulkUpdate) throws Exception {
+        mockMvc.perform(patch("/tasks")
+                        .content(taskBulkUpdate)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(taskService);
+    }
+
     @ParameterizedTest
     @ValueSource(longs = {1L, 3L, 5L})
     @DisplayName("should delete a single task")
@@ -293,20 +850,351 @@ public class TaskControllerTest {
                            final long order,
                            final LocalDateTime dueDate)
             throws Exception {
-        final List<Task> tasks = Collections.singletonList(new Task(id, title, completed, order, dueDate));
+        final List<Task> tasks = Collections.singletonList(new Task(id, title, completed, order, dueDate, 0L));
+        when(taskService.getTasksVersion()).thenReturn(7L);
         when(taskService.getAllTasks()).thenReturn(tasks);
 
         mockMvc.perform(get("/tasks")
                         .accept(MediaType.APPLICATION_JSON)
                 )
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, startsWith("\"tasks-7-")))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(content().json(objectMapper.writeValueAsString(tasks), JsonCompareMode.STRICT));
 
+        verify(taskService).getTasksVersion();
+        verify(taskService).getAllTasks();
+        verifyNoMoreInteractions(taskService);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"application/cbor", "application/x-jackson-smile"})
+    @DisplayName("should get all tasks in a binary format")
+    void shouldGetAllTasks_withBinaryFormat(final String mediaType) throws Exception {
+        final List<Task> tasks = List.of(
+                new Task(1L, "title 1", false, 1L, null, 0L),
+                new Task(2L, "title 2", true, 2L, LocalDateTime.parse("2025-02-24T13:30:00"), 3L)
+        );
+        when(taskService.getTasksVersion()).thenReturn(7L);
+        when(taskService.getAllTasks()).thenReturn(tasks);
+
+        final byte[] body = mockMvc.perform(get("/tasks").accept(mediaType))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(mediaType))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        assertEquals(tasks, List.of(binaryObjectMapper(mediaType).readValue(body, Task[].class)));
+    }
+
+    @Test
+    @DisplayName("should get all tasks in Protocol Buffers, as a repeated field")
+    void shouldGetAllTasks_withProtobuf() throws Exception {
+        final List<Task> tasks = List.of(
+                new Task(1L, "title 1", false, 1L, null, 0L),
+                new Task(2L, "title 2", true, 2L, LocalDateTime.parse("2025-02-24T13:30:00"), 3L)
+        );
+        when(taskService.getTasksVersion()).thenReturn(7L);
+        when(taskService.getAllTasks()).thenReturn(tasks);
+
+        final byte[] body = mockMvc.perform(get("/tasks")
+                        .accept(ProtobufJackson2HttpMessageConverter.APPLICATION_PROTOBUF)
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ProtobufJackson2HttpMessageConverter.APPLICATION_PROTOBUF))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        assertEquals(tasks, protobufConverter().read(
+                new ParameterizedTypeReference<List<Task>>() { }.getType(),
+                null,
+                new MockHttpInputMessage(body)
+        ));
+    }
+
+    @Test
+    @DisplayName("should get all tasks in JSON when accepting any format")
+    void shouldGetAllTasksInJson_whenAcceptAnyFormat() throws Exception {
+        when(taskService.getTasksVersion()).thenReturn(7L);
+        when(taskService.getAllTasks()).thenReturn(List.of());
+
+        mockMvc.perform(get("/tasks").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    @DisplayName("should get the tasks matching the filters in the given order")
+    void shouldFindTasks() throws Exception {
+        final LocalDateTime dueDate = LocalDateTime.parse("2025-02-24T13:30:00");
+        final List<Task> tasks = List.of(new Task(1L, "title", true, 1L, dueDate, 0L));
+        final TaskFilter taskFilter = new TaskFilter(
+                null,
+                true,
+                LocalDateTime.parse("2025-02-01T00:00:00"),
+                LocalDateTime.parse("2025-03-01T00:00:00")
+        );
+        when(taskService.getTasksVersion()).thenReturn(7L);
+        when(taskService.findTasks(taskFilter, TaskSort.DUE_DATE)).thenReturn(tasks);
+
+        mockMvc.perform(get("/tasks")
+                        .param("completed", "true")
+                        .param("dueAfter", "2025-02-01T00:00:00")
+                        .param("dueBefore", "2025-03-01T00:00:00")
+                        .param("sort", "dueDate")
+                        .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, startsWith("\"tasks-7-")))
+                .andExpect(content().json(objectMapper.writeValueAsString(tasks), JsonCompareMode.STRICT));
+
+        verify(taskService).getTasksVersion();
+        verify(taskService).findTasks(taskFilter, TaskSort.DUE_DATE);
+        verifyNoMoreInteractions(taskService);
+    }
+
+    @Test
+    @DisplayName("should get the tasks matching the filters by position in list when no order is given")
+    void shouldFindTasksByPosition_whenNoSort() throws Exception {
+        when(taskService.findTasks(new TaskFilter(null, false, null, null), TaskSort.ORDER)).thenReturn(List.of());
+
+        mockMvc.perform(get("/tasks")
+                        .param("completed", "false")
+                        .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]"));
+
+        verify(taskService).findTasks(new TaskFilter(null, false, null, null), TaskSort.ORDER);
+    }
+
+    @Test
+    @DisplayName("should search tasks by title")
+    void shouldSearchTasks() throws Exception {
+        final List<Task> tasks = List.of(new Task(1L, "My title", false, 1L, null, 0L));
+        when(taskService.searchTasks("title", 5)).thenReturn(tasks);
+
+        mockMvc.perform(get("/tasks/search")
+                        .param("q", "title")
+                        .param("limit", "5")
+                        .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(tasks), JsonCompareMode.STRICT));
+
+        verify(taskService).searchTasks("title", 5);
+        verifyNoMoreInteractions(taskService);
+    }
+
+    @Test
+    @DisplayName("should search 20 tasks by title by default")
+    void shouldSearchTasks_withDefaultLimit() throws Exception {
+        when(taskService.searchTasks("title", 20)).thenReturn(List.of());
+
+        mockMvc.perform(get("/tasks/search").param("q", "title").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]"));
+
+        verify(taskService).searchTasks("title", 20);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "ti"})
+    @DisplayName("should return 400 when searching tasks with a query shorter than a trigram")
+    void shouldReturnBadRequest_whenSearchTasksWithShortQuery(final String query) throws Exception {
+        mockMvc.perform(get("/tasks/search").param("q", query).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(taskService);
+    }
+
+    @Test
+    @DisplayName("should get task changes since a change version")
+    void shouldGetTaskChanges() throws Exception {
+        final TaskChanges taskChanges = new TaskChanges(
+                List.of(new Task(1L, "My title", false, 1L, null, 0L)), List.of(2L), 3000L, false, true
+        );
+        when(taskService.getTaskChanges(1000L)).thenReturn(taskChanges);
+
+        mockMvc.perform(get("/tasks/changes").param("since", "1000").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(taskChanges), JsonCompareMode.STRICT));
+
+        verify(taskService).getTaskChanges(1000L);
+        verifyNoMoreInteractions(taskService);
+    }
+
+    @Test
+    @DisplayName("should get all tasks as changes since version 0 by default")
+    void shouldGetTaskChanges_withDefaultVersion() throws Exception {
+        when(taskService.getTaskChanges(0L)).thenReturn(new TaskChanges(List.of(), List.of(), 3000L, true, false));
+
+        mockMvc.perform(get("/tasks/changes").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(
+                        "{\"tasks\":[],\"deletedIds\":[],\"version\":3000,\"reset\":true,\"more\":false}"
+                ));
+
+        verify(taskService).getTaskChanges(0L);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "sort, position",
+            "completed, maybe",
+            "dueBefore, tomorrow"
+    })
+    @DisplayName("should return 400 when getting tasks with an invalid filter or order")
+    void shouldReturnBadRequest_whenFindTasks(final String name, final String value) throws Exception {
+        mockMvc.perform(get("/tasks")
+                        .param(name, value)
+                        .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(taskService);
+    }
+
+    @Test
+    @DisplayName("should return 304 without loading tasks when no task changed")
+    void shouldReturnNotModified_whenGetAllTasks() throws Exception {
+        when(taskService.getTasksVersion()).thenReturn(7L);
+        final String eTag = getTasksETag(get("/tasks").accept(MediaType.APPLICATION_JSON));
+
+        mockMvc.perform(get("/tasks")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andExpect(content().string(""));
+
+        verify(taskService, times(2)).getTasksVersion();
         verify(taskService).getAllTasks();
         verifyNoMoreInteractions(taskService);
     }
 
+    @Test
+    @DisplayName("should get all tasks again once a task changed")
+    void shouldGetAllTasks_whenTasksVersionChanged() throws Exception {
+        final List<Task> tasks = Collections.singletonList(new Task(0L, "title", false, 1L, null, 0L));
+        when(taskService.getTasksVersion()).thenReturn(7L, 8L);
+        when(taskService.getAllTasks()).thenReturn(tasks);
+        final String eTag = getTasksETag(get("/tasks").accept(MediaType.APPLICATION_JSON));
+
+        mockMvc.perform(get("/tasks")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, startsWith("\"tasks-8-")))
+                .andExpect(content().json(objectMapper.writeValueAsString(tasks), JsonCompareMode.STRICT));
+
+        verify(taskService, times(2)).getTasksVersion();
+        verify(taskService, times(2)).getAllTasks();
+        verifyNoMoreInteractions(taskService);
+    }
+
+    @Test
+    @DisplayName("should not return 304 for the ETag of tasks read with other parameters or in another media type")
+    void shouldGetAllTasks_whenETagOfOtherQueryOrMediaType() throws Exception {
+        when(taskService.getTasksVersion()).thenReturn(7L);
+        when(taskService.getAllTasks()).thenReturn(Collections.emptyList());
+        when(taskService.findTasks(any(), any())).thenReturn(Collections.emptyList());
+        final String eTag = getTasksETag(get("/tasks").accept(MediaType.APPLICATION_JSON));
+        final String completedETag =
+                getTasksETag(get("/tasks").param("completed", "true").accept(MediaType.APPLICATION_JSON));
+        final String cborETag = getTasksETag(get("/tasks").accept(MediaType.APPLICATION_CBOR));
+
+        mockMvc.perform(get("/tasks")
+                        .param("completed", "true")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/tasks")
+                        .header(HttpHeaders.IF_NONE_MATCH, cborETag)
+                        .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk());
+
+        assertNotEquals(eTag, completedETag);
+        assertNotEquals(eTag, cborETag);
+    }
+
+    @Test
+    @DisplayName("should get a page of tasks with a cursor to the next page")
+    void shouldGetTasksPage() throws Exception {
+        final TaskCursor after = new TaskCursor(1L, 1L);
+        final TaskCursor next = new TaskCursor(2L, 2L);
+        final List<Task> tasks = Collections.singletonList(new Task(2L, "title", false, 2L, null, 0L));
+        when(taskService.getTasksVersion()).thenReturn(7L);
+        when(taskService.getTasksPage(after, 1)).thenReturn(new TaskPage(tasks, next));
+        final TaskPageResponse expectedResponse =
+                new TaskPageResponse(tasks, TaskCursorCodec.encode(next));
+
+        mockMvc.perform(get("/tasks")
+                        .param("limit", "1")
+                        .param("after", TaskCursorCodec.encode(after))
+                        .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.ETAG, startsWith("\"tasks-7-")))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andExpect(content().json(objectMapper.writeValueAsString(expectedResponse), JsonCompareMode.STRICT));
+
+        verify(taskService).getTasksVersion();
+        verify(taskService).getTasksPage(after, 1);
+        verifyNoMoreInteractions(taskService);
+    }
+
+    @Test
+    @DisplayName("should return 400 when getting a page of tasks with an invalid cursor")
+    void shouldReturnBadRequest_whenGetTasksPage() throws Exception {
+        mockMvc.perform(get("/tasks")
+                        .param("limit", "1")
+                        .param("after", "not a cursor")
+                        .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(taskService);
+    }
+
+    @Test
+    @DisplayName("should export all tasks as newline-delimited JSON")
+    void shouldExportTasks() throws Exception {
+        final Task task1 = new Task(1L, "title 1", false, 1L, null, 0L);
+        final Task task2 = new Task(2L, "title 2", true, 2L, LocalDateTime.parse("2025-02-24T13:30:00"), 0L);
+        doAnswer(invocation -> {
+            final Consumer<Task> consumer = invocation.getArgument(0);
+            consumer.accept(task1);
+            consumer.accept(task2);
+            return null;
+        }).when(taskService).forEachTask(any());
+
+        final MvcResult mvcResult = mockMvc.perform(get("/tasks/export")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        objectMapper.writeValueAsString(task1) + "\n" + objectMapper.writeValueAsString(task2) + "\n"
+                ));
+
+        verify(taskService).forEachTask(any());
+        verifyNoMoreInteractions(taskService);
+    }
+
     @Test
     @DisplayName("should delete all tasks")
     void shouldDeleteAllTasks() throws Exception {
@@ -331,4 +1219,45 @@ public class TaskControllerTest {
         verifyNoMoreInteractions(taskService);
     }
 
+    /**
+     * Builds an object mapper for a binary media type, set up as the one of its message converter
+     *
+     * @param mediaType CBOR or Smile media type
+     *
+     * @return object mapper reading and writing the media type
+     */
+    private ObjectMapper binaryObjectMapper(final String mediaType) {
+        return objectMapperBuilders.getObject()
+                .factory("application/cbor".equals(mediaType) ? new CBORFactory() : new SmileFactory())
+                .build();
+    }
+
+    /**
+     * Builds a Protocol Buffers converter on the object mapper settings of the application
+     *
+     * @return Protocol Buffers converter
+     */
+    private ProtobufJackson2HttpMessageConverter protobufConverter() {
+        return new ProtobufJackson2HttpMessageConverter(
+                objectMapperBuilders.getObject().factory(new ProtobufFactory()).build()
+        );
+    }
+
+    /**
+     * Gets the ETag of a list of tasks
+     *
+     * @param request request reading the list
+     *
+     * @return ETag of the list
+     *
+     * @throws Exception if the request fails
+     */
+    private String getTasksETag(final MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+    }
+
 }
@@ -0,0 +1,181 @@
+package com.blackpantech.todo.infra.idempotency;
+
+import com.blackpantech.todo.domain.task.Task;
+import com.blackpantech.todo.domain.task.TaskService;
+import com.blackpantech.todo.domain.task.exceptions.DuplicatedTaskTitleException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+public class IdempotentTaskCreatorTest {
+
+    @Mock
+    final TaskService taskService = mock(TaskService.class);
+
+    final IdempotencyStore idempotencyStore = new InMemoryIdempotencyStore(100, Duration.ofHours(1), Duration.ofMinutes(1));
+
+    final IdempotentTaskCreator idempotentTaskCreator =
+            new IdempotentTaskCreator(taskService, idempotencyStore, Duration.ofSeconds(5));
+
+    @Test
+    @DisplayName("should create a task once, and get it again when retrying with the same key")
+    void shouldCreateTaskOnce() throws Exception {
+        final Task task = new Task(1L, "title", false, 1L, null, 0L);
+        when(taskService.createTask("title", null)).thenReturn(task);
+
+        assertEquals(task, idempotentTaskCreator.createTask("key", "title", null));
+        assertEquals(task, idempotentTaskCreator.createTask("key", "title", null));
+
+        verify(taskService).createTask("title", null);
+        verifyNoMoreInteractions(taskService);
+    }
+
+    @Test
+    @DisplayName("should reject a key already used to create another task")
+    void shouldRejectReusedKey() throws Exception {
+        when(taskService.createTask("title", null)).thenReturn(new Task(1L, "title", false, 1L, null, 0L));
+
+        idempotentTaskCreator.createTask("key", "title", null);
+
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> idempotentTaskCreator.createTask("key", "other title", null));
+    }
+
+    @Test
+    @DisplayName("should create the task again when retrying a failed creation")
+    void shouldRetryFailedCreation() throws DuplicatedTaskTitleException {
+        when(taskService.createTask("title", null)).thenThrow(new DuplicatedTaskTitleException("title"));
+
+        assertThrows(DuplicatedTaskTitleException.class, () -> idempotentTaskCreator.createTask("key", "title", null));
+        assertThrows(DuplicatedTaskTitleException.class, () -> idempotentTaskCreator.createTask("key", "title", null));
+
+        verify(taskService, times(2)).createTask("title", null);
+    }
+
+    @Test
+    @DisplayName("should wait for the task of a key reserved elsewhere instead of creating it again")
+    void shouldAwaitCreation_whenKeyReservedElsewhere() throws Exception {
+        final Task task = new Task(1L, "title", false, 1L, null, 0L);
+        // Reserved by the same creation on another node
+        idempotencyStore.reserve("key", "title", null);
+
+        try (final ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor()) {
+            final Future<Task> creation =
+                    executorService.submit(() -> idempotentTaskCreator.createTask("key", "title", null));
+            Thread.sleep(100);
+            idempotencyStore.complete("key", task);
+
+            assertEquals(task, creation.get());
+        }
+
+        verifyNoInteractions(taskService);
+    }
+
+    @Test
+    @DisplayName("should create the task once the key reserved elsewhere is released")
+    void shouldCreateTask_whenReservationReleased() throws Exception {
+        final Task task = new Task(1L, "title", false, 1L, null, 0L);
+        when(taskService.createTask("title", null)).thenReturn(task);
+        idempotencyStore.reserve("key", "title", null);
+
+        try (final ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor()) {
+            final Future<Task> creation =
+                    executorService.submit(() -> idempotentTaskCreator.createTask("key", "title", null));
+            Thread.sleep(100);
+            idempotencyStore.release("key");
+
+            assertEquals(task, creation.get());
+        }
+
+        verify(taskService).createTask("title", null);
+    }
+
+    @Test
+    @DisplayName("should give up waiting for the task of a key reserved elsewhere after the maximum wait")
+    void shouldGiveUpWaiting_whenCreationStillPending() {
+        final IdempotentTaskCreator impatientTaskCreator =
+                new IdempotentTaskCreator(taskService, idempotencyStore, Duration.ofMillis(100));
+        idempotencyStore.reserve("key", "title", null);
+
+        final IdempotentCreationPendingException exception = assertThrows(IdempotentCreationPendingException.class,
+                () -> impatientTaskCreator.createTask("key", "title", null));
+
+        assertEquals(Duration.ofSeconds(1), exception.getRetryAfter());
+        verifyNoInteractions(taskService);
+    }
+
+    @Test
+    @DisplayName("should return the created task even if it could not be saved under its expired reservation")
+    void shouldReturnTask_whenCompletionFails() throws Exception {
+        final Task task = new Task(1L, "title", false, 1L, null, 0L);
+        final IdempotencyStore failingStore = mock(IdempotencyStore.class);
+        when(failingStore.reserve("key", "title", null)).thenReturn(true);
+        when(failingStore.complete("key", task)).thenReturn(false);
+        when(taskService.createTask("title", null)).thenReturn(task);
+        final IdempotentTaskCreator failingTaskCreator =
+                new IdempotentTaskCreator(taskService, failingStore, Duration.ofSeconds(5));
+
+        assertEquals(task, failingTaskCreator.createTask("key", "title", null));
+
+        verify(failingStore).complete("key", task);
+    }
+
+    @Test
+    @DisplayName("should reject a key reserved to create another task")
+    void shouldRejectReusedKey_whenCreationPending() {
+        idempotencyStore.reserve("key", "title", null);
+
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> idempotentTaskCreator.createTask("key", "other title", null));
+
+        verifyNoInteractions(taskService);
+    }
+
+    @Test
+    @DisplayName("should create the task once for concurrent requests with the same key")
+    void shouldSingleFlightConcurrentCreations() throws Exception {
+        final Task task = new Task(1L, "title", false, 1L, null, 0L);
+        final CountDownLatch creationStarted = new CountDownLatch(1);
+        final CountDownLatch requestsSent = new CountDownLatch(1);
+        when(taskService.createTask("title", null)).thenAnswer(invocation -> {
+            creationStarted.countDown();
+            requestsSent.await();
+            return task;
+        });
+
+        try (final ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor()) {
+            final List<Future<Task>> creations = new ArrayList<>();
+            creations.add(executorService.submit(() -> idempotentTaskCreator.createTask("key", "title", null)));
+            creationStarted.await();
+            for (int request = 0; request < 10; request++) {
+                creations.add(executorService.submit(() -> idempotentTaskCreator.createTask("key", "title", null)));
+            }
+            requestsSent.countDown();
+
+            for (final Future<Task> creation : creations) {
+                assertEquals(task, creation.get());
+            }
+        }
+
+        verify(taskService).createTask("title", null);
+        verifyNoMoreInteractions(taskService);
+    }
+
+}
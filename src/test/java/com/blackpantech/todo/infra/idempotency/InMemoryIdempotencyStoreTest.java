@@ -0,0 +1,105 @@
+package com.blackpantech.todo.infra.idempotency;
+
+import com.blackpantech.todo.domain.task.Task;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InMemoryIdempotencyStoreTest {
+
+    final AtomicLong nanoClock = new AtomicLong();
+
+    final InMemoryIdempotencyStore idempotencyStore =
+            new InMemoryIdempotencyStore(3, Duration.ofSeconds(10), Duration.ofSeconds(2), nanoClock::get);
+
+    @Test
+    @DisplayName("should reserve a key once, and find its task once completed")
+    void shouldReserveKeyOnce() {
+        final Task task = new Task(1L, "title", false, 1L, null, 0L);
+
+        assertNull(idempotencyStore.find("key"));
+        assertTrue(idempotencyStore.reserve("key", "title", null));
+        assertFalse(idempotencyStore.reserve("key", "title", null));
+        assertTrue(idempotencyStore.find("key").pending());
+
+        assertTrue(idempotencyStore.complete("key", task));
+        assertFalse(idempotencyStore.complete("key", new Task(2L, "title", false, 2L, null, 0L)));
+
+        assertEquals(new IdempotentCreation("title", null, task), idempotencyStore.find("key"));
+        assertFalse(idempotencyStore.reserve("key", "title", null));
+    }
+
+    @Test
+    @DisplayName("should reserve a key again once released, but not once completed")
+    void shouldReleasePendingKeyOnly() {
+        idempotencyStore.reserve("key 1", "title 1", null);
+        idempotencyStore.release("key 1");
+
+        assertNull(idempotencyStore.find("key 1"));
+        assertTrue(idempotencyStore.reserve("key 1", "title 1", null));
+
+        save("key 2", new Task(2L, "title 2", false, 2L, null, 0L));
+        idempotencyStore.release("key 2");
+
+        assertEquals(2L, idempotencyStore.find("key 2").task().id());
+    }
+
+    @Test
+    @DisplayName("should reserve a key again once its reservation expired")
+    void shouldExpireReservation() {
+        idempotencyStore.reserve("key", "title", null);
+        nanoClock.addAndGet(Duration.ofSeconds(2).toNanos());
+
+        assertNull(idempotencyStore.find("key"));
+        assertFalse(idempotencyStore.complete("key", new Task(1L, "title", false, 1L, null, 0L)));
+        assertTrue(idempotencyStore.reserve("key", "title", null));
+    }
+
+    @Test
+    @DisplayName("should forget a key after its time to live, and evict it on the next reservation")
+    void shouldExpireKey() {
+        save("key 1", new Task(1L, "title 1", false, 1L, null, 0L));
+        nanoClock.addAndGet(Duration.ofSeconds(5).toNanos());
+        save("key 2", new Task(2L, "title 2", false, 2L, null, 0L));
+        nanoClock.addAndGet(Duration.ofSeconds(5).toNanos());
+
+        assertNull(idempotencyStore.find("key 1"));
+        assertEquals(2, idempotencyStore.size());
+
+        save("key 3", new Task(3L, "title 3", false, 3L, null, 0L));
+
+        assertEquals(2, idempotencyStore.size());
+        assertEquals(2L, idempotencyStore.find("key 2").task().id());
+    }
+
+    @Test
+    @DisplayName("should evict the oldest key once full")
+    void shouldEvictOldestKey_whenFull() {
+        for (int index = 1; index <= 4; index++) {
+            save("key " + index, new Task(index, "title " + index, false, index, null, 0L));
+        }
+
+        assertNull(idempotencyStore.find("key 1"));
+        assertEquals(4L, idempotencyStore.find("key 4").task().id());
+        assertEquals(3, idempotencyStore.size());
+    }
+
+    /**
+     * Reserves a key and completes it with a task
+     *
+     * @param key idempotency key
+     * @param task created task
+     */
+    private void save(final String key, final Task task) {
+        idempotencyStore.reserve(key, task.title(), task.dueDate());
+        idempotencyStore.complete(key, task);
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.blackpantech.todo.infra.idempotency;
+
+import com.blackpantech.todo.domain.task.Task;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@JdbcTest
+public class JdbcIdempotencyStoreTest {
+
+    private static final Instant NOW = Instant.parse("2025-02-24T13:30:00Z");
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Mock
+    final Clock clock = mock(Clock.class);
+
+    @Test
+    @DisplayName("should reserve a key once, and find its task once completed, on the table migrated by Flyway")
+    void shouldReserveKeyOnce() {
+        final JdbcIdempotencyStore idempotencyStore =
+                new JdbcIdempotencyStore(jdbcTemplate, Duration.ofHours(1), Duration.ofSeconds(30), clock);
+        final LocalDateTime dueDate = LocalDateTime.parse("2025-03-01T08:00:00");
+        final Task task = new Task(1L, "title", false, 1024L, dueDate, 0L);
+        when(clock.instant()).thenReturn(NOW);
+
+        assertNull(idempotencyStore.find("key"));
+        assertTrue(idempotencyStore.reserve("key", "title", dueDate));
+        assertFalse(idempotencyStore.reserve("key", "title", dueDate));
+        assertEquals(new IdempotentCreation("title", dueDate, null), idempotencyStore.find("key"));
+
+        assertTrue(idempotencyStore.complete("key", task));
+        assertFalse(idempotencyStore.complete("key", new Task(2L, "title", false, 2048L, dueDate, 0L)));
+
+        assertEquals(new IdempotentCreation("title", dueDate, task), idempotencyStore.find("key"));
+    }
+
+    @Test
+    @DisplayName("should reserve a key again once released, but not once completed")
+    void shouldReleasePendingKeyOnly() {
+        final JdbcIdempotencyStore idempotencyStore =
+                new JdbcIdempotencyStore(jdbcTemplate, Duration.ofHours(1), Duration.ofSeconds(30), clock);
+        when(clock.instant()).thenReturn(NOW);
+        idempotencyStore.reserve("key 1", "title 1", null);
+        idempotencyStore.release("key 1");
+
+        assertNull(idempotencyStore.find("key 1"));
+        assertTrue(idempotencyStore.reserve("key 1", "title 1", null));
+
+        idempotencyStore.reserve("key 2", "title 2", null);
+        idempotencyStore.complete("key 2", new Task(2L, "title 2", false, 2048L, null, 0L));
+        idempotencyStore.release("key 2");
+
+        assertEquals(2L, idempotencyStore.find("key 2").task().id());
+    }
+
+    @Test
+    @DisplayName("should reserve a key again once its reservation expired")
+    void shouldExpireReservation() {
+        final JdbcIdempotencyStore idempotencyStore =
+                new JdbcIdempotencyStore(jdbcTemplate, Duration.ofHours(1), Duration.ofSeconds(30), clock);
+        when(clock.instant()).thenReturn(NOW);
+        idempotencyStore.reserve("key", "title", null);
+
+        when(clock.instant()).thenReturn(NOW.plus(Duration.ofSeconds(30)));
+        assertNull(idempotencyStore.find("key"));
+        assertFalse(idempotencyStore.complete("key", new Task(1L, "title", false, 1024L, null, 0L)));
+
+        // Within the purge interval, so the expired reservation is still in the table
+        assertTrue(idempotencyStore.reserve("key", "other title", null));
+        assertEquals(new IdempotentCreation("other title", null, null), idempotencyStore.find("key"));
+    }
+
+    @Test
+    @DisplayName("should forget a key after its time to live, and replace it once expired")
+    void shouldExpireKey() {
+        final JdbcIdempotencyStore idempotencyStore =
+                new JdbcIdempotencyStore(jdbcTemplate, Duration.ofHours(1), Duration.ofSeconds(30), clock);
+        final Task task = new Task(2L, "other title", false, 2048L, null, 0L);
+        when(clock.instant()).thenReturn(NOW);
+        idempotencyStore.reserve("key", "title", null);
+        idempotencyStore.complete("key", new Task(1L, "title", false, 1024L, null, 0L));
+
+        when(clock.instant()).thenReturn(NOW.plus(Duration.ofHours(1)));
+        assertNull(idempotencyStore.find("key"));
+
+        assertTrue(idempotencyStore.reserve("key", "other title", null));
+        idempotencyStore.complete("key", task);
+        assertEquals(task, idempotencyStore.find("key").task());
+    }
+
+    @Test
+    @DisplayName("should delete the expired keys when reserving a key after the purge interval")
+    void shouldPurgeExpiredKeys() {
+        final JdbcIdempotencyStore idempotencyStore =
+                new JdbcIdempotencyStore(jdbcTemplate, Duration.ofSeconds(1), Duration.ofSeconds(1), clock);
+        when(clock.instant()).thenReturn(NOW);
+        idempotencyStore.reserve("key 1", "title 1", null);
+        idempotencyStore.complete("key 1", new Task(1L, "title 1", false, 1024L, null, 0L));
+
+        when(clock.instant()).thenReturn(NOW.plus(Duration.ofMinutes(1)));
+        idempotencyStore.reserve("key 2", "title 2", null);
+
+        assertEquals(
+                1,
+                jdbcTemplate.queryForObject("select count(*) from IDEMPOTENCY_KEYS", Integer.class)
+        );
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.blackpantech.todo.infra.jpa;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CountingBloomTitleFilterTest {
+
+    @Mock
+    final TaskJpaRepository taskJpaRepository = mock(TaskJpaRepository.class);
+
+    final CountingBloomTitleFilter titleFilter = new CountingBloomTitleFilter(taskJpaRepository, 10_000, 0.01);
+
+    @Test
+    @DisplayName("should never tell an added title is new")
+    void shouldContainAddedTitles() {
+        IntStream.range(0, 10_000).forEach(i -> titleFilter.add("title " + i));
+
+        IntStream.range(0, 10_000).forEach(i -> assertTrue(titleFilter.mightContain("title " + i)));
+    }
+
+    @Test
+    @DisplayName("should tell a removed title is new")
+    void shouldNotContainRemovedTitle() {
+        titleFilter.add("title");
+        titleFilter.add("other title");
+
+        titleFilter.remove("title");
+
+        assertFalse(titleFilter.mightContain("title"));
+        assertTrue(titleFilter.mightContain("other title"));
+    }
+
+    @Test
+    @DisplayName("should keep a title added twice and removed once")
+    void shouldContainTitleAddedTwice() {
+        titleFilter.add("title");
+        titleFilter.add("title");
+
+        titleFilter.remove("title");
+
+        assertTrue(titleFilter.mightContain("title"));
+    }
+
+    @Test
+    @DisplayName("should rebuild from titles stored in database")
+    void shouldRebuildFromDatabase() {
+        titleFilter.add("deleted title");
+        when(taskJpaRepository.streamAllTitles()).thenReturn(Stream.of("title 1", "title 2"));
+
+        titleFilter.rebuild();
+
+        assertTrue(titleFilter.mightContain("title 1"));
+        assertTrue(titleFilter.mightContain("title 2"));
+        assertFalse(titleFilter.mightContain("deleted title"));
+    }
+
+    @Test
+    @DisplayName("should tell every title is new once cleared")
+    void shouldNotContainTitles_whenCleared() {
+        titleFilter.add("title");
+
+        titleFilter.clear();
+
+        assertFalse(titleFilter.mightContain("title"));
+    }
+
+}
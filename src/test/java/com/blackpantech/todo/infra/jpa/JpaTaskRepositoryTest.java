@@ -1,8 +1,22 @@
 package com.blackpantech.todo.infra.jpa;
 
+import com.blackpantech.todo.domain.task.MovePosition;
 import com.blackpantech.todo.domain.task.Task;
+import com.blackpantech.todo.domain.task.TaskBulkUpdate;
+import com.blackpantech.todo.domain.task.TaskChangeVersions;
+import com.blackpantech.todo.domain.task.TaskChanges;
+import com.blackpantech.todo.domain.task.TaskCursor;
+import com.blackpantech.todo.domain.task.TaskFilter;
+import com.blackpantech.todo.domain.task.TaskPage;
+import com.blackpantech.todo.domain.task.TaskEdit;
+import com.blackpantech.todo.domain.task.TaskPatch;
+import com.blackpantech.todo.domain.task.TaskSort;
+import com.blackpantech.todo.domain.task.TaskToCreate;
 import com.blackpantech.todo.domain.task.exceptions.DuplicatedTaskTitleException;
+import com.blackpantech.todo.domain.task.exceptions.OrderGapExhaustedException;
 import com.blackpantech.todo.domain.task.exceptions.TaskNotFoundException;
+import com.blackpantech.todo.domain.task.exceptions.TaskVersionMismatchException;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -10,16 +24,38 @@ import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -27,12 +63,38 @@ import static org.mockito.Mockito.when;
 @SpringBootTest
 public class JpaTaskRepositoryTest {
 
+    private static final long CHANGE_VERSION = 1_000L;
+
     @MockitoBean
     TaskJpaRepository taskJpaRepository;
 
+    @MockitoBean
+    OrderPositionAllocator orderPositionAllocator;
+
+    @MockitoBean
+    TaskTitlePatcher taskTitlePatcher;
+
+    @MockitoBean
+    TitleFilter titleFilter;
+
+    @MockitoBean
+    TrigramTitleIndex titleIndex;
+
+    @MockitoBean
+    JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    TaskChangeVersions taskChangeVersions;
+
     @Autowired
     JpaTaskRepository jpaTaskRepository;
 
+    @BeforeEach
+    void setUp() {
+        when(orderPositionAllocator.gap()).thenReturn(1L);
+        when(taskChangeVersions.next()).thenReturn(CHANGE_VERSION);
+    }
+
     @ParameterizedTest
     @CsvSource({
             "0, title, false, 1, 2025-08-23T22:00:00"
@@ -77,9 +139,10 @@ public class JpaTaskRepositoryTest {
     @DisplayName("should create a task")
     void shouldCreateTask(final String title, final LocalDateTime dueDate) throws DuplicatedTaskTitleException {
         final TaskEntity task = new TaskEntity(title, false, 1L, dueDate);
+        when(titleFilter.mightContain(anyString())).thenReturn(true);
         when(taskJpaRepository.findByTitle(title)).thenReturn(Optional.empty());
-        when(taskJpaRepository.count()).thenReturn(0L);
-        when(taskJpaRepository.save(any())).thenReturn(task);
+        when(orderPositionAllocator.next()).thenReturn(1L);
+        when(taskJpaRepository.saveAndFlush(any())).thenReturn(task);
 
         final Task createdTask = jpaTaskRepository.createTask(title, dueDate);
 
@@ -88,8 +151,8 @@ public class JpaTaskRepositoryTest {
         assertEquals(task.getOrderPosition(), createdTask.order());
         assertEquals(task.getDueDate(), createdTask.dueDate());
         verify(taskJpaRepository).findByTitle(title);
-        verify(taskJpaRepository).count();
-        verify(taskJpaRepository).save(any());
+        verify(orderPositionAllocator).next();
+        verify(taskJpaRepository).saveAndFlush(any());
         verifyNoMoreInteractions(taskJpaRepository);
     }
 
@@ -100,6 +163,7 @@ public class JpaTaskRepositoryTest {
     })
     @DisplayName("should find task with the same title when creating a task")
     void shouldFindExistingTitle_whenCreateTask(final String title, final LocalDateTime dueDate) {
+        when(titleFilter.mightContain(anyString())).thenReturn(true);
         when(taskJpaRepository.findByTitle(title)).thenReturn(Optional.of(new TaskEntity()));
 
         assertThrows(DuplicatedTaskTitleException.class, () -> jpaTaskRepository.createTask(title, dueDate));
@@ -108,6 +172,91 @@ public class JpaTaskRepositoryTest {
         verifyNoMoreInteractions(taskJpaRepository);
     }
 
+    @Test
+    @DisplayName("should create tasks in batch")
+    void shouldCreateTasks() throws DuplicatedTaskTitleException {
+        final List<TaskToCreate> tasksToCreate = List.of(
+                new TaskToCreate("title 1", null),
+                new TaskToCreate("title 2", LocalDateTime.parse("2025-02-24T13:30:00"))
+        );
+        when(titleFilter.mightContain(anyString())).thenReturn(true);
+        when(taskJpaRepository.findTitlesIn(anyCollection())).thenReturn(Collections.emptyList());
+        when(orderPositionAllocator.reserve(2)).thenReturn(new long[]{1L, 2L});
+        when(taskJpaRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        final List<Task> createdTasks = jpaTaskRepository.createTasks(tasksToCreate);
+
+        assertEquals(2, createdTasks.size());
+        assertEquals("title 1", createdTasks.get(0).title());
+        assertEquals(1L, createdTasks.get(0).order());
+        assertEquals("title 2", createdTasks.get(1).title());
+        assertEquals(2L, createdTasks.get(1).order());
+        verify(taskJpaRepository).findTitlesIn(anyCollection());
+        verify(orderPositionAllocator).reserve(2);
+        verify(taskJpaRepository).saveAll(anyList());
+        verify(taskJpaRepository).flush();
+        verifyNoMoreInteractions(taskJpaRepository);
+    }
+
+    @Test
+    @DisplayName("should find a title given twice when creating tasks in batch")
+    void shouldFindDuplicatedTitle_whenCreateTasks() {
+        final List<TaskToCreate> tasksToCreate = List.of(
+                new TaskToCreate("title", null),
+                new TaskToCreate("title", null)
+        );
+
+        assertThrows(DuplicatedTaskTitleException.class, () -> jpaTaskRepository.createTasks(tasksToCreate));
+
+        verifyNoMoreInteractions(taskJpaRepository);
+    }
+
+    @Test
+    @DisplayName("should find an existing title when creating tasks in batch")
+    void shouldFindExistingTitle_whenCreateTasks() {
+        final List<TaskToCreate> tasksToCreate = List.of(
+                new TaskToCreate("title 1", null),
+                new TaskToCreate("title 2", null)
+        );
+        when(titleFilter.mightContain(anyString())).thenReturn(true);
+        when(taskJpaRepository.findTitlesIn(anyCollection())).thenReturn(List.of("title 2"));
+
+        assertThrows(DuplicatedTaskTitleException.class, () -> jpaTaskRepository.createTasks(tasksToCreate));
+
+        verify(taskJpaRepository).findTitlesIn(anyCollection());
+        verifyNoMoreInteractions(taskJpaRepository);
+    }
+
+    @Test
+    @DisplayName("should skip the duplicate title query when the title filter knows the title is new")
+    void shouldSkipTitleQuery_whenCreateTask() throws DuplicatedTaskTitleException {
+        final TaskEntity task = new TaskEntity("title", false, 1L, null);
+        when(titleFilter.mightContain("title")).thenReturn(false);
+        when(orderPositionAllocator.next()).thenReturn(1L);
+        when(taskJpaRepository.saveAndFlush(any())).thenReturn(task);
+
+        jpaTaskRepository.createTask("title", null);
+
+        verify(taskJpaRepository, never()).findByTitle(anyString());
+        verify(taskJpaRepository).saveAndFlush(any());
+        verify(titleFilter).add("title");
+        verify(titleIndex).put(0L, "title");
+        verifyNoMoreInteractions(taskJpaRepository);
+    }
+
+    @Test
+    @DisplayName("should map a unique index violation to a duplicated title when creating a task")
+    void shouldMapUniqueIndexViolation_whenCreateTask() {
+        when(titleFilter.mightContain("title")).thenReturn(false);
+        when(orderPositionAllocator.next()).thenReturn(1L);
+        doThrow(new DataIntegrityViolationException("UK_TASKS_TITLE")).when(taskJpaRepository).saveAndFlush(any());
+
+        assertThrows(DuplicatedTaskTitleException.class, () -> jpaTaskRepository.createTask("title", null));
+
+        verify(taskJpaRepository).saveAndFlush(any());
+        verifyNoMoreInteractions(taskJpaRepository);
+    }
+
     @ParameterizedTest
     @CsvSource({
             "0, title, false, 1, ",
@@ -122,9 +271,10 @@ public class JpaTaskRepositoryTest {
             throws TaskNotFoundException, DuplicatedTaskTitleException {
         final TaskEntity task = new TaskEntity(title, completed, order, dueDate);
         final String editedTitle = title + " edit";
+        when(titleFilter.mightContain(anyString())).thenReturn(true);
         when(taskJpaRepository.findByTitle(editedTitle)).thenReturn(Optional.empty());
         when(taskJpaRepository.findById(id)).thenReturn(Optional.of(task));
-        when(taskJpaRepository.save(any())).thenReturn(task);
+        when(taskJpaRepository.saveAndFlush(any())).thenReturn(task);
 
         final Task editedTask = jpaTaskRepository.editTask(id, editedTitle, completed, order, dueDate);
 
@@ -134,7 +284,7 @@ public class JpaTaskRepositoryTest {
         assertEquals(task.getDueDate(), editedTask.dueDate());
         verify(taskJpaRepository).findByTitle(editedTitle);
         verify(taskJpaRepository).findById(id);
-        verify(taskJpaRepository).save(any());
+        verify(taskJpaRepository).saveAndFlush(any());
         verifyNoMoreInteractions(taskJpaRepository);
     }
 
@@ -152,7 +302,7 @@ public class JpaTaskRepositoryTest {
             throws TaskNotFoundException, DuplicatedTaskTitleException {
         final TaskEntity task = new TaskEntity(title, completed, order, dueDate);
         when(taskJpaRepository.findById(id)).thenReturn(Optional.of(task));
-        when(taskJpaRepository.save(any())).thenReturn(task);
+        when(taskJpaRepository.saveAndFlush(any())).thenReturn(task);
 
         final Task editedTask = jpaTaskRepository.editTask(id, title, !completed, order, dueDate);
 
@@ -161,7 +311,7 @@ public class JpaTaskRepositoryTest {
         assertEquals(task.getOrderPosition(), editedTask.order());
         assertEquals(task.getDueDate(), editedTask.dueDate());
         verify(taskJpaRepository).findById(id);
-        verify(taskJpaRepository).save(any());
+        verify(taskJpaRepository).saveAndFlush(any());
         verifyNoMoreInteractions(taskJpaRepository);
     }
 
@@ -179,6 +329,7 @@ public class JpaTaskRepositoryTest {
         final TaskEntity task = new TaskEntity(title, completed, order, dueDate);
         final String editedTitle = title + " edit";
         when(taskJpaRepository.findById(id)).thenReturn(Optional.of(task));
+        when(titleFilter.mightContain(anyString())).thenReturn(true);
         when(taskJpaRepository.findByTitle(editedTitle)).thenReturn(Optional.of(new TaskEntity()));
 
         assertThrows(DuplicatedTaskTitleException.class,
@@ -211,27 +362,30 @@ public class JpaTaskRepositoryTest {
 
     @ParameterizedTest
     @ValueSource(longs = {1L, 3L, 5L})
-    @DisplayName("should delete a single task")
+    @DisplayName("should delete a single task with a single delete, removing its title from the filter")
     void shouldDeleteTask(final long id) throws TaskNotFoundException {
-        final TaskEntity task = new TaskEntity();
-        when(taskJpaRepository.findById(id)).thenReturn(Optional.of(task));
+        when(taskJpaRepository.findByIdForUpdate(id)).thenReturn(Optional.of(new TaskEntity("title", false, 1L, null)));
+        when(taskJpaRepository.deleteTaskById(id, taskChangeVersions)).thenReturn(1);
 
         jpaTaskRepository.deleteTask(id);
 
-        verify(taskJpaRepository).findById(id);
-        verify(taskJpaRepository).delete(any());
+        verify(taskJpaRepository).findByIdForUpdate(id);
+        verify(taskJpaRepository).deleteTaskById(id, taskChangeVersions);
+        verify(titleFilter).remove("title");
+        verify(titleIndex).remove(id);
         verifyNoMoreInteractions(taskJpaRepository);
     }
 
     @ParameterizedTest
     @ValueSource(longs = {1L, 3L, 5L})
-    @DisplayName("should not find task when getting a single task")
+    @DisplayName("should not find task when deleting a single task")
     void shouldNotFindTask_whenDeleteTask(final long id) {
-        when(taskJpaRepository.findById(id)).thenReturn(Optional.empty());
+        when(taskJpaRepository.findByIdForUpdate(id)).thenReturn(Optional.empty());
 
         assertThrows(TaskNotFoundException.class, () -> jpaTaskRepository.deleteTask(id));
 
-        verify(taskJpaRepository).findById(id);
+        verify(taskJpaRepository).findByIdForUpdate(id);
+        verify(titleFilter, never()).remove(anyString());
         verifyNoMoreInteractions(taskJpaRepository);
     }
 
@@ -252,12 +406,469 @@ public class JpaTaskRepositoryTest {
         verifyNoMoreInteractions(taskJpaRepository);
     }
 
+    @Test
+    @DisplayName("should get the tasks matching a filter with a query sorted along an index")
+    @SuppressWarnings("unchecked")
+    void shouldFindTasks() {
+        final List<TaskEntity> tasks = List.of(new TaskEntity("title", true, 1L, null));
+        when(taskJpaRepository.findAll(any(Specification.class))).thenReturn(tasks);
+
+        final List<Task> fetchedTasks =
+                jpaTaskRepository.findTasks(new TaskFilter(null, true, null, null), TaskSort.DUE_DATE);
+
+        assertEquals(1, fetchedTasks.size());
+        verify(taskJpaRepository).findAll(any(Specification.class));
+        verifyNoMoreInteractions(taskJpaRepository);
+    }
+
+    @Test
+    @DisplayName("should patch a task at the expected version with a single update")
+    void shouldPatchTask_withExpectedVersion()
+            throws TaskNotFoundException, DuplicatedTaskTitleException, TaskVersionMismatchException {
+        final TaskPatch taskPatch = new TaskPatch("title", true, null, null, false);
+        when(taskTitlePatcher.patchIfVersion(1L, 3L, taskPatch, CHANGE_VERSION))
+                .thenReturn(Optional.of("previous title"));
+
+        jpaTaskRepository.patchTask(1L, taskPatch, 3L);
+
+        verify(taskTitlePatcher).patchIfVersion(1L, 3L, taskPatch, CHANGE_VERSION);
+        verify(titleFilter).add("title");
+        verify(titleFilter).remove("previous title");
+        verify(titleIndex).put(1L, "title");
+        verifyNoMoreInteractions(taskJpaRepository, taskTitlePatcher);
+    }
+
+    @Test
+    @DisplayName("should tell a task at another version from a missing task once a conditional title patch fails")
+    void shouldFailConditionalTitlePatch_whenVersionMismatch() {
+        final TaskPatch taskPatch = new TaskPatch("title", true, null, null, true);
+        when(taskTitlePatcher.patchIfVersion(1L, 3L, taskPatch, CHANGE_VERSION)).thenReturn(Optional.empty());
+        when(taskJpaRepository.findVersionById(1L)).thenReturn(Optional.of(4L));
+        when(taskTitlePatcher.patchIfVersion(2L, 3L, taskPatch, CHANGE_VERSION)).thenReturn(Optional.empty());
+        when(taskJpaRepository.findVersionById(2L)).thenReturn(Optional.empty());
+
+        assertThrows(TaskVersionMismatchException.class, () -> jpaTaskRepository.patchTask(1L, taskPatch, 3L));
+        assertThrows(TaskNotFoundException.class, () -> jpaTaskRepository.patchTask(2L, taskPatch, 3L));
+        verify(titleFilter, never()).add(anyString());
+    }
+
+    @Test
+    @DisplayName("should tell a task at another version from a missing task once a conditional patch fails")
+    void shouldFailConditionalPatch_whenVersionMismatch() {
+        final TaskPatch taskPatch = new TaskPatch(null, true, null, null, false);
+        when(taskJpaRepository.patchTaskIfVersion(1L, 3L, null, true, null, false, null, CHANGE_VERSION))
+                .thenReturn(0);
+        when(taskJpaRepository.findVersionById(1L)).thenReturn(Optional.of(4L));
+        when(taskJpaRepository.patchTaskIfVersion(2L, 3L, null, true, null, false, null, CHANGE_VERSION))
+                .thenReturn(0);
+        when(taskJpaRepository.findVersionById(2L)).thenReturn(Optional.empty());
+
+        assertThrows(TaskVersionMismatchException.class, () -> jpaTaskRepository.patchTask(1L, taskPatch, 3L));
+        assertThrows(TaskNotFoundException.class, () -> jpaTaskRepository.patchTask(2L, taskPatch, 3L));
+    }
+
+    @Test
+    @DisplayName("should write task edits in a single batch, each one at the version it was edited from")
+    void shouldSaveTaskEdits() {
+        final LocalDateTime dueDate = LocalDateTime.parse("2025-02-24T13:30:00");
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 0});
+
+        final List<Long> unsavedIds = jpaTaskRepository.saveTaskEdits(List.of(
+                new TaskEdit(1L, true, 2048L, dueDate, 3L, 5L),
+                new TaskEdit(2L, false, 4096L, null, 1L, 2L)
+        ));
+
+        assertEquals(List.of(2L), unsavedIds);
+        verify(jdbcTemplate).batchUpdate(anyString(), argThat((List<Object[]> rows) -> rows.size() == 2
+                && List.of(true, 2048L, dueDate, 5L, CHANGE_VERSION, 1L, 3L).equals(List.of(rows.get(0)))));
+        verifyNoMoreInteractions(taskJpaRepository);
+    }
+
+    @Test
+    @DisplayName("should search tasks in the title index and read them in the order of the index")
+    void shouldSearchTasks() {
+        final TaskEntity task = new TaskEntity("My title", false, 1L, null);
+        when(titleIndex.search("TITLE", 20)).thenReturn(List.of(0L));
+        when(taskJpaRepository.findAllById(List.of(0L))).thenReturn(List.of(task));
+
+        final List<Task> foundTasks = jpaTaskRepository.searchTasks("TITLE", 20);
+
+        assertEquals(List.of("My title"), foundTasks.stream().map(Task::title).toList());
+        verify(taskJpaRepository).findAllById(List.of(0L));
+        verifyNoMoreInteractions(taskJpaRepository);
+    }
+
+    @Test
+    @DisplayName("should not query tasks when the title index finds none")
+    void shouldNotQueryTasks_whenSearchFindsNone() {
+        when(titleIndex.search("title", 20)).thenReturn(List.of());
+
+        assertEquals(List.of(), jpaTaskRepository.searchTasks("title", 20));
+
+        verifyNoMoreInteractions(taskJpaRepository);
+    }
+
+    @Test
+    @DisplayName("should drop and fix the stale entries of the title index, then search again, when searching tasks")
+    void shouldFixStaleEntries_whenSearchTasks() {
+        final TaskEntity renamedTask = new TaskEntity("renamed", false, 1L, null);
+        final TaskEntity liveTask = mock(TaskEntity.class);
+        when(liveTask.getId()).thenReturn(7L);
+        when(liveTask.getTitle()).thenReturn("live title");
+        when(titleIndex.search("title", 2))
+                .thenReturn(List.of(0L, 5L))
+                .thenReturn(List.of(7L));
+        when(taskJpaRepository.findAllById(List.of(0L, 5L))).thenReturn(List.of(renamedTask));
+        when(taskJpaRepository.findAllById(List.of(7L))).thenReturn(List.of(liveTask));
+
+        final List<Task> foundTasks = jpaTaskRepository.searchTasks("title", 2);
+
+        assertEquals(List.of("live title"), foundTasks.stream().map(Task::title).toList());
+        verify(titleIndex).put(0L, "renamed");
+        verify(titleIndex).remove(5L);
+        verify(titleIndex, times(2)).search("title", 2);
+    }
+
+    @Test
+    @DisplayName("should get the first page of tasks with a next cursor")
+    void shouldGetFirstTasksPage() {
+        final List<TaskEntity> tasks = List.of(
+                new TaskEntity("title 1", false, 1L, null),
+                new TaskEntity("title 2", false, 2L, null),
+                new TaskEntity("title 3", false, 3L, null)
+        );
+        when(taskJpaRepository.findAllByOrderByOrderPositionAscIdAsc(any())).thenReturn(tasks);
+
+        final TaskPage taskPage = jpaTaskRepository.getTasksPage(null, 2);
+
+        assertEquals(2, taskPage.tasks().size());
+        assertEquals(new TaskCursor(2L, 0L), taskPage.next());
+        verify(taskJpaRepository).findAllByOrderByOrderPositionAscIdAsc(any());
+        verifyNoMoreInteractions(taskJpaRepository);
+    }
+
+    @Test
+    @DisplayName("should get the last page of tasks after a cursor")
+    void shouldGetLastTasksPage() {
+        final List<TaskEntity> tasks = List.of(new TaskEntity("title 3", false, 3L, null));
+        when(taskJpaRepository.findAllAfter(anyLong(), anyLong(), any())).thenReturn(tasks);
+
+        final TaskPage taskPage = jpaTaskRepository.getTasksPage(new TaskCursor(2L, 2L), 2);
+
+        assertEquals(1, taskPage.tasks().size());
+        assertNull(taskPage.next());
+        verify(taskJpaRepository).findAllAfter(anyLong(), anyLong(), any());
+        verifyNoMoreInteractions(taskJpaRepository);
+    }
+
+    @Test
+    @DisplayName("should stream all tasks")
+    void shouldStreamAllTasks() {
+        final Stream<TaskEntity> tasks = Stream.of(
+                new TaskEntity("title 1", false, 1L, null),
+                new TaskEntity("title 2", true, 2L, null)
+        );
+        when(taskJpaRepository.streamAllSortedByOrderPosition()).thenReturn(tasks);
+        final List<Task> streamedTasks = new ArrayList<>();
+
+        jpaTaskRepository.forEachTask(streamedTasks::add);
+
+        assertEquals(2, streamedTasks.size());
+        assertEquals("title 1", streamedTasks.get(0).title());
+        assertEquals("title 2", streamedTasks.get(1).title());
+        verify(taskJpaRepository).streamAllSortedByOrderPosition();
+        verifyNoMoreInteractions(taskJpaRepository);
+    }
+
+    @Test
+    @DisplayName("should get the version of a single task without loading it")
+    void shouldGetTaskVersion() throws TaskNotFoundException {
+        when(taskJpaRepository.findVersionById(1L)).thenReturn(Optional.of(3L));
+
+        assertEquals(3L, jpaTaskRepository.getTaskVersion(1L));
+
+        verify(taskJpaRepository).findVersionById(1L);
+        verifyNoMoreInteractions(taskJpaRepository);
+    }
+
+    @Test
+    @DisplayName("should not find task when getting the version of a single task")
+    void shouldNotFindTask_whenGetTaskVersion() {
+        when(taskJpaRepository.findVersionById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(TaskNotFoundException.class, () -> jpaTaskRepository.getTaskVersion(1L));
+
+        verify(taskJpaRepository).findVersionById(1L);
+        verifyNoMoreInteractions(taskJpaRepository);
+    }
+
+    @Test
+    @DisplayName("should patch a task and its title with a single update giving back the previous title")
+    void shouldPatchTask() throws TaskNotFoundException, DuplicatedTaskTitleException {
+        final LocalDateTime dueDate = LocalDateTime.parse("2025-02-24T13:30:00");
+        final TaskPatch taskPatch = new TaskPatch("title", true, 2L, dueDate, true);
+        when(taskTitlePatcher.patch(1L, taskPatch, CHANGE_VERSION)).thenReturn(Optional.of("previous title"));
+
+        jpaTaskRepository.patchTask(1L, taskPatch);
+
+        verify(taskTitlePatcher).patch(1L, taskPatch, CHANGE_VERSION);
+        verify(titleFilter).add("title");
+        verify(titleFilter).remove("previous title");
+        verify(titleIndex).put(1L, "title");
+        verifyNoMoreInteractions(taskJpaRepository, taskTitlePatcher);
+    }
+
+    @Test
+    @DisplayName("should patch a task keeping its title with a single update")
+    void shouldPatchTask_withoutTitle() throws TaskNotFoundException, DuplicatedTaskTitleException {
+        when(taskJpaRepository.patchTask(1L, null, true, null, false, null, CHANGE_VERSION)).thenReturn(1);
+
+        jpaTaskRepository.patchTask(1L, new TaskPatch(null, true, null, null, false));
+
+        verify(taskJpaRepository).patchTask(1L, null, true, null, false, null, CHANGE_VERSION);
+        verify(titleFilter, never()).add(anyString());
+        verifyNoMoreInteractions(taskJpaRepository, taskTitlePatcher);
+    }
+
+    @Test
+    @DisplayName("should not find task when patching the title of a task")
+    void shouldNotFindTask_whenPatchTitle() {
+        final TaskPatch taskPatch = new TaskPatch("title", null, null, null, false);
+        when(taskTitlePatcher.patch(1L, taskPatch, CHANGE_VERSION)).thenReturn(Optional.empty());
+
+        assertThrows(TaskNotFoundException.class, () -> jpaTaskRepository.patchTask(1L, taskPatch));
+
+        verify(titleFilter, never()).add(anyString());
+    }
+
+    @Test
+    @DisplayName("should not find task when patching a task")
+    void shouldNotFindTask_whenPatchTask() {
+        when(taskJpaRepository.patchTask(1L, null, true, null, false, null, CHANGE_VERSION)).thenReturn(0);
+
+        assertThrows(TaskNotFoundException.class,
+                () -> jpaTaskRepository.patchTask(1L, new TaskPatch(null, true, null, null, false)));
+
+        verify(taskJpaRepository).patchTask(1L, null, true, null, false, null, CHANGE_VERSION);
+        verifyNoMoreInteractions(taskJpaRepository);
+    }
+
+    @Test
+    @DisplayName("should find task with the same title when patching a task")
+    void shouldFindExistingTitle_whenPatchTask() {
+        final TaskPatch taskPatch = new TaskPatch("title", null, null, null, false);
+        when(taskTitlePatcher.patch(1L, taskPatch, CHANGE_VERSION))
+                .thenThrow(new DataIntegrityViolationException("title"));
+
+        assertThrows(DuplicatedTaskTitleException.class, () -> jpaTaskRepository.patchTask(1L, taskPatch));
+
+        verify(taskTitlePatcher).patch(1L, taskPatch, CHANGE_VERSION);
+        verify(titleFilter, never()).remove(anyString());
+        verifyNoMoreInteractions(taskJpaRepository);
+    }
+
+    @Test
+    @DisplayName("should move a task halfway between the anchor task and the task before it, if it was not written")
+    void shouldMoveTaskBefore() throws TaskNotFoundException, OrderGapExhaustedException, TaskVersionMismatchException {
+        final TaskEntity anchorTask = new TaskEntity("anchor", false, 2048L, null);
+        when(taskJpaRepository.findVersionById(1L)).thenReturn(Optional.of(3L));
+        when(taskJpaRepository.findById(2L)).thenReturn(Optional.of(anchorTask));
+        when(taskJpaRepository.findOrderPositionsBefore(2048L, 0L, 1L, PageRequest.ofSize(1)))
+                .thenReturn(List.of(1024L));
+        when(taskJpaRepository.patchTaskIfVersion(1L, 3L, null, null, 1536L, false, null, CHANGE_VERSION))
+                .thenReturn(1);
+
+        jpaTaskRepository.moveTask(1L, 2L, MovePosition.BEFORE);
+
+        verify(taskJpaRepository).findVersionById(1L);
+        verify(taskJpaRepository).findById(2L);
+        verify(taskJpaRepository).findOrderPositionsBefore(2048L, 0L, 1L, PageRequest.ofSize(1));
+        verify(taskJpaRepository).patchTaskIfVersion(1L, 3L, null, null, 1536L, false, null, CHANGE_VERSION);
+        verifyNoMoreInteractions(taskJpaRepository);
+    }
+
+    @Test
+    @DisplayName("should move a task one gap after the anchor task when it is the last task")
+    void shouldMoveTaskAfterLastTask()
+            throws TaskNotFoundException, OrderGapExhaustedException, TaskVersionMismatchException {
+        final TaskEntity anchorTask = new TaskEntity("anchor", false, 2048L, null);
+        when(orderPositionAllocator.gap()).thenReturn(1024L);
+        when(taskJpaRepository.findVersionById(1L)).thenReturn(Optional.of(3L));
+        when(taskJpaRepository.findById(2L)).thenReturn(Optional.of(anchorTask));
+        when(taskJpaRepository.findOrderPositionsAfter(2048L, 0L, 1L, PageRequest.ofSize(1)))
+                .thenReturn(Collections.emptyList());
+        when(taskJpaRepository.patchTaskIfVersion(1L, 3L, null, null, 3072L, false, null, CHANGE_VERSION))
+                .thenReturn(1);
+
+        jpaTaskRepository.moveTask(1L, 2L, MovePosition.AFTER);
+
+        verify(taskJpaRepository).patchTaskIfVersion(1L, 3L, null, null, 3072L, false, null, CHANGE_VERSION);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "2048, 2049",
+            "2048, 2048"
+    })
+    @DisplayName("should find no free position when moving a task between adjacent tasks")
+    void shouldExhaustGap_whenMoveTask(final long anchorPosition, final long nextPosition) {
+        final TaskEntity anchorTask = new TaskEntity("anchor", false, anchorPosition, null);
+        when(taskJpaRepository.findVersionById(1L)).thenReturn(Optional.of(3L));
+        when(taskJpaRepository.findById(2L)).thenReturn(Optional.of(anchorTask));
+        when(taskJpaRepository.findOrderPositionsAfter(anchorPosition, 0L, 1L, PageRequest.ofSize(1)))
+                .thenReturn(List.of(nextPosition));
+
+        assertThrows(OrderGapExhaustedException.class, () -> jpaTaskRepository.moveTask(1L, 2L, MovePosition.AFTER));
+
+        verify(taskJpaRepository, never())
+                .patchTaskIfVersion(anyLong(), anyLong(), any(), any(), any(), anyBoolean(), any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("should not move a task written or renumbered since its version was read")
+    void shouldMismatchVersion_whenMoveTask() {
+        final TaskEntity anchorTask = new TaskEntity("anchor", false, 2048L, null);
+        when(taskJpaRepository.findVersionById(1L)).thenReturn(Optional.of(3L), Optional.of(4L));
+        when(taskJpaRepository.findById(2L)).thenReturn(Optional.of(anchorTask));
+        when(taskJpaRepository.findOrderPositionsBefore(2048L, 0L, 1L, PageRequest.ofSize(1)))
+                .thenReturn(Collections.emptyList());
+        when(taskJpaRepository.patchTaskIfVersion(1L, 3L, null, null, 1024L, false, null, CHANGE_VERSION))
+                .thenReturn(0);
+
+        assertThrows(TaskVersionMismatchException.class,
+                () -> jpaTaskRepository.moveTask(1L, 2L, MovePosition.BEFORE));
+    }
+
+    @Test
+    @DisplayName("should not find task when moving a task")
+    void shouldNotFindTask_whenMoveTask() {
+        when(taskJpaRepository.findVersionById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(TaskNotFoundException.class, () -> jpaTaskRepository.moveTask(1L, 2L, MovePosition.BEFORE));
+
+        verify(taskJpaRepository).findVersionById(1L);
+        verifyNoMoreInteractions(taskJpaRepository);
+    }
+
+    @Test
+    @DisplayName("should not find task deleted while moving it")
+    void shouldNotFindDeletedTask_whenMoveTask() {
+        final TaskEntity anchorTask = new TaskEntity("anchor", false, 2048L, null);
+        when(taskJpaRepository.findVersionById(1L)).thenReturn(Optional.of(3L), Optional.empty());
+        when(taskJpaRepository.findById(2L)).thenReturn(Optional.of(anchorTask));
+        when(taskJpaRepository.findOrderPositionsBefore(2048L, 0L, 1L, PageRequest.ofSize(1)))
+                .thenReturn(Collections.emptyList());
+        when(taskJpaRepository.patchTaskIfVersion(1L, 3L, null, null, 1024L, false, null, CHANGE_VERSION))
+                .thenReturn(0);
+
+        assertThrows(TaskNotFoundException.class, () -> jpaTaskRepository.moveTask(1L, 2L, MovePosition.BEFORE));
+    }
+
+    @Test
+    @DisplayName("should not find anchor task when moving a task")
+    void shouldNotFindAnchorTask_whenMoveTask() {
+        when(taskJpaRepository.findVersionById(1L)).thenReturn(Optional.of(3L));
+        when(taskJpaRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertThrows(TaskNotFoundException.class, () -> jpaTaskRepository.moveTask(1L, 2L, MovePosition.AFTER));
+
+        verify(taskJpaRepository).findVersionById(1L);
+        verify(taskJpaRepository).findById(2L);
+        verifyNoMoreInteractions(taskJpaRepository);
+    }
+
+    @Test
+    @DisplayName("should rebalance positions of all tasks")
+    void shouldRebalanceTaskOrders() {
+        jpaTaskRepository.rebalanceTaskOrders();
+
+        verify(orderPositionAllocator).rebalance(CHANGE_VERSION);
+    }
+
+    @Test
+    @DisplayName("should update tasks matching a filter with a single update")
+    void shouldUpdateTasks() {
+        final LocalDateTime dueBefore = LocalDateTime.parse("2025-02-24T13:30:00");
+        when(taskJpaRepository.updateTasksMatching(false, null, dueBefore, true, 86_400L, CHANGE_VERSION))
+                .thenReturn(3);
+
+        assertEquals(3L, jpaTaskRepository.updateTasks(
+                new TaskFilter(null, false, null, dueBefore),
+                new TaskBulkUpdate(true, Duration.ofDays(1))
+        ));
+
+        verify(taskJpaRepository).updateTasksMatching(false, null, dueBefore, true, 86_400L, CHANGE_VERSION);
+        verifyNoMoreInteractions(taskJpaRepository);
+    }
+
+    @Test
+    @DisplayName("should update tasks by ID with one update per chunk of IDs")
+    void shouldUpdateTasksByIds() {
+        final List<Long> ids = Stream.iterate(1L, id -> id + 1).limit(1500).toList();
+        when(taskJpaRepository.updateTasksByIds(anyCollection(), any(), any(), any(), any(), anyLong(), anyLong()))
+                .thenReturn(1000, 500);
+
+        assertEquals(1500L, jpaTaskRepository.updateTasks(
+                new TaskFilter(ids, null, null, null),
+                new TaskBulkUpdate(true, null)
+        ));
+
+        verify(taskJpaRepository).updateTasksByIds(ids.subList(0, 1000), null, null, null, true, 0L, CHANGE_VERSION);
+        verify(taskJpaRepository).updateTasksByIds(ids.subList(1000, 1500), null, null, null, true, 0L, CHANGE_VERSION);
+        verifyNoMoreInteractions(taskJpaRepository);
+    }
+
+    @Test
+    @DisplayName("should read the version of all tasks from the latest change stored in database")
+    void shouldGetTasksVersion() {
+        when(taskJpaRepository.findTasksVersion()).thenReturn(42L);
+
+        assertEquals(42L, jpaTaskRepository.getTasksVersion());
+
+        verify(taskJpaRepository).findTasksVersion();
+        verifyNoMoreInteractions(taskJpaRepository);
+    }
+
     @Test
     @DisplayName("should delete all tasks")
     void shouldDeleteAllTasks() {
         jpaTaskRepository.deleteAllTasks();
 
-        verify(taskJpaRepository).deleteAll();
+        verify(taskJpaRepository).deleteAllTasks(taskChangeVersions);
+        verify(titleFilter).clear();
+        verify(titleIndex).clear();
+        verifyNoMoreInteractions(taskJpaRepository);
+    }
+
+    @Test
+    @DisplayName("should delete all tasks by chunks of IDs when purging in chunks")
+    void shouldDeleteAllTasksByChunks_whenPurgeChunkSize() {
+        when(taskJpaRepository.findMaxId()).thenReturn(9L);
+        when(taskJpaRepository.findIdsAfter(0L, 9L, PageRequest.ofSize(2))).thenReturn(List.of(3L, 5L));
+        when(taskJpaRepository.findIdsAfter(5L, 9L, PageRequest.ofSize(2))).thenReturn(List.of(8L));
+        final JpaTaskRepository chunkedJpaTaskRepository = new JpaTaskRepository(
+                taskJpaRepository,
+                null,
+                null,
+                null,
+                orderPositionAllocator,
+                taskTitlePatcher,
+                titleFilter,
+                titleIndex,
+                taskChangeVersions,
+                2
+        );
+
+        chunkedJpaTaskRepository.deleteAllTasks();
+
+        verify(taskJpaRepository).findMaxId();
+        verify(taskJpaRepository).findIdsAfter(0L, 9L, PageRequest.ofSize(2));
+        verify(taskJpaRepository).findIdsAfter(5L, 9L, PageRequest.ofSize(2));
+        verify(taskJpaRepository).findIdsAfter(8L, 9L, PageRequest.ofSize(2));
+        verify(taskJpaRepository).deleteAllByIdRange(0L, 5L);
+        verify(taskJpaRepository).deleteAllByIdRange(5L, 8L);
+        verify(taskJpaRepository, times(2)).raiseChangeHorizon(CHANGE_VERSION);
+        verify(titleFilter).clear();
         verifyNoMoreInteractions(taskJpaRepository);
     }
 
@@ -266,7 +877,150 @@ public class JpaTaskRepositoryTest {
     void shouldDeleteAllCompletedTasks() {
         jpaTaskRepository.deleteAllCompletedTasks();
 
-        verify(taskJpaRepository).deleteAllCompletedTasks();
+        verify(taskJpaRepository).deleteAllCompletedTasks(taskChangeVersions);
+        verifyNoMoreInteractions(taskJpaRepository);
+    }
+
+    @Test
+    @DisplayName("should delete all completed tasks again on serialization failures, up to 3 attempts")
+    void shouldRetryDeleteAllCompletedTasks_whenSerializationFailure() {
+        doThrow(new CannotAcquireLockException("serialization failure"))
+                .doNothing()
+                .when(taskJpaRepository).deleteAllCompletedTasks(taskChangeVersions);
+
+        jpaTaskRepository.deleteAllCompletedTasks();
+
+        verify(taskJpaRepository, times(2)).deleteAllCompletedTasks(taskChangeVersions);
+
+        doThrow(new CannotAcquireLockException("serialization failure"))
+                .when(taskJpaRepository).deleteAllCompletedTasks(taskChangeVersions);
+
+        assertThrows(CannotAcquireLockException.class, () -> jpaTaskRepository.deleteAllCompletedTasks());
+        verify(taskJpaRepository, times(5)).deleteAllCompletedTasks(taskChangeVersions);
+    }
+
+    @Test
+    @DisplayName("should get the tasks changed and the IDs deleted since a change version, resuming before now")
+    void shouldGetTaskChanges() {
+        when(taskJpaRepository.findTasksVersion()).thenReturn(3_000L);
+        when(taskChangeVersions.current(3_000L)).thenReturn(3_000L);
+        when(taskJpaRepository.findChangeHorizon()).thenReturn(500L);
+        when(taskChangeVersions.needsReset(1_000L, 500L, 3_000L)).thenReturn(false);
+        when(taskChangeVersions.resumeVersion(1_000L, 3_000L)).thenReturn(2_000L);
+        when(taskJpaRepository.findAllChangedSince(1_000L, PageRequest.ofSize(1001)))
+                .thenReturn(List.of(new TaskEntity("title", false, 1L, null)));
+        when(taskJpaRepository.findIdsDeletedBetween(1_000L, 3_000L)).thenReturn(List.of(2L, 3L));
+
+        final TaskChanges taskChanges = jpaTaskRepository.getTaskChanges(1_000L);
+
+        assertEquals(1, taskChanges.tasks().size());
+        assertEquals("title", taskChanges.tasks().getFirst().title());
+        assertEquals(List.of(2L, 3L), taskChanges.deletedIds());
+        assertEquals(2_000L, taskChanges.version());
+        assertFalse(taskChanges.reset());
+        assertFalse(taskChanges.more());
+        verify(taskJpaRepository).findTasksVersion();
+        verify(taskJpaRepository).findChangeHorizon();
+        verify(taskJpaRepository).findAllChangedSince(1_000L, PageRequest.ofSize(1001));
+        verify(taskJpaRepository).findIdsDeletedBetween(1_000L, 3_000L);
+        verify(taskChangeVersions, never()).next();
+        verifyNoMoreInteractions(taskJpaRepository);
+    }
+
+    @Test
+    @DisplayName("should cut the task changes before the change version of the first task past the limit")
+    void shouldCutTaskChanges_whenPastLimit() {
+        final List<TaskEntity> changedTasks = new ArrayList<>();
+        for (int i = 0; i < 1001; i++) {
+            final TaskEntity taskEntity = new TaskEntity("title " + i, false, i, null);
+            taskEntity.setChangeVersion(i < 999 ? 1_001L + i : 2_000L);
+            changedTasks.add(taskEntity);
+        }
+        when(taskJpaRepository.findTasksVersion()).thenReturn(3_000L);
+        when(taskChangeVersions.current(3_000L)).thenReturn(3_000L);
+        when(taskChangeVersions.resumeVersion(1_000L, 1_999L)).thenReturn(1_999L);
+        when(taskJpaRepository.findAllChangedSince(1_000L, PageRequest.ofSize(1001))).thenReturn(changedTasks);
+
+        final TaskChanges taskChanges = jpaTaskRepository.getTaskChanges(1_000L);
+
+        assertEquals(999, taskChanges.tasks().size());
+        assertEquals(1_999L, taskChanges.version());
+        assertTrue(taskChanges.more());
+        verify(taskJpaRepository).findIdsDeletedBetween(1_000L, 1_999L);
+    }
+
+    @Test
+    @DisplayName("should read all tasks of a change version filling the limit on its own")
+    void shouldReadAllTasksOfVersion_whenVersionPastLimit() {
+        final List<TaskEntity> changedTasks = new ArrayList<>();
+        for (int i = 0; i < 1001; i++) {
+            final TaskEntity taskEntity = new TaskEntity("title " + i, false, i, null);
+            taskEntity.setChangeVersion(2_000L);
+            changedTasks.add(taskEntity);
+        }
+        when(taskJpaRepository.findTasksVersion()).thenReturn(3_000L);
+        when(taskChangeVersions.current(3_000L)).thenReturn(3_000L);
+        when(taskChangeVersions.resumeVersion(1_000L, 2_000L)).thenReturn(2_000L);
+        when(taskJpaRepository.findAllChangedSince(1_000L, PageRequest.ofSize(1001))).thenReturn(changedTasks);
+        when(taskJpaRepository.findAllByChangeVersionOrderById(2_000L))
+                .thenReturn(List.of(new TaskEntity("title", false, 1L, null)));
+
+        final TaskChanges taskChanges = jpaTaskRepository.getTaskChanges(1_000L);
+
+        assertEquals(1, taskChanges.tasks().size());
+        assertEquals(2_000L, taskChanges.version());
+        assertTrue(taskChanges.more());
+        verify(taskJpaRepository).findIdsDeletedBetween(1_000L, 2_000L);
+    }
+
+    @Test
+    @DisplayName("should get all tasks as a reset when the changes since a change version are no longer known")
+    void shouldGetAllTasks_whenTaskChangesReset() {
+        when(taskJpaRepository.findTasksVersion()).thenReturn(3_000L);
+        when(taskChangeVersions.current(3_000L)).thenReturn(3_000L);
+        when(taskJpaRepository.findChangeHorizon()).thenReturn(1_500L);
+        when(taskChangeVersions.needsReset(1_000L, 1_500L, 3_000L)).thenReturn(true);
+        when(taskChangeVersions.resumeVersion(0L, 3_000L)).thenReturn(2_000L);
+        when(taskJpaRepository.findAll()).thenReturn(List.of(new TaskEntity("title", false, 1L, null)));
+
+        final TaskChanges taskChanges = jpaTaskRepository.getTaskChanges(1_000L);
+
+        assertEquals(1, taskChanges.tasks().size());
+        assertEquals(List.of(), taskChanges.deletedIds());
+        assertEquals(2_000L, taskChanges.version());
+        assertTrue(taskChanges.reset());
+        verify(taskJpaRepository).findTasksVersion();
+        verify(taskJpaRepository).findChangeHorizon();
+        verify(taskJpaRepository).findAll();
+        verifyNoMoreInteractions(taskJpaRepository);
+    }
+
+    @Test
+    @DisplayName("should compact tombstones past the retention once due")
+    void shouldCompactTombstones_whenDue() throws TaskNotFoundException {
+        final LocalDateTime cutoff = LocalDateTime.parse("2025-01-25T13:30:00");
+        when(taskJpaRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(new TaskEntity("title", false, 1L, null)));
+        when(taskJpaRepository.deleteTaskById(1L, taskChangeVersions)).thenReturn(1);
+        when(taskChangeVersions.compactionDue()).thenReturn(true, false);
+        when(taskChangeVersions.tombstoneCutoff()).thenReturn(cutoff);
+
+        jpaTaskRepository.deleteTask(1L);
+        jpaTaskRepository.deleteAllCompletedTasks();
+
+        verify(taskJpaRepository).compactTombstones(cutoff);
+    }
+
+    @Test
+    @DisplayName("should count all tasks and completed tasks")
+    void shouldCountTasks() {
+        when(taskJpaRepository.count()).thenReturn(5L);
+        when(taskJpaRepository.countByCompletedTrue()).thenReturn(2L);
+
+        assertEquals(5L, jpaTaskRepository.countTasks());
+        assertEquals(2L, jpaTaskRepository.countCompletedTasks());
+
+        verify(taskJpaRepository).count();
+        verify(taskJpaRepository).countByCompletedTrue();
         verifyNoMoreInteractions(taskJpaRepository);
     }
 
@@ -0,0 +1,219 @@
+package com.blackpantech.todo.infra.jpa;
+
+import com.blackpantech.todo.domain.task.Task;
+import com.blackpantech.todo.domain.task.TaskChangeVersions;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class OrderPositionAllocatorTest {
+
+    private static final int THREADS = 16;
+
+    private static final int CREATES_PER_THREAD = 500;
+
+    @Mock
+    final TaskJpaRepository taskJpaRepository = mock(TaskJpaRepository.class);
+
+    @Mock
+    final TaskOrderSequence taskOrderSequence = mock(TaskOrderSequence.class);
+
+    @Mock
+    final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    @Mock
+    final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    final OrderPositionAllocator orderPositionAllocator = new OrderPositionAllocator(
+            taskJpaRepository,
+            taskOrderSequence,
+            jdbcTemplate,
+            transactionManager,
+            1L
+    );
+
+    @Test
+    @DisplayName("should allocate positions from the slots of a block reserved in the sequence, after the base position")
+    void shouldAllocateFromReservedBlock() {
+        when(taskJpaRepository.findOrderPositionBase()).thenReturn(41L);
+        when(taskOrderSequence.getAsLong()).thenReturn(50L);
+
+        assertEquals(42L, orderPositionAllocator.next());
+        assertArrayEquals(new long[]{43L, 44L, 45L}, orderPositionAllocator.reserve(3));
+        assertEquals(46L, orderPositionAllocator.next());
+        verify(taskJpaRepository, times(1)).findOrderPositionBase();
+        verify(taskOrderSequence, times(1)).getAsLong();
+    }
+
+    @Test
+    @DisplayName("should reserve another block in the sequence once the reserved block is used up")
+    void shouldReserveAnotherBlock_whenBlockUsedUp() {
+        when(taskJpaRepository.findOrderPositionBase()).thenReturn(0L);
+        when(taskOrderSequence.getAsLong()).thenReturn(50L, 150L);
+
+        final long[] positions = orderPositionAllocator.reserve(TaskOrderSequence.SLOTS_PER_BLOCK + 2);
+
+        assertEquals(50L, positions[TaskOrderSequence.SLOTS_PER_BLOCK - 1]);
+        assertEquals(101L, positions[TaskOrderSequence.SLOTS_PER_BLOCK]);
+        assertEquals(102L, positions[TaskOrderSequence.SLOTS_PER_BLOCK + 1]);
+        assertEquals(103L, orderPositionAllocator.next());
+        verify(taskOrderSequence, times(2)).getAsLong();
+    }
+
+    @Test
+    @DisplayName("should space allocated positions by the gap")
+    void shouldSpaceAllocatedPositionsByGap() {
+        when(taskJpaRepository.findOrderPositionBase()).thenReturn(2048L);
+        when(taskOrderSequence.getAsLong()).thenReturn(50L);
+        final OrderPositionAllocator spacedOrderPositionAllocator = new OrderPositionAllocator(
+                taskJpaRepository,
+                taskOrderSequence,
+                jdbcTemplate,
+                mock(PlatformTransactionManager.class),
+                1024L
+        );
+
+        assertEquals(3072L, spacedOrderPositionAllocator.next());
+        assertArrayEquals(new long[]{4096L, 5120L, 6144L}, spacedOrderPositionAllocator.reserve(3));
+        assertEquals(7168L, spacedOrderPositionAllocator.next());
+        assertEquals(1024L, spacedOrderPositionAllocator.gap());
+    }
+
+    @Test
+    @DisplayName("should spread positions of all tasks by the gap when rebalancing, at the versions read first")
+    @SuppressWarnings("unchecked")
+    void shouldSpreadAllPositions_whenRebalance() {
+        when(taskJpaRepository.findOrderPositionBase()).thenReturn(7L);
+        when(taskOrderSequence.getAsLong()).thenReturn(50L);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class)))
+                .thenReturn(List.of(new long[]{3L, 5L}, new long[]{1L, 2L}, new long[]{2L, 4L}));
+        when(jdbcTemplate.batchUpdate(anyString(), any(List.class))).thenReturn(new int[]{1, 1, 1});
+        final ArgumentCaptor<List<Object[]>> positionsCaptor = ArgumentCaptor.forClass(List.class);
+
+        orderPositionAllocator.rebalance(9L);
+
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), positionsCaptor.capture());
+        final List<Object[]> positions = positionsCaptor.getValue();
+        assertEquals(3, positions.size());
+        assertArrayEquals(new Object[]{8L, 9L, 3L, 5L}, positions.get(0));
+        assertArrayEquals(new Object[]{9L, 9L, 1L, 2L}, positions.get(1));
+        assertArrayEquals(new Object[]{10L, 9L, 2L, 4L}, positions.get(2));
+        assertEquals(11L, orderPositionAllocator.next());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("should roll back and rebalance again when a task is written while rebalancing, a few times at most")
+    @SuppressWarnings("unchecked")
+    void shouldRetryRebalance_whenTaskWritten() {
+        when(taskJpaRepository.findOrderPositionBase()).thenReturn(0L);
+        when(taskOrderSequence.getAsLong()).thenReturn(50L);
+        final List<SimpleTransactionStatus> transactions = new ArrayList<>();
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            final SimpleTransactionStatus transaction = new SimpleTransactionStatus();
+            transactions.add(transaction);
+            return transaction;
+        });
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class)))
+                .thenReturn(List.of(new long[]{1L, 1L}, new long[]{2L, 1L}));
+        when(jdbcTemplate.batchUpdate(anyString(), any(List.class)))
+                .thenReturn(new int[]{1, 0}, new int[]{1, 1});
+
+        orderPositionAllocator.rebalance(9L);
+
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), any(List.class));
+        assertEquals(2, transactions.size());
+        assertTrue(transactions.get(0).isRollbackOnly());
+        assertFalse(transactions.get(1).isRollbackOnly());
+    }
+
+    @Test
+    @DisplayName("should give up rebalancing when tasks keep being written meanwhile")
+    @SuppressWarnings("unchecked")
+    void shouldGiveUpRebalance_whenTasksKeepBeingWritten() {
+        when(taskJpaRepository.findOrderPositionBase()).thenReturn(0L);
+        when(taskOrderSequence.getAsLong()).thenReturn(50L);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class))).thenReturn(List.<long[]>of(new long[]{1L, 1L}));
+        when(jdbcTemplate.batchUpdate(anyString(), any(List.class))).thenReturn(new int[]{0});
+
+        orderPositionAllocator.rebalance(9L);
+
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), any(List.class));
+    }
+
+    @Test
+    @DisplayName("should never allocate the same position twice to tasks created in parallel")
+    void shouldAllocateUniquePositions_whenCreateTasksInParallel() throws Exception {
+        final AtomicLong lastSlot = new AtomicLong();
+        when(taskJpaRepository.findOrderPositionBase()).thenReturn(0L);
+        when(taskOrderSequence.getAsLong())
+                .thenAnswer(invocation -> lastSlot.addAndGet(TaskOrderSequence.SLOTS_PER_BLOCK));
+        when(taskJpaRepository.findByTitle(anyString())).thenReturn(Optional.empty());
+        when(taskJpaRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        final JpaTaskRepository jpaTaskRepository = new JpaTaskRepository(
+                taskJpaRepository,
+                new TaskEntityMapperImpl(),
+                mock(EntityManager.class),
+                jdbcTemplate,
+                orderPositionAllocator,
+                mock(TaskTitlePatcher.class),
+                new DisabledTitleFilter(),
+                mock(TrigramTitleIndex.class),
+                new TaskChangeVersions(Duration.ofSeconds(5), Duration.ofDays(30)),
+                0
+        );
+        final Set<Long> positions = ConcurrentHashMap.newKeySet();
+        final List<Callable<Void>> creators = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            final int threadIndex = thread;
+            creators.add(() -> {
+                for (int create = 0; create < CREATES_PER_THREAD; create++) {
+                    final Task task = jpaTaskRepository.createTask("title " + threadIndex + "-" + create, null);
+                    positions.add(task.order());
+                }
+                return null;
+            });
+        }
+
+        try (final ExecutorService executorService = Executors.newFixedThreadPool(THREADS)) {
+            for (final Future<Void> future : executorService.invokeAll(creators)) {
+                future.get();
+            }
+        }
+
+        assertEquals(THREADS * CREATES_PER_THREAD, positions.size());
+        verify(taskJpaRepository, times(1)).findOrderPositionBase();
+    }
+
+}
@@ -1,14 +1,24 @@
 package com.blackpantech.todo.infra.jpa;
 
+import com.blackpantech.todo.domain.task.TaskChangeVersions;
+import com.blackpantech.todo.domain.task.TaskFilter;
+import com.blackpantech.todo.domain.task.TaskSort;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.fail;
 
 @DataJpaTest
@@ -78,4 +88,352 @@ public class TaskJpaRepositoryTest {
                 .isEqualTo(taskEntity);
     }
 
+    @Test
+    @DisplayName("should patch only the given properties of a task and bump its version")
+    void shouldPatchTask() {
+        final LocalDateTime dueDate = LocalDateTime.parse("2025-02-24T13:30:00");
+        final TaskEntity taskEntity = taskJpaRepository.saveAndFlush(new TaskEntity("title", false, 1, dueDate));
+
+        assertThat(taskJpaRepository.patchTask(taskEntity.getId(), null, true, null, false, null, 7L)).isEqualTo(1);
+
+        assertThat(taskJpaRepository.findById(taskEntity.getId()))
+                .isPresent()
+                .get()
+                .satisfies(patchedTask -> {
+                    assertThat(patchedTask.getTitle()).isEqualTo("title");
+                    assertThat(patchedTask.isCompleted()).isTrue();
+                    assertThat(patchedTask.getOrderPosition()).isEqualTo(1);
+                    assertThat(patchedTask.getDueDate()).isEqualTo(dueDate);
+                    assertThat(patchedTask.getVersion()).isEqualTo(taskEntity.getVersion() + 1);
+                    assertThat(patchedTask.getChangeVersion()).isEqualTo(7L);
+                });
+    }
+
+    @Test
+    @DisplayName("should remove the due date of a task when patching it with a null due date")
+    void shouldRemoveDueDate_whenPatchTask() {
+        final TaskEntity taskEntity =
+                taskJpaRepository.saveAndFlush(new TaskEntity("title", false, 1, LocalDateTime.now()));
+
+        taskJpaRepository.patchTask(taskEntity.getId(), "new title", null, 3L, true, null, 7L);
+
+        assertThat(taskJpaRepository.findById(taskEntity.getId()))
+                .isPresent()
+                .get()
+                .satisfies(patchedTask -> {
+                    assertThat(patchedTask.getTitle()).isEqualTo("new title");
+                    assertThat(patchedTask.getOrderPosition()).isEqualTo(3);
+                    assertThat(patchedTask.getDueDate()).isNull();
+                });
+    }
+
+    @Test
+    @DisplayName("should patch a task only at the expected version")
+    void shouldPatchTaskIfVersion() {
+        final TaskEntity taskEntity = taskJpaRepository.saveAndFlush(new TaskEntity("title", false, 1, null));
+        final long id = taskEntity.getId();
+        final long version = taskEntity.getVersion();
+
+        assertThat(taskJpaRepository.patchTaskIfVersion(id, version + 1, null, true, null, false, null, 7L)).isZero();
+        assertThat(taskJpaRepository.patchTaskIfVersion(id, version, "new title", true, 2L, false, null, 7L))
+                .isEqualTo(1);
+        assertThat(taskJpaRepository.patchTaskIfVersion(id, version, null, false, null, false, null, 7L)).isZero();
+
+        assertThat(taskJpaRepository.findById(id))
+                .isPresent()
+                .get()
+                .satisfies(patchedTask -> {
+                    assertThat(patchedTask.getTitle()).isEqualTo("new title");
+                    assertThat(patchedTask.isCompleted()).isTrue();
+                    assertThat(patchedTask.getOrderPosition()).isEqualTo(2);
+                    assertThat(patchedTask.getVersion()).isEqualTo(version + 1);
+                });
+    }
+
+    @Test
+    @DisplayName("should patch no task when the task does not exist")
+    void shouldPatchNoTask_whenTaskDoesNotExist() {
+        assertThat(taskJpaRepository.patchTask(42L, null, true, null, false, null, 7L)).isZero();
+    }
+
+    @Test
+    @DisplayName("should complete and postpone tasks matching a filter in a single update")
+    void shouldUpdateTasksMatching() {
+        final LocalDateTime dueDate = LocalDateTime.parse("2025-02-24T13:30:00");
+        final TaskEntity taskEntity1 = taskJpaRepository.save(new TaskEntity("title 1", false, 1, dueDate));
+        final TaskEntity taskEntity2 = taskJpaRepository.save(new TaskEntity("title 2", false, 2, null));
+        final TaskEntity taskEntity3 = taskJpaRepository.save(new TaskEntity("title 3", true, 3, dueDate));
+        taskJpaRepository.flush();
+
+        assertThat(taskJpaRepository.updateTasksMatching(false, null, null, true, 86_400L, 7L)).isEqualTo(2);
+
+        assertThat(taskJpaRepository.findById(taskEntity1.getId())).get().satisfies(task -> {
+            assertThat(task.isCompleted()).isTrue();
+            assertThat(task.getDueDate()).isEqualTo(dueDate.plusDays(1));
+            assertThat(task.getVersion()).isEqualTo(taskEntity1.getVersion() + 1);
+        });
+        assertThat(taskJpaRepository.findById(taskEntity2.getId())).get().satisfies(task -> {
+            assertThat(task.isCompleted()).isTrue();
+            assertThat(task.getDueDate()).isNull();
+        });
+        assertThat(taskJpaRepository.findById(taskEntity3.getId())).get().satisfies(task -> {
+            assertThat(task.getDueDate()).isEqualTo(dueDate);
+            assertThat(task.getVersion()).isEqualTo(taskEntity3.getVersion());
+        });
+    }
+
+    @Test
+    @DisplayName("should update tasks due in a range only")
+    void shouldUpdateTasksMatching_whenDueDateRange() {
+        taskJpaRepository.save(new TaskEntity("title 1", false, 1, LocalDateTime.parse("2025-02-24T13:30:00")));
+        taskJpaRepository.save(new TaskEntity("title 2", false, 2, LocalDateTime.parse("2025-03-01T00:00:00")));
+        taskJpaRepository.save(new TaskEntity("title 3", false, 3, null));
+        taskJpaRepository.flush();
+
+        assertThat(taskJpaRepository.updateTasksMatching(
+                null,
+                LocalDateTime.parse("2025-02-01T00:00:00"),
+                LocalDateTime.parse("2025-03-01T00:00:00"),
+                true,
+                0L,
+                7L
+        )).isEqualTo(1);
+        assertThat(taskJpaRepository.countByCompletedTrue()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should update tasks with given IDs only")
+    void shouldUpdateTasksByIds() {
+        final TaskEntity taskEntity1 = taskJpaRepository.save(new TaskEntity("title 1", false, 1, null));
+        taskJpaRepository.save(new TaskEntity("title 2", false, 2, null));
+        taskJpaRepository.flush();
+
+        assertThat(taskJpaRepository.updateTasksByIds(
+                List.of(taskEntity1.getId(), 42L), null, null, null, true, 0L, 7L
+        )).isEqualTo(1);
+        assertThat(taskJpaRepository.findById(taskEntity1.getId())).get().satisfies(task ->
+                assertThat(task.isCompleted()).isTrue()
+        );
+        assertThat(taskJpaRepository.countByCompletedTrue()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should delete a single task by ID and tell whether it existed")
+    void shouldDeleteTaskById() {
+        final TaskEntity taskEntity = taskJpaRepository.saveAndFlush(new TaskEntity("title", false, 1, null));
+
+        assertThat(taskJpaRepository.deleteTaskById(taskEntity.getId())).isEqualTo(1);
+        assertThat(taskJpaRepository.deleteTaskById(taskEntity.getId())).isZero();
+        assertThat(taskJpaRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("should find chunks of IDs after an ID and delete tasks in a range of IDs only")
+    void shouldDeleteAllByIdRange() {
+        final TaskEntity taskEntity1 = taskJpaRepository.save(new TaskEntity("title 1", false, 1, null));
+        final TaskEntity taskEntity2 = taskJpaRepository.save(new TaskEntity("title 2", false, 2, null));
+        final TaskEntity taskEntity3 = taskJpaRepository.save(new TaskEntity("title 3", false, 3, null));
+        taskJpaRepository.flush();
+
+        assertThat(taskJpaRepository.findMaxId()).isEqualTo(taskEntity3.getId());
+        assertThat(taskJpaRepository.findIdsAfter(taskEntity1.getId(), taskEntity3.getId(), PageRequest.ofSize(1)))
+                .containsExactly(taskEntity2.getId());
+        assertThat(taskJpaRepository.findIdsAfter(0L, taskEntity2.getId(), PageRequest.ofSize(5)))
+                .containsExactly(taskEntity1.getId(), taskEntity2.getId());
+        assertThat(taskJpaRepository.deleteAllByIdRange(taskEntity1.getId(), taskEntity2.getId()))
+                .isEqualTo(1);
+        assertThat(taskJpaRepository.findById(taskEntity1.getId())).isPresent();
+        assertThat(taskJpaRepository.findById(taskEntity2.getId())).isEmpty();
+        assertThat(taskJpaRepository.findById(taskEntity3.getId())).isPresent();
+    }
+
+    @Test
+    @DisplayName("should find a task by ID, locking its row")
+    void shouldFindByIdForUpdate() {
+        final TaskEntity taskEntity = taskJpaRepository.saveAndFlush(new TaskEntity("title", false, 1, null));
+
+        assertThat(taskJpaRepository.findByIdForUpdate(taskEntity.getId()))
+                .map(TaskEntity::getTitle)
+                .contains("title");
+        assertThat(taskJpaRepository.findByIdForUpdate(taskEntity.getId() + 1)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should find the tasks changed after a change version, oldest change first")
+    void shouldFindAllChangedSince() {
+        final TaskEntity taskEntity1 = new TaskEntity("title 1", false, 1, null);
+        taskEntity1.setChangeVersion(5L);
+        final TaskEntity taskEntity2 = new TaskEntity("title 2", false, 2, null);
+        taskEntity2.setChangeVersion(9L);
+        final TaskEntity taskEntity3 = new TaskEntity("title 3", false, 3, null);
+        taskEntity3.setChangeVersion(3L);
+        taskJpaRepository.saveAllAndFlush(List.of(taskEntity1, taskEntity2, taskEntity3));
+
+        assertThat(taskJpaRepository.findAllChangedSince(3L, PageRequest.ofSize(2)))
+                .extracting(TaskEntity::getTitle)
+                .containsExactly("title 1", "title 2");
+        assertThat(taskJpaRepository.findAllChangedSince(3L, PageRequest.ofSize(1)))
+                .extracting(TaskEntity::getTitle)
+                .containsExactly("title 1");
+        assertThat(taskJpaRepository.findAllByChangeVersionOrderById(9L))
+                .extracting(TaskEntity::getTitle)
+                .containsExactly("title 2");
+        try (final Stream<TaskTitle> changedTitles = taskJpaRepository.streamTitlesChangedBetween(3L, 5L)) {
+            assertThat(changedTitles).containsExactly(new TaskTitle(taskEntity1.getId(), "title 1"));
+        }
+    }
+
+    @Test
+    @DisplayName("should leave a tombstone for each deleted task, until compacted past the change horizon")
+    void shouldInsertTombstones_whenDeleteTasks() {
+        final TaskEntity taskEntity1 = taskJpaRepository.save(new TaskEntity("title 1", false, 1, null));
+        final TaskEntity taskEntity2 = taskJpaRepository.save(new TaskEntity("title 2", true, 2, null));
+        taskJpaRepository.flush();
+        final AtomicLong lastVersion = new AtomicLong(10L);
+        final TaskChangeVersions taskChangeVersions =
+                new TaskChangeVersions(Duration.ofSeconds(5), Duration.ofDays(30), lastVersion::incrementAndGet);
+
+        assertThat(taskJpaRepository.deleteTaskById(taskEntity1.getId(), taskChangeVersions)).isEqualTo(1);
+        assertThat(taskJpaRepository.deleteTaskById(taskEntity1.getId(), taskChangeVersions)).isZero();
+        taskJpaRepository.deleteAllCompletedTasks(taskChangeVersions);
+
+        assertThat(taskJpaRepository.count()).isZero();
+        assertThat(taskJpaRepository.findIdsDeletedBetween(0L, 12L))
+                .containsExactlyInAnyOrder(taskEntity1.getId(), taskEntity2.getId());
+        assertThat(taskJpaRepository.findIdsDeletedBetween(11L, 12L)).containsExactly(taskEntity2.getId());
+        assertThat(taskJpaRepository.findIdsDeletedBetween(0L, 11L)).containsExactly(taskEntity1.getId());
+        assertThat(taskJpaRepository.findChangeHorizon()).isZero();
+
+        taskJpaRepository.compactTombstones(taskChangeVersions.now().minusDays(1));
+        assertThat(taskJpaRepository.findChangeHorizon()).isZero();
+
+        taskJpaRepository.compactTombstones(taskChangeVersions.now().plusDays(1));
+        assertThat(taskJpaRepository.findIdsDeletedBetween(0L, 12L)).isEmpty();
+        assertThat(taskJpaRepository.findChangeHorizon()).isEqualTo(12L);
+    }
+
+    @Test
+    @DisplayName("should raise the change horizon past the deletion of all tasks, without tombstones")
+    void shouldRaiseChangeHorizon_whenDeleteAllTasks() {
+        taskJpaRepository.save(new TaskEntity("title 1", false, 1, null));
+        taskJpaRepository.flush();
+        final AtomicLong lastVersion = new AtomicLong(20L);
+
+        taskJpaRepository.deleteAllTasks(
+                new TaskChangeVersions(Duration.ofSeconds(5), Duration.ofDays(30), lastVersion::incrementAndGet)
+        );
+
+        assertThat(taskJpaRepository.count()).isZero();
+        assertThat(taskJpaRepository.findIdsDeletedBetween(0L, 21L)).isEmpty();
+        assertThat(taskJpaRepository.findChangeHorizon()).isEqualTo(21L);
+
+        taskJpaRepository.raiseChangeHorizon(5L);
+        assertThat(taskJpaRepository.findChangeHorizon()).isEqualTo(21L);
+    }
+
+    @Test
+    @DisplayName("should find the version of all tasks in the latest change of tasks, tombstones and change horizon")
+    void shouldFindTasksVersion() {
+        assertThat(taskJpaRepository.findTasksVersion()).isZero();
+        final TaskEntity taskEntity = new TaskEntity("title", false, 1, null);
+        taskEntity.setChangeVersion(5L);
+        taskJpaRepository.saveAndFlush(taskEntity);
+        assertThat(taskJpaRepository.findTasksVersion()).isEqualTo(5L);
+
+        final AtomicLong lastVersion = new AtomicLong(5L);
+        taskJpaRepository.deleteTaskById(
+                taskEntity.getId(),
+                new TaskChangeVersions(Duration.ofSeconds(5), Duration.ofDays(30), lastVersion::incrementAndGet)
+        );
+        assertThat(taskJpaRepository.findTasksVersion()).isEqualTo(6L);
+
+        taskJpaRepository.raiseChangeHorizon(9L);
+        assertThat(taskJpaRepository.findTasksVersion()).isEqualTo(9L);
+    }
+
+    @Test
+    @DisplayName("should find the closest positions around a task, skipping the task to move")
+    void shouldFindNeighbourOrderPositions() {
+        final TaskEntity taskEntity1 = taskJpaRepository.save(new TaskEntity("title 1", false, 1024, null));
+        final TaskEntity taskEntity2 = taskJpaRepository.save(new TaskEntity("title 2", false, 2048, null));
+        final TaskEntity taskEntity3 = taskJpaRepository.save(new TaskEntity("title 3", false, 3072, null));
+        taskJpaRepository.save(new TaskEntity("title 4", false, 4096, null));
+        taskJpaRepository.flush();
+
+        assertThat(taskJpaRepository.findOrderPositionsBefore(3072, taskEntity3.getId(), 0L, PageRequest.ofSize(1)))
+                .containsExactly(2048L);
+        assertThat(taskJpaRepository.findOrderPositionsBefore(
+                3072, taskEntity3.getId(), taskEntity2.getId(), PageRequest.ofSize(1)
+        )).containsExactly(1024L);
+        assertThat(taskJpaRepository.findOrderPositionsBefore(
+                1024, taskEntity1.getId(), 0L, PageRequest.ofSize(1)
+        )).isEmpty();
+        assertThat(taskJpaRepository.findOrderPositionsAfter(
+                1024, taskEntity1.getId(), taskEntity2.getId(), PageRequest.ofSize(1)
+        )).containsExactly(3072L);
+    }
+
+    @Test
+    @DisplayName("should find tasks matching only the given criteria, in the given order")
+    void shouldFindAllMatchingSpecification() {
+        final LocalDateTime dueDate = LocalDateTime.parse("2025-02-24T13:30:00");
+        final TaskEntity taskEntity1 = taskJpaRepository.save(new TaskEntity("b", true, 1, dueDate.plusDays(1)));
+        final TaskEntity taskEntity2 = taskJpaRepository.save(new TaskEntity("a", false, 2, null));
+        final TaskEntity taskEntity3 = taskJpaRepository.save(new TaskEntity("c", false, 3, dueDate));
+        taskJpaRepository.flush();
+
+        assertThat(taskJpaRepository.findAll(
+                TaskSpecifications.matching(new TaskFilter(null, null, null, null))
+                        .and(TaskSpecifications.sortedBy(TaskSort.DUE_DATE))
+        )).containsExactly(taskEntity3, taskEntity1, taskEntity2);
+        assertThat(taskJpaRepository.findAll(
+                TaskSpecifications.matching(new TaskFilter(null, false, null, null))
+                        .and(TaskSpecifications.sortedBy(TaskSort.TITLE))
+        )).containsExactly(taskEntity2, taskEntity3);
+        assertThat(taskJpaRepository.findAll(
+                TaskSpecifications.matching(new TaskFilter(null, null, dueDate, dueDate.plusDays(1)))
+                        .and(TaskSpecifications.sortedBy(TaskSort.ORDER))
+        )).containsExactly(taskEntity3);
+    }
+
+    @Test
+    @DisplayName("should reject a task with a taken title")
+    void shouldRejectDuplicatedTitle() {
+        taskJpaRepository.saveAndFlush(new TaskEntity("title", false, 1, LocalDateTime.now()));
+
+        assertThatThrownBy(() -> taskJpaRepository.saveAndFlush(new TaskEntity("title", false, 2, LocalDateTime.now())))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    @DisplayName("should find taken titles among given titles")
+    void shouldFindTitlesIn() {
+        taskJpaRepository.save(new TaskEntity("title 1", false, 1, LocalDateTime.now()));
+        taskJpaRepository.save(new TaskEntity("title 2", false, 2, LocalDateTime.now()));
+
+        assertThat(taskJpaRepository.findTitlesIn(List.of("title 2", "title 3")))
+                .containsExactly("title 2");
+    }
+
+    @Test
+    @DisplayName("should seek tasks after a given position")
+    void shouldFindAllTasksAfterPosition() {
+        TaskEntity taskEntity1 = taskJpaRepository.save(new TaskEntity("title 1", false, 1, LocalDateTime.now()));
+        TaskEntity taskEntity2 = taskJpaRepository.save(new TaskEntity("title 2", false, 2, LocalDateTime.now()));
+        TaskEntity taskEntity3 = taskJpaRepository.save(new TaskEntity("title 3", false, 2, LocalDateTime.now()));
+        TaskEntity taskEntity4 = taskJpaRepository.save(new TaskEntity("title 4", false, 3, LocalDateTime.now()));
+
+        List<TaskEntity> firstPage = taskJpaRepository.findAllByOrderByOrderPositionAscIdAsc(PageRequest.ofSize(2));
+        List<TaskEntity> secondPage = taskJpaRepository.findAllAfter(
+                taskEntity2.getOrderPosition(),
+                taskEntity2.getId(),
+                PageRequest.ofSize(2)
+        );
+
+        assertThat(firstPage).extracting(TaskEntity::getId)
+                .containsExactly(taskEntity1.getId(), taskEntity2.getId());
+        assertThat(secondPage).extracting(TaskEntity::getId)
+                .containsExactly(taskEntity3.getId(), taskEntity4.getId());
+    }
+
 }
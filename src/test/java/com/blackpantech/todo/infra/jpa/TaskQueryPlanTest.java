@@ -0,0 +1,59 @@
+package com.blackpantech.todo.infra.jpa;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+public class TaskQueryPlanTest {
+
+    private static final String SELECT_TASKS =
+            "select ID, TITLE, COMPLETED, ORDER_POSITION, DUE_DATE, VERSION from TASKS ";
+
+    @Autowired
+    TaskJpaRepository taskJpaRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @BeforeEach
+    void createTasks() {
+        final LocalDateTime dueDate = LocalDateTime.parse("2025-02-24T13:30:00");
+        for (int index = 1; index <= 200; index++) {
+            taskJpaRepository.save(new TaskEntity(
+                    "title " + index,
+                    index % 2 == 0,
+                    index * 1024L,
+                    index % 3 == 0 ? null : dueDate.plusDays(index)
+            ));
+        }
+        taskJpaRepository.flush();
+    }
+
+    // Same clauses as generated by Hibernate for TaskSpecifications, on the schema migrated by Flyway
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', quoteCharacter = '"', value = {
+            "order by ORDER_POSITION, ID | IDX_TASKS_ORDER_POSITION_ID",
+            "where COMPLETED = TRUE order by ORDER_POSITION, ID | IDX_TASKS_COMPLETED_ORDER_POSITION",
+            "where DUE_DATE >= TIMESTAMP '2025-03-01 00:00:00' and DUE_DATE < TIMESTAMP '2025-04-01 00:00:00' "
+                    + "order by ORDER_POSITION, ID | IDX_TASKS_DUE_DATE_ID",
+            "order by DUE_DATE nulls last, ID | IDX_TASKS_DUE_DATE_ID",
+            "order by TITLE | UK_TASKS_TITLE",
+            "where CHANGE_VERSION > 1000 order by CHANGE_VERSION | IDX_TASKS_CHANGE_VERSION"
+    })
+    @DisplayName("should serve filtered and sorted task queries with an index")
+    void shouldUseIndex(final String clauses, final String index) {
+        final Object plan = entityManager.createNativeQuery("explain " + SELECT_TASKS + clauses).getSingleResult();
+
+        assertThat(plan.toString()).contains(index);
+    }
+
+}
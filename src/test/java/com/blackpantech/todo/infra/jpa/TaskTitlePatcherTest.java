@@ -0,0 +1,83 @@
+package com.blackpantech.todo.infra.jpa;
+
+import com.blackpantech.todo.domain.task.TaskPatch;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import(TaskTitlePatcher.class)
+public class TaskTitlePatcherTest {
+
+    @Autowired
+    TaskJpaRepository taskJpaRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TaskTitlePatcher taskTitlePatcher;
+
+    @Test
+    @DisplayName("should patch a task with a single update giving back its previous title")
+    void shouldPatchTask() {
+        final long id = taskJpaRepository.saveAndFlush(new TaskEntity("previous title", false, 1L, null)).getId();
+        final LocalDateTime dueDate = LocalDateTime.parse("2025-02-24T13:30:00");
+
+        assertThat(taskTitlePatcher.patch(id, new TaskPatch("title", true, null, dueDate, true), 7L))
+                .contains("previous title");
+
+        final Map<String, Object> row = jdbcTemplate.queryForMap(
+                "select TITLE, COMPLETED, ORDER_POSITION, VERSION, CHANGE_VERSION from TASKS where ID = ?", id
+        );
+        assertThat(row).containsEntry("TITLE", "title")
+                .containsEntry("COMPLETED", true)
+                .containsEntry("ORDER_POSITION", 1L)
+                .containsEntry("VERSION", 1L)
+                .containsEntry("CHANGE_VERSION", 7L);
+        assertThat(jdbcTemplate.queryForObject("select DUE_DATE from TASKS where ID = ?", LocalDateTime.class, id))
+                .isEqualTo(dueDate);
+    }
+
+    @Test
+    @DisplayName("should give back nothing when the task to patch is missing")
+    void shouldNotFindTask() {
+        assertThat(taskTitlePatcher.patch(1L, new TaskPatch("title", null, null, null, false), 7L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should patch a task at the expected version only, with a single update")
+    void shouldPatchTaskIfVersion() {
+        final long id = taskJpaRepository.saveAndFlush(new TaskEntity("previous title", false, 1L, null)).getId();
+        final TaskPatch taskPatch = new TaskPatch("title", true, 2L, null, true);
+
+        assertThat(taskTitlePatcher.patchIfVersion(id, 1L, taskPatch, 7L)).isEmpty();
+        assertThat(taskTitlePatcher.patchIfVersion(id, 0L, taskPatch, 7L)).contains("previous title");
+        assertThat(taskTitlePatcher.patchIfVersion(id, 0L, taskPatch, 8L)).isEmpty();
+
+        assertThat(jdbcTemplate.queryForMap("select TITLE, VERSION from TASKS where ID = ?", id))
+                .containsEntry("TITLE", "title")
+                .containsEntry("VERSION", 1L);
+    }
+
+    @Test
+    @DisplayName("should fail to patch a task with a taken title")
+    void shouldFindExistingTitle() {
+        taskJpaRepository.saveAndFlush(new TaskEntity("title", false, 1L, null));
+        final long id = taskJpaRepository.saveAndFlush(new TaskEntity("previous title", false, 2L, null)).getId();
+
+        assertThatThrownBy(() -> taskTitlePatcher.patch(id, new TaskPatch("title", null, null, null, false), 7L))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+}
@@ -0,0 +1,173 @@
+package com.blackpantech.todo.infra.jpa;
+
+import com.blackpantech.todo.domain.task.TaskChangeVersions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TrigramTitleIndexTest {
+
+    @Mock
+    final TaskJpaRepository taskJpaRepository = mock(TaskJpaRepository.class);
+
+    final TrigramTitleIndex titleIndex = new TrigramTitleIndex(
+            taskJpaRepository,
+            new TaskChangeVersions(Duration.ZERO, Duration.ofDays(30)),
+            mock(PlatformTransactionManager.class),
+            Duration.ofSeconds(5)
+    );
+
+    @Test
+    @DisplayName("should find titles containing the query ignoring case, starting with it first, then shorter ones")
+    void shouldSearchTitles() {
+        titleIndex.put(1L, "Buy some milk");
+        titleIndex.put(2L, "Milk the cow");
+        titleIndex.put(3L, "buy MILK");
+        titleIndex.put(4L, "Walk the dog");
+        titleIndex.put(5L, "milkshake");
+
+        assertEquals(List.of(5L, 2L, 3L, 1L), titleIndex.search("milk", 10));
+        assertEquals(List.of(5L, 2L), titleIndex.search("MILK", 2));
+        assertEquals(List.of(3L, 1L), titleIndex.search("buy", 10));
+        assertEquals(List.of(), titleIndex.search("milk the dog", 10));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "k", "lk", "LK"})
+    @DisplayName("should find no title for a query shorter than a trigram, rather than scanning all titles")
+    void shouldNotSearchTitles_withShortQuery(final String query) {
+        titleIndex.put(1L, "milk");
+        titleIndex.put(2L, "dog");
+        titleIndex.put(3L, "walk");
+
+        assertEquals(List.of(), titleIndex.search(query, 10));
+    }
+
+    @Test
+    @DisplayName("should only find a task under its latest title")
+    void shouldReplaceTitle() {
+        titleIndex.put(1L, "old title");
+        titleIndex.put(1L, "new title");
+
+        assertEquals(List.of(), titleIndex.search("old", 10));
+        assertEquals(List.of(1L), titleIndex.search("new", 10));
+        assertEquals(1, titleIndex.size());
+    }
+
+    @Test
+    @DisplayName("should not find removed or cleared titles")
+    void shouldRemoveTitles() {
+        titleIndex.put(1L, "title 1");
+        titleIndex.put(2L, "title 2");
+
+        titleIndex.remove(1L);
+        assertEquals(List.of(2L), titleIndex.search("title", 10));
+
+        titleIndex.clear();
+        assertEquals(List.of(), titleIndex.search("title", 10));
+        assertEquals(0, titleIndex.size());
+    }
+
+    @Test
+    @DisplayName("should find the same titles as a scan after many random writes")
+    void shouldMatchScan_afterRandomWrites() {
+        final Random random = new Random(42L);
+        final String[] words = {"buy", "milk", "walk", "dog", "call", "mum", "pay", "bills"};
+        final String[] titles = new String[500];
+
+        for (int write = 0; write < 5_000; write++) {
+            final int id = random.nextInt(titles.length);
+            if (random.nextInt(4) == 0) {
+                titleIndex.remove(id);
+                titles[id] = null;
+            } else {
+                titles[id] = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)];
+                titleIndex.put(id, titles[id]);
+            }
+        }
+
+        for (final String query : List.of("milk", "lk w", "ay b", "dog", "s b", "mum call")) {
+            final List<Long> expectedIds = LongStream.range(0, titles.length)
+                    .filter(id -> titles[(int) id] != null && titles[(int) id].contains(query))
+                    .boxed()
+                    .sorted()
+                    .toList();
+
+            assertEquals(
+                    expectedIds,
+                    titleIndex.search(query, titles.length).stream().sorted().toList(),
+                    query
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("should rebuild from database, keeping the titles written meanwhile")
+    void shouldRebuildFromDatabase() {
+        titleIndex.put(9L, "deleted title");
+        when(taskJpaRepository.streamAllIdsAndTitles()).thenReturn(Stream.of(1).flatMap(query -> {
+            // Written after the rows were read, before they are indexed
+            titleIndex.put(2L, "written title");
+
+            return Stream.of(new TaskTitle(1L, "title 1"), new TaskTitle(2L, "read title"));
+        }));
+
+        titleIndex.rebuild();
+
+        assertEquals(List.of(1L), titleIndex.search("title 1", 10));
+        assertEquals(List.of(2L), titleIndex.search("written", 10));
+        assertEquals(List.of(), titleIndex.search("read", 10));
+        assertEquals(List.of(), titleIndex.search("deleted", 10));
+    }
+
+    @Test
+    @DisplayName("should apply the titles changed and the tasks deleted on any node since the last refresh")
+    void shouldRefreshFromChangeVersions() {
+        when(taskJpaRepository.findTasksVersion()).thenReturn(10L, 15L);
+        when(taskJpaRepository.streamAllIdsAndTitles())
+                .thenReturn(Stream.of(new TaskTitle(1L, "title 1"), new TaskTitle(2L, "title 2")));
+        titleIndex.rebuild();
+        when(taskJpaRepository.streamTitlesChangedBetween(10L, 15L))
+                .thenReturn(Stream.of(new TaskTitle(1L, "renamed"), new TaskTitle(3L, "title 3")));
+        when(taskJpaRepository.findIdsDeletedBetween(10L, 15L)).thenReturn(List.of(2L));
+
+        titleIndex.refresh();
+
+        assertEquals(List.of(3L), titleIndex.search("title", 10));
+        assertEquals(List.of(1L), titleIndex.search("renamed", 10));
+        verify(taskJpaRepository, times(1)).streamAllIdsAndTitles();
+    }
+
+    @Test
+    @DisplayName("should rebuild instead of refreshing once the tombstones since the last refresh were compacted")
+    void shouldRebuild_whenTombstonesCompacted() {
+        when(taskJpaRepository.findTasksVersion()).thenReturn(10L, 15L);
+        when(taskJpaRepository.streamAllIdsAndTitles())
+                .thenReturn(Stream.of(new TaskTitle(1L, "title 1")), Stream.of(new TaskTitle(3L, "title 3")));
+        titleIndex.rebuild();
+        when(taskJpaRepository.findChangeHorizon()).thenReturn(12L);
+
+        titleIndex.refresh();
+
+        assertEquals(List.of(3L), titleIndex.search("title", 10));
+        verify(taskJpaRepository, never()).streamTitlesChangedBetween(anyLong(), anyLong());
+    }
+
+}
@@ -0,0 +1,399 @@
+package com.blackpantech.todo.infra.memory;
+
+import com.blackpantech.todo.domain.task.MovePosition;
+import com.blackpantech.todo.domain.task.Task;
+import com.blackpantech.todo.domain.task.TaskBulkUpdate;
+import com.blackpantech.todo.domain.task.TaskChangeVersions;
+import com.blackpantech.todo.domain.task.TaskChanges;
+import com.blackpantech.todo.domain.task.TaskFilter;
+import com.blackpantech.todo.domain.task.TaskPage;
+import com.blackpantech.todo.domain.task.TaskEdit;
+import com.blackpantech.todo.domain.task.TaskPatch;
+import com.blackpantech.todo.domain.task.TaskSort;
+import com.blackpantech.todo.domain.task.TaskToCreate;
+import com.blackpantech.todo.domain.task.exceptions.DuplicatedTaskTitleException;
+import com.blackpantech.todo.domain.task.exceptions.OrderGapExhaustedException;
+import com.blackpantech.todo.domain.task.exceptions.TaskNotFoundException;
+import com.blackpantech.todo.domain.task.exceptions.TaskVersionMismatchException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InMemoryTaskRepositoryTest {
+
+    final InMemoryTaskRepository inMemoryTaskRepository = new InMemoryTaskRepository();
+
+    @Test
+    @DisplayName("should create and get a task")
+    void shouldCreateTask() throws DuplicatedTaskTitleException, TaskNotFoundException {
+        final LocalDateTime dueDate = LocalDateTime.parse("2025-08-23T22:00:00");
+
+        final Task createdTask = inMemoryTaskRepository.createTask("title", dueDate);
+
+        assertEquals(new Task(1L, "title", false, 1024L, dueDate, 0L), createdTask);
+        assertEquals(createdTask, inMemoryTaskRepository.getTask(1L));
+    }
+
+    @Test
+    @DisplayName("should not create a task with a taken title")
+    void shouldFindExistingTitle_whenCreateTask() throws DuplicatedTaskTitleException {
+        inMemoryTaskRepository.createTask("title", null);
+
+        assertThrows(DuplicatedTaskTitleException.class, () -> inMemoryTaskRepository.createTask("title", null));
+    }
+
+    @Test
+    @DisplayName("should not create any task when a title is given twice")
+    void shouldFindDuplicatedTitle_whenCreateTasks() {
+        assertThrows(DuplicatedTaskTitleException.class, () -> inMemoryTaskRepository.createTasks(List.of(
+                new TaskToCreate("title 1", null),
+                new TaskToCreate("title 2", null),
+                new TaskToCreate("title 1", null)
+        )));
+
+        assertEquals(List.of(), inMemoryTaskRepository.getAllTasks());
+    }
+
+    @Test
+    @DisplayName("should edit a task, free its previous title and change its version")
+    void shouldEditTask() throws DuplicatedTaskTitleException, TaskNotFoundException {
+        final Task task = inMemoryTaskRepository.createTask("title", null);
+        final long tasksVersion = inMemoryTaskRepository.getTasksVersion();
+
+        final Task editedTask = inMemoryTaskRepository.editTask(task.id(), "edited title", true, 5000L, null);
+
+        assertEquals(new Task(task.id(), "edited title", true, 5000L, null, 1L), editedTask);
+        assertEquals(1L, inMemoryTaskRepository.getTaskVersion(task.id()));
+        assertNotEquals(tasksVersion, inMemoryTaskRepository.getTasksVersion());
+        assertEquals(6024L, inMemoryTaskRepository.createTask("title", null).order());
+    }
+
+    @Test
+    @DisplayName("should not edit a task with a taken title")
+    void shouldFindExistingTitle_whenEditTask() throws DuplicatedTaskTitleException {
+        inMemoryTaskRepository.createTask("title 1", null);
+        final Task task = inMemoryTaskRepository.createTask("title 2", null);
+
+        assertThrows(DuplicatedTaskTitleException.class,
+                () -> inMemoryTaskRepository.editTask(task.id(), "title 1", false, 2L, null));
+    }
+
+    @Test
+    @DisplayName("should not find task when getting, editing or deleting a single task")
+    void shouldNotFindTask() {
+        assertThrows(TaskNotFoundException.class, () -> inMemoryTaskRepository.getTask(1L));
+        assertThrows(TaskNotFoundException.class,
+                () -> inMemoryTaskRepository.editTask(1L, "title", false, 1L, null));
+        assertThrows(TaskNotFoundException.class, () -> inMemoryTaskRepository.deleteTask(1L));
+    }
+
+    @Test
+    @DisplayName("should get all tasks sorted by position in list")
+    void shouldGetAllTasks() throws DuplicatedTaskTitleException, TaskNotFoundException {
+        final Task task1 = inMemoryTaskRepository.createTask("title 1", null);
+        final Task task2 = inMemoryTaskRepository.createTask("title 2", null);
+        final Task task3 = inMemoryTaskRepository.createTask("title 3", null);
+        final Task editedTask1 = inMemoryTaskRepository.editTask(task1.id(), "title 1", false, 4000L, null);
+        inMemoryTaskRepository.deleteTask(task2.id());
+
+        assertEquals(List.of(task3, editedTask1), inMemoryTaskRepository.getAllTasks());
+    }
+
+    @Test
+    @DisplayName("should get the tasks matching a filter in a given order")
+    void shouldFindTasks() throws DuplicatedTaskTitleException, TaskNotFoundException {
+        final LocalDateTime dueDate = LocalDateTime.parse("2025-02-24T13:30:00");
+        final Task task1 = inMemoryTaskRepository.createTask("b", dueDate.plusDays(1));
+        final Task task2 = inMemoryTaskRepository.createTask("a", null);
+        final Task task3 = inMemoryTaskRepository.createTask("c", dueDate);
+        final Task completedTask1 =
+                inMemoryTaskRepository.editTask(task1.id(), "b", true, task1.order(), task1.dueDate());
+
+        assertEquals(List.of(task3, completedTask1, task2),
+                inMemoryTaskRepository.findTasks(new TaskFilter(null, null, null, null), TaskSort.DUE_DATE));
+        assertEquals(List.of(task2, completedTask1, task3),
+                inMemoryTaskRepository.findTasks(new TaskFilter(null, null, null, null), TaskSort.TITLE));
+        assertEquals(List.of(task2, task3),
+                inMemoryTaskRepository.findTasks(new TaskFilter(null, false, null, null), TaskSort.ORDER));
+        assertEquals(List.of(task3), inMemoryTaskRepository.findTasks(
+                new TaskFilter(null, null, dueDate, dueDate.plusDays(1)),
+                TaskSort.ORDER
+        ));
+    }
+
+    @Test
+    @DisplayName("should search tasks by title ignoring case, titles starting with the query first")
+    void shouldSearchTasks() throws DuplicatedTaskTitleException {
+        final Task task1 = inMemoryTaskRepository.createTask("Buy some milk", null);
+        final Task task2 = inMemoryTaskRepository.createTask("Milk the cow", null);
+        final Task task3 = inMemoryTaskRepository.createTask("buy MILK", null);
+        inMemoryTaskRepository.createTask("Walk the dog", null);
+
+        assertEquals(List.of(task2, task3, task1), inMemoryTaskRepository.searchTasks("milk", 10));
+        assertEquals(List.of(task2), inMemoryTaskRepository.searchTasks("MILK", 1));
+    }
+
+    @Test
+    @DisplayName("should get pages of tasks")
+    void shouldGetTasksPage() throws DuplicatedTaskTitleException {
+        final List<Task> tasks = inMemoryTaskRepository.createTasks(List.of(
+                new TaskToCreate("title 1", null),
+                new TaskToCreate("title 2", null),
+                new TaskToCreate("title 3", null)
+        ));
+
+        final TaskPage firstPage = inMemoryTaskRepository.getTasksPage(null, 2);
+        final TaskPage lastPage = inMemoryTaskRepository.getTasksPage(firstPage.next(), 2);
+
+        assertEquals(tasks.subList(0, 2), firstPage.tasks());
+        assertEquals(tasks.subList(2, 3), lastPage.tasks());
+        assertNull(lastPage.next());
+    }
+
+    @Test
+    @DisplayName("should delete all completed tasks and free their titles")
+    void shouldDeleteAllCompletedTasks() throws DuplicatedTaskTitleException, TaskNotFoundException {
+        final Task task1 = inMemoryTaskRepository.createTask("title 1", null);
+        final Task task2 = inMemoryTaskRepository.createTask("title 2", null);
+        inMemoryTaskRepository.editTask(task1.id(), "title 1", true, 1L, null);
+
+        inMemoryTaskRepository.deleteAllCompletedTasks();
+
+        assertEquals(List.of(task2), inMemoryTaskRepository.getAllTasks());
+        assertThrows(TaskNotFoundException.class, () -> inMemoryTaskRepository.getTask(task1.id()));
+        inMemoryTaskRepository.createTask("title 1", null);
+    }
+
+    @Test
+    @DisplayName("should create tasks concurrently with unique IDs and positions")
+    void shouldCreateTasksConcurrently() throws Exception {
+        try (final ExecutorService executorService = Executors.newFixedThreadPool(8)) {
+            final List<Future<Task>> futures = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                final String title = "title " + i;
+                futures.add(executorService.submit(() -> inMemoryTaskRepository.createTask(title, null)));
+            }
+            for (final Future<Task> future : futures) {
+                final Task task = future.get();
+                assertEquals(task, inMemoryTaskRepository.getTask(task.id()));
+            }
+        }
+
+        final List<Task> tasks = inMemoryTaskRepository.getAllTasks();
+        assertEquals(2000, tasks.size());
+        assertEquals(2000, tasks.stream().mapToLong(Task::order).distinct().count());
+    }
+
+    @Test
+    @DisplayName("should count all tasks and completed tasks")
+    void shouldCountTasks() throws TaskNotFoundException, DuplicatedTaskTitleException {
+        final Task task = inMemoryTaskRepository.createTask("title 1", null);
+        inMemoryTaskRepository.createTask("title 2", null);
+        inMemoryTaskRepository.editTask(task.id(), "title 1", true, task.order(), null);
+
+        assertEquals(2L, inMemoryTaskRepository.countTasks());
+        assertEquals(1L, inMemoryTaskRepository.countCompletedTasks());
+    }
+
+    @Test
+    @DisplayName("should patch only the given properties of a task")
+    void shouldPatchTask() throws TaskNotFoundException, DuplicatedTaskTitleException {
+        final LocalDateTime dueDate = LocalDateTime.parse("2025-02-24T13:30:00");
+        final Task task = inMemoryTaskRepository.createTask("title", dueDate);
+
+        inMemoryTaskRepository.patchTask(task.id(), new TaskPatch(null, true, null, null, false));
+
+        assertEquals(new Task(task.id(), "title", true, task.order(), dueDate, 1L),
+                inMemoryTaskRepository.getTask(task.id()));
+
+        inMemoryTaskRepository.patchTask(task.id(), new TaskPatch(null, null, null, null, true));
+
+        assertNull(inMemoryTaskRepository.getTask(task.id()).dueDate());
+        assertThrows(TaskNotFoundException.class,
+                () -> inMemoryTaskRepository.patchTask(42L, new TaskPatch(null, true, null, null, false)));
+    }
+
+    @Test
+    @DisplayName("should patch a task only at the expected version")
+    void shouldPatchTask_withExpectedVersion()
+            throws TaskNotFoundException, DuplicatedTaskTitleException, TaskVersionMismatchException {
+        final Task task = inMemoryTaskRepository.createTask("title", null);
+        final TaskPatch taskPatch = new TaskPatch(null, true, null, null, false);
+
+        inMemoryTaskRepository.patchTask(task.id(), taskPatch, 0L);
+
+        assertEquals(new Task(task.id(), "title", true, task.order(), null, 1L),
+                inMemoryTaskRepository.getTask(task.id()));
+        assertThrows(TaskVersionMismatchException.class,
+                () -> inMemoryTaskRepository.patchTask(task.id(), taskPatch, 0L));
+        assertThrows(TaskNotFoundException.class,
+                () -> inMemoryTaskRepository.patchTask(42L, taskPatch, 0L));
+    }
+
+    @Test
+    @DisplayName("should write the edits of tasks still at the version they were edited from")
+    void shouldSaveTaskEdits() throws TaskNotFoundException, DuplicatedTaskTitleException {
+        final LocalDateTime dueDate = LocalDateTime.parse("2025-02-24T13:30:00");
+        final Task task1 = inMemoryTaskRepository.createTask("title 1", null);
+        final Task task2 = inMemoryTaskRepository.createTask("title 2", null);
+
+        final List<Long> unsavedIds = inMemoryTaskRepository.saveTaskEdits(List.of(
+                new TaskEdit(task1.id(), true, 42L, dueDate, 0L, 3L),
+                new TaskEdit(task2.id(), true, 42L, dueDate, 1L, 3L),
+                new TaskEdit(42L, true, 42L, dueDate, 0L, 3L)
+        ));
+
+        assertEquals(List.of(task2.id(), 42L), unsavedIds);
+        assertEquals(new Task(task1.id(), "title 1", true, 42L, dueDate, 3L),
+                inMemoryTaskRepository.getTask(task1.id()));
+        assertEquals(task2, inMemoryTaskRepository.getTask(task2.id()));
+    }
+
+    @Test
+    @DisplayName("should complete and postpone tasks matching a filter")
+    void shouldUpdateTasks() throws TaskNotFoundException, DuplicatedTaskTitleException {
+        final LocalDateTime dueDate = LocalDateTime.parse("2025-02-24T13:30:00");
+        final Task task1 = inMemoryTaskRepository.createTask("title 1", dueDate);
+        final Task task2 = inMemoryTaskRepository.createTask("title 2", null);
+        final Task task3 = inMemoryTaskRepository.createTask("title 3", dueDate);
+        inMemoryTaskRepository.editTask(task3.id(), "title 3", true, task3.order(), dueDate);
+
+        assertEquals(2L, inMemoryTaskRepository.updateTasks(
+                new TaskFilter(null, false, null, null),
+                new TaskBulkUpdate(true, Duration.ofDays(1))
+        ));
+
+        assertEquals(new Task(task1.id(), "title 1", true, task1.order(), dueDate.plusDays(1), 1L),
+                inMemoryTaskRepository.getTask(task1.id()));
+        assertEquals(new Task(task2.id(), "title 2", true, task2.order(), null, 1L),
+                inMemoryTaskRepository.getTask(task2.id()));
+        assertEquals(dueDate, inMemoryTaskRepository.getTask(task3.id()).dueDate());
+        assertEquals(3, inMemoryTaskRepository.getAllTasks().size());
+        assertEquals(1L, inMemoryTaskRepository.updateTasks(
+                new TaskFilter(List.of(task1.id(), task1.id(), 42L), null, null, null),
+                new TaskBulkUpdate(false, null)
+        ));
+    }
+
+    @Test
+    @DisplayName("should move a task halfway between its new neighbours")
+    void shouldMoveTask() throws DuplicatedTaskTitleException, TaskNotFoundException, OrderGapExhaustedException {
+        final List<Task> tasks = inMemoryTaskRepository.createTasks(List.of(
+                new TaskToCreate("title 1", null),
+                new TaskToCreate("title 2", null),
+                new TaskToCreate("title 3", null)
+        ));
+
+        inMemoryTaskRepository.moveTask(tasks.get(2).id(), tasks.get(0).id(), MovePosition.AFTER);
+        inMemoryTaskRepository.moveTask(tasks.get(1).id(), tasks.get(0).id(), MovePosition.BEFORE);
+
+        assertEquals(List.of(tasks.get(1).id(), tasks.get(0).id(), tasks.get(2).id()),
+                inMemoryTaskRepository.getAllTasks().stream().map(Task::id).toList());
+        assertEquals(512L, inMemoryTaskRepository.getTask(tasks.get(1).id()).order());
+        assertEquals(1536L, inMemoryTaskRepository.getTask(tasks.get(2).id()).order());
+        assertEquals(1L, inMemoryTaskRepository.getTaskVersion(tasks.get(2).id()));
+    }
+
+    @Test
+    @DisplayName("should find no free position once the gap is used up, until positions are rebalanced")
+    void shouldRebalanceTaskOrders_whenGapExhausted()
+            throws DuplicatedTaskTitleException, TaskNotFoundException, OrderGapExhaustedException {
+        final InMemoryTaskRepository narrowInMemoryTaskRepository = new InMemoryTaskRepository(2L);
+        final Task task1 = narrowInMemoryTaskRepository.createTask("title 1", null);
+        final Task task2 = narrowInMemoryTaskRepository.createTask("title 2", null);
+        final Task task3 = narrowInMemoryTaskRepository.createTask("title 3", null);
+        narrowInMemoryTaskRepository.moveTask(task3.id(), task1.id(), MovePosition.AFTER);
+
+        assertThrows(OrderGapExhaustedException.class,
+                () -> narrowInMemoryTaskRepository.moveTask(task2.id(), task1.id(), MovePosition.AFTER));
+
+        narrowInMemoryTaskRepository.rebalanceTaskOrders();
+        assertEquals(List.of(2L, 4L, 6L),
+                narrowInMemoryTaskRepository.getAllTasks().stream().map(Task::order).toList());
+        narrowInMemoryTaskRepository.moveTask(task2.id(), task1.id(), MovePosition.AFTER);
+        assertEquals(List.of(task1.id(), task2.id(), task3.id()),
+                narrowInMemoryTaskRepository.getAllTasks().stream().map(Task::id).toList());
+    }
+
+    @Test
+    @DisplayName("should get the tasks changed and the IDs deleted since a change version")
+    void shouldGetTaskChanges() throws DuplicatedTaskTitleException, TaskNotFoundException {
+        final TaskChangeVersions taskChangeVersions =
+                new TaskChangeVersions(Duration.ofSeconds(5), Duration.ofDays(30));
+        final InMemoryTaskRepository versionedInMemoryTaskRepository =
+                new InMemoryTaskRepository(1024L, taskChangeVersions);
+        final Task task1 = versionedInMemoryTaskRepository.createTask("title 1", null);
+        final Task task2 = versionedInMemoryTaskRepository.createTask("title 2", null);
+        versionedInMemoryTaskRepository.createTask("title 3", null);
+        final long since = taskChangeVersions.next();
+
+        versionedInMemoryTaskRepository.patchTask(task2.id(), new TaskPatch(null, true, null, null, false));
+        versionedInMemoryTaskRepository.deleteTask(task1.id());
+        final TaskChanges taskChanges = versionedInMemoryTaskRepository.getTaskChanges(since);
+
+        assertEquals(List.of(versionedInMemoryTaskRepository.getTask(task2.id())), taskChanges.tasks());
+        assertEquals(List.of(task1.id()), taskChanges.deletedIds());
+        assertFalse(taskChanges.reset());
+        assertEquals(since, taskChanges.version());
+    }
+
+    @Test
+    @DisplayName("should get all tasks as a reset from change version 0")
+    void shouldGetAllTasks_whenGetTaskChangesFromStart() throws DuplicatedTaskTitleException {
+        inMemoryTaskRepository.createTask("title 1", null);
+        inMemoryTaskRepository.createTask("title 2", null);
+        inMemoryTaskRepository.deleteAllTasks();
+        inMemoryTaskRepository.createTask("title 3", null);
+
+        final TaskChanges taskChanges = inMemoryTaskRepository.getTaskChanges(0L);
+
+        assertEquals(inMemoryTaskRepository.getAllTasks(), taskChanges.tasks());
+        assertEquals(List.of(), taskChanges.deletedIds());
+        assertTrue(taskChanges.reset());
+    }
+
+    @Test
+    @DisplayName("should get all tasks as a reset from a change version before all tasks were deleted")
+    void shouldGetAllTasks_whenGetTaskChangesFromBeforeDeleteAllTasks() throws DuplicatedTaskTitleException {
+        final TaskChangeVersions taskChangeVersions =
+                new TaskChangeVersions(Duration.ofSeconds(5), Duration.ofDays(30));
+        final InMemoryTaskRepository versionedInMemoryTaskRepository =
+                new InMemoryTaskRepository(1024L, taskChangeVersions);
+        versionedInMemoryTaskRepository.createTask("title 1", null);
+        final long since = taskChangeVersions.next();
+        versionedInMemoryTaskRepository.deleteAllTasks();
+        versionedInMemoryTaskRepository.createTask("title 2", null);
+
+        final TaskChanges taskChanges = versionedInMemoryTaskRepository.getTaskChanges(since);
+
+        assertEquals(versionedInMemoryTaskRepository.getAllTasks(), taskChanges.tasks());
+        assertTrue(taskChanges.reset());
+        assertFalse(versionedInMemoryTaskRepository.getTaskChanges(taskChangeVersions.next()).reset());
+    }
+
+    @Test
+    @DisplayName("should not find task when moving a task")
+    void shouldNotFindTask_whenMoveTask() throws DuplicatedTaskTitleException {
+        final Task task = inMemoryTaskRepository.createTask("title", null);
+
+        assertThrows(TaskNotFoundException.class,
+                () -> inMemoryTaskRepository.moveTask(42L, task.id(), MovePosition.BEFORE));
+        assertThrows(TaskNotFoundException.class,
+                () -> inMemoryTaskRepository.moveTask(task.id(), 42L, MovePosition.BEFORE));
+    }
+
+}
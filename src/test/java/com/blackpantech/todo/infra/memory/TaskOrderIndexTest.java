@@ -0,0 +1,68 @@
+package com.blackpantech.todo.infra.memory;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TaskOrderIndexTest {
+
+    final TaskOrderIndex taskOrderIndex = new TaskOrderIndex();
+
+    @Test
+    @DisplayName("should sort tasks by position, then by ID, across resizes")
+    void shouldGetIds() {
+        for (long id = 1000; id >= 1; id--) {
+            taskOrderIndex.add(id / 2, id);
+        }
+
+        final long[] ids = taskOrderIndex.ids();
+
+        assertEquals(1000, ids.length);
+        assertEquals(1000, taskOrderIndex.size());
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals(i + 1L, ids[i]);
+        }
+    }
+
+    @Test
+    @DisplayName("should remove only the task at the given position")
+    void shouldRemoveTask() {
+        taskOrderIndex.add(1024L, 1L);
+        taskOrderIndex.add(2048L, 2L);
+        taskOrderIndex.add(3072L, 3L);
+
+        taskOrderIndex.remove(1024L, 2L);
+        taskOrderIndex.remove(2048L, 2L);
+
+        assertArrayEquals(new long[]{1L, 3L}, taskOrderIndex.ids());
+    }
+
+    @Test
+    @DisplayName("should get the closest tasks after and before a position")
+    void shouldGetIdsAfterAndBefore() {
+        taskOrderIndex.add(1024L, 1L);
+        taskOrderIndex.add(2048L, 2L);
+        taskOrderIndex.add(2048L, 4L);
+        taskOrderIndex.add(3072L, 3L);
+
+        assertArrayEquals(new long[]{4L, 3L}, taskOrderIndex.idsAfter(2048L, 2L, 5));
+        assertArrayEquals(new long[]{1L, 2L}, taskOrderIndex.idsAfter(Long.MIN_VALUE, Long.MIN_VALUE, 2));
+        assertArrayEquals(new long[]{}, taskOrderIndex.idsAfter(3072L, 3L, 5));
+        assertArrayEquals(new long[]{2L, 1L}, taskOrderIndex.idsBefore(2048L, 4L, 2));
+        assertArrayEquals(new long[]{}, taskOrderIndex.idsBefore(1024L, 1L, 2));
+    }
+
+    @Test
+    @DisplayName("should remove all tasks")
+    void shouldClear() {
+        taskOrderIndex.add(1024L, 1L);
+
+        taskOrderIndex.clear();
+
+        assertArrayEquals(new long[]{}, taskOrderIndex.ids());
+        assertEquals(0, taskOrderIndex.size());
+    }
+
+}
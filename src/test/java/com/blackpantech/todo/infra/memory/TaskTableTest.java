@@ -0,0 +1,90 @@
+package com.blackpantech.todo.infra.memory;
+
+import com.blackpantech.todo.domain.task.Task;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class TaskTableTest {
+
+    final TaskTable taskTable = new TaskTable();
+
+    @Test
+    @DisplayName("should find every stored task across resizes")
+    void shouldGetTasks() {
+        for (long id = 1; id <= 10_000; id++) {
+            taskTable.put(task(id, 0L), id);
+        }
+
+        for (long id = 1; id <= 10_000; id++) {
+            assertEquals(task(id, 0L), taskTable.get(id));
+        }
+        assertNull(taskTable.get(10_001L));
+        assertEquals(10_000, taskTable.size());
+    }
+
+    @Test
+    @DisplayName("should replace a task with the same ID")
+    void shouldReplaceTask() {
+        taskTable.put(task(1L, 0L), 1L);
+        taskTable.put(task(1L, 1L), 1L);
+
+        assertEquals(task(1L, 1L), taskTable.get(1L));
+        assertEquals(1, taskTable.size());
+    }
+
+    @Test
+    @DisplayName("should find tasks stored after removed ones and reuse their slots")
+    void shouldRemoveTasks() {
+        for (long id = 1; id <= 1000; id++) {
+            taskTable.put(task(id, 0L), id);
+        }
+        for (long id = 1; id <= 1000; id += 2) {
+            assertEquals(task(id, 0L), taskTable.remove(id));
+        }
+        for (long id = 1001; id <= 2000; id++) {
+            taskTable.put(task(id, 0L), id);
+        }
+
+        for (long id = 1; id <= 2000; id++) {
+            if (id <= 1000 && id % 2 == 1) {
+                assertNull(taskTable.get(id));
+            } else {
+                assertEquals(task(id, 0L), taskTable.get(id));
+            }
+        }
+        assertNull(taskTable.remove(1L));
+        assertEquals(1500, taskTable.size());
+    }
+
+    @Test
+    @DisplayName("should keep the change version of each task across resizes and replacements")
+    void shouldGetChangeVersions() {
+        for (long id = 1; id <= 1000; id++) {
+            taskTable.put(task(id, 0L), id * 10);
+        }
+        taskTable.put(task(1L, 1L), 20_000L);
+        taskTable.remove(2L);
+
+        assertEquals(20_000L, taskTable.getChangeVersion(1L));
+        assertEquals(0L, taskTable.getChangeVersion(2L));
+        for (long id = 3; id <= 1000; id++) {
+            assertEquals(id * 10, taskTable.getChangeVersion(id));
+        }
+    }
+
+    /**
+     * Creates a task with given ID and version
+     *
+     * @param id task ID
+     * @param version task version
+     *
+     * @return task
+     */
+    private static Task task(final long id, final long version) {
+        return new Task(id, "title " + id, false, id, null, version);
+    }
+
+}
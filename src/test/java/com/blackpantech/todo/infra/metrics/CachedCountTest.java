@@ -0,0 +1,31 @@
+package com.blackpantech.todo.infra.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CachedCountTest {
+
+    final AtomicLong nanoClock = new AtomicLong();
+
+    final AtomicLong reads = new AtomicLong();
+
+    final CachedCount cachedCount = new CachedCount(reads::incrementAndGet, Duration.ofSeconds(30), nanoClock::get);
+
+    @Test
+    @DisplayName("should read the count once, and again once expired")
+    void shouldReadCountOncePerTtl() {
+        assertEquals(1.0, cachedCount.get());
+        nanoClock.addAndGet(Duration.ofSeconds(29).toNanos());
+        assertEquals(1.0, cachedCount.get());
+
+        nanoClock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertEquals(2.0, cachedCount.get());
+        assertEquals(2L, reads.get());
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.blackpantech.todo.infra.metrics;
+
+import com.blackpantech.todo.domain.task.TaskRepository;
+import com.blackpantech.todo.domain.task.TaskService;
+import com.blackpantech.todo.domain.task.exceptions.DuplicatedTaskTitleException;
+import com.blackpantech.todo.domain.task.exceptions.TaskNotFoundException;
+import com.blackpantech.todo.infra.http.TaskController;
+import com.blackpantech.todo.infra.http.TaskToCreateRequest;
+import com.blackpantech.todo.infra.idempotency.IdempotentTaskCreator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TaskMetricsAspectTest {
+
+    @Mock
+    final TaskRepository taskRepository = mock(TaskRepository.class);
+
+    @Mock
+    final TaskService taskService = mock(TaskService.class);
+
+    @Mock
+    final IdempotentTaskCreator idempotentTaskCreator = mock(IdempotentTaskCreator.class);
+
+    final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    final TaskMetricsAspect taskMetricsAspect = new TaskMetricsAspect(meterRegistry);
+
+    @Test
+    @DisplayName("should time service operations, whether they return or throw")
+    void shouldTimeServiceOperations() throws TaskNotFoundException {
+        when(taskRepository.countTasks()).thenReturn(2L);
+        when(taskRepository.getTask(1L)).thenThrow(new TaskNotFoundException(1L));
+        final TaskService meteredTaskService = proxy(new TaskService(taskRepository));
+
+        assertEquals(2L, meteredTaskService.countTasks());
+        assertEquals(2L, meteredTaskService.countTasks());
+        assertThrows(TaskNotFoundException.class, () -> meteredTaskService.getTask(1L));
+
+        assertEquals(2L, meterRegistry.get("tasks.service").tag("operation", "countTasks").timer().count());
+        assertEquals(1L, meterRegistry.get("tasks.service").tag("operation", "getTask").timer().count());
+    }
+
+    @Test
+    @DisplayName("should count not found and duplicated title outcomes of the controller")
+    void shouldCountControllerOutcomes() throws TaskNotFoundException, DuplicatedTaskTitleException {
+        doThrow(new TaskNotFoundException(1L)).when(taskService).deleteTask(1L);
+        when(taskService.createTask("title", null)).thenThrow(new DuplicatedTaskTitleException("title"));
+        final TaskController meteredTaskController = proxy(
+                new TaskController(taskService, idempotentTaskCreator, new ObjectMapper())
+        );
+
+        assertThrows(TaskNotFoundException.class, () -> meteredTaskController.deleteTask(1L));
+        assertThrows(DuplicatedTaskTitleException.class, () -> meteredTaskController.createTask(
+                null, new TaskToCreateRequest("title", null)
+        ));
+
+        assertEquals(1.0, meterRegistry.get("tasks.not.found").counter().count());
+        assertEquals(1.0, meterRegistry.get("tasks.duplicated.title").counter().count());
+        assertEquals(1L, meterRegistry.get("tasks.controller").tag("operation", "deleteTask").timer().count());
+    }
+
+    /**
+     * Proxies a target with the task metrics aspect
+     *
+     * @param target object to proxy
+     * @param <T> type of the target
+     *
+     * @return proxy of the target
+     */
+    private <T> T proxy(final T target) {
+        final AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(taskMetricsAspect);
+
+        return proxyFactory.getProxy();
+    }
+
+}
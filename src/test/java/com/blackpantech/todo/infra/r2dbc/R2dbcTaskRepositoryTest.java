@@ -0,0 +1,117 @@
+package com.blackpantech.todo.infra.r2dbc;
+
+import com.blackpantech.todo.domain.task.Task;
+import com.blackpantech.todo.domain.task.TaskCursor;
+import com.blackpantech.todo.domain.task.exceptions.TaskNotFoundException;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class R2dbcTaskRepositoryTest {
+
+    final ConnectionFactory connectionFactory =
+            ConnectionFactories.get("r2dbc:h2:mem:///r2dbc-task-repository?options=DB_CLOSE_DELAY=-1");
+
+    final DatabaseClient databaseClient = DatabaseClient.create(connectionFactory);
+
+    final R2dbcTaskRepository r2dbcTaskRepository = new R2dbcTaskRepository(databaseClient);
+
+    @BeforeEach
+    void createSchema() {
+        // Same tasks schema as migrated for the JPA adapter, which writes the tasks
+        databaseClient.sql("create table TASKS (ID bigint not null primary key, TITLE varchar(255), "
+                        + "COMPLETED boolean not null, ORDER_POSITION bigint not null, DUE_DATE timestamp(6), "
+                        + "VERSION bigint not null, CHANGE_VERSION bigint default 0 not null, "
+                        + "constraint UK_TASKS_TITLE unique (TITLE))")
+                .then()
+                .block();
+    }
+
+    @AfterEach
+    void dropSchema() {
+        databaseClient.sql("drop table TASKS").then().block();
+    }
+
+    @Test
+    @DisplayName("should get a single task")
+    void shouldGetTask() {
+        final Task task = new Task(1L, "title", false, 1024L, LocalDateTime.parse("2025-08-23T22:00:00"), 3L);
+        insertTask(task);
+
+        StepVerifier.create(r2dbcTaskRepository.getTask(1L))
+                .expectNext(task)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("should not find task when getting a single task")
+    void shouldNotFindTask_whenGetTask() {
+        StepVerifier.create(r2dbcTaskRepository.getTask(1L))
+                .verifyError(TaskNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("should get all tasks sorted by position, then by ID")
+    void shouldGetAllTasks() {
+        insertTask(new Task(3L, "title 3", false, 1024L, null, 0L));
+        insertTask(new Task(1L, "title 1", true, 2048L, null, 0L));
+        insertTask(new Task(2L, "title 2", false, 1024L, null, 0L));
+
+        StepVerifier.create(r2dbcTaskRepository.getAllTasks().map(Task::id))
+                .expectNext(2L, 3L, 1L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("should get pages of tasks")
+    void shouldGetTasksPage() {
+        insertTask(new Task(1L, "title 1", false, 1024L, null, 0L));
+        insertTask(new Task(2L, "title 2", false, 2048L, null, 0L));
+        insertTask(new Task(3L, "title 3", false, 3072L, null, 0L));
+
+        final TaskCursor next = r2dbcTaskRepository.getTasksPage(null, 2).block().next();
+        assertNotNull(next);
+        assertEquals(2048L, next.order());
+
+        StepVerifier.create(r2dbcTaskRepository.getTasksPage(next, 2))
+                .assertNext(taskPage -> {
+                    assertEquals(List.of("title 3"), taskPage.tasks().stream().map(Task::title).toList());
+                    assertNull(taskPage.next());
+                })
+                .verifyComplete();
+    }
+
+    /**
+     * Inserts a task as the JPA adapter would
+     *
+     * @param task task to insert
+     */
+    private void insertTask(final Task task) {
+        final DatabaseClient.GenericExecuteSpec insert = databaseClient.sql("insert into TASKS "
+                        + "(ID, TITLE, COMPLETED, ORDER_POSITION, DUE_DATE, VERSION) "
+                        + "values (:id, :title, :completed, :order, :dueDate, :version)")
+                .bind("id", task.id())
+                .bind("title", task.title())
+                .bind("completed", task.completed())
+                .bind("order", task.order())
+                .bind("version", task.version());
+
+        (task.dueDate() == null
+                ? insert.bindNull("dueDate", LocalDateTime.class)
+                : insert.bind("dueDate", task.dueDate())
+        ).then().block();
+    }
+
+}
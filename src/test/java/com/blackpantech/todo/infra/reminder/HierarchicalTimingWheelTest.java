@@ -0,0 +1,111 @@
+package com.blackpantech.todo.infra.reminder;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HierarchicalTimingWheelTest {
+
+    /**
+     * 4 slots per level, 3 levels: 64 ticks of horizon
+     */
+    final HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10L, 2, 3, 1_000L);
+
+    final List<String> expired = new ArrayList<>();
+
+    @ParameterizedTest
+    @ValueSource(longs = {1_010L, 1_035L, 1_040L, 1_170L, 1_630L})
+    @DisplayName("should expire a timer on the tick of its deadline, whatever its level")
+    void shouldExpireOnDeadline(final long deadlineMillis) {
+        assertTrue(wheel.schedule(1L, "timer", deadlineMillis));
+
+        // Rounded up to the next tick
+        final long deadlineTickMillis = (deadlineMillis + 9) / 10 * 10;
+        wheel.advanceTo(deadlineTickMillis - 1, expired::add);
+        assertTrue(expired.isEmpty());
+
+        wheel.advanceTo(deadlineTickMillis, expired::add);
+        assertEquals(List.of("timer"), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("should expire timers in deadline order")
+    void shouldExpireInDeadlineOrder() {
+        wheel.schedule(1L, "third", 1_500L);
+        wheel.schedule(2L, "first", 1_020L);
+        wheel.schedule(3L, "second", 1_090L);
+
+        wheel.advanceTo(2_000L, expired::add);
+
+        assertEquals(List.of("first", "second", "third"), expired);
+    }
+
+    @Test
+    @DisplayName("should not expire a cancelled timer")
+    void shouldNotExpire_whenCancelled() {
+        wheel.schedule(1L, "cancelled", 1_200L);
+        wheel.schedule(2L, "kept", 1_200L);
+
+        assertTrue(wheel.cancel(1L));
+        assertFalse(wheel.cancel(1L));
+        wheel.advanceTo(1_200L, expired::add);
+
+        assertEquals(List.of("kept"), expired);
+    }
+
+    @Test
+    @DisplayName("should replace the timer with the same key")
+    void shouldReplaceTimer_whenScheduleSameKey() {
+        wheel.schedule(1L, "first deadline", 1_100L);
+        wheel.schedule(1L, "second deadline", 1_300L);
+
+        wheel.advanceTo(1_200L, expired::add);
+        assertTrue(expired.isEmpty());
+        wheel.advanceTo(1_300L, expired::add);
+
+        assertEquals(List.of("second deadline"), expired);
+    }
+
+    @Test
+    @DisplayName("should expire a timer whose deadline has passed on the next tick")
+    void shouldExpireOnNextTick_whenDeadlinePassed() {
+        wheel.schedule(1L, "late", 500L);
+
+        wheel.advanceTo(1_010L, expired::add);
+
+        assertEquals(List.of("late"), expired);
+    }
+
+    @Test
+    @DisplayName("should not schedule a timer beyond the horizon")
+    void shouldNotSchedule_whenBeyondHorizon() {
+        assertEquals(630L, wheel.horizonMillis());
+
+        assertTrue(wheel.schedule(1L, "within", 1_630L));
+        assertFalse(wheel.schedule(2L, "beyond", 1_640L));
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    @DisplayName("should cancel all timers")
+    void shouldClear() {
+        wheel.schedule(1L, "timer 1", 1_050L);
+        wheel.schedule(2L, "timer 2", 1_500L);
+
+        wheel.clear();
+        wheel.advanceTo(2_000L, expired::add);
+
+        assertTrue(expired.isEmpty());
+        assertEquals(0, wheel.size());
+    }
+
+}
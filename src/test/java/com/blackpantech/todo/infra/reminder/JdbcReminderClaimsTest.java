@@ -0,0 +1,60 @@
+package com.blackpantech.todo.infra.reminder;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@JdbcTest
+public class JdbcReminderClaimsTest {
+
+    private static final LocalDateTime DUE_DATE = LocalDateTime.parse("2025-02-24T13:00:00");
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    JdbcReminderClaims reminderClaims;
+
+    @BeforeEach
+    void setUp() {
+        reminderClaims = new JdbcReminderClaims(jdbcTemplate);
+        jdbcTemplate.update(
+                "insert into TASKS (ID, TITLE, COMPLETED, ORDER_POSITION, DUE_DATE) values (?, ?, ?, ?, ?)",
+                1L, "title", false, 1L, Timestamp.valueOf(DUE_DATE)
+        );
+    }
+
+    @Test
+    @DisplayName("should claim the reminder of a task at a due date once, on the column migrated by Flyway")
+    void shouldClaimReminderOnce() {
+        assertTrue(reminderClaims.claim(1L, DUE_DATE));
+        assertFalse(reminderClaims.claim(1L, DUE_DATE));
+    }
+
+    @Test
+    @DisplayName("should claim the reminder of a task again once its due date changed")
+    void shouldClaimReminderAgain_whenDueDateChanged() {
+        reminderClaims.claim(1L, DUE_DATE);
+        jdbcTemplate.update("update TASKS set DUE_DATE = ? where ID = 1", Timestamp.valueOf(DUE_DATE.plusDays(1)));
+
+        assertFalse(reminderClaims.claim(1L, DUE_DATE));
+        assertTrue(reminderClaims.claim(1L, DUE_DATE.plusDays(1)));
+    }
+
+    @Test
+    @DisplayName("should not claim the reminder of a completed task")
+    void shouldNotClaimReminder_whenTaskCompleted() {
+        jdbcTemplate.update("update TASKS set COMPLETED = true where ID = 1");
+
+        assertFalse(reminderClaims.claim(1L, DUE_DATE));
+    }
+
+}
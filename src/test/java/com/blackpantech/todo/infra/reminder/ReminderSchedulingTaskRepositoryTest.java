@@ -0,0 +1,93 @@
+package com.blackpantech.todo.infra.reminder;
+
+import com.blackpantech.todo.domain.task.Task;
+import com.blackpantech.todo.domain.task.TaskBulkUpdate;
+import com.blackpantech.todo.domain.task.TaskFilter;
+import com.blackpantech.todo.domain.task.TaskPatch;
+import com.blackpantech.todo.domain.task.TaskRepository;
+import com.blackpantech.todo.domain.task.exceptions.DuplicatedTaskTitleException;
+import com.blackpantech.todo.domain.task.exceptions.TaskNotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+public class ReminderSchedulingTaskRepositoryTest {
+
+    private static final LocalDateTime DUE_DATE = LocalDateTime.parse("2025-02-24T13:30:00");
+
+    @Mock
+    final TaskRepository taskRepository = mock(TaskRepository.class);
+
+    @Mock
+    final TaskReminderScheduler taskReminderScheduler = mock(TaskReminderScheduler.class);
+
+    final ReminderSchedulingTaskRepository reminderSchedulingTaskRepository =
+            new ReminderSchedulingTaskRepository(taskRepository, taskReminderScheduler);
+
+    @Test
+    @DisplayName("should schedule the reminder of a created task")
+    void shouldScheduleReminder_whenCreateTask() throws DuplicatedTaskTitleException {
+        final Task task = new Task(1L, "title", false, 1L, DUE_DATE, 0L);
+        when(taskRepository.createTask("title", DUE_DATE)).thenReturn(task);
+
+        reminderSchedulingTaskRepository.createTask("title", DUE_DATE);
+
+        verify(taskReminderScheduler).taskChanged(task);
+    }
+
+    @Test
+    @DisplayName("should update the reminder of an edited task")
+    void shouldUpdateReminder_whenEditTask() throws DuplicatedTaskTitleException, TaskNotFoundException {
+        final Task task = new Task(1L, "title", true, 1L, DUE_DATE, 1L);
+        when(taskRepository.editTask(1L, "title", true, 1L, DUE_DATE)).thenReturn(task);
+
+        reminderSchedulingTaskRepository.editTask(1L, "title", true, 1L, DUE_DATE);
+
+        verify(taskReminderScheduler).taskChanged(task);
+    }
+
+    @Test
+    @DisplayName("should update the reminder of a task patched on its completion or due date only")
+    void shouldUpdateReminder_whenPatchTask() throws DuplicatedTaskTitleException, TaskNotFoundException {
+        final Task task = new Task(1L, "title", false, 1L, DUE_DATE, 1L);
+        when(taskRepository.getTask(1L)).thenReturn(task);
+
+        reminderSchedulingTaskRepository.patchTask(1L, new TaskPatch("title", null, 2L, null, false));
+        verifyNoInteractions(taskReminderScheduler);
+
+        reminderSchedulingTaskRepository.patchTask(1L, new TaskPatch(null, null, null, DUE_DATE, true));
+        verify(taskReminderScheduler).taskChanged(task);
+    }
+
+    @Test
+    @DisplayName("should reload the window when tasks are updated in bulk")
+    void shouldReloadWindow_whenUpdateTasks() {
+        final TaskFilter taskFilter = new TaskFilter(null, false, null, null);
+        final TaskBulkUpdate taskBulkUpdate = new TaskBulkUpdate(true, null);
+        when(taskRepository.updateTasks(taskFilter, taskBulkUpdate)).thenReturn(0L, 2L);
+
+        reminderSchedulingTaskRepository.updateTasks(taskFilter, taskBulkUpdate);
+        verifyNoInteractions(taskReminderScheduler);
+
+        reminderSchedulingTaskRepository.updateTasks(taskFilter, taskBulkUpdate);
+        verify(taskReminderScheduler).reloadWindow();
+    }
+
+    @Test
+    @DisplayName("should cancel reminders of deleted tasks")
+    void shouldCancelReminders_whenDeleteTasks() throws TaskNotFoundException {
+        reminderSchedulingTaskRepository.deleteTask(1L);
+        reminderSchedulingTaskRepository.deleteAllTasks();
+
+        verify(taskReminderScheduler).taskDeleted(1L);
+        verify(taskReminderScheduler).allTasksDeleted();
+    }
+
+}
@@ -0,0 +1,198 @@
+package com.blackpantech.todo.infra.reminder;
+
+import com.blackpantech.todo.domain.task.Task;
+import com.blackpantech.todo.domain.task.TaskFilter;
+import com.blackpantech.todo.domain.task.TaskRepository;
+import com.blackpantech.todo.domain.task.TaskSort;
+import com.blackpantech.todo.domain.task.exceptions.TaskNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TaskReminderSchedulerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.parse("2025-02-24T13:00:00");
+
+    @Mock
+    final TaskRepository taskRepository = mock(TaskRepository.class);
+
+    @Mock
+    final TaskDueSink taskDueSink = mock(TaskDueSink.class);
+
+    @Mock
+    final ReminderClaims reminderClaims = mock(ReminderClaims.class);
+
+    @Mock
+    final Clock clock = mock(Clock.class);
+
+    TaskReminderScheduler taskReminderScheduler;
+
+    @BeforeEach
+    void setUp() {
+        when(clock.getZone()).thenReturn(ZoneOffset.UTC);
+        setTime(NOW);
+        when(reminderClaims.claim(anyLong(), any())).thenReturn(true);
+        taskReminderScheduler = new TaskReminderScheduler(
+                taskRepository,
+                taskDueSink,
+                reminderClaims,
+                Duration.ofSeconds(1),
+                Duration.ofHours(1),
+                Duration.ofMinutes(10),
+                clock
+        );
+    }
+
+    @Test
+    @DisplayName("should load the pending tasks due within the window, or since the catch-up period, only once")
+    void shouldLoadWindow() throws TaskNotFoundException {
+        final Task task = new Task(1L, "title", false, 1L, NOW.plusMinutes(30), 0L);
+        when(taskRepository.findTasks(any(), any())).thenReturn(List.of(task));
+        when(taskRepository.getTask(1L)).thenReturn(task);
+
+        taskReminderScheduler.extendWindow();
+        setTime(NOW.plusMinutes(10));
+        taskReminderScheduler.extendWindow();
+
+        verify(taskRepository).findTasks(
+                new TaskFilter(null, false, NOW.minusMinutes(10), NOW.plusHours(1)),
+                TaskSort.DUE_DATE
+        );
+        verify(taskRepository).findTasks(
+                new TaskFilter(null, false, NOW.plusHours(1), NOW.plusMinutes(70)),
+                TaskSort.DUE_DATE
+        );
+        assertEquals(1, taskReminderScheduler.pendingReminders());
+
+        setTime(NOW.plusMinutes(30));
+        taskReminderScheduler.fireDueTasks();
+
+        verify(taskDueSink).taskDue(new TaskDueEvent(1L, "title", NOW.plusMinutes(30)));
+        assertEquals(0, taskReminderScheduler.pendingReminders());
+    }
+
+    @Test
+    @DisplayName("should fire the reminders of tasks that were overdue when loaded, on the next tick")
+    void shouldFireOverdueTasks() throws TaskNotFoundException {
+        final Task task = new Task(1L, "title", false, 1L, NOW.minusMinutes(5), 0L);
+        when(taskRepository.findTasks(any(), any())).thenReturn(List.of(task));
+        when(taskRepository.getTask(1L)).thenReturn(task);
+
+        taskReminderScheduler.extendWindow();
+        setTime(NOW.plusSeconds(1));
+        taskReminderScheduler.fireDueTasks();
+
+        verify(reminderClaims).claim(1L, NOW.minusMinutes(5));
+        verify(taskDueSink).taskDue(new TaskDueEvent(1L, "title", NOW.minusMinutes(5)));
+    }
+
+    @Test
+    @DisplayName("should not fire a reminder claimed by another node")
+    void shouldNotFire_whenReminderClaimedElsewhere() throws TaskNotFoundException {
+        final Task task = new Task(1L, "title", false, 1L, NOW.plusMinutes(10), 0L);
+        when(taskRepository.getTask(1L)).thenReturn(task);
+        when(reminderClaims.claim(1L, NOW.plusMinutes(10))).thenReturn(false);
+        taskReminderScheduler.extendWindow();
+        taskReminderScheduler.taskChanged(task);
+
+        setTime(NOW.plusMinutes(10));
+        taskReminderScheduler.fireDueTasks();
+
+        verify(taskDueSink, never()).taskDue(any());
+        assertEquals(0, taskReminderScheduler.pendingReminders());
+    }
+
+    @Test
+    @DisplayName("should schedule, move and cancel reminders of written tasks within the window")
+    void shouldFollowWrites() {
+        taskReminderScheduler.extendWindow();
+
+        taskReminderScheduler.taskChanged(new Task(1L, "title 1", false, 1L, NOW.plusMinutes(10), 0L));
+        taskReminderScheduler.taskChanged(new Task(2L, "title 2", false, 2L, NOW.plusHours(2), 0L));
+        taskReminderScheduler.taskChanged(new Task(3L, "title 3", false, 3L, NOW.minusMinutes(1), 0L));
+        taskReminderScheduler.taskChanged(new Task(4L, "title 4", true, 4L, NOW.plusMinutes(10), 0L));
+        assertEquals(1, taskReminderScheduler.pendingReminders());
+
+        taskReminderScheduler.taskChanged(new Task(1L, "title 1", true, 1L, NOW.plusMinutes(10), 1L));
+        assertEquals(0, taskReminderScheduler.pendingReminders());
+
+        taskReminderScheduler.taskChanged(new Task(1L, "title 1", false, 1L, NOW.plusMinutes(20), 2L));
+        taskReminderScheduler.taskDeleted(1L);
+        assertEquals(0, taskReminderScheduler.pendingReminders());
+    }
+
+    @Test
+    @DisplayName("should not fire a reminder for a task deleted or completed since it was scheduled")
+    void shouldNotFire_whenTaskChangedSinceScheduled() throws TaskNotFoundException {
+        taskReminderScheduler.extendWindow();
+        taskReminderScheduler.taskChanged(new Task(1L, "title 1", false, 1L, NOW.plusMinutes(10), 0L));
+        taskReminderScheduler.taskChanged(new Task(2L, "title 2", false, 2L, NOW.plusMinutes(10), 0L));
+        when(taskRepository.getTask(1L)).thenThrow(new TaskNotFoundException(1L));
+        when(taskRepository.getTask(2L)).thenReturn(new Task(2L, "title 2", true, 2L, NOW.plusMinutes(10), 1L));
+
+        setTime(NOW.plusMinutes(10));
+        taskReminderScheduler.fireDueTasks();
+
+        verify(taskDueSink, never()).taskDue(any());
+        assertEquals(0, taskReminderScheduler.pendingReminders());
+    }
+
+    @Test
+    @DisplayName("should schedule the current due date of a task scheduled from a stale read")
+    void shouldReschedule_whenDueDateChangedSinceScheduled() throws TaskNotFoundException {
+        final Task movedTask = new Task(1L, "title", false, 1L, NOW.plusMinutes(20), 1L);
+        taskReminderScheduler.extendWindow();
+        taskReminderScheduler.taskChanged(new Task(1L, "title", false, 1L, NOW.plusMinutes(10), 0L));
+        when(taskRepository.getTask(1L)).thenReturn(movedTask);
+
+        setTime(NOW.plusMinutes(10));
+        taskReminderScheduler.fireDueTasks();
+        verify(taskDueSink, never()).taskDue(any());
+
+        setTime(NOW.plusMinutes(20));
+        taskReminderScheduler.fireDueTasks();
+        verify(taskDueSink).taskDue(new TaskDueEvent(1L, "title", NOW.plusMinutes(20)));
+    }
+
+    @Test
+    @DisplayName("should load the current window again after a bulk update")
+    void shouldReloadWindow() {
+        taskReminderScheduler.extendWindow();
+        taskReminderScheduler.taskChanged(new Task(1L, "title", false, 1L, NOW.plusMinutes(10), 0L));
+        when(taskRepository.findTasks(any(), any())).thenReturn(List.of());
+
+        setTime(NOW.plusMinutes(5));
+        taskReminderScheduler.reloadWindow();
+
+        verify(taskRepository).findTasks(
+                new TaskFilter(null, false, NOW.plusMinutes(5), NOW.plusHours(1)),
+                TaskSort.DUE_DATE
+        );
+        assertEquals(0, taskReminderScheduler.pendingReminders());
+    }
+
+    /**
+     * Sets the time of the mocked clock
+     *
+     * @param now current time, in UTC
+     */
+    private void setTime(final LocalDateTime now) {
+        when(clock.millis()).thenReturn(now.toInstant(ZoneOffset.UTC).toEpochMilli());
+    }
+
+}
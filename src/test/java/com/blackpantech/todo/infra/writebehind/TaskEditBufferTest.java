@@ -0,0 +1,145 @@
+package com.blackpantech.todo.infra.writebehind;
+
+import com.blackpantech.todo.domain.task.Task;
+import com.blackpantech.todo.domain.task.TaskEdit;
+import com.blackpantech.todo.domain.task.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+public class TaskEditBufferTest {
+
+    @Mock
+    final TaskRepository taskRepository = mock(TaskRepository.class);
+
+    final TaskEditBuffer taskEditBuffer = new TaskEditBuffer(Duration.ofSeconds(1), 100);
+
+    @BeforeEach
+    void setUp() {
+        taskEditBuffer.writeTo(taskRepository);
+    }
+
+    @Test
+    @DisplayName("should coalesce the edits of a task, and write its latest state once from its first version")
+    void shouldCoalesceEdits() {
+        final Task task = new Task(1L, "title", false, 1L, null, 3L);
+        final LocalDateTime dueDate = LocalDateTime.parse("2025-02-24T13:30:00");
+        when(taskRepository.saveTaskEdits(anyList())).thenReturn(List.of());
+
+        final Task firstEdit = taskEditBuffer.edit(task, true, 1L, null, taskEditBuffer.generation());
+        final Task lastEdit = taskEditBuffer.edit(firstEdit, false, 2L, dueDate, taskEditBuffer.generation());
+
+        assertEquals(new Task(1L, "title", false, 2L, dueDate, 5L), lastEdit);
+        assertEquals(lastEdit, taskEditBuffer.get(1L));
+        assertEquals(1, taskEditBuffer.pendingTasks());
+        verifyNoInteractions(taskRepository);
+
+        taskEditBuffer.flush();
+
+        verify(taskRepository).saveTaskEdits(List.of(new TaskEdit(1L, false, 2L, dueDate, 3L, 5L)));
+        assertNull(taskEditBuffer.get(1L));
+        assertEquals(0, taskEditBuffer.pendingTasks());
+    }
+
+    @Test
+    @DisplayName("should give the edited tasks, the edit count and the completed tasks delta until edits are written")
+    void shouldTrackEdits() {
+        when(taskRepository.saveTaskEdits(anyList())).thenReturn(List.of());
+
+        final Task firstTask = taskEditBuffer.edit(
+                new Task(1L, "title 1", false, 1L, null, 3L), true, 1L, null, taskEditBuffer.generation()
+        );
+        final Task secondTask = taskEditBuffer.edit(
+                new Task(2L, "title 2", true, 2L, null, 0L), true, 3L, null, taskEditBuffer.generation()
+        );
+        taskEditBuffer.edit(firstTask, true, 2L, null, taskEditBuffer.generation());
+
+        assertEquals(Map.of(1L, new Task(1L, "title 1", true, 2L, null, 5L), 2L, secondTask),
+                taskEditBuffer.editedTasks());
+        assertEquals(3L, taskEditBuffer.editCount());
+        assertEquals(1L, taskEditBuffer.completedTasksDelta());
+        assertTrue(taskEditBuffer.isPending(1L));
+
+        taskEditBuffer.flush();
+
+        assertEquals(Map.of(), taskEditBuffer.editedTasks());
+        assertEquals(3L, taskEditBuffer.editCount());
+        assertEquals(0L, taskEditBuffer.completedTasksDelta());
+        assertFalse(taskEditBuffer.isPending(1L));
+    }
+
+    @Test
+    @DisplayName("should not edit a task read before a write which may have changed it")
+    void shouldNotEditStaleTask() {
+        final Task task = new Task(1L, "title", false, 1L, null, 3L);
+        final long generation = taskEditBuffer.generation();
+
+        taskEditBuffer.written();
+
+        assertNull(taskEditBuffer.edit(task, true, 1L, null, generation));
+        assertEquals(0, taskEditBuffer.pendingTasks());
+    }
+
+    @Test
+    @DisplayName("should keep the edits that could not be written for the next flush")
+    void shouldRetryEdits_whenWriteFails() {
+        final Task task = new Task(1L, "title", false, 1L, null, 3L);
+        when(taskRepository.saveTaskEdits(anyList()))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(List.of());
+
+        taskEditBuffer.edit(task, true, 1L, null, taskEditBuffer.generation());
+        taskEditBuffer.flush();
+
+        assertEquals(new Task(1L, "title", true, 1L, null, 4L), taskEditBuffer.get(1L));
+
+        taskEditBuffer.flush();
+
+        verify(taskRepository, times(2)).saveTaskEdits(List.of(new TaskEdit(1L, true, 1L, null, 3L, 4L)));
+        assertNull(taskEditBuffer.get(1L));
+    }
+
+    @Test
+    @DisplayName("should drop the edits of tasks changed or deleted before they were written")
+    void shouldDropEdits_whenTaskChanged() {
+        when(taskRepository.saveTaskEdits(anyList())).thenReturn(List.of(1L));
+
+        taskEditBuffer.edit(new Task(1L, "title", false, 1L, null, 3L), true, 1L, null, taskEditBuffer.generation());
+        taskEditBuffer.flush();
+
+        assertNull(taskEditBuffer.get(1L));
+        assertEquals(0, taskEditBuffer.pendingTasks());
+    }
+
+    @Test
+    @DisplayName("should write the pending edits on close")
+    void shouldFlush_whenClose() {
+        when(taskRepository.saveTaskEdits(anyList())).thenReturn(List.of());
+
+        taskEditBuffer.close();
+        taskEditBuffer.edit(new Task(1L, "title", false, 1L, null, 3L), true, 1L, null, taskEditBuffer.generation());
+        taskEditBuffer.close();
+
+        verify(taskRepository).saveTaskEdits(List.of(new TaskEdit(1L, true, 1L, null, 3L, 4L)));
+        verifyNoMoreInteractions(taskRepository);
+    }
+
+}
@@ -0,0 +1,140 @@
+package com.blackpantech.todo.infra.writebehind;
+
+import com.blackpantech.todo.domain.task.Task;
+import com.blackpantech.todo.domain.task.TaskCursor;
+import com.blackpantech.todo.domain.task.TaskEdit;
+import com.blackpantech.todo.domain.task.TaskFilter;
+import com.blackpantech.todo.domain.task.TaskPage;
+import com.blackpantech.todo.domain.task.TaskRepository;
+import com.blackpantech.todo.domain.task.TaskSort;
+import com.blackpantech.todo.domain.task.exceptions.DuplicatedTaskTitleException;
+import com.blackpantech.todo.domain.task.exceptions.TaskNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+public class WriteBehindTaskRepositoryTest {
+
+    @Mock
+    final TaskRepository taskRepository = mock(TaskRepository.class);
+
+    final TaskEditBuffer taskEditBuffer = new TaskEditBuffer(Duration.ofSeconds(1), 100);
+
+    final WriteBehindTaskRepository writeBehindTaskRepository =
+            new WriteBehindTaskRepository(taskRepository, taskEditBuffer);
+
+    @BeforeEach
+    void setUp() {
+        taskEditBuffer.writeTo(taskRepository);
+    }
+
+    @Test
+    @DisplayName("should read edits keeping the title back at once, and only write them on flush")
+    void shouldBufferEdits_whenTitleKept() throws TaskNotFoundException, DuplicatedTaskTitleException {
+        when(taskRepository.getTask(1L)).thenReturn(new Task(1L, "title", false, 1L, null, 3L));
+        when(taskRepository.saveTaskEdits(anyList())).thenReturn(List.of());
+
+        writeBehindTaskRepository.editTask(1L, "title", true, 1L, null);
+        final Task editedTask = writeBehindTaskRepository.editTask(1L, "title", false, 2L, null);
+
+        assertEquals(new Task(1L, "title", false, 2L, null, 5L), editedTask);
+        assertEquals(editedTask, writeBehindTaskRepository.getTask(1L));
+        assertEquals(5L, writeBehindTaskRepository.getTaskVersion(1L));
+        verify(taskRepository).getTask(1L);
+        verifyNoMoreInteractions(taskRepository);
+
+        taskEditBuffer.flush();
+
+        verify(taskRepository).saveTaskEdits(List.of(new TaskEdit(1L, false, 2L, null, 3L, 5L)));
+    }
+
+    @Test
+    @DisplayName("should write pending edits before writing an edit changing the title")
+    void shouldWriteThrough_whenTitleChanged() throws TaskNotFoundException, DuplicatedTaskTitleException {
+        final Task task = new Task(1L, "title", false, 1L, null, 3L);
+        when(taskRepository.getTask(1L)).thenReturn(task);
+        when(taskRepository.saveTaskEdits(anyList())).thenReturn(List.of());
+        when(taskRepository.editTask(1L, "new title", true, 1L, null))
+                .thenReturn(new Task(1L, "new title", true, 1L, null, 5L));
+
+        writeBehindTaskRepository.editTask(1L, "title", true, 1L, null);
+        writeBehindTaskRepository.editTask(1L, "new title", true, 1L, null);
+
+        final InOrder inOrder = inOrder(taskRepository);
+        inOrder.verify(taskRepository).saveTaskEdits(List.of(new TaskEdit(1L, true, 1L, null, 3L, 4L)));
+        inOrder.verify(taskRepository).editTask(1L, "new title", true, 1L, null);
+    }
+
+    @Test
+    @DisplayName("should lay pending edits over the tasks read from the repository, without writing them")
+    void shouldOverlayEdits_whenGetAllTasks() throws TaskNotFoundException, DuplicatedTaskTitleException {
+        final Task task = new Task(2L, "title 2", false, 2L, null, 0L);
+        when(taskRepository.getTask(1L)).thenReturn(new Task(1L, "title 1", false, 1L, null, 3L));
+        when(taskRepository.getAllTasks()).thenReturn(List.of(new Task(1L, "title 1", false, 1L, null, 3L), task));
+        when(taskRepository.getTasksVersion()).thenReturn(7L);
+        when(taskRepository.countCompletedTasks()).thenReturn(0L);
+
+        final Task editedTask = writeBehindTaskRepository.editTask(1L, "title 1", true, 1L, null);
+
+        assertEquals(List.of(editedTask, task), writeBehindTaskRepository.getAllTasks());
+        assertEquals(8L, writeBehindTaskRepository.getTasksVersion());
+        assertEquals(1L, writeBehindTaskRepository.countCompletedTasks());
+        verify(taskRepository, never()).saveTaskEdits(anyList());
+    }
+
+    @Test
+    @DisplayName("should move edited tasks in and out of the tasks found and re-sort them")
+    void shouldOverlayEdits_whenFindTasks() throws TaskNotFoundException, DuplicatedTaskTitleException {
+        final TaskFilter taskFilter = new TaskFilter(null, false, null, null);
+        when(taskRepository.getTask(1L)).thenReturn(new Task(1L, "title 1", true, 1L, null, 0L));
+        when(taskRepository.getTask(2L)).thenReturn(new Task(2L, "title 2", false, 2L, null, 0L));
+        when(taskRepository.findTasks(taskFilter, TaskSort.ORDER)).thenReturn(List.of(
+                new Task(2L, "title 2", false, 2L, null, 0L),
+                new Task(3L, "title 3", false, 3L, null, 0L)
+        ));
+
+        final Task uncompletedTask = writeBehindTaskRepository.editTask(1L, "title 1", false, 4L, null);
+        writeBehindTaskRepository.editTask(2L, "title 2", true, 2L, null);
+
+        assertEquals(
+                List.of(new Task(3L, "title 3", false, 3L, null, 0L), uncompletedTask),
+                writeBehindTaskRepository.findTasks(taskFilter, TaskSort.ORDER)
+        );
+        verify(taskRepository, never()).saveTaskEdits(anyList());
+    }
+
+    @Test
+    @DisplayName("should keep pages within their positions when edits move tasks")
+    void shouldOverlayEdits_whenGetTasksPage() throws TaskNotFoundException, DuplicatedTaskTitleException {
+        final TaskCursor after = new TaskCursor(1L, 1L);
+        when(taskRepository.getTask(2L)).thenReturn(new Task(2L, "title 2", false, 2L, null, 0L));
+        when(taskRepository.getTask(5L)).thenReturn(new Task(5L, "title 5", false, 5L, null, 0L));
+        when(taskRepository.getTasksPage(after, 2)).thenReturn(new TaskPage(
+                List.of(new Task(2L, "title 2", false, 2L, null, 0L), new Task(3L, "title 3", false, 3L, null, 0L)),
+                new TaskCursor(3L, 3L)
+        ));
+
+        writeBehindTaskRepository.editTask(2L, "title 2", false, 9L, null);
+        final Task movedTask = writeBehindTaskRepository.editTask(5L, "title 5", false, 2L, null);
+
+        assertEquals(
+                new TaskPage(List.of(movedTask, new Task(3L, "title 3", false, 3L, null, 0L)), new TaskCursor(3L, 3L)),
+                writeBehindTaskRepository.getTasksPage(after, 2)
+        );
+    }
+
+}